@@ -0,0 +1,75 @@
+package go.logic;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarki kopiowania i porównywania planszy ({@link Board#copyBoard}, {@link Board#equals})
+ * na pozycjach z {@link PositionCorpus}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"MIDGAME", "ENDGAME"})
+    public PositionCorpus.Phase phase;
+
+    private Board[] boards;
+
+    /** Kopie plansz z {@link #boards} - porównanie równych plansz musi sprawdzić wszystkie słowa. */
+    private Board[] copies;
+
+    private Board target;
+    private int position;
+
+    @Setup
+    public void setUp() {
+        GameState[] states = PositionCorpus.positions(phase, new GameMechanics());
+        boards = new Board[states.length];
+        copies = new Board[states.length];
+        for (int i = 0; i < states.length; i++) {
+            boards[i] = states[i].getBoard();
+            copies[i] = new Board(PositionCorpus.SIZE);
+            boards[i].copyBoard(copies[i]);
+        }
+        target = new Board(PositionCorpus.SIZE);
+    }
+
+    @Benchmark
+    public Board copyBoard() {
+        boards[next()].copyBoard(target);
+        return target;
+    }
+
+    @Benchmark
+    public boolean equalBoards() {
+        int i = next();
+        return boards[i].equals(copies[i]);
+    }
+
+    @Benchmark
+    public boolean differentBoards() {
+        int i = next();
+        return boards[i].equals(copies[i + 1 == copies.length ? 0 : i + 1]);
+    }
+
+    private int next() {
+        position = position + 1 == boards.length ? 0 : position + 1;
+        return position;
+    }
+}
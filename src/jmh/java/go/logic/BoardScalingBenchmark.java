@@ -0,0 +1,74 @@
+package go.logic;
+
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+import go.si.SmartBot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarki skalowania z rozmiarem planszy: wyznaczanie legalnych ruchów, liczenie punktów
+ * i decyzja bota na pozycjach środka gry z {@link PositionCorpus} dla każdego obsługiwanego rozmiaru.
+ * <p>
+ * Czas w przeliczeniu na pole to wynik podzielony przez {@code size * size} - przy liniowych
+ * strukturach danych powinien być dla wszystkich rozmiarów mniej więcej stały.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardScalingBenchmark {
+
+    /** Ziarno losowania bota. */
+    private static final long SEED = 42;
+
+    @Param({"9", "13", "19", "25"})
+    public int size;
+
+    private GameMechanics mechanics;
+    private SmartBot bot;
+    private GameState[] states;
+    private long[] legal;
+    private int position;
+
+    @Setup
+    public void setUp() {
+        mechanics = new GameMechanics();
+        bot = new SmartBot(mechanics, SEED);
+        states = PositionCorpus.positions(PositionCorpus.Phase.MIDGAME, mechanics, size);
+        legal = states[0].getBoard().getGeometry().newMask();
+    }
+
+    @Benchmark
+    public long[] legalMoves() {
+        mechanics.legalMoves(states[next()], Stone.BLACK, legal);
+        return legal;
+    }
+
+    @Benchmark
+    public ScoreResult calculateGameScore() {
+        return mechanics.calculateGameScore(states[next()]);
+    }
+
+    @Benchmark
+    public Point botMove() {
+        return bot.calculateBestMove(states[next()], Stone.BLACK);
+    }
+
+    private int next() {
+        position = position + 1 == states.length ? 0 : position + 1;
+        return position;
+    }
+}
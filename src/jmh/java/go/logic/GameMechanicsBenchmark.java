@@ -0,0 +1,172 @@
+package go.logic;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarki gorących ścieżek {@link GameMechanics} na pozycjach z {@link PositionCorpus}.
+ * <p>
+ * Każde wywołanie bierze kolejną pozycję i kolejny ruch z listy przygotowanej w {@link #setUp},
+ * a ruchy są cofane w tym samym wywołaniu - stan po pomiarze jest taki jak przed nim.
+ * Uruchamiane z profilerem {@code gc}, więc wynik zawiera też bajty alokowane na operację
+ * ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameMechanicsBenchmark {
+
+    @Param({"MIDGAME", "ENDGAME"})
+    public PositionCorpus.Phase phase;
+
+    private GameMechanics mechanics;
+    private GameState[] states;
+
+    /** Legalne ruchy czarnego w każdej pozycji (indeksy pól). */
+    private int[][] legalMoves;
+
+    /** Legalne ruchy czarnego, które biją kamienie (lub wszystkie legalne, jeśli w pozycji nie ma bić). */
+    private int[][] captureMoves;
+
+    /** Po jednym kamieniu z każdej grupy w każdej pozycji - punkty startowe przeszukiwania grup. */
+    private Point[][] groupStarts;
+
+    private final Set<Point> groupMembers = new HashSet<>();
+    private final Set<Point> liberties = new HashSet<>();
+    private int position;
+    private int move;
+
+    @Setup
+    public void setUp() {
+        mechanics = new GameMechanics();
+        states = PositionCorpus.positions(phase, mechanics);
+        legalMoves = new int[states.length][];
+        captureMoves = new int[states.length][];
+        groupStarts = new Point[states.length][];
+        for (int i = 0; i < states.length; i++) {
+            GameState state = states[i];
+            BoardGeometry geometry = state.getBoard().getGeometry();
+            long[] legal = mechanics.legalMoves(state, Stone.BLACK);
+
+            List<Integer> all = new ArrayList<>();
+            List<Integer> capturing = new ArrayList<>();
+            for (int index = 0; index < geometry.getPoints(); index++) {
+                if (!BoardGeometry.contains(legal, index)) continue;
+                all.add(index);
+                int before = state.getBlackCaptures();
+                mechanics.makeMove(state, geometry.xOf(index), geometry.yOf(index), Stone.BLACK);
+                if (state.getBlackCaptures() > before) capturing.add(index);
+                mechanics.undoMove(state);
+            }
+            legalMoves[i] = toArray(all);
+            captureMoves[i] = capturing.isEmpty() ? legalMoves[i] : toArray(capturing);
+            groupStarts[i] = groupStarts(state.getBoard());
+        }
+    }
+
+    /** Sprawdzenie legalności z wykonaniem ruchu (jak na serwerze) i jego cofnięcie. */
+    @Benchmark
+    public boolean isMovePossible() {
+        GameState state = nextState();
+        int index = nextMove(legalMoves[position]);
+        BoardGeometry geometry = state.getBoard().getGeometry();
+        boolean legal = mechanics.IsMovePossible(state, geometry.xOf(index), geometry.yOf(index), Stone.BLACK);
+        if (legal) mechanics.undoMove(state);
+        return legal;
+    }
+
+    /**
+     * Ruch bijący kamienie przeciwnika i jego cofnięcie (bicie wykonuje {@link ChainTracker} w ramach
+     * {@link GameMechanics#makeMove} - dawna metoda {@code CheckCaptures} nie istnieje już osobno).
+     */
+    @Benchmark
+    public int captureMove() {
+        GameState state = nextState();
+        int index = nextMove(captureMoves[position]);
+        BoardGeometry geometry = state.getBoard().getGeometry();
+        int before = state.getBlackCaptures();
+        mechanics.makeMove(state, geometry.xOf(index), geometry.yOf(index), Stone.BLACK);
+        int captured = state.getBlackCaptures() - before;
+        mechanics.undoMove(state);
+        return captured;
+    }
+
+    /** Wyznaczanie legalności wszystkich pól naraz (zbiór bitowy). */
+    @Benchmark
+    public long[] legalMoves() {
+        return mechanics.legalMoves(nextState(), Stone.BLACK);
+    }
+
+    /** Przeszukanie grupy z wynikiem w zbiorach {@link Point}. */
+    @Benchmark
+    public int exploreGroup() {
+        GameState state = nextState();
+        Point[] starts = groupStarts[position];
+        Point start = starts[nextMove(starts.length)];
+        Board board = state.getBoard();
+        groupMembers.clear();
+        liberties.clear();
+        mechanics.exploreGroup(board, start, board.getField(start.x, start.y), groupMembers, liberties);
+        return groupMembers.size() + liberties.size();
+    }
+
+    /** Liczenie punktów całej pozycji. */
+    @Benchmark
+    public ScoreResult calculateGameScore() {
+        return mechanics.calculateGameScore(nextState());
+    }
+
+    private GameState nextState() {
+        position = position + 1 == states.length ? 0 : position + 1;
+        return states[position];
+    }
+
+    private int nextMove(int[] moves) {
+        return moves[nextMove(moves.length)];
+    }
+
+    private int nextMove(int count) {
+        move = move + 1 >= count ? 0 : move + 1;
+        return move;
+    }
+
+    private static Point[] groupStarts(Board board) {
+        GroupScanner scanner = new GroupScanner(board.getSize());
+        BoardGeometry geometry = board.getGeometry();
+        List<Point> starts = new ArrayList<>();
+        scanner.beginPass();
+        for (int index = 0; index < geometry.getPoints(); index++) {
+            if (board.fieldIs(index, Stone.EMPTY) || scanner.isVisited(index)) continue;
+            scanner.scanGroup(board, index);
+            starts.add(new Point(geometry.xOf(index), geometry.yOf(index)));
+        }
+        return starts.toArray(new Point[0]);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+}
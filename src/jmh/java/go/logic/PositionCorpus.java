@@ -0,0 +1,82 @@
+package go.logic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Powtarzalny zbiór pozycji dla benchmarków logiki gry i bota - domyślnie 19x19, dla benchmarków skalowania
+ * także na innych rozmiarach planszy.
+ * <p>
+ * Pozycje otwarcia i środka gry powstają z losowych legalnych ruchów (stałe ziarna) aż do zajęcia
+ * odpowiednio około 10% i 45% pól, a pozycje końcowe - z pełnych symulacji {@link PlayoutEngine},
+ * które kończą się dopiero po zapełnieniu planszy poza oczami żywych grup. Środek i koniec gry
+ * zawierają bicia, ko i grupy z wieloma oddechami, a te same ziarna dają te same pozycje
+ * w każdej wersji kodu, więc wyniki można porównywać.
+ */
+public final class PositionCorpus {
+
+    /** Domyślny rozmiar planszy pozycji. */
+    public static final int SIZE = 19;
+
+    /** Liczba pozycji w każdej fazie. */
+    public static final int POSITIONS = 8;
+
+    /** Faza partii, z której pochodzą pozycje. */
+    public enum Phase {
+        OPENING, MIDGAME, ENDGAME
+    }
+
+    private PositionCorpus() {
+    }
+
+    /**
+     * Tworzy pozycje danej fazy na planszy {@link #SIZE} (za każdym razem nowe, niezależne obiekty).
+     *
+     * @param phase faza partii.
+     * @param mechanics silnik zasad używany do rozegrania pozycji.
+     * @return tablica {@link #POSITIONS} stanów partii.
+     */
+    public static GameState[] positions(Phase phase, GameMechanics mechanics) {
+        return positions(phase, mechanics, SIZE);
+    }
+
+    /**
+     * Tworzy pozycje danej fazy na planszy podanego rozmiaru (za każdym razem nowe, niezależne obiekty).
+     *
+     * @param phase faza partii.
+     * @param mechanics silnik zasad używany do rozegrania pozycji.
+     * @param size rozmiar planszy (jeden z {@link Board#supportedSizes()}).
+     * @return tablica {@link #POSITIONS} stanów partii.
+     */
+    public static GameState[] positions(Phase phase, GameMechanics mechanics, int size) {
+        GameState[] states = new GameState[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            states[i] = switch (phase) {
+                case OPENING -> randomGame(mechanics, size, i, size * size / 10);
+                case MIDGAME -> randomGame(mechanics, size, i, size * size * 9 / 20);
+                case ENDGAME -> endGame(mechanics, size, i);
+            };
+        }
+        return states;
+    }
+
+    private static GameState randomGame(GameMechanics mechanics, int size, long seed, int target) {
+        SplittableRandom random = new SplittableRandom(seed);
+        GameState state = new GameState(size);
+        Board board = state.getBoard();
+        Stone color = Stone.BLACK;
+        while (BoardGeometry.count(board.stones(Stone.BLACK)) + BoardGeometry.count(board.stones(Stone.WHITE)) < target) {
+            if (mechanics.makeMove(state, random.nextInt(size), random.nextInt(size), color)) {
+                color = color.opponent();
+            }
+        }
+        return state;
+    }
+
+    private static GameState endGame(GameMechanics mechanics, int size, long seed) {
+        PlayoutEngine engine = new PlayoutEngine(mechanics, size, new SplittableRandom(seed));
+        engine.playout(new GameState(size), Stone.BLACK);
+        GameState state = new GameState(size);
+        engine.getState().copyTo(state);
+        return state;
+    }
+}
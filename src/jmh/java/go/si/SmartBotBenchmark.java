@@ -0,0 +1,131 @@
+package go.si;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import go.logic.Board;
+import go.logic.BoardGeometry;
+import go.logic.GameMechanics;
+import go.logic.GameState;
+import go.logic.PositionCorpus;
+import go.logic.Stone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarki decyzji bota: pełny wybór ruchu ({@link SmartBot#calculateBestMove}), wybór kandydatów
+ * ({@link SmartBotHeuristics#findBestCandidates}) i każda cząstkowa heurystyka osobno,
+ * na pozycjach z {@link PositionCorpus} od otwarcia do końca gry.
+ * <p>
+ * Tryb {@code SampleTime} daje rozkład czasu pojedynczego wywołania (w wynikach percentyle
+ * {@code p0.50} i {@code p0.99}), a profiler {@code gc} - bajty alokowane na operację.
+ * Bot ma stałe ziarno losowania, więc przy tych samych pozycjach wybiera te same ruchy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmartBotBenchmark {
+
+    /** Ziarno losowania bota. */
+    private static final long SEED = 42;
+
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    public PositionCorpus.Phase phase;
+
+    private SmartBot bot;
+    private SmartBotHeuristics heuristics;
+    private GameState[] states;
+
+    /** Legalne ruchy czarnego w każdej pozycji - punkty oceniane przez heurystyki. */
+    private Point[][] legalMoves;
+
+    private int position;
+    private int move;
+
+    @Setup
+    public void setUp() {
+        GameMechanics mechanics = new GameMechanics();
+        bot = new SmartBot(mechanics, SEED);
+        heuristics = new SmartBotHeuristics(mechanics);
+        states = PositionCorpus.positions(phase, mechanics);
+        legalMoves = new Point[states.length][];
+        for (int i = 0; i < states.length; i++) {
+            BoardGeometry geometry = states[i].getBoard().getGeometry();
+            long[] legal = mechanics.legalMoves(states[i], Stone.BLACK);
+            List<Point> points = new ArrayList<>();
+            for (int index = 0; index < geometry.getPoints(); index++) {
+                if (BoardGeometry.contains(legal, index)) {
+                    points.add(new Point(geometry.xOf(index), geometry.yOf(index)));
+                }
+            }
+            legalMoves[i] = points.toArray(new Point[0]);
+        }
+    }
+
+    /** Pełna decyzja bota: kandydaci i symulacja odpowiedzi przeciwnika. */
+    @Benchmark
+    public Point calculateBestMove() {
+        return bot.calculateBestMove(nextState(), Stone.BLACK);
+    }
+
+    /** Ocena wszystkich legalnych pól i wybór najlepszych kandydatów. */
+    @Benchmark
+    public ArrayList<CandidateRecord> findBestCandidates() {
+        return heuristics.findBestCandidates(nextState(), Stone.BLACK);
+    }
+
+    @Benchmark
+    public double captureScore() {
+        GameState state = nextState();
+        return heuristics.calculateCaptureScore(state, nextMove(), Stone.BLACK);
+    }
+
+    @Benchmark
+    public double groupSafeScore() {
+        GameState state = nextState();
+        return heuristics.calculateGroupSafeScore(state, nextMove(), Stone.BLACK);
+    }
+
+    @Benchmark
+    public double shapeScore() {
+        Board board = nextState().getBoard();
+        return heuristics.calculateShapeScore(board, nextMove(), Stone.BLACK);
+    }
+
+    @Benchmark
+    public double cutOpponentGroupScore() {
+        Board board = nextState().getBoard();
+        return heuristics.calculateCutOpponentGroupScore(board, nextMove(), Stone.BLACK);
+    }
+
+    @Benchmark
+    public double connectOwnGroupScore() {
+        Board board = nextState().getBoard();
+        return heuristics.calculateConnectOwnGroupScore(board, nextMove(), Stone.BLACK);
+    }
+
+    private GameState nextState() {
+        position = position + 1 == states.length ? 0 : position + 1;
+        return states[position];
+    }
+
+    private Point nextMove() {
+        Point[] moves = legalMoves[position];
+        move = move + 1 >= moves.length ? 0 : move + 1;
+        return moves[move];
+    }
+}
@@ -6,14 +6,18 @@ public class GameRecordDTO {
     private final String winner;
     private final String score;
     private final String type;
+    private final int boardSize;
+    private final String ruleSet;
     private final String movesHistory;
     // Konstruktor oraz getter, ktore pozwalaja na dostep do pol
-    public GameRecordDTO(Long id, String date, String winner, String score, String type, String movesHistory) {
+    public GameRecordDTO(Long id, String date, String winner, String score, String type, int boardSize, String ruleSet, String movesHistory) {
         this.id = id;
         this.date = date;
         this.winner = winner;
         this.score = score;
         this.type = type;
+        this.boardSize = boardSize;
+        this.ruleSet = ruleSet;
         this.movesHistory = movesHistory;
     }
     public Long getId() { return id;}
@@ -21,6 +25,8 @@ public class GameRecordDTO {
     public String getWinner() { return winner;}
     public String getScore() { return score;}
     public String getType() { return type;}
+    public int getBoardSize() { return boardSize;}
+    public String getRuleSet() { return ruleSet;}
     public String getMovesHistory() { return movesHistory;}
     // Metoda toString zwraca tekstowa reprezentacje gry, ktora zawiera id, date i zwyciezce
     @Override
@@ -4,10 +4,10 @@ import java.awt.Point;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Set;
 
 import go.logic.Board;
-import go.logic.GameMechanics;
+import go.logic.BoardGeometry;
+import go.logic.GroupScanner;
 import go.logic.Protocol;
 import go.logic.Stone;
 import go.ui.GameView;
@@ -18,14 +18,19 @@ import go.ui.GameView;
  * a interfejsem użytkownika (UI) oraz przechowuje stan gry.
  */
 public class GoClient {
-    private final Board board = new Board(19);
+    /** Plansza klienta - tworzona ponownie po wyborze rozmiaru przy połączeniu z serwerem. */
+    private Board board = new Board(Board.DEFAULT_SIZE);
     private final GameView gameView;
     private int blackCaptures = 0;
     private int whiteCaptures = 0;
+    /** Szacowany obszar graczy otrzymany od serwera ({@code null}, dopóki nie przyszedł pierwszy szacunek). */
+    private int[] territoryEstimate = null;
     NetworkConnection network = new NetworkConnection();
     Stone myColor;
 
-    private final GameMechanics mechanics = new GameMechanics();
+    private GroupScanner groupScanner = new GroupScanner(board.getSize());
+    /** Legalne ruchy w bieżącej turze otrzymane od serwera lub {@code null}, jeśli nie są znane. */
+    private long[] legalMoves = null;
     private boolean iPassed = false;
     private boolean waitingMessageShown=false;
 
@@ -57,10 +62,22 @@ public void connect(){
             if (selectedMode == 0) {
                 System.exit(0);
             }
+            int ruleSetId = gameView.askForRuleSet();
+            int boardSize = gameView.askForBoardSize();
+            int difficultyId = selectedMode == 1 ? gameView.askForDifficulty() : 0;
+            if (boardSize != board.getSize()) {
+                board = new Board(boardSize);
+                groupScanner = new GroupScanner(boardSize);
+            }
             gameView.showMessage("Łączenie z serwerem...");
             network.connect(); 
 
             network.sendGameMode(selectedMode);
+            network.sendRuleSet(ruleSetId);
+            network.sendBoardSize(boardSize);
+            if (selectedMode == 1) {
+                network.sendDifficulty(difficultyId);
+            }
 
             int playerId = network.getPlayerId();
             gameView.showMessage("Połączono jako gracz " + playerId);
@@ -126,6 +143,9 @@ public void connect(){
                 waitingMessageShown=false;
                 // Aktualizacja stanu planszy i liczby jeńców
                 gameView.showMessage("Ilość jeńców - Gracz1: " + blackCaptures + " Gracz2: " + whiteCaptures);
+                if (territoryEstimate != null) {
+                    gameView.showMessage("Szacowany obszar - Gracz1: " + territoryEstimate[0] + " Gracz2: " + territoryEstimate[1]);
+                }
                 gameView.showBoard(board);
 
                 gameView.showMessage("Twój ruch. Kliknij na odpowiednie pole lub użyj przycisku");
@@ -141,6 +161,7 @@ public void connect(){
                     // Wysłanie informacji o pasie do serwera
                     iPassed = true;
                     network.sendPassMessage();
+                    clearLegalMoves();
                     gameView.showMessage("Pasujesz turę.");
                     currentTurn = currentTurn.opponent();
                 }
@@ -159,10 +180,15 @@ public void connect(){
                 else {
                     // Proba przetlumaczenia współrzędnych i wysłania ruchu do serwera
                     try {
-                        int[] coordinates = TranslateCoordinate.translate(input);
+                        int[] coordinates = TranslateCoordinate.translate(input, board.getSize());
                         if (coordinates != null) {
-                            if (coordinates[0] >= 0 && coordinates[0] < 19 && coordinates[1] >= 0 && coordinates[1] < 19) {
+                            if (board.isFieldOnBoard(coordinates[0], coordinates[1])) {
+                                if (!isKnownLegal(coordinates[0], coordinates[1])) {
+                                    gameView.showMessage("Ten ruch jest niedozwolony (samobójstwo lub ko). Wybierz inne pole.");
+                                    continue;
+                                }
                                 network.sendSpaceInformation(coordinates);
+                                clearLegalMoves();
                                 board.setField(coordinates[0], coordinates[1], myColor);
                                 gameView.showBoard(board);
                                 gameView.showMessage("Ruch wysłany. Czekanie na odpowiedź bota...");
@@ -197,11 +223,19 @@ public void connect(){
                     network.receiveBoardFromServer(board); // aktualizacja stanu planszy
                     gameView.showBoard(board);
                 }
+                else if (messageType == Protocol.LEGAL_MOVES) {
+                    // zbiór legalnych ruchów na naszą nadchodzącą turę
+                    legalMoves = network.receiveLegalMoves();
+                    gameView.markIllegalMoves(illegalPoints());
+                }
                 else if (messageType == Protocol.CAPTURES) {
                     int [] captures = network.getCaptures();
                     blackCaptures = captures[0];
                     whiteCaptures = captures[1];
                 }
+                else if (messageType == Protocol.TERRITORY_ESTIMATE) {
+                    territoryEstimate = network.getTerritoryEstimate();
+                }
                 else if (messageType== Protocol.START_MARKING) {
                     gameView.showMessage("Obaj gracze spasowali. Rozpoczynanie fazy oznaczania martwych kamieni.");
                     gameView.showMessage("Kliknij na grupy kamieni, które uważasz za martwe. Kliknij ponownie, aby odznaczyć. Wciśnij 'quit', aby zakończyć grę.");
@@ -244,6 +278,44 @@ public void connect(){
         }
     }
 
+    /**
+     * Sprawdza na podstawie zbioru otrzymanego od serwera, czy ruch może być legalny.
+     * Jeśli zbiór nie jest znany (np. w pierwszej turze), decyzję pozostawiamy serwerowi.
+     *
+     * @param x współrzędna X ruchu.
+     * @param y współrzędna Y ruchu.
+     * @return false tylko wtedy, gdy serwer oznaczył pole jako niedozwolone.
+     */
+    private boolean isKnownLegal(int x, int y) {
+        return legalMoves == null || BoardGeometry.contains(legalMoves, board.getGeometry().index(x, y));
+    }
+
+    /**
+     * Wyznacza puste pola, na których ruch jest niedozwolony według ostatniego zbioru legalnych ruchów.
+     *
+     * @return zbiór niedozwolonych pustych pól (pusty, jeśli zbiór legalnych ruchów nie jest znany).
+     */
+    private HashSet<Point> illegalPoints() {
+        HashSet<Point> points = new HashSet<>();
+        if (legalMoves == null) return points;
+        for (int x = 0; x < board.getSize(); x++) {
+            for (int y = 0; y < board.getSize(); y++) {
+                if (board.getField(x, y) == Stone.EMPTY && !isKnownLegal(x, y)) {
+                    points.add(new Point(x, y));
+                }
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Zapomina zbiór legalnych ruchów po zakończeniu własnej tury (przestaje być aktualny).
+     */
+    private void clearLegalMoves() {
+        legalMoves = null;
+        gameView.markIllegalMoves(new HashSet<>());
+    }
+
     /**
      * Obsługuje kliknięcia w fazie oznaczania martwych kamieni.
      * Dodaje lub usuwa całe grupy kamieni z listy propozycji.
@@ -252,7 +324,7 @@ public void connect(){
      * @param proposalList lista punktów aktualnie oznaczonych jako martwe.
      */
     private void handleMarkingClick(String input, ArrayList<Point> proposalList) {
-        int[] coords = TranslateCoordinate.translate(input);
+        int[] coords = TranslateCoordinate.translate(input, board.getSize());
         if (coords == null) return;
 
         int x = coords[0];
@@ -260,11 +332,14 @@ public void connect(){
         Stone clickedStone = board.getField(x, y);
         if (clickedStone == Stone.EMPTY) return;
 
-        Set<Point> group = new HashSet<>();
-        Set<Point> liberties = new HashSet<>();
-
-        // Używamy mechaniki
-        mechanics.exploreGroup(board, new Point(x, y), clickedStone, group, liberties);
+        // Wyznaczamy całą grupę skanerem (bez budowania zbiorów oddechów)
+        groupScanner.beginPass();
+        groupScanner.scanGroup(board, x, y);
+        ArrayList<Point> group = new ArrayList<>(groupScanner.getMemberCount());
+        for (int i = 0; i < groupScanner.getMemberCount(); i++) {
+            int index = groupScanner.getMember(i);
+            group.add(new Point(groupScanner.xOf(index), groupScanner.yOf(index)));
+        }
 
         // Sprawdzamy czy grupa jest już na liście propozycji
         boolean isMarked = false;
@@ -293,7 +368,8 @@ public void connect(){
 
     /**
      * Obsługuje pętlę negocjacji martwych grup.
-     * Gracze na zmianę proponują układ martwych kamieni lub go akceptują.
+     * Gracze na zmianę proponują układ martwych kamieni lub go akceptują; w swojej kolejce
+     * gracz może też wyjść z gry ("quit") albo się poddać ("surrender").
      *
      * @param amIProposing określa, czy gracz zaczyna jako proponujący (true) czy oczekujący (false).
      * @throws IOException w przypadku błędu sieciowego.
@@ -310,25 +386,36 @@ public void connect(){
                 gameView.showMessage("TWOJA KOLEJ: Zaznacz martwe grupy i kliknij 'done' aby wysłać.");
                 //  Faza akywna: Gracz klika
                 boolean proposalReady = false;
+                boolean accepted = false;
                 while (!proposalReady) {
                     String input = gameView.getInput();
                     if (input.equalsIgnoreCase("done")) {
                         proposalReady = true;
+                    } else if (input.equalsIgnoreCase("quit")) {
+                        // Wyjście z gry jest możliwe także w trakcie negocjacji
+                        network.sendQuitMessage();
+                        gameView.showMessage("Wychodzisz z gry.");
+                        return;
+                    } else if (input.equalsIgnoreCase("surrender")) {
+                        network.sendSurrenderMessage();
+                        gameView.showMessage("Poddajesz się. Koniec gry.");
+                        return;
                     } else if (input.equalsIgnoreCase("accept")) {
-                        // Opcja, jeśli dostałem propozycję i nic nie zmieniłem
+                        // Opcja, jeśli dostałem propozycję i nic nie zmieniłem.
+                        // Serwer odpowie wynikiem, a jeśli była to propozycja serwera -
+                        // przekaże ją przeciwnikowi, który może odesłać poprawkę.
                         network.sendAccept();
-                        int msg = network.readMessage();
-                        if (msg == Protocol.GAME_OVER) {
-                            showResults();
-                        }
-                        return;
+                        accepted = true;
+                        proposalReady = true;
                     } else {
                         handleMarkingClick(input, currentProposal);
                     }
                 }
-                //  Wysyłamy propozycję
-                network.sendProposal(currentProposal);
-                gameView.showMessage("Propozycja wysłana. Czekanie na odpowiedź...");
+                if (!accepted) {
+                    //  Wysyłamy propozycję
+                    network.sendProposal(currentProposal);
+                    gameView.showMessage("Propozycja wysłana. Czekanie na odpowiedź...");
+                }
                 amIProposing = false; // Teraz czekamy
             }
             else {
@@ -348,6 +435,14 @@ public void connect(){
                     showResults();
                     return;
                 }
+                else if (msg == Protocol.SURRENDER) {
+                    gameView.showMessage("Przeciwnik się poddał! Wygrałeś.");
+                    return;
+                }
+                else if (msg == Protocol.QUIT) {
+                    gameView.showMessage("Przeciwnik wyszedł z gry.");
+                    return;
+                }
             }
         }
     }
@@ -30,6 +30,39 @@ public class NetworkConnection {
         toServer.writeInt(mode);
         toServer.flush();
     }
+
+    /**
+     * Wysyła do serwera identyfikator wybranego zestawu zasad (zaraz po trybie gry).
+     *
+     * @param ruleSetId identyfikator zestawu zasad ({@link go.logic.RuleSet#getId()}).
+     * @throws IOException przy błędzie zapisu.
+     */
+    public void sendRuleSet(int ruleSetId) throws IOException {
+        toServer.writeInt(ruleSetId);
+        toServer.flush();
+    }
+
+    /**
+     * Wysyła do serwera wybrany rozmiar planszy (zaraz po zestawie zasad).
+     *
+     * @param size rozmiar boku planszy (jeden z {@link go.logic.Board#supportedSizes()}).
+     * @throws IOException przy błędzie zapisu.
+     */
+    public void sendBoardSize(int size) throws IOException {
+        toServer.writeInt(size);
+        toServer.flush();
+    }
+
+    /**
+     * Wysyła do serwera wybrany poziom trudności bota (zaraz po rozmiarze planszy, tylko w grze z botem).
+     *
+     * @param difficultyId identyfikator poziomu ({@link go.si.BotDifficulty#getId()}).
+     * @throws IOException przy błędzie zapisu.
+     */
+    public void sendDifficulty(int difficultyId) throws IOException {
+        toServer.writeInt(difficultyId);
+        toServer.flush();
+    }
     /**
      * Nawiązuje połączenie TCP z serwerem gry (localhost) na porcie określonym w Protokole.
      * Inicjalizuje strumienie wejścia i wyjścia.
@@ -183,6 +216,16 @@ public class NetworkConnection {
         Protocol.receiveBoard(board, fromServer);
     }
 
+    /**
+     * Odbiera od serwera zbiór legalnych ruchów gracza (po nagłówku {@link Protocol#LEGAL_MOVES}).
+     *
+     * @return zbiór bitowy legalnych pól (pole (x, y) to bit {@code y * size + x}).
+     * @throws IOException przy błędzie odczytu.
+     */
+    public long[] receiveLegalMoves() throws IOException {
+        return Protocol.receiveLegalMoves(fromServer);
+    }
+
     /**
      * Odbiera aktualną liczbę jeńców obu graczy.
      *
@@ -196,6 +239,19 @@ public class NetworkConnection {
         return new int[]{black, white};
     }
 
+    /**
+     * Odbiera szacowany obszar obu graczy (po nagłówku {@link Protocol#TERRITORY_ESTIMATE}).
+     *
+     * @return tablica int[], gdzie [0] to obszar czarnego, a [1] to obszar białego.
+     * @throws IOException przy błędzie odczytu.
+     */
+    public int[] getTerritoryEstimate() throws IOException {
+        int black = fromServer.readInt();
+        int white = fromServer.readInt();
+
+        return new int[]{black, white};
+    }
+
     /**
      * Odbiera współrzędne ruchu wykonanego przez przeciwnika.
      *
@@ -248,10 +304,12 @@ public class NetworkConnection {
                 int bScore = in.readInt();
                 int wScore = in.readInt();
                 String type = in.readUTF();
+                int boardSize = in.readInt();
+                String ruleSet = in.readUTF();
                 String history = in.readUTF(); 
 
                 String scoreStr = "B:" + bScore + " | W:" + wScore;
-                games.add(new GameRecordDTO(id, date, winner, scoreStr, type, history));
+                games.add(new GameRecordDTO(id, date, winner, scoreStr, type, boardSize, ruleSet, history));
             }
         } finally {
             historySocket.close(); 
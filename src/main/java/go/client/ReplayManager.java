@@ -5,16 +5,33 @@ import java.util.List;
 
 import go.logic.Board;
 import go.logic.GameMechanics;
+import go.logic.GameState;
+import go.logic.RuleSet;
 import go.logic.Stone;
 public class ReplayManager {
     private final List<String> moveCommands;
     private int currentMoveIndex=0;
     private final GameMechanics mechanics;
+    private final GameState replayState;
     private final Board replayBoard;
-    public ReplayManager(String historyLog) {
-        this.replayBoard = new Board(19);
-        this.mechanics = new GameMechanics();
+    /** Czy dany ruch z historii postawił kamień (i trafił na stos cofania mechaniki). */
+    private final boolean[] placedStones;
+    /** Numer ruchu, którego nie da się odtworzyć (uszkodzony zapis), lub -1. */
+    private int corruptMoveIndex = -1;
+    private String corruption;
+    /**
+     * Tworzy odtwarzanie zapisanej partii.
+     *
+     * @param historyLog zapis ruchów partii.
+     * @param boardSize rozmiar planszy.
+     * @param rules zestaw zasad, według których rozegrano partię (legalność ruchów zależy od rodzaju superko).
+     */
+    public ReplayManager(String historyLog, int boardSize, RuleSet rules) {
+        this.replayState = new GameState(boardSize);
+        this.replayBoard = replayState.getBoard();
+        this.mechanics = new GameMechanics(rules);
         this.moveCommands = parseHistory(historyLog);
+        this.placedStones = new boolean[moveCommands.size()];
     }
     private List<String> parseHistory(String history) {
         List<String> commands = new ArrayList<>();
@@ -29,13 +46,26 @@ public class ReplayManager {
         }
         return commands;
     }
+    /**
+     * Wykonuje kolejny ruch z zapisu. Ruchu nielegalnego lub nieczytelnego nie da się odtworzyć -
+     * zapis jest wtedy uznawany za uszkodzony ({@link #isCorrupt()}), a odtwarzanie zatrzymuje się przed nim.
+     *
+     * @return true, jeśli wykonano ruch; false na końcu zapisu lub na uszkodzonym ruchu.
+     */
     public boolean next() {
-        if (currentMoveIndex >= moveCommands.size()) {
+        if (currentMoveIndex >= moveCommands.size() || currentMoveIndex == corruptMoveIndex) {
             return false;
         }
 
         String command = moveCommands.get(currentMoveIndex);
-        applyCommandToBoard(command);
+        try {
+            placedStones[currentMoveIndex] = applyCommandToBoard(command);
+        } catch (IllegalArgumentException e) {
+            corruptMoveIndex = currentMoveIndex;
+            corruption = e.getMessage();
+            System.out.println("Replay: uszkodzony zapis partii - " + corruption);
+            return false;
+        }
         currentMoveIndex++;
         return true;
     }
@@ -45,39 +75,31 @@ public class ReplayManager {
         }
 
         currentMoveIndex--;
-        clearBoard();
-        for (int i = 0; i < currentMoveIndex; i++) {
-            applyCommandToBoard(moveCommands.get(i));
+        // Cofamy tylko ostatni ruch zamiast odtwarzać partię od początku
+        if (placedStones[currentMoveIndex]) {
+            mechanics.undoMove(replayState);
         }
         return true;
     }
     public void resetToStart() {
-        currentMoveIndex = 0;
-        clearBoard();
-    }
-    public void jumpToEnd(){
-        resetToStart();
-        for(String cmd: moveCommands){
-            applyCommandToBoard(cmd);
+        while (previous()) {
+            // cofamy kolejne ruchy aż do pustej planszy
         }
-        currentMoveIndex=moveCommands.size();
     }
-    private void clearBoard() {
-        for(int x=0; x<replayBoard.getSize(); x++) {
-            for(int y=0; y<replayBoard.getSize(); y++) {
-                replayBoard.setField(x, y, Stone.EMPTY);
-            }
+    public void jumpToEnd(){
+        while (next()) {
+            // wykonujemy pozostałe ruchy
         }
-        mechanics.blackCaptures = 0;
-        mechanics.whiteCaptures = 0;
     }
-    private void applyCommandToBoard(String command) {
+    private boolean applyCommandToBoard(String command) {
         char colorChar = command.charAt(0);
-        Stone color = (colorChar == 'B') ? Stone.BLACK : Stone.WHITE;
         int startBracket = command.indexOf('[');
         int endBracket = command.indexOf(']');
-        
-        if (startBracket == -1 || endBracket == -1) return;
+
+        if ((colorChar != 'B' && colorChar != 'W') || startBracket == -1 || endBracket <= startBracket) {
+            throw new IllegalArgumentException("Nieczytelny ruch nr " + (currentMoveIndex + 1) + ": " + command);
+        }
+        Stone color = (colorChar == 'B') ? Stone.BLACK : Stone.WHITE;
         
         String content = command.substring(startBracket + 1, endBracket);
         if (content.equals("PASS")) {
@@ -87,15 +109,16 @@ public class ReplayManager {
             System.out.println("Replay: " + color + " zakończył grę (" + content + ")");
         } 
         else {
-            int[] coords = TranslateCoordinate.translate(content);
-            
-            if (coords != null) {
-                int x = coords[0];
-                int y = coords[1];
-                replayBoard.setField(x, y, color);
-                mechanics.CheckCaptures(replayBoard, x, y, color);
+            int[] coords = TranslateCoordinate.translate(content, replayBoard.getSize());
+            if (coords == null) {
+                throw new IllegalArgumentException("Nieczytelny ruch nr " + (currentMoveIndex + 1) + ": " + command);
+            }
+            if (!mechanics.makeMove(replayState, coords[0], coords[1], color)) {
+                throw new IllegalArgumentException("Nielegalny ruch nr " + (currentMoveIndex + 1) + ": " + command);
             }
+            return true;
         }
+        return false;
     }
     public Board getBoard() {
         return replayBoard;
@@ -108,4 +131,14 @@ public class ReplayManager {
     public int getTotalMoves() {
         return moveCommands.size();
     }
+
+    /** @return true, jeśli odtwarzanie zatrzymało się na ruchu, którego nie da się odtworzyć. */
+    public boolean isCorrupt() {
+        return corruptMoveIndex >= 0;
+    }
+
+    /** @return opis uszkodzonego ruchu lub {@code null}, jeśli zapis jest poprawny (do miejsca odtworzenia). */
+    public String getCorruption() {
+        return corruption;
+    }
 }
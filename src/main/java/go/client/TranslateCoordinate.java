@@ -10,22 +10,26 @@ public class TranslateCoordinate {
     /**
      * Konwertuje ciąg znaków reprezentujący ruch (np. "C15") na współrzędne tablicowe.
      *
-     * @param input ciąg znaków (litera kolumny + liczba wiersza), np. "A1", "T19".
+     * Kolumny są oznaczane kolejnymi literami od 'A' (bez pomijania 'I'), więc plansza 25x25
+     * kończy się na kolumnie 'Y' - tak samo zapisywana jest historia partii w bazie.
+     *
+     * @param input ciąg znaków (litera kolumny + liczba wiersza), np. "A1", "S19", "Y25".
+     * @param size  rozmiar planszy, na której leży pole.
      * @return tablica int[] {x, y} lub null, jeśli format jest niepoprawny lub poza zakresem.
      */
-    public static int[] translate(String input) {
+    public static int[] translate(String input, int size) {
         if (input.length() < 2 || input.length() > 3) return null;
 
         input = input.toUpperCase();
         char letter = input.charAt(0);
 
         int x = letter - 'A';
-        if (x < 0 || x >= 19) return null;
+        if (x < 0 || x >= size) return null;
 
         try {
             int y = Integer.parseInt(input.substring(1)) - 1;
 
-            if (y >= 0 && y < 19) return new int[]{x, y};
+            if (y >= 0 && y < size) return new int[]{x, y};
         } catch (NumberFormatException e) {
             return null;
         }
@@ -36,7 +40,7 @@ public class TranslateCoordinate {
     /**
      * Konwertuje indeks kolumny na odpowiadającą mu literę.
      *
-     * @param number indeks kolumny (0-18).
+     * @param number indeks kolumny (od 0).
      * @return znak reprezentujący kolumnę (np. 0 -> 'A').
      */
     public static char invertTranslate(int number) {
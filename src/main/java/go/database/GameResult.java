@@ -2,6 +2,7 @@ package go.database;
 
 import java.time.LocalDateTime;
 
+import go.logic.Board;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -22,17 +23,23 @@ public class GameResult {
     private int BlackScore;
     private int WhiteScore;
     private String gameType;
+    // nazwa zestawu zasad, wedlug ktorych rozegrano partie (np. "Japanese")
+    private String ruleSet;
+    // rozmiar boku planszy (null dla partii zapisanych przed wprowadzeniem wyboru rozmiaru - wtedy 19)
+    private Integer boardSize;
     @Lob
     private String movesHistory;
     public GameResult() {
     }
     // Konstruktor pozwalajacy na stworzenie obiektu GameResult z podanymi parametrami
-    public GameResult(String winner, int BlackScore, int WhiteScore, String gameType, String movesHistory) {
+    public GameResult(String winner, int BlackScore, int WhiteScore, String gameType, String ruleSet, int boardSize, String movesHistory) {
         this.playedAt = LocalDateTime.now();
         this.winner = winner;
         this.BlackScore = BlackScore;
         this.WhiteScore = WhiteScore;
         this.gameType = gameType;
+        this.ruleSet = ruleSet;
+        this.boardSize = boardSize;
         this.movesHistory = movesHistory;
     }
     // Gettery pozwalaja na dostep do pol klasy
@@ -42,5 +49,7 @@ public class GameResult {
     public int getBlackScore() {return BlackScore;}
     public int getWhiteScore() {return WhiteScore;}
     public String getGameType() {return gameType;}
+    public String getRuleSet() {return ruleSet;}
+    public int getBoardSize() {return boardSize != null ? boardSize : Board.DEFAULT_SIZE;}
     public String getMovesHistory() {return movesHistory;}
 }
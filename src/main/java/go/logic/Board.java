@@ -8,34 +8,116 @@ import java.awt.Point;
  * do manipulacji tym stanem, kopiowania planszy i porównywania jej z innymi (np. dla reguły Ko).
  */
 public class Board {
+    /**
+     * Największy obsługiwany rozmiar planszy (ograniczony rozmiarem tablicy kluczy Zobrista).
+     */
+    public static final int MAX_SIZE = 25;
+
+    /**
+     * Domyślny rozmiar planszy używany przez serwer i klienta.
+     */
+    public static final int DEFAULT_SIZE = 19;
+
+    /**
+     * Rozmiary plansz, które gracz może wybrać przy połączeniu z serwerem (25x25 dla wariantów szkoleniowych).
+     */
+    private static final int[] SUPPORTED_SIZES = {9, 13, 19, 25};
+
+    /** Wartość pola-strażnika w tablicy {@link #cells} (różna od numeru każdego koloru). */
+    private static final byte OFF_BOARD = (byte) Stone.values().length;
+
+    /** Kolory pól według numeru z {@link #cells} - kopia {@link Stone#values()} tworzona raz. */
+    private static final Stone[] STONES = Stone.values();
+
     /**
      * Rozmiar boku planszy (np. 19 dla planszy 19x19).
      */
     private final int size;
 
     private Point lastMove = new Point(-1, -1);
+
+    /**
+     * Geometria planszy (maski krawędzi, liczba słów) współdzielona przez plansze tego samego rozmiaru.
+     */
+    private final BoardGeometry geometry;
+
+    /**
+     * Zbiór bitowy pól zajętych przez czarne kamienie (bit {@code y * size + x}).
+     * Kopiowanie i porównywanie planszy sprowadza się do operacji na kilku słowach 64-bitowych.
+     */
+    private final long[] black;
+
+    /**
+     * Zbiór bitowy pól zajętych przez białe kamienie (bit {@code y * size + x}).
+     */
+    private final long[] white;
+
+    /**
+     * Jednowymiarowa tablica pól (numer koloru {@link Stone#ordinal()} dla indeksu {@code y * size + x})
+     * z dodatkowym polem-strażnikiem na końcu ({@link BoardGeometry#getOffBoard()}), które zawsze ma
+     * wartość {@link #OFF_BOARD}. Pozwala odczytać pole jednym dostępem do tablicy, a pętlom po
+     * sąsiadach z tablic geometrii - pomijać sprawdzanie granic planszy.
+     * Utrzymywana razem ze zbiorami bitowymi przy każdej zmianie pola.
+     */
+    private final byte[] cells;
+
     /**
-     * Dwuwymiarowa tablica przechowująca kamienie (lub puste pola) na planszy.
-     * Pole publiczne finalne dla szybkiego dostępu w logice gry,
-     * chociaż modyfikacja zawartości tablicy jest możliwa.
+     * Klucz Zobrista bieżącej pozycji, aktualizowany przyrostowo przy każdej zmianie pola.
      */
-    public final Stone[][] fields;
+    private long zobristKey = 0L;
+
+    /**
+     * Struktura łańcuchów i oddechów tej planszy, tworzona leniwie przy pierwszym użyciu.
+     */
+    private ChainTracker chains;
+
+    /**
+     * Czy {@link #chains} odpowiada bieżącemu układowi kamieni. Dowolna zmiana przez
+     * {@link #setField} lub {@link #copyBoard} unieważnia strukturę; ruchy wykonywane przez
+     * mechanikę gry aktualizują ją przyrostowo.
+     */
+    private boolean chainsValid = false;
 
     /**
      * Tworzy nową planszę o zadanym rozmiarze.
-     * Inicjalizuje wszystkie pola wartością {@link Stone#EMPTY}.
+     * Wszystkie pola są początkowo puste ({@link Stone#EMPTY}).
      *
-     * @param size rozmiar planszy (np. 9, 13, 19).
+     * @param size rozmiar planszy (np. 9, 13, 19, 25).
+     * @throws IllegalArgumentException jeśli rozmiar nie mieści się w zakresie 1-{@value #MAX_SIZE}.
      */
     public Board(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Nieobslugiwany rozmiar planszy: " + size);
+        }
         this.size = size;
-        this.fields = new Stone[size][size];
+        this.geometry = BoardGeometry.forSize(size);
+        this.black = geometry.newMask();
+        this.white = geometry.newMask();
+        this.cells = new byte[geometry.getPoints() + 1];
+        java.util.Arrays.fill(cells, (byte) Stone.EMPTY.ordinal());
+        cells[geometry.getOffBoard()] = OFF_BOARD;
+    }
 
-        for (int i = 0; i<size; i++) {
-            for (int j = 0; j < size; j++) {
-                fields[i][j] = Stone.EMPTY;
-            }
+    /**
+     * Zwraca rozmiary plansz, które można wybrać przy rozpoczęciu partii.
+     *
+     * @return kopia tablicy rozmiarów (rosnąco).
+     */
+    public static int[] supportedSizes() {
+        return SUPPORTED_SIZES.clone();
+    }
+
+    /**
+     * Sprawdza, czy partię można rozpocząć na planszy o podanym rozmiarze.
+     *
+     * @param size rozmiar boku planszy.
+     * @return true, jeśli rozmiar należy do {@link #supportedSizes()}.
+     */
+    public static boolean isSupportedSize(int size) {
+        for (int supported : SUPPORTED_SIZES) {
+            if (supported == size) return true;
         }
+        return false;
     }
 
     /**
@@ -59,7 +141,20 @@ public class Board {
         if (!isFieldOnBoard(wspX, wspY)) {
             throw new IllegalArgumentException("Podane pole nie nalezy do planszy!");
         }
-        fields[wspX][wspY] = stone;
+        int index = geometry.index(wspX, wspY);
+        long bit = 1L << index;
+        int word = index >>> 6;
+        // Aktualizacja klucza Zobrista: usuwamy klucz starego kamienia i dodajemy klucz nowego
+        if ((black[word] & bit) != 0) zobristKey ^= Zobrist.key(Stone.BLACK, index);
+        else if ((white[word] & bit) != 0) zobristKey ^= Zobrist.key(Stone.WHITE, index);
+        zobristKey ^= Zobrist.key(stone, index);
+
+        black[word] &= ~bit;
+        white[word] &= ~bit;
+        if (stone == Stone.BLACK) black[word] |= bit;
+        else if (stone == Stone.WHITE) white[word] |= bit;
+        cells[index] = (byte) stone.ordinal();
+        chainsValid = false;
 
         if (stone != Stone.EMPTY) {
             setLastMove(wspX, wspY);
@@ -78,7 +173,20 @@ public class Board {
         if (!isFieldOnBoard(wspX, wspY)) {
             throw new IllegalArgumentException("Podane pole nie nalezy do planszy!");
         }
-        return fields[wspX][wspY];
+        return STONES[cells[geometry.index(wspX, wspY)]];
+    }
+
+    /**
+     * Sprawdza, czy na polu o podanym indeksie (np. z {@link BoardGeometry#neighbour}) leży dany kolor.
+     * Pole-strażnik ({@link BoardGeometry#getOffBoard()}) nie jest równe żadnemu kolorowi,
+     * w tym {@link Stone#EMPTY}, więc pętle po sąsiadach nie muszą sprawdzać granic planszy.
+     *
+     * @param index indeks pola lub pola-strażnika.
+     * @param stone oczekiwany stan pola (BLACK, WHITE lub EMPTY).
+     * @return true, jeśli pole należy do planszy i ma podany stan.
+     */
+    public boolean fieldIs(int index, Stone stone) {
+        return cells[index] == stone.ordinal();
     }
 
     /**
@@ -113,22 +221,31 @@ public class Board {
         // 4. Porównanie rozmiaru (szybkie sprawdzenie)
         if (size != board.size) return false;
 
-        // 5. KLUCZOWE: Porównanie zawartości tablicy dwuwymiarowej
-        return java.util.Arrays.deepEquals(this.fields, board.fields);
+        // 5. KLUCZOWE: Porównanie zbiorów bitowych obu kolorów (kilka słów zamiast kilkuset pól)
+        return java.util.Arrays.equals(this.black, board.black)
+                && java.util.Arrays.equals(this.white, board.white);
     }
 
     /**
-     * Generuje unikalny kod skrótu (hash) dla stanu planszy.
+     * Generuje kod skrótu (hash) dla stanu planszy na podstawie klucza Zobrista.
      * Konieczne dla poprawnego działania w kolekcjach typu HashSet/HashMap.
+     * Klucz jest utrzymywany przyrostowo, więc metoda działa w czasie stałym.
      *
      * @return kod hash reprezentujący stan planszy.
      */
     @Override
     public int hashCode() {
-        // Generujemy unikalny skrót na podstawie rozmiaru i zawartości tablicy
-        int result = java.util.Objects.hash(size);
-        result = 31 * result + java.util.Arrays.deepHashCode(fields);
-        return result;
+        return Long.hashCode(zobristKey);
+    }
+
+    /**
+     * Zwraca 64-bitowy klucz Zobrista bieżącej pozycji.
+     * Równe plansze tego samego rozmiaru mają równe klucze; używany do wykrywania powtórzeń pozycji (superko).
+     *
+     * @return klucz Zobrista pozycji.
+     */
+    public long getZobristKey() {
+        return zobristKey;
     }
 
     /**
@@ -138,10 +255,21 @@ public class Board {
      * @param destinationBoard plansza docelowa, do której zostanie skopiowany stan.
      */
     public void copyBoard(Board destinationBoard) {
-        int minSize = Math.min(this.size, destinationBoard.size);
-        for (int i = 0; i < minSize; i++) {
-            for (int j = 0; j < minSize; j++) {
-                destinationBoard.fields[i][j] = this.fields[i][j];
+        if (this.size == destinationBoard.size) {
+            // Ten sam rozmiar - kopiujemy całe słowa bitowe
+            System.arraycopy(this.black, 0, destinationBoard.black, 0, black.length);
+            System.arraycopy(this.white, 0, destinationBoard.white, 0, white.length);
+            System.arraycopy(this.cells, 0, destinationBoard.cells, 0, cells.length);
+            destinationBoard.zobristKey = this.zobristKey;
+            destinationBoard.chainsValid = false;
+        }
+        else {
+            // Różne rozmiary - kopiujemy wspólny fragment pole po polu
+            int minSize = Math.min(this.size, destinationBoard.size);
+            for (int i = 0; i < minSize; i++) {
+                for (int j = 0; j < minSize; j++) {
+                    destinationBoard.setField(i, j, this.getField(i, j));
+                }
             }
         }
 
@@ -156,4 +284,109 @@ public class Board {
     public Point getLastMove() {
         return lastMove;
     }
+
+    /**
+     * Zwraca geometrię planszy (maski i operacje na zbiorach bitowych).
+     *
+     * @return geometria planszy tego rozmiaru.
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Zwraca strukturę łańcuchów (grup) i ich oddechów dla bieżącego układu kamieni.
+     * Jeśli plansza była zmieniana przez {@link #setField}, struktura jest najpierw odbudowywana.
+     *
+     * @return aktualna struktura łańcuchów tej planszy.
+     */
+    public ChainTracker getChains() {
+        if (chains == null) {
+            chains = new ChainTracker(this);
+        }
+        if (!chainsValid) {
+            chains.rebuild();
+            chainsValid = true;
+        }
+        return chains;
+    }
+
+    /**
+     * Zwraca kolor kamienia na polu o podanym indeksie bitowym (bez sprawdzania granic).
+     * Nie może być wywołana dla pola-strażnika - do tego służy {@link #fieldIs}.
+     *
+     * @param index indeks pola.
+     * @return stan pola.
+     */
+    Stone stoneAt(int index) {
+        return STONES[cells[index]];
+    }
+
+    /**
+     * Stawia kamień na pustym polu o podanym indeksie, aktualizując klucz Zobrista.
+     * W przeciwieństwie do {@link #setField} nie unieważnia struktury łańcuchów -
+     * używane przez {@link ChainTracker}, który sam utrzymuje jej spójność.
+     *
+     * @param index indeks pustego pola.
+     * @param color kolor kamienia (BLACK lub WHITE).
+     */
+    void putStone(int index, Stone color) {
+        stones(color)[index >>> 6] |= 1L << index;
+        cells[index] = (byte) color.ordinal();
+        zobristKey ^= Zobrist.key(color, index);
+    }
+
+    /**
+     * Zdejmuje kamień z pola o podanym indeksie, aktualizując klucz Zobrista.
+     * Podobnie jak {@link #putStone} nie unieważnia struktury łańcuchów.
+     *
+     * @param index indeks pola z kamieniem.
+     */
+    void removeStone(int index) {
+        Stone color = stoneAt(index);
+        if (color == Stone.EMPTY) return;
+        stones(color)[index >>> 6] &= ~(1L << index);
+        cells[index] = (byte) Stone.EMPTY.ordinal();
+        zobristKey ^= Zobrist.key(color, index);
+    }
+
+    /**
+     * Zwraca zbiór bitowy kamieni danego koloru.
+     * Tablica nie jest kopiowana - służy do szybkich operacji w pakiecie logiki gry
+     * i nie powinna być modyfikowana poza klasą {@link Board}.
+     *
+     * @param color kolor kamieni (BLACK lub WHITE).
+     * @return zbiór bitowy kamieni danego koloru.
+     */
+    long[] stones(Stone color) {
+        return color == Stone.BLACK ? black : white;
+    }
+
+    /**
+     * Zdejmuje z planszy wszystkie kamienie należące do podanego zbioru pól.
+     * Nie unieważnia struktury łańcuchów - używane przez {@link ChainTracker} przy biciu.
+     *
+     * @param mask zbiór pól do wyczyszczenia.
+     */
+    void removeStones(long[] mask) {
+        for (int i = 0; i < mask.length; i++) {
+            long removedBlack = black[i] & mask[i];
+            long removedWhite = white[i] & mask[i];
+            // Klucz Zobrista: zdejmujemy klucze wszystkich usuwanych kamieni
+            while (removedBlack != 0) {
+                int index = (i << 6) + Long.numberOfTrailingZeros(removedBlack);
+                zobristKey ^= Zobrist.key(Stone.BLACK, index);
+                cells[index] = (byte) Stone.EMPTY.ordinal();
+                removedBlack &= removedBlack - 1;
+            }
+            while (removedWhite != 0) {
+                int index = (i << 6) + Long.numberOfTrailingZeros(removedWhite);
+                zobristKey ^= Zobrist.key(Stone.WHITE, index);
+                cells[index] = (byte) Stone.EMPTY.ordinal();
+                removedWhite &= removedWhite - 1;
+            }
+            black[i] &= ~mask[i];
+            white[i] &= ~mask[i];
+        }
+    }
 }
\ No newline at end of file
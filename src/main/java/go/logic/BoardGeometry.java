@@ -0,0 +1,351 @@
+package go.logic;
+
+/**
+ * Geometria planszy o zadanym rozmiarze dla reprezentacji bitowej (bitboard).
+ * <p>
+ * Pole (x, y) odpowiada bitowi o indeksie {@code y * size + x}, a bity są upakowane
+ * w tablicy {@code long[]} po 64 na słowo. Klasa przechowuje maski krawędzi potrzebne
+ * do rozszerzania zbiorów pól przesunięciami bitowymi (shift-and-mask), dzięki czemu
+ * wyszukiwanie grup, oddechów i terytorium sprowadza się do kilku operacji na słowach.
+ * <p>
+ * Dla pojedynczych pól geometria udostępnia też wyliczone z góry tablice sąsiadów
+ * (w kolejności {@link Direction}: góra, lewo, prawo, dół) oraz sąsiadów po przekątnej.
+ * Sąsiad leżący poza planszą wskazuje na pole-strażnika o indeksie {@link #getOffBoard()},
+ * które na każdej planszy jest zawsze "poza planszą" - pętle po sąsiadach nie potrzebują
+ * więc sprawdzania granic ani dzielenia indeksu na współrzędne.
+ * <p>
+ * Instancje są niezmienne i współdzielone przez wszystkie plansze tego samego rozmiaru.
+ */
+public final class BoardGeometry {
+
+    /** Liczba sąsiadów (oraz sąsiadów po przekątnej) każdego pola w tablicach geometrii. */
+    public static final int DIRECTIONS = 4;
+
+    /** Kierunki w tablicy {@link #neighbour} - numery zgodne z kolejnością {@link Direction}. */
+    public static final int UP = 0;
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+    public static final int DOWN = 3;
+
+    /** Kierunki po przekątnej w tablicy {@link #diagonal}: lewo-góra, prawo-góra, lewo-dół, prawo-dół. */
+    public static final int UP_LEFT = 0;
+    public static final int UP_RIGHT = 1;
+    public static final int DOWN_LEFT = 2;
+    public static final int DOWN_RIGHT = 3;
+
+    /** Pamięć podręczna geometrii dla typowych rozmiarów planszy. */
+    private static final BoardGeometry[] CACHE = new BoardGeometry[32];
+
+    /** Rozmiar boku planszy. */
+    private final int size;
+
+    /** Liczba pól planszy (size * size). */
+    private final int points;
+
+    /** Liczba słów 64-bitowych potrzebnych do zapisania jednego zbioru pól. */
+    private final int words;
+
+    /** Maska wszystkich pól należących do planszy. */
+    private final long[] onBoard;
+
+    /** Maska pól, które nie leżą w pierwszej kolumnie (x != 0). */
+    private final long[] notFirstColumn;
+
+    /** Maska pól, które nie leżą w ostatniej kolumnie (x != size - 1). */
+    private final long[] notLastColumn;
+
+    /** Sąsiedzi pól: {@code [DIRECTIONS * indeks + kierunek]}, pole-strażnik dla sąsiada spoza planszy. */
+    private final int[] neighbours;
+
+    /** Sąsiedzi pól po przekątnej, w tym samym układzie co {@link #neighbours}. */
+    private final int[] diagonals;
+
+    /**
+     * Tworzy geometrię dla planszy o zadanym rozmiarze i wylicza maski krawędzi.
+     *
+     * @param size rozmiar boku planszy.
+     * @throws IllegalArgumentException jeśli rozmiar nie mieści się w zakresie 1-63.
+     */
+    private BoardGeometry(int size) {
+        if (size < 1 || size >= Long.SIZE) {
+            throw new IllegalArgumentException("Nieobslugiwany rozmiar planszy: " + size);
+        }
+        this.size = size;
+        this.points = size * size;
+        this.words = (points + Long.SIZE - 1) / Long.SIZE;
+        this.onBoard = new long[words];
+        this.notFirstColumn = new long[words];
+        this.notLastColumn = new long[words];
+
+        this.neighbours = new int[DIRECTIONS * points];
+        this.diagonals = new int[DIRECTIONS * points];
+
+        for (int index = 0; index < points; index++) {
+            long bit = 1L << index;
+            onBoard[index >>> 6] |= bit;
+            if (index % size != 0) notFirstColumn[index >>> 6] |= bit;
+            if (index % size != size - 1) notLastColumn[index >>> 6] |= bit;
+
+            int x = index % size;
+            int y = index / size;
+            Direction[] directions = Direction.values();
+            for (int d = 0; d < DIRECTIONS; d++) {
+                neighbours[DIRECTIONS * index + d] = indexOrOffBoard(x + directions[d].getDx(), y + directions[d].getDy());
+            }
+            diagonals[DIRECTIONS * index + UP_LEFT] = indexOrOffBoard(x - 1, y - 1);
+            diagonals[DIRECTIONS * index + UP_RIGHT] = indexOrOffBoard(x + 1, y - 1);
+            diagonals[DIRECTIONS * index + DOWN_LEFT] = indexOrOffBoard(x - 1, y + 1);
+            diagonals[DIRECTIONS * index + DOWN_RIGHT] = indexOrOffBoard(x + 1, y + 1);
+        }
+    }
+
+    private int indexOrOffBoard(int x, int y) {
+        return x >= 0 && x < size && y >= 0 && y < size ? index(x, y) : points;
+    }
+
+    /**
+     * Zwraca (współdzieloną) geometrię dla planszy o podanym rozmiarze.
+     *
+     * @param size rozmiar boku planszy.
+     * @return geometria planszy.
+     */
+    public static BoardGeometry forSize(int size) {
+        if (size < 0 || size >= CACHE.length) {
+            return new BoardGeometry(size);
+        }
+        synchronized (CACHE) {
+            if (CACHE[size] == null) {
+                CACHE[size] = new BoardGeometry(size);
+            }
+            return CACHE[size];
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public int getWords() {
+        return words;
+    }
+
+    /**
+     * Zwraca indeks pola-strażnika, na który wskazują sąsiedzi leżący poza planszą.
+     * Jest to pierwszy indeks za ostatnim polem planszy ({@link #getPoints()}).
+     *
+     * @return indeks pola-strażnika.
+     */
+    public int getOffBoard() {
+        return points;
+    }
+
+    /**
+     * Zwraca sąsiada pola w danym kierunku (bez sprawdzania granic).
+     *
+     * @param index     indeks pola na planszy.
+     * @param direction numer kierunku w kolejności {@link Direction} (0 - {@link #DIRECTIONS} - 1).
+     * @return indeks sąsiada lub {@link #getOffBoard()}, jeśli sąsiad leży poza planszą.
+     */
+    public int neighbour(int index, int direction) {
+        return neighbours[DIRECTIONS * index + direction];
+    }
+
+    /**
+     * Zwraca sąsiada pola po przekątnej (bez sprawdzania granic).
+     *
+     * @param index     indeks pola na planszy.
+     * @param direction jeden z kierunków {@link #UP_LEFT}, {@link #UP_RIGHT}, {@link #DOWN_LEFT}, {@link #DOWN_RIGHT}.
+     * @return indeks sąsiada lub {@link #getOffBoard()}, jeśli sąsiad leży poza planszą.
+     */
+    public int diagonal(int index, int direction) {
+        return diagonals[DIRECTIONS * index + direction];
+    }
+
+    /**
+     * Przelicza współrzędne na indeks bitu.
+     *
+     * @param x współrzędna X (kolumna).
+     * @param y współrzędna Y (wiersz).
+     * @return indeks pola w zbiorze bitowym.
+     */
+    public int index(int x, int y) {
+        return y * size + x;
+    }
+
+    /**
+     * Zwraca współrzędną X pola o podanym indeksie.
+     *
+     * @param index indeks pola.
+     * @return współrzędna X (kolumna).
+     */
+    public int xOf(int index) {
+        return index % size;
+    }
+
+    /**
+     * Zwraca współrzędną Y pola o podanym indeksie.
+     *
+     * @param index indeks pola.
+     * @return współrzędna Y (wiersz).
+     */
+    public int yOf(int index) {
+        return index / size;
+    }
+
+    /**
+     * Tworzy pusty zbiór pól o długości odpowiedniej dla tej geometrii.
+     *
+     * @return nowa, wyzerowana tablica słów.
+     */
+    public long[] newMask() {
+        return new long[words];
+    }
+
+    /**
+     * Wylicza domknięcie zbioru o sąsiadów (dylatacja): wynik zawiera pola zbioru wejściowego
+     * oraz wszystkie pola sąsiadujące z nimi w pionie lub poziomie.
+     * Przesunięcia o 1 bit są maskowane krawędziami kolumn, aby pola nie "zawijały się" między wierszami.
+     *
+     * @param src zbiór wejściowy.
+     * @param dst tablica wynikowa (musi być inną tablicą niż {@code src}).
+     */
+    public void dilate(long[] src, long[] dst) {
+        spread(src, dst, -1L);
+    }
+
+    /**
+     * Wylicza pola sąsiadujące w pionie lub poziomie z którymkolwiek polem zbioru.
+     * W odróżnieniu od {@link #dilate} pola zbioru wejściowego należą do wyniku tylko wtedy,
+     * gdy same sąsiadują z innym polem zbioru.
+     *
+     * @param src zbiór wejściowy.
+     * @param dst tablica wynikowa (musi być inną tablicą niż {@code src}).
+     */
+    public void adjacent(long[] src, long[] dst) {
+        spread(src, dst, 0L);
+    }
+
+    /**
+     * Wspólna implementacja {@link #dilate} i {@link #adjacent}.
+     *
+     * @param keep maska bitów zbioru wejściowego przepisywanych do wyniku (-1 lub 0).
+     */
+    private void spread(long[] src, long[] dst, long keep) {
+        int rowShift = size;
+        for (int i = 0; i < words; i++) {
+            long word = src[i];
+            long previous = i > 0 ? src[i - 1] : 0L;
+            long next = i + 1 < words ? src[i + 1] : 0L;
+
+            long toRight = (word << 1) | (previous >>> 63);
+            long toLeft = (word >>> 1) | (next << 63);
+            long toBelow = (word << rowShift) | (previous >>> (Long.SIZE - rowShift));
+            long toAbove = (word >>> rowShift) | (next << (Long.SIZE - rowShift));
+
+            dst[i] = ((word & keep)
+                    | (toRight & notFirstColumn[i])
+                    | (toLeft & notLastColumn[i])
+                    | toBelow
+                    | toAbove) & onBoard[i];
+        }
+    }
+
+    /**
+     * Wypełnia obszar spójny (flood fill) zaczynając od pól {@code seed},
+     * rozszerzając go wyłącznie po polach należących do {@code mask}.
+     *
+     * @param seed    pola startowe.
+     * @param mask    pola, po których wolno się rozszerzać (np. kamienie jednego koloru).
+     * @param dst     tablica wynikowa - spójny obszar zawierający pola startowe.
+     * @param scratch tablica robocza o długości {@link #getWords()}.
+     */
+    public void floodFill(long[] seed, long[] mask, long[] dst, long[] scratch) {
+        for (int i = 0; i < words; i++) {
+            dst[i] = seed[i] & mask[i];
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            dilate(dst, scratch);
+            for (int i = 0; i < words; i++) {
+                long grown = scratch[i] & mask[i];
+                if (grown != dst[i]) {
+                    dst[i] = grown;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Wylicza pola sąsiadujące ze zbiorem {@code group}, które są puste na podanej planszy
+     * (dla grupy kamieni są to jej oddechy).
+     *
+     * @param group   zbiór pól (np. grupa kamieni).
+     * @param black   zbiór czarnych kamieni.
+     * @param white   zbiór białych kamieni.
+     * @param dst     tablica wynikowa.
+     */
+    public void emptyNeighbours(long[] group, long[] black, long[] white, long[] dst) {
+        dilate(group, dst);
+        for (int i = 0; i < words; i++) {
+            dst[i] &= ~(group[i] | black[i] | white[i]);
+        }
+    }
+
+    /**
+     * Wyznacza puste pola planszy (należące do planszy i niezajęte przez żaden kamień).
+     *
+     * @param black zbiór czarnych kamieni.
+     * @param white zbiór białych kamieni.
+     * @param dst   tablica wynikowa.
+     */
+    public void emptyPoints(long[] black, long[] white, long[] dst) {
+        for (int i = 0; i < words; i++) {
+            dst[i] = onBoard[i] & ~(black[i] | white[i]);
+        }
+    }
+
+    /**
+     * Sprawdza, czy pole o podanym indeksie należy do zbioru.
+     *
+     * @param mask  zbiór pól.
+     * @param index indeks pola.
+     * @return true, jeśli bit pola jest ustawiony.
+     */
+    public static boolean contains(long[] mask, int index) {
+        return (mask[index >>> 6] & (1L << index)) != 0L;
+    }
+
+    /**
+     * Sprawdza, czy zbiór pól jest pusty.
+     *
+     * @param mask zbiór pól.
+     * @return true, jeśli żaden bit nie jest ustawiony.
+     */
+    public static boolean isEmpty(long[] mask) {
+        for (long word : mask) {
+            if (word != 0L) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Zlicza pola należące do zbioru.
+     *
+     * @param mask zbiór pól.
+     * @return liczba ustawionych bitów.
+     */
+    public static int count(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,286 @@
+package go.logic;
+
+import java.awt.Point;
+import java.util.Arrays;
+
+/**
+ * Symetrie planszy (grupa dihedralna D4: obroty o 90 stopni i odbicia) oraz postać kanoniczna pozycji.
+ * <p>
+ * Pozycje różniące się tylko jedną z 8 symetrii są dla gry równoważne. Postać kanoniczna to ta
+ * spośród 8 przekształconych pozycji, która ma najmniejszy klucz Zobrista - kluczem kanonicznym
+ * można więc deduplikować pozycje w książce otwarć, pamięci podręcznej ocen czy indeksie partii.
+ * <p>
+ * Dla każdej symetrii wyliczana jest raz permutacja indeksów pól ({@code int[]}), współdzielona
+ * przez plansze tego samego rozmiaru. Klucz kanoniczny liczony jest w jednym przejściu po bitach
+ * kamieni (dla każdego kamienia 8 odczytów permutacji i 8 operacji XOR), bez tworzenia nowych plansz.
+ * Obiekty są niezmienne i bezpieczne wątkowo.
+ */
+public final class BoardSymmetry {
+
+    /** Liczba symetrii kwadratu. */
+    public static final int COUNT = 8;
+
+    /** Przekształcenie tożsamościowe. */
+    public static final int IDENTITY = 0;
+
+    /** Odbicie względem pionowej osi: (x, y) -> (n - x, y), gdzie n = size - 1. */
+    public static final int MIRROR_X = 1;
+
+    /** Odbicie względem poziomej osi: (x, y) -> (x, n - y). */
+    public static final int MIRROR_Y = 2;
+
+    /** Obrót o 180 stopni: (x, y) -> (n - x, n - y). */
+    public static final int ROTATE_180 = 3;
+
+    /** Odbicie względem głównej przekątnej: (x, y) -> (y, x). */
+    public static final int TRANSPOSE = 4;
+
+    /** Obrót o 90 stopni: (x, y) -> (n - y, x). */
+    public static final int ROTATE_90 = 5;
+
+    /** Obrót o 270 stopni: (x, y) -> (y, n - x). */
+    public static final int ROTATE_270 = 6;
+
+    /** Odbicie względem drugiej przekątnej: (x, y) -> (n - y, n - x). */
+    public static final int ANTI_TRANSPOSE = 7;
+
+    /** Przekształcenia odwrotne - wszystkie symetrie poza obrotami o 90 i 270 stopni są inwolucjami. */
+    private static final int[] INVERSE = {
+            IDENTITY, MIRROR_X, MIRROR_Y, ROTATE_180, TRANSPOSE, ROTATE_270, ROTATE_90, ANTI_TRANSPOSE
+    };
+
+    private static final Stone[] COLORS = {Stone.BLACK, Stone.WHITE};
+
+    /** Pamięć podręczna symetrii dla dopuszczalnych rozmiarów planszy. */
+    private static final BoardSymmetry[] CACHE = new BoardSymmetry[Board.MAX_SIZE + 1];
+
+    private final BoardGeometry geometry;
+
+    /** Permutacje indeksów pól: {@code map[symetria][indeks]} to indeks obrazu pola. */
+    private final int[][] map;
+
+    private BoardSymmetry(int size) {
+        this.geometry = BoardGeometry.forSize(size);
+        int points = geometry.getPoints();
+        int n = size - 1;
+        this.map = new int[COUNT][points];
+        for (int index = 0; index < points; index++) {
+            int x = geometry.xOf(index);
+            int y = geometry.yOf(index);
+            map[IDENTITY][index] = index;
+            map[MIRROR_X][index] = geometry.index(n - x, y);
+            map[MIRROR_Y][index] = geometry.index(x, n - y);
+            map[ROTATE_180][index] = geometry.index(n - x, n - y);
+            map[TRANSPOSE][index] = geometry.index(y, x);
+            map[ROTATE_90][index] = geometry.index(n - y, x);
+            map[ROTATE_270][index] = geometry.index(y, n - x);
+            map[ANTI_TRANSPOSE][index] = geometry.index(n - y, n - x);
+        }
+    }
+
+    /**
+     * Zwraca (współdzielone) symetrie dla planszy o podanym rozmiarze.
+     *
+     * @param size rozmiar boku planszy.
+     * @return symetrie planszy.
+     * @throws IllegalArgumentException jeśli rozmiar nie mieści się w zakresie 1-{@value Board#MAX_SIZE}.
+     */
+    public static BoardSymmetry forSize(int size) {
+        if (size < 1 || size > Board.MAX_SIZE) {
+            throw new IllegalArgumentException("Nieobslugiwany rozmiar planszy: " + size);
+        }
+        synchronized (CACHE) {
+            if (CACHE[size] == null) {
+                CACHE[size] = new BoardSymmetry(size);
+            }
+            return CACHE[size];
+        }
+    }
+
+    /**
+     * Zwraca symetrię odwrotną do podanej.
+     *
+     * @param symmetry numer symetrii (0-7).
+     * @return numer symetrii odwrotnej.
+     */
+    public static int inverse(int symmetry) {
+        return INVERSE[symmetry];
+    }
+
+    public int getSize() {
+        return geometry.getSize();
+    }
+
+    /**
+     * Zwraca indeks obrazu pola w danej symetrii.
+     *
+     * @param symmetry numer symetrii (0-7).
+     * @param index    indeks pola.
+     * @return indeks pola po przekształceniu.
+     */
+    public int transform(int symmetry, int index) {
+        return map[symmetry][index];
+    }
+
+    /**
+     * Zwraca indeks obrazu pola o podanych współrzędnych w danej symetrii.
+     *
+     * @param symmetry numer symetrii (0-7).
+     * @param x        współrzędna X (kolumna).
+     * @param y        współrzędna Y (wiersz).
+     * @return indeks pola po przekształceniu.
+     */
+    public int transform(int symmetry, int x, int y) {
+        return map[symmetry][geometry.index(x, y)];
+    }
+
+    /**
+     * Odwzorowuje pole przekształconej pozycji z powrotem na pole pozycji oryginalnej
+     * (np. ruch znaleziony w książce otwarć dla postaci kanonicznej).
+     *
+     * @param symmetry numer symetrii, którą przekształcono pozycję.
+     * @param index    indeks pola w pozycji przekształconej.
+     * @return indeks pola w pozycji oryginalnej.
+     */
+    public int restore(int symmetry, int index) {
+        return map[INVERSE[symmetry]][index];
+    }
+
+    /**
+     * Liczy klucz Zobrista pozycji po przekształceniu danej symetrii, bez tworzenia planszy.
+     *
+     * @param board    plansza tego rozmiaru.
+     * @param symmetry numer symetrii (0-7).
+     * @return klucz, jaki miałaby przekształcona plansza.
+     */
+    public long key(Board board, int symmetry) {
+        if (symmetry == IDENTITY) return board.getZobristKey();
+        int[] permutation = map[symmetry];
+        long key = 0L;
+        for (Stone color : COLORS) {
+            long[] stones = board.stones(color);
+            for (int w = 0; w < stones.length; w++) {
+                long bits = stones[w];
+                while (bits != 0) {
+                    int index = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    key ^= Zobrist.key(color, permutation[index]);
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Wyznacza symetrię, która przekształca pozycję do postaci kanonicznej (najmniejszy klucz
+     * Zobrista). Przy remisie, czyli dla pozycji symetrycznych, wybierana jest symetria o najmniejszym numerze.
+     *
+     * @param board plansza tego rozmiaru.
+     * @return numer symetrii (0-7).
+     */
+    public int canonicalSymmetry(Board board) {
+        long[] keys = keys(board);
+        int best = IDENTITY;
+        for (int s = 1; s < COUNT; s++) {
+            if (keys[s] < keys[best]) best = s;
+        }
+        return best;
+    }
+
+    /**
+     * Zwraca klucz kanoniczny pozycji - wspólny dla wszystkich 8 pozycji symetrycznych.
+     * Jest równy {@link Board#getZobristKey()} planszy zwracanej przez {@link #canonicalForm}.
+     *
+     * @param board plansza tego rozmiaru.
+     * @return najmniejszy z kluczy Zobrista przekształconych pozycji.
+     */
+    public long canonicalKey(Board board) {
+        long[] keys = keys(board);
+        long best = keys[IDENTITY];
+        for (int s = 1; s < COUNT; s++) {
+            best = Math.min(best, keys[s]);
+        }
+        return best;
+    }
+
+    /**
+     * Zwraca nową planszę z pozycją w postaci kanonicznej.
+     *
+     * @param board plansza tego rozmiaru.
+     * @return nowa plansza.
+     */
+    public Board canonicalForm(Board board) {
+        Board result = new Board(getSize());
+        transform(board, canonicalSymmetry(board), result);
+        return result;
+    }
+
+    /**
+     * Zapisuje do planszy docelowej pozycję przekształconą daną symetrią
+     * (wraz z ostatnim ruchem, jeśli leży na planszy).
+     *
+     * @param source      plansza źródłowa.
+     * @param symmetry    numer symetrii (0-7).
+     * @param destination plansza docelowa tego samego rozmiaru (inna niż źródłowa).
+     * @throws IllegalArgumentException jeśli plansze mają inny rozmiar niż symetrie.
+     */
+    public void transform(Board source, int symmetry, Board destination) {
+        if (source.getSize() != getSize() || destination.getSize() != getSize()) {
+            throw new IllegalArgumentException("Rozmiar planszy nie pasuje do symetrii");
+        }
+        int[] permutation = map[symmetry];
+        for (int index = 0; index < permutation.length; index++) {
+            int target = permutation[index];
+            destination.setField(geometry.xOf(target), geometry.yOf(target), source.stoneAt(index));
+        }
+        Point lastMove = source.getLastMove();
+        if (source.isFieldOnBoard(lastMove.x, lastMove.y)) {
+            int target = transform(symmetry, lastMove.x, lastMove.y);
+            destination.setLastMove(geometry.xOf(target), geometry.yOf(target));
+        } else {
+            destination.setLastMove(lastMove.x, lastMove.y);
+        }
+    }
+
+    /**
+     * Przekształca zbiór bitowy pól (np. zbiór legalnych ruchów lub martwych kamieni).
+     *
+     * @param source      zbiór pól w układzie {@link BoardGeometry}.
+     * @param symmetry    numer symetrii (0-7).
+     * @param destination zbiór docelowy (nadpisywany, inny niż źródłowy).
+     */
+    public void transform(long[] source, int symmetry, long[] destination) {
+        int[] permutation = map[symmetry];
+        Arrays.fill(destination, 0L);
+        for (int w = 0; w < source.length; w++) {
+            long bits = source[w];
+            while (bits != 0) {
+                int target = permutation[(w << 6) + Long.numberOfTrailingZeros(bits)];
+                destination[target >>> 6] |= 1L << target;
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Liczy klucze Zobrista wszystkich 8 przekształconych pozycji w jednym przejściu po kamieniach.
+     */
+    private long[] keys(Board board) {
+        long[] keys = new long[COUNT];
+        keys[IDENTITY] = board.getZobristKey();
+        for (Stone color : COLORS) {
+            long[] stones = board.stones(color);
+            for (int w = 0; w < stones.length; w++) {
+                long bits = stones[w];
+                while (bits != 0) {
+                    int index = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    for (int s = 1; s < COUNT; s++) {
+                        keys[s] ^= Zobrist.key(color, map[s][index]);
+                    }
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,469 @@
+package go.logic;
+
+import java.util.Arrays;
+
+/**
+ * Przyrostowa struktura łańcuchów (grup kamieni) i ich oddechów dla jednej planszy.
+ * <p>
+ * Każde pole z kamieniem wskazuje na "korzeń" swojego łańcucha, a dla każdego korzenia
+ * przechowywany jest zbiór bitowy kamieni i zbiór bitowy oddechów łańcucha.
+ * Struktura jest aktualizowana przy każdym postawieniu kamienia i każdym biciu
+ * (łączenie łańcuchów, odejmowanie i dodawanie oddechów), więc sprawdzenie bicia,
+ * samobójstwa czy atari kosztuje O(1) lub O(rozmiar łańcucha) zamiast przeszukiwania planszy.
+ * <p>
+ * Trackera nie tworzy się bezpośrednio - udostępnia go {@link Board#getChains()}.
+ * Zmiany wprowadzone przez {@link Board#setField} unieważniają strukturę, która jest wtedy
+ * odbudowywana jednym przebiegiem przy następnym użyciu.
+ */
+public final class ChainTracker {
+
+    /** Oznaczenie pola bez kamienia w tablicy {@link #chainOf}. */
+    private static final int NO_CHAIN = -1;
+
+    private final Board board;
+    private final BoardGeometry geometry;
+
+    /** Dla każdego pola: indeks korzenia łańcucha, do którego należy kamień, lub {@link #NO_CHAIN}. */
+    private final int[] chainOf;
+
+    /** Liczba kamieni łańcucha (indeksowane korzeniem). */
+    private final int[] chainSize;
+
+    /** Zbiory bitowe kamieni łańcuchów (indeksowane korzeniem). */
+    private final long[][] chainStones;
+
+    /** Zbiory bitowe oddechów łańcuchów (indeksowane korzeniem). */
+    private final long[][] chainLiberties;
+
+    // Bufory robocze - dzięki nim aktualizacja po ruchu nie tworzy nowych obiektów.
+    private final long[] seed;
+    private final long[] scratch;
+    private final long[] refreshed;
+
+    /** Kamienie zbite przez ostatni ruch (potrzebne do jego cofnięcia). */
+    private final int[] capturedStones;
+    private int capturedCount = 0;
+    private final int[] adjacent = new int[4];
+    private final int[] capturedAdjacent = new int[4];
+    private final int[] distinctRoots = new int[4];
+
+    /**
+     * Tworzy pustą strukturę łańcuchów dla planszy.
+     *
+     * @param board plansza, której łańcuchy będą śledzone.
+     */
+    ChainTracker(Board board) {
+        this.board = board;
+        this.geometry = board.getGeometry();
+
+        int points = geometry.getPoints();
+        int words = geometry.getWords();
+        this.chainOf = new int[points];
+        this.chainSize = new int[points];
+        this.chainStones = new long[points][words];
+        this.chainLiberties = new long[points][words];
+        this.seed = new long[words];
+        this.scratch = new long[words];
+        this.refreshed = new long[words];
+        this.capturedStones = new int[points];
+        Arrays.fill(chainOf, NO_CHAIN);
+    }
+
+    /**
+     * Odbudowuje wszystkie łańcuchy od zera na podstawie bieżącego układu kamieni.
+     * Każdy łańcuch wyznaczany jest bitowym rozlewaniem (flood fill) po kamieniach jednego koloru.
+     */
+    void rebuild() {
+        Arrays.fill(chainOf, NO_CHAIN);
+        long[] black = board.stones(Stone.BLACK);
+        long[] white = board.stones(Stone.WHITE);
+
+        for (long[] stones : new long[][]{black, white}) {
+            for (int word = 0; word < stones.length; word++) {
+                long bits = stones[word];
+                while (bits != 0) {
+                    int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (chainOf[index] != NO_CHAIN) continue;
+                    buildChain(index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Przelicza lokalnie łańcuchy wokół pól, których zawartość zmieniła się poza {@link #play}
+     * (np. przy cofaniu ruchu). Odbudowywane są wyłącznie łańcuchy leżące na zmienionych polach
+     * lub z nimi sąsiadujące - pozostałe łańcuchy nie mogły zmienić ani kamieni, ani oddechów.
+     *
+     * @param changed indeksy zmienionych pól.
+     * @param from    indeks pierwszego pola w tablicy.
+     * @param to      indeks za ostatnim polem w tablicy.
+     */
+    void refresh(int[] changed, int from, int to) {
+        Arrays.fill(refreshed, 0L);
+        for (int i = from; i < to; i++) {
+            int index = changed[i];
+            if (board.stoneAt(index) == Stone.EMPTY) {
+                chainOf[index] = NO_CHAIN;
+            } else {
+                refreshChain(index);
+            }
+            int count = neighbours(index, adjacent);
+            for (int j = 0; j < count; j++) {
+                if (board.stoneAt(adjacent[j]) != Stone.EMPTY) {
+                    refreshChain(adjacent[j]);
+                }
+            }
+        }
+    }
+
+    /** Liczba kamieni zbitych przez ostatnie wywołanie {@link #play} lub {@link #removeDeadNeighbours}. */
+    int getCapturedCount() {
+        return capturedCount;
+    }
+
+    /**
+     * Zwraca indeks i-tego kamienia zbitego przez ostatnie wywołanie {@link #play}
+     * lub {@link #removeDeadNeighbours}.
+     */
+    int getCaptured(int i) {
+        return capturedStones[i];
+    }
+
+    /**
+     * Sprawdza, czy postawienie kamienia na pustym polu byłoby samobójstwem,
+     * tzn. nowy łańcuch nie miałby oddechów i ruch niczego by nie zbił.
+     *
+     * @param index indeks pustego pola.
+     * @param color kolor stawianego kamienia.
+     * @return true, jeśli ruch jest samobójczy.
+     */
+    boolean isSuicide(int index, Stone color) {
+        int count = neighbours(index, adjacent);
+        for (int i = 0; i < count; i++) {
+            int neighbour = adjacent[i];
+            Stone stone = board.stoneAt(neighbour);
+            if (stone == Stone.EMPTY) return false;
+
+            int liberties = libertyCountOf(chainOf[neighbour]);
+            // Własny łańcuch z innym oddechem niż to pole - nowy kamień go przejmie
+            if (stone == color && liberties > 1) return false;
+            // Łańcuch przeciwnika w atari - ruch go zbije i zyska oddech
+            if (stone != color && liberties == 1) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Wyznacza naraz wszystkie puste pola, na których postawienie kamienia nie byłoby samobójstwem.
+     * Zamiast sprawdzać każde pole osobno, liczba oddechów każdego łańcucha jest liczona raz:
+     * <ul>
+     * <li>pole z pustym sąsiadem zawsze daje nowemu kamieniowi oddech,</li>
+     * <li>oddechy własnych łańcuchów mających więcej niż jeden oddech są bezpieczne,</li>
+     * <li>jedyny oddech łańcucha przeciwnika oznacza bicie.</li>
+     * </ul>
+     * Zasada ko/superko nie jest tu sprawdzana.
+     *
+     * @param color kolor stawianego kamienia.
+     * @param dst   tablica wynikowa o długości {@link BoardGeometry#getWords()}.
+     */
+    void nonSuicidalMoves(Stone color, long[] dst) {
+        long[] black = board.stones(Stone.BLACK);
+        long[] white = board.stones(Stone.WHITE);
+        long[] empty = seed;
+        geometry.emptyPoints(black, white, empty);
+        geometry.adjacent(empty, dst);
+
+        for (int word = 0; word < empty.length; word++) {
+            long bits = black[word] | white[word];
+            while (bits != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (chainOf[index] != index) continue; // każdy łańcuch tylko raz - przez jego korzeń
+
+                int liberties = libertyCountOf(index);
+                boolean own = board.stoneAt(index) == color;
+                if ((own && liberties > 1) || (!own && liberties == 1)) {
+                    long[] chainLibs = chainLiberties[index];
+                    for (int i = 0; i < dst.length; i++) {
+                        dst[i] |= chainLibs[i];
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < dst.length; i++) {
+            dst[i] &= empty[i];
+        }
+    }
+
+    /**
+     * Wylicza klucz Zobrista pozycji, która powstałaby po postawieniu kamienia
+     * (z uwzględnieniem zbitych łańcuchów), bez modyfikowania planszy.
+     *
+     * @param index indeks pustego pola.
+     * @param color kolor stawianego kamienia.
+     * @return klucz Zobrista pozycji po ruchu.
+     */
+    long keyAfter(int index, Stone color) {
+        long key = board.getZobristKey() ^ Zobrist.key(color, index);
+        Stone opponent = color.opponent();
+        int roots = 0;
+        int count = neighbours(index, adjacent);
+
+        for (int i = 0; i < count; i++) {
+            int neighbour = adjacent[i];
+            if (board.stoneAt(neighbour) != opponent) continue;
+
+            int root = chainOf[neighbour];
+            if (contains(distinctRoots, roots, root) || libertyCountOf(root) != 1) continue;
+            distinctRoots[roots++] = root;
+
+            long[] members = chainStones[root];
+            for (int word = 0; word < members.length; word++) {
+                long bits = members[word];
+                while (bits != 0) {
+                    key ^= Zobrist.key(opponent, (word << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Stawia kamień na pustym polu i aktualizuje łańcuchy: odejmuje oddech sąsiadom,
+     * łączy sąsiednie łańcuchy tego samego koloru i zdejmuje łańcuchy przeciwnika bez oddechów.
+     * Legalność ruchu (w tym samobójstwo) musi zostać sprawdzona wcześniej.
+     *
+     * @param index indeks pustego pola.
+     * @param color kolor stawianego kamienia.
+     * @return liczba zbitych kamieni przeciwnika.
+     */
+    int play(int index, Stone color) {
+        board.putStone(index, color);
+
+        // 1. Pole przestaje być oddechem sąsiednich łańcuchów
+        int count = neighbours(index, adjacent);
+        for (int i = 0; i < count; i++) {
+            int root = chainOf[adjacent[i]];
+            if (root != NO_CHAIN) {
+                chainLiberties[root][index >>> 6] &= ~(1L << index);
+            }
+        }
+
+        // 2. Nowy jednokamienny łańcuch i połączenie z sąsiednimi łańcuchami tego samego koloru
+        int root = index;
+        long[] members = chainStones[index];
+        long[] liberties = chainLiberties[index];
+        Arrays.fill(members, 0L);
+        Arrays.fill(liberties, 0L);
+        members[index >>> 6] = 1L << index;
+        chainSize[index] = 1;
+        chainOf[index] = index;
+        for (int i = 0; i < count; i++) {
+            int neighbour = adjacent[i];
+            if (board.stoneAt(neighbour) == Stone.EMPTY) {
+                liberties[neighbour >>> 6] |= 1L << neighbour;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int neighbour = adjacent[i];
+            if (board.stoneAt(neighbour) == color && chainOf[neighbour] != root) {
+                root = merge(root, chainOf[neighbour]);
+            }
+        }
+
+        // 3. Bicie łańcuchów przeciwnika, które straciły ostatni oddech
+        return removeDeadNeighbours(index, color);
+    }
+
+    /**
+     * Zdejmuje z planszy sąsiadujące z polem łańcuchy przeciwnika, które nie mają oddechów.
+     *
+     * @param index indeks pola (zwykle właśnie postawionego kamienia).
+     * @param color kolor gracza bijącego.
+     * @return liczba zbitych kamieni.
+     */
+    int removeDeadNeighbours(int index, Stone color) {
+        Stone opponent = color.opponent();
+        capturedCount = 0;
+        int captured = 0;
+        int count = neighbours(index, adjacent);
+        for (int i = 0; i < count; i++) {
+            int neighbour = adjacent[i];
+            if (board.stoneAt(neighbour) == opponent) {
+                int root = chainOf[neighbour];
+                if (BoardGeometry.isEmpty(chainLiberties[root])) {
+                    captured += capture(root, color);
+                }
+            }
+        }
+        return captured;
+    }
+
+    /**
+     * Zwraca liczbę oddechów łańcucha, do którego należy kamień na danym polu.
+     *
+     * @param x współrzędna X.
+     * @param y współrzędna Y.
+     * @return liczba oddechów łańcucha lub 0, jeśli pole jest puste.
+     */
+    public int getLibertyCount(int x, int y) {
+        return libertyCountOf(chainOf[geometry.index(x, y)]);
+    }
+
+    /**
+     * Zwraca liczbę kamieni łańcucha, do którego należy kamień na danym polu.
+     *
+     * @param x współrzędna X.
+     * @param y współrzędna Y.
+     * @return rozmiar łańcucha lub 0, jeśli pole jest puste.
+     */
+    public int getChainSize(int x, int y) {
+        int root = chainOf[geometry.index(x, y)];
+        return root == NO_CHAIN ? 0 : chainSize[root];
+    }
+
+    /**
+     * Sprawdza, czy łańcuch na danym polu jest w atari (ma dokładnie jeden oddech).
+     *
+     * @param x współrzędna X.
+     * @param y współrzędna Y.
+     * @return true, jeśli na polu leży kamień, którego łańcuch ma jeden oddech.
+     */
+    public boolean isInAtari(int x, int y) {
+        return getLibertyCount(x, y) == 1;
+    }
+
+    /**
+     * Sprawdza, czy dwa pola należą do tego samego łańcucha.
+     *
+     * @return true, jeśli na obu polach leżą kamienie jednego łańcucha.
+     */
+    public boolean isSameChain(int x1, int y1, int x2, int y2) {
+        int root = chainOf[geometry.index(x1, y1)];
+        return root != NO_CHAIN && root == chainOf[geometry.index(x2, y2)];
+    }
+
+    private int libertyCountOf(int root) {
+        return root == NO_CHAIN ? 0 : BoardGeometry.count(chainLiberties[root]);
+    }
+
+    /**
+     * Łączy dwa łańcuchy - mniejszy jest dołączany do większego.
+     *
+     * @return korzeń połączonego łańcucha.
+     */
+    private int merge(int first, int second) {
+        int big = chainSize[first] >= chainSize[second] ? first : second;
+        int small = big == first ? second : first;
+
+        long[] bigStones = chainStones[big];
+        long[] bigLiberties = chainLiberties[big];
+        long[] smallStones = chainStones[small];
+        long[] smallLiberties = chainLiberties[small];
+        for (int word = 0; word < bigStones.length; word++) {
+            bigStones[word] |= smallStones[word];
+            bigLiberties[word] |= smallLiberties[word];
+        }
+        chainSize[big] += chainSize[small];
+        assignRoot(smallStones, big);
+        return big;
+    }
+
+    /**
+     * Zdejmuje łańcuch z planszy i oddaje jego pola jako oddechy sąsiednim łańcuchom bijącego.
+     *
+     * @return liczba zdjętych kamieni.
+     */
+    private int capture(int root, Stone capturer) {
+        long[] members = chainStones[root];
+        int captured = chainSize[root];
+        board.removeStones(members);
+
+        for (int word = 0; word < members.length; word++) {
+            long bits = members[word];
+            while (bits != 0) {
+                int stone = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                chainOf[stone] = NO_CHAIN;
+                capturedStones[capturedCount++] = stone;
+
+                int count = neighbours(stone, capturedAdjacent);
+                for (int i = 0; i < count; i++) {
+                    int neighbour = capturedAdjacent[i];
+                    if (board.stoneAt(neighbour) == capturer) {
+                        chainLiberties[chainOf[neighbour]][word] |= 1L << stone;
+                    }
+                }
+            }
+        }
+        return captured;
+    }
+
+    /**
+     * Wyznacza od zera łańcuch zawierający kamień na danym polu (pole staje się jego korzeniem).
+     */
+    private void buildChain(int index) {
+        long[] black = board.stones(Stone.BLACK);
+        long[] white = board.stones(Stone.WHITE);
+        long[] stones = board.stoneAt(index) == Stone.BLACK ? black : white;
+
+        Arrays.fill(seed, 0L);
+        seed[index >>> 6] = 1L << index;
+        long[] members = chainStones[index];
+        geometry.floodFill(seed, stones, members, scratch);
+        geometry.emptyNeighbours(members, black, white, chainLiberties[index]);
+        chainSize[index] = BoardGeometry.count(members);
+        assignRoot(members, index);
+    }
+
+    /**
+     * Odbudowuje łańcuch zawierający dany kamień, o ile nie został już odbudowany w bieżącym odświeżaniu.
+     */
+    private void refreshChain(int index) {
+        if ((refreshed[index >>> 6] & (1L << index)) != 0) return;
+        buildChain(index);
+        long[] members = chainStones[index];
+        for (int word = 0; word < members.length; word++) {
+            refreshed[word] |= members[word];
+        }
+    }
+
+    /**
+     * Przypisuje wszystkim kamieniom ze zbioru wskazany korzeń łańcucha.
+     */
+    private void assignRoot(long[] members, int root) {
+        for (int word = 0; word < members.length; word++) {
+            long bits = members[word];
+            while (bits != 0) {
+                chainOf[(word << 6) + Long.numberOfTrailingZeros(bits)] = root;
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Wypełnia tablicę indeksami sąsiadów pola (góra, lewo, prawo, dół) leżących na planszy,
+     * korzystając z tablicy sąsiadów geometrii.
+     *
+     * @return liczba sąsiadów (2-4).
+     */
+    private int neighbours(int index, int[] out) {
+        int offBoard = geometry.getOffBoard();
+        int count = 0;
+        for (int d = 0; d < BoardGeometry.DIRECTIONS; d++) {
+            int neighbour = geometry.neighbour(index, d);
+            if (neighbour != offBoard) out[count++] = neighbour;
+        }
+        return count;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+}
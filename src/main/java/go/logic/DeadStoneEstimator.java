@@ -0,0 +1,396 @@
+package go.logic;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Szacowanie martwych kamieni na koniec gry (po dwóch pasach).
+ * <p>
+ * Działa w dwóch krokach:
+ * <ol>
+ * <li><b>Bezwarunkowe życie (algorytm Bensona)</b> - łańcuchy, których przeciwnik nie zbije
+ * nawet grając dowolnie wiele ruchów z rzędu. Takie kamienie nigdy nie są uznawane za martwe.</li>
+ * <li><b>Analiza oczu i obszarów</b> - pozostałe grupy (łańcuchy połączone wspólnymi oczami),
+ * które mają mniej niż dwa oczy i graniczą z obszarami zdominowanymi przez przeciwnika, są
+ * kolejno zdejmowane od najsłabszej. Po każdym zdjęciu obszary są wyznaczane od nowa, więc
+ * martwy kamień w terytorium nie psuje oceny otaczającej go grupy.</li>
+ * </ol>
+ * Wynik jest tylko propozycją (np. wstępnie wypełnioną listą do zaakceptowania w fazie
+ * oznaczania) - seki i nierozstrzygnięte walki pozostają żywe.
+ * <p>
+ * Instancja trzyma bufory robocze i nie jest bezpieczna wątkowo - każdy wątek (sesja)
+ * powinien używać własnej.
+ */
+public final class DeadStoneEstimator {
+
+    /** Liczba oczu, od której grupa jest uznawana za żywą. */
+    private static final int MIN_EYES = 2;
+
+    /** Obszar pustych pól otoczony jednym kolorem, od którego rozmiaru liczy się on jak dwa oczy. */
+    private static final int LARGE_EYE = 7;
+
+    /** Tryby etykietowania spójnych składowych planszy (zob. {@link #label}). */
+    private static final int CHAINS = 0;
+    private static final int NOT_COLOR = 1;
+    private static final int GROUPS = 2;
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int points;
+    private final int offBoard;
+
+    /** Kopia robocza planszy, z której zdejmowane są kolejne martwe grupy. */
+    private final Board work;
+
+    /** Etykiety łańcuchów (lub grup) i ich pola ułożone kolejno etykietami. */
+    private final int[] chainLabel;
+    private final int[] chainOrder;
+    private final int[] chainStart;
+
+    /** Etykiety obszarów i ich pola ułożone kolejno etykietami. */
+    private final int[] regionLabel;
+    private final int[] regionOrder;
+    private final int[] regionStart;
+
+    private final int[] stack;
+
+    /** Pary (łańcuch, obszar) sąsiadujące ze sobą i informacja, czy obszar jest dla łańcucha witalny. */
+    private final int[] pairChain;
+    private final int[] pairRegion;
+    private final boolean[] pairVital;
+
+    private final int[] touchStamp;
+    private final int[] touchCount;
+    private final int[] lastPoint;
+    private final int[] vitalCount;
+    private final boolean[] chainAlive;
+    private final boolean[] regionHealthy;
+
+    /** Liczba sąsiedztw (puste pole, kamień danego koloru) w każdym obszarze pustych pól. */
+    private final int[] blackBorder;
+    private final int[] whiteBorder;
+    private final int[] regionSeen;
+
+    /** Kamienie najsłabszej grupy znalezionej w bieżącym przebiegu. */
+    private final int[] weakest;
+    private int weakestCount;
+
+    /**
+     * Tworzy estymator dla plansz o podanym rozmiarze.
+     *
+     * @param size rozmiar boku planszy.
+     */
+    public DeadStoneEstimator(int size) {
+        this.geometry = BoardGeometry.forSize(size);
+        this.size = size;
+        this.points = geometry.getPoints();
+        this.offBoard = geometry.getOffBoard();
+        this.work = new Board(size);
+        this.chainLabel = new int[points];
+        this.chainOrder = new int[points];
+        this.chainStart = new int[points + 1];
+        this.regionLabel = new int[points];
+        this.regionOrder = new int[points];
+        this.regionStart = new int[points + 1];
+        this.stack = new int[points];
+        this.pairChain = new int[BoardGeometry.DIRECTIONS * points];
+        this.pairRegion = new int[BoardGeometry.DIRECTIONS * points];
+        this.pairVital = new boolean[BoardGeometry.DIRECTIONS * points];
+        this.touchStamp = new int[points];
+        this.touchCount = new int[points];
+        this.lastPoint = new int[points];
+        this.vitalCount = new int[points];
+        this.chainAlive = new boolean[points];
+        this.regionHealthy = new boolean[points];
+        this.blackBorder = new int[points];
+        this.whiteBorder = new int[points];
+        this.regionSeen = new int[points];
+        this.weakest = new int[points];
+    }
+
+    /**
+     * Sprawdza, czy estymator może analizować podaną planszę (zgodny rozmiar).
+     *
+     * @param board plansza gry.
+     * @return true, jeśli rozmiar planszy odpowiada rozmiarowi estymatora.
+     */
+    public boolean supports(Board board) {
+        return board.getSize() == size;
+    }
+
+    /**
+     * Wyznacza kamienie bezwarunkowo żywe algorytmem Bensona.
+     * <p>
+     * Obszarem jest spójny zbiór pól bez kamieni koloru {@code color} (puste pola i kamienie
+     * przeciwnika). Obszar jest witalny dla łańcucha, jeśli każde jego puste pole jest oddechem
+     * tego łańcucha. Naprzemiennie odrzucamy łańcuchy z mniej niż dwoma zdrowymi witalnymi
+     * obszarami oraz obszary graniczące z odrzuconymi łańcuchami, aż nic się nie zmieni.
+     *
+     * @param board plansza gry.
+     * @param color kolor kamieni (BLACK lub WHITE).
+     * @return zbiór bitowy bezwarunkowo żywych kamieni tego koloru.
+     */
+    public long[] unconditionallyAlive(Board board, Stone color) {
+        checkBoard(board);
+        int chains = label(board, color, CHAINS, chainLabel, chainOrder, chainStart);
+        int regions = label(board, color, NOT_COLOR, regionLabel, regionOrder, regionStart);
+
+        int pairs = 0;
+        Arrays.fill(touchStamp, 0, chains, -1);
+        for (int r = 0; r < regions; r++) {
+            int empty = 0;
+            int first = pairs;
+            for (int k = regionStart[r]; k < regionStart[r + 1]; k++) {
+                int p = regionOrder[k];
+                boolean isEmpty = board.fieldIs(p, Stone.EMPTY);
+                if (isEmpty) empty++;
+                for (int d = 0; d < BoardGeometry.DIRECTIONS; d++) {
+                    int n = geometry.neighbour(p, d);
+                    if (!board.fieldIs(n, color)) continue;
+                    int c = chainLabel[n];
+                    if (touchStamp[c] != r) {
+                        touchStamp[c] = r;
+                        touchCount[c] = 0;
+                        lastPoint[c] = -1;
+                        pairChain[pairs] = c;
+                        pairRegion[pairs] = r;
+                        pairs++;
+                    }
+                    // Puste pole liczymy raz, nawet jeśli dotyka łańcucha z kilku stron
+                    if (isEmpty && lastPoint[c] != p) {
+                        lastPoint[c] = p;
+                        touchCount[c]++;
+                    }
+                }
+            }
+            for (int i = first; i < pairs; i++) {
+                pairVital[i] = touchCount[pairChain[i]] == empty;
+            }
+        }
+
+        Arrays.fill(chainAlive, 0, chains, true);
+        Arrays.fill(regionHealthy, 0, regions, true);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            Arrays.fill(vitalCount, 0, chains, 0);
+            for (int i = 0; i < pairs; i++) {
+                if (pairVital[i] && regionHealthy[pairRegion[i]]) vitalCount[pairChain[i]]++;
+            }
+            for (int c = 0; c < chains; c++) {
+                if (chainAlive[c] && vitalCount[c] < MIN_EYES) {
+                    chainAlive[c] = false;
+                    changed = true;
+                }
+            }
+            for (int i = 0; i < pairs; i++) {
+                if (!chainAlive[pairChain[i]] && regionHealthy[pairRegion[i]]) {
+                    regionHealthy[pairRegion[i]] = false;
+                    changed = true;
+                }
+            }
+        }
+
+        long[] alive = geometry.newMask();
+        for (int c = 0; c < chains; c++) {
+            if (!chainAlive[c]) continue;
+            for (int k = chainStart[c]; k < chainStart[c + 1]; k++) {
+                int p = chainOrder[k];
+                alive[p >>> 6] |= 1L << p;
+            }
+        }
+        return alive;
+    }
+
+    /**
+     * Szacuje, które kamienie na planszy są martwe. Plansza nie jest modyfikowana.
+     *
+     * @param board plansza gry po dwóch pasach.
+     * @return zbiór bitowy martwych kamieni (obu kolorów).
+     */
+    public long[] estimateDeadStones(Board board) {
+        long[] safe = unconditionallyAlive(board, Stone.BLACK);
+        long[] safeWhite = unconditionallyAlive(board, Stone.WHITE);
+        for (int i = 0; i < safe.length; i++) {
+            safe[i] |= safeWhite[i];
+        }
+
+        board.copyBoard(work);
+        long[] dead = geometry.newMask();
+        while (findWeakestGroup(safe)) {
+            for (int i = 0; i < weakestCount; i++) {
+                int p = weakest[i];
+                work.removeStone(p);
+                dead[p >>> 6] |= 1L << p;
+            }
+        }
+        return dead;
+    }
+
+    /**
+     * Sprawdza, czy propozycja martwych kamieni jest dopuszczalna: każde pole musi leżeć
+     * na planszy, zawierać kamień i nie należeć do łańcucha bezwarunkowo żywego.
+     *
+     * @param board    plansza gry.
+     * @param proposal pola oznaczone jako martwe.
+     * @return true, jeśli propozycja nie uśmierca kamieni, których nie da się zbić.
+     */
+    public boolean isPlausible(Board board, Collection<Point> proposal) {
+        long[] aliveBlack = unconditionallyAlive(board, Stone.BLACK);
+        long[] aliveWhite = unconditionallyAlive(board, Stone.WHITE);
+        for (Point point : proposal) {
+            if (!board.isFieldOnBoard(point.x, point.y)) return false;
+            Stone stone = board.getField(point.x, point.y);
+            if (stone == Stone.EMPTY) return false;
+            long[] alive = stone == Stone.BLACK ? aliveBlack : aliveWhite;
+            if (BoardGeometry.contains(alive, geometry.index(point.x, point.y))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Zamienia zbiór bitowy na listę punktów (np. do wysłania jako propozycja martwych grup).
+     *
+     * @param mask zbiór bitowy w układzie {@link BoardGeometry}.
+     * @return lista punktów należących do zbioru.
+     */
+    public ArrayList<Point> toPoints(long[] mask) {
+        ArrayList<Point> result = new ArrayList<>();
+        for (int i = 0; i < mask.length; i++) {
+            long word = mask[i];
+            while (word != 0) {
+                int index = (i << 6) + Long.numberOfTrailingZeros(word);
+                result.add(new Point(geometry.xOf(index), geometry.yOf(index)));
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Szuka na planszy roboczej najsłabszej grupy: bez bezwarunkowo żywych kamieni, z mniej niż
+     * dwoma oczami i z największą przewagą przeciwnika na granicy otaczających ją obszarów.
+     * Kamienie znalezionej grupy trafiają do {@link #weakest}.
+     *
+     * @return true, jeśli znaleziono grupę do zdjęcia.
+     */
+    private boolean findWeakestGroup(long[] safe) {
+        int regions = label(work, Stone.EMPTY, CHAINS, regionLabel, regionOrder, regionStart);
+        for (int r = 0; r < regions; r++) {
+            blackBorder[r] = 0;
+            whiteBorder[r] = 0;
+            for (int k = regionStart[r]; k < regionStart[r + 1]; k++) {
+                int p = regionOrder[k];
+                for (int d = 0; d < BoardGeometry.DIRECTIONS; d++) {
+                    int n = geometry.neighbour(p, d);
+                    if (work.fieldIs(n, Stone.BLACK)) blackBorder[r]++;
+                    else if (work.fieldIs(n, Stone.WHITE)) whiteBorder[r]++;
+                }
+            }
+        }
+        Arrays.fill(regionSeen, 0, regions, -1);
+
+        weakestCount = 0;
+        double weakestRatio = 1.0;
+        int stamp = 0;
+        for (Stone color : new Stone[] {Stone.BLACK, Stone.WHITE}) {
+            int[] own = color == Stone.BLACK ? blackBorder : whiteBorder;
+            int[] opponent = color == Stone.BLACK ? whiteBorder : blackBorder;
+            int groups = label(work, color, GROUPS, chainLabel, chainOrder, chainStart);
+
+            for (int g = 0; g < groups; g++, stamp++) {
+                int eyes = 0;
+                int ownBorder = 0;
+                int opponentBorder = 0;
+                boolean unconditional = false;
+                for (int k = chainStart[g]; k < chainStart[g + 1]; k++) {
+                    int p = chainOrder[k];
+                    if (!work.fieldIs(p, color)) continue;
+                    if (BoardGeometry.contains(safe, p)) unconditional = true;
+                    for (int d = 0; d < BoardGeometry.DIRECTIONS; d++) {
+                        int n = geometry.neighbour(p, d);
+                        if (!work.fieldIs(n, Stone.EMPTY)) continue;
+                        int r = regionLabel[n];
+                        if (regionSeen[r] == stamp) continue;
+                        regionSeen[r] = stamp;
+                        if (opponent[r] == 0) {
+                            eyes += regionStart[r + 1] - regionStart[r] >= LARGE_EYE ? MIN_EYES : 1;
+                        } else {
+                            ownBorder += own[r];
+                            opponentBorder += opponent[r];
+                        }
+                    }
+                }
+                if (unconditional || eyes >= MIN_EYES || opponentBorder <= ownBorder) continue;
+
+                double ratio = opponentBorder / (double) Math.max(ownBorder, 1);
+                if (ratio > weakestRatio) {
+                    weakestRatio = ratio;
+                    weakestCount = 0;
+                    for (int k = chainStart[g]; k < chainStart[g + 1]; k++) {
+                        int p = chainOrder[k];
+                        if (work.fieldIs(p, color)) weakest[weakestCount++] = p;
+                    }
+                }
+            }
+        }
+        return weakestCount > 0;
+    }
+
+    /**
+     * Etykietuje spójne składowe planszy. Pola należą do składowej zależnie od trybu:
+     * <ul>
+     * <li>{@link #CHAINS} - pola ze stanem {@code color} (łańcuchy lub obszary pustych pól),</li>
+     * <li>{@link #NOT_COLOR} - pola bez kamienia {@code color} (obszary algorytmu Bensona),</li>
+     * <li>{@link #GROUPS} - kamienie {@code color} i puste pola obszarów, które nie graniczą
+     * z przeciwnikiem (oczy) - łańcuchy połączone wspólnymi oczami tworzą jedną grupę.
+     * Wymaga aktualnych etykiet obszarów pustych pól.</li>
+     * </ul>
+     *
+     * @return liczba składowych; pola składowej c to {@code order[start[c] .. start[c + 1] - 1]}.
+     */
+    private int label(Board board, Stone color, int mode, int[] labels, int[] order, int[] start) {
+        Arrays.fill(labels, -1);
+        int count = 0;
+        int filled = 0;
+        for (int p = 0; p < points; p++) {
+            if (labels[p] != -1 || !matches(board, p, color, mode)) continue;
+            start[count] = filled;
+            int top = 0;
+            stack[top++] = p;
+            labels[p] = count;
+            while (top > 0) {
+                int current = stack[--top];
+                order[filled++] = current;
+                for (int d = 0; d < BoardGeometry.DIRECTIONS; d++) {
+                    int n = geometry.neighbour(current, d);
+                    if (n != offBoard && labels[n] == -1 && matches(board, n, color, mode)) {
+                        labels[n] = count;
+                        stack[top++] = n;
+                    }
+                }
+            }
+            count++;
+        }
+        start[count] = filled;
+        return count;
+    }
+
+    private boolean matches(Board board, int index, Stone color, int mode) {
+        if (mode == CHAINS) return board.fieldIs(index, color);
+        if (mode == NOT_COLOR) return !board.fieldIs(index, color);
+        if (board.fieldIs(index, color)) return true;
+        if (!board.fieldIs(index, Stone.EMPTY)) return false;
+        int region = regionLabel[index];
+        return (color == Stone.BLACK ? whiteBorder : blackBorder)[region] == 0;
+    }
+
+    private void checkBoard(Board board) {
+        if (!supports(board)) {
+            throw new IllegalArgumentException("Estymator dla planszy " + size + "x" + size
+                    + " nie obsluguje planszy " + board.getSize() + "x" + board.getSize());
+        }
+    }
+}
@@ -2,299 +2,355 @@ package go.logic;
 
 import java.awt.Point;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Queue;
 import java.util.Set;
 
 /**
  * Klasa odpowiedzialna za logikę i mechanikę gry Go.
  * Przechowuje zasady dotyczące legalności ruchów (w tym zasady Ko i samobójstwa),
  * mechanizmy bicia kamieni, obliczania terytorium oraz punktacji.
+ * <p>
+ * Silnik zasad jest bezstanowy: wszystko, co dotyczy konkretnej partii (plansza, jeńcy,
+ * historia pozycji, stos cofania), przechowuje {@link GameState}. Jedna instancja może więc
+ * być współdzielona przez wiele sesji i wątków (np. równoległe symulacje bota),
+ * o ile każdy wątek pracuje na własnym obiekcie stanu.
+ * <p>
+ * Wariant superko i sposób liczenia punktów określa {@link RuleSet} przekazany w konstruktorze -
+ * dla każdego zestawu zasad tworzy się osobną instancję. Stan partii powinien być zawsze
+ * rozgrywany tą samą instancją, bo klucze w historii pozycji zależą od zestawu zasad.
  */
 public class GameMechanics {
 
-    /** Liczba kamieni zbitych przez gracza czarnego (czyli białych kamieni zdjętych z planszy). */
-    public int blackCaptures = 0;
+    /** Oznaczenie braku ostatniego ruchu na stosie cofania. */
+    private static final int NO_LAST_MOVE = -1;
 
-    /** Liczba kamieni zbitych przez gracza białego (czyli czarnych kamieni zdjętych z planszy). */
-    public int whiteCaptures = 0;
+    /** Zestaw zasad (wariant superko, liczenie punktów). */
+    private final RuleSet rules;
 
-    private int whiteTerritory = 0;
-    private int blackTerritory = 0;
+    /**
+     * Skanery grup dla {@link #exploreGroup}, osobne dla każdego wątku i rozmiaru planszy
+     * (silnik jest współdzielony, więc nie może trzymać jednego skanera w polu).
+     */
+    private static final ThreadLocal<GroupScanner[]> SCANNERS =
+            ThreadLocal.withInitial(() -> new GroupScanner[Board.MAX_SIZE + 1]);
 
     /**
-     * Kopia planszy z poprzedniego ruchu. Służy do weryfikacji zasady Ko
-     * (zakaz doprowadzania do identycznego stanu planszy, jaki był turę wcześniej).
+     * Tworzy silnik zasad dla domyślnego zestawu zasad ({@link RuleSet#DEFAULT}).
      */
-    private Board recentMoveBoardCopy = new Board(19);
+    public GameMechanics() {
+        this(RuleSet.DEFAULT);
+    }
 
     /**
-     * Kopia robocza planszy używana do symulacji przyszłego ruchu
-     * w celu sprawdzenia jego legalności bez modyfikowania głównej planszy przed weryfikacją.
+     * Tworzy silnik zasad dla podanego zestawu zasad.
+     *
+     * @param rules zestaw zasad.
      */
-    private Board boardAfterFutureMove = new Board(19);
+    public GameMechanics(RuleSet rules) {
+        this.rules = rules;
+    }
+
+    /** @return zestaw zasad tego silnika. */
+    public RuleSet getRules() {
+        return rules;
+    }
 
     /**
      * Sprawdza, czy ruch w danym miejscu jest legalny zgodnie z zasadami gry Go.
      * Weryfikuje: granice planszy, czy pole jest puste, czy ruch powoduje bicie,
-     * czy nie jest samobójstwem (chyba że bije) oraz czy nie narusza zasady Ko.
+     * czy nie jest samobójstwem (chyba że bije) oraz czy nie narusza zasady superko
+     * (pozycja po ruchu nie może powtarzać żadnej wcześniejszej pozycji partii - w wariancie
+     * sytuacyjnym tylko przy tym samym graczu na ruchu, zob. {@link RuleSet}).
      * <p>
-     * Jeśli ruch jest poprawny, metoda aktualizuje stan przekazanej planszy.
+     * Jeśli ruch jest poprawny, metoda aktualizuje planszę, liczniki jeńców oraz
+     * historię pozycji przekazanego stanu. Plansza nie jest kopiowana - łańcuchy
+     * i oddechy są utrzymywane przyrostowo przez {@link ChainTracker}.
+     * Ruch jest zapisywany na stosie cofania (zob. {@link #makeMove}).
      *
-     * @param board aktualna plansza gry.
+     * @param state stan partii.
      * @param x współrzędna X ruchu.
      * @param y współrzędna Y ruchu.
      * @param color kolor stawianego kamienia.
      * @return true, jeśli ruch jest możliwy i został wykonany; false w przeciwnym razie.
      */
-    public boolean IsMovePossible(Board board, int x, int y, Stone color) {
-        if (!board.isFieldOnBoard(x, y)) return false; // jezeli wskazane pole nie nalezy do planszy - zwracamy false
-        if (board.getField(x, y) != Stone.EMPTY ) return false; //jezeli aktualnie lezy jakis kamien na wskazanym polu - zwracamy false
-
-        // Kopiujemy planszę, aby zasymulować ruch
-        board.copyBoard(boardAfterFutureMove);
-        boardAfterFutureMove.setField(x, y, color);
-
-        // Sprawdzamy, czy ten ruch zbija jakieś kamienie przeciwnika
-        CheckCaptures(boardAfterFutureMove, x, y, color);
-
-        // Sprawdzamy zasadę KO oraz zasadę samobójstwa
-        if (!boardAfterFutureMove.equals(recentMoveBoardCopy) && !checkSuicide(boardAfterFutureMove, x, y, color)) {
-            // Ruch jest legalny:
-            // 1. Zapisujemy obecny stan jako "poprzedni" dla przyszłego sprawdzania KO
-            board.copyBoard(recentMoveBoardCopy);
-            // 2. Aktualizujemy główną planszę stanem po ruchu
-            boardAfterFutureMove.copyBoard(board);
-            return true;
-        }
-        return false;
+    public boolean IsMovePossible(GameState state, int x, int y, Stone color) {
+        return makeMove(state, x, y, color);
     }
 
     /**
-     * Sprawdza sąsiednie pola po postawieniu kamienia i usuwa grupy przeciwnika,
-     * które utraciły wszystkie oddechy (zostały otoczone).
+     * Wykonuje ruch (jeśli jest legalny) i zapisuje na stosie cofania stanu tylko to, co się zmieniło:
+     * postawiony kamień, zbite kamienie, poprzedni ostatni ruch i informację o historii pozycji.
+     * Ruch można odwrócić metodą {@link #undoMove} w czasie proporcjonalnym do liczby zmian,
+     * co pozwala sprawdzać warianty bez kopiowania całej planszy.
+     * <p>
+     * Format wpisu: {@code [pole, zbite kamienie..., liczba zbitych, kolor, ostatni ruch, historia]}.
      *
-     * @param board plansza, na której wykonano symulowany ruch.
-     * @param x współrzędna X postawionego kamienia.
-     * @param y współrzędna Y postawionego kamienia.
-     * @param color kolor postawionego kamienia.
+     * @param state stan partii.
+     * @param x współrzędna X ruchu.
+     * @param y współrzędna Y ruchu.
+     * @param color kolor stawianego kamienia.
+     * @return true, jeśli ruch był legalny i został wykonany.
      */
-    public void CheckCaptures(Board board, int x, int y, Stone color) {
-        Set<Point> groupMembers = new HashSet<>();
-        Set<Point> emptyGroupFields = new HashSet<>();
-        Set<Point> processedOpponents = new HashSet<>();
-
-        for (Direction d : Direction.values()) {
-            int newX = x + d.getDx();
-            int newY = y + d.getDy();
-
-            if (board.isFieldOnBoard(newX, newY) && board.getField(newX, newY) == color.opponent()) {
-                Point opponentPoint = new Point(newX, newY);
-                if (!processedOpponents.contains(opponentPoint)) {
-                    groupMembers.clear();
-                    emptyGroupFields.clear();
-
-                    // Badamy grupę przeciwnika
-                    exploreGroup(board, opponentPoint, color.opponent(), groupMembers, emptyGroupFields);
-
-                    // Jeśli grupa nie ma oddechów (emptyGroupFields jest puste), usuwamy ją
-                    if (emptyGroupFields.isEmpty()) {
-                        if (color == Stone.BLACK) blackCaptures += groupMembers.size();
-                        else if (color == Stone.WHITE) whiteCaptures += groupMembers.size();
-                        for (Point point : groupMembers) {
-                            board.setField(point.x, point.y, Stone.EMPTY);
-                        }
-                        groupMembers.clear();
-                    }
-                    processedOpponents.addAll(groupMembers);
-                }
-            }
+    public boolean makeMove(GameState state, int x, int y, Stone color) {
+        if (!isMoveLegal(state, x, y, color)) return false;
+
+        Board board = state.getBoard();
+        BoardGeometry geometry = board.getGeometry();
+        Point lastMove = board.getLastMove();
+        int previousLastMove = board.isFieldOnBoard(lastMove.x, lastMove.y)
+                ? geometry.index(lastMove.x, lastMove.y) : NO_LAST_MOVE;
+        int index = geometry.index(x, y);
+
+        // Ruch jest legalny:
+        // 1. Zapisujemy obecną pozycję w historii dla przyszłego sprawdzania superko
+        boolean addedToHistory = state.getPositionHistory().add(rules.historyKey(board.getZobristKey(), color));
+        // 2. Stawiamy kamień - łańcuchy, oddechy i bicie aktualizowane przyrostowo
+        ChainTracker chains = board.getChains();
+        int captured = chains.play(index, color);
+        board.setLastMove(x, y);
+        // 3. Doliczamy zbite kamienie
+        state.addCaptures(color, captured);
+
+        // 4. Zapis na stosie cofania
+        state.pushUndo(index);
+        for (int i = 0; i < captured; i++) {
+            state.pushUndo(chains.getCaptured(i));
         }
+        state.pushUndo(captured);
+        state.pushUndo(color.ordinal());
+        state.pushUndo(previousLastMove);
+        state.pushUndo(addedToHistory ? 1 : 0);
+        return true;
     }
 
     /**
-     * Algorytm BFS (przeszukiwanie wszerz) do znajdowania wszystkich kamieni należących do jednej grupy
-     * oraz znajdowania ich "oddechów" (sąsiednich pustych pól).
+     * Cofa ostatni ruch wykonany przez {@link #makeMove} (lub {@link #IsMovePossible}):
+     * zdejmuje postawiony kamień, przywraca zbite kamienie, liczniki jeńców, ostatni ruch
+     * oraz historię pozycji. Łańcuchy są przeliczane tylko wokół zmienionych pól.
      *
-     * @param board plansza gry.
-     * @param startPoint punkt startowy analizy (kamień).
-     * @param color kolor kamieni w grupie.
-     * @param groupMembers zbiór wyjściowy, do którego zostaną dodane wszystkie punkty należące do grupy.
-     * @param emptyGroupFields zbiór wyjściowy, do którego zostaną dodane wszystkie unikalne oddechy grupy.
+     * @param state stan partii, w której wykonano cofany ruch.
+     * @throws IllegalStateException jeśli nie ma ruchu do cofnięcia.
      */
-    public void exploreGroup(Board board, Point startPoint, Stone color, Set<Point> groupMembers, Set<Point> emptyGroupFields) {
-        Queue<Point> queue = new LinkedList<>();
+    public void undoMove(GameState state) {
+        if (!state.canUndo()) {
+            throw new IllegalStateException("Brak ruchu do cofniecia");
+        }
+        Board board = state.getBoard();
+        boolean addedToHistory = state.popUndo() == 1;
+        int previousLastMove = state.popUndo();
+        Stone color = Stone.ofOrdinal(state.popUndo());
+        int captured = state.popUndo();
+        int end = state.undoSize();
+        int start = end - captured - 1;
+        int[] entry = state.undoStack();
+        state.truncateUndo(start);
+
+        // Zdejmujemy postawiony kamień i przywracamy zbite kamienie przeciwnika
+        Stone opponent = color.opponent();
+        board.removeStone(entry[start]);
+        for (int i = start + 1; i < end; i++) {
+            board.putStone(entry[i], opponent);
+        }
+        board.getChains().refresh(entry, start, end);
 
-        queue.add(startPoint);
-        groupMembers.add(startPoint);
+        state.addCaptures(color, -captured);
 
-        while (!queue.isEmpty()) {
-            Point current = queue.poll();
-            groupMembers.add(current);
-
-            for (Direction d : Direction.values()) {
-                int newX = current.x + d.getDx();
-                int newY = current.y + d.getDy();
-
-                if (board.isFieldOnBoard(newX, newY)) {
-                    Point newPoint = new Point(newX, newY);
-
-                    if (board.getField(newX, newY) == color && !(groupMembers.contains(newPoint))) {
-                        // Ten sam kolor -> część grupy
-                        groupMembers.add(newPoint);
-                        queue.add(newPoint);
-                    }
-                    else if (board.getField(newX, newY) == Stone.EMPTY) {
-                        // Puste pole -> oddech
-                        emptyGroupFields.add(newPoint);
-                    }
-                }
-            }
-        }
+        BoardGeometry geometry = board.getGeometry();
+        if (previousLastMove == NO_LAST_MOVE) board.setLastMove(-1, -1);
+        else board.setLastMove(geometry.xOf(previousLastMove), geometry.yOf(previousLastMove));
+
+        if (addedToHistory) state.getPositionHistory().remove(rules.historyKey(board.getZobristKey(), color));
     }
 
     /**
-     * Sprawdza, czy postawienie kamienia w danym miejscu jest ruchem samobójczym.
-     * Samobójstwo to ruch, który zabiera ostatni oddech własnej grupie i nie powoduje bicia przeciwnika.
+     * Sprawdza legalność ruchu tak jak {@link #IsMovePossible}, ale niczego nie zmienia:
+     * ani planszy, ani liczników jeńców, ani historii pozycji.
+     * Przeznaczone do symulacji (np. dla bota), które nie mogą wpływać na stan rozgrywki.
+     * Samobójstwo i bicie rozstrzygane są na podstawie liczby oddechów sąsiednich łańcuchów,
+     * a superko - na podstawie klucza Zobrista pozycji po ruchu, bez kopiowania planszy.
      *
-     * @param board plansza po symulowanym ruchu (i ewentualnym usunięciu zbitych kamieni wroga).
-     * @param x współrzędna X.
-     * @param y współrzędna Y.
-     * @param color kolor gracza.
-     * @return true, jeśli ruch jest samobójczy (brak oddechów); false w przeciwnym razie.
+     * @param state stan partii.
+     * @param x współrzędna X ruchu.
+     * @param y współrzędna Y ruchu.
+     * @param color kolor stawianego kamienia.
+     * @return true, jeśli ruch byłby legalny.
      */
-    private boolean checkSuicide(Board board, int x, int y, Stone color) {
-        Set<Point> myGroup = new HashSet<>();
-        Set<Point> myLiberties = new HashSet<>();
+    public boolean isMoveLegal(GameState state, int x, int y, Stone color) {
+        Board board = state.getBoard();
+        if (!board.isFieldOnBoard(x, y)) return false; // jezeli wskazane pole nie nalezy do planszy - zwracamy false
+        if (board.getField(x, y) != Stone.EMPTY ) return false; //jezeli aktualnie lezy jakis kamien na wskazanym polu - zwracamy false
 
-        // Badamy grupę kamienia, którego właśnie postawiliśmy
-        exploreGroup(board, new Point(x, y), color, myGroup, myLiberties);
+        ChainTracker chains = board.getChains();
+        int index = board.getGeometry().index(x, y);
 
-        // Jeśli zbiór oddechów jest pusty, to jest samobójstwo
-        return myLiberties.isEmpty();
+        // Sprawdzamy zasadę samobójstwa oraz superko (porównanie kluczy Zobrista zamiast całych plansz)
+        return !chains.isSuicide(index, color)
+                && !state.getPositionHistory().contains(rules.historyKey(chains.keyAfter(index, color), color.opponent()));
     }
 
     /**
-     * Przelicza punkty terytorium dla obu graczy na podstawie obecnego stanu planszy.
-     * Skanuje wszystkie puste pola i przydziela je odpowiedniemu graczowi.
-     * Wypisuje wyniki na standardowe wyjście.
+     * Wyznacza jednym przebiegiem wszystkie legalne ruchy gracza, uwzględniając zasadę samobójstwa
+     * oraz superko. Wynik jest zbiorem bitowym w układzie {@link BoardGeometry}
+     * (pole (x, y) to bit {@link BoardGeometry#index(int, int)}).
+     * <p>
+     * Samobójstwa są odrzucane na podstawie liczby oddechów łańcuchów liczonej raz dla każdego
+     * łańcucha, a nie przez symulację ruchu na każdym polu. Dla pozostałych pól sprawdzany jest
+     * tylko klucz Zobrista pozycji po ruchu. Stan partii nie jest zmieniany.
      *
-     * @param board plansza gry.
+     * @param state stan partii.
+     * @param color kolor gracza, dla którego wyznaczamy ruchy.
+     * @return nowy zbiór bitowy legalnych pól.
      */
-    public void calculateGameScore(Board board) {
-        boolean[][] visited = new boolean[board.getSize()][board.getSize()];
+    public long[] legalMoves(GameState state, Stone color) {
+        long[] mask = state.getBoard().getGeometry().newMask();
+        legalMoves(state, color, mask);
+        return mask;
+    }
 
-        for (int x = 0; x < board.getSize(); x++) {
-            for (int y = 0; y < board.getSize(); y++) {
-                if (board.getField(x, y) == Stone.EMPTY && !visited[x][y]) {
-                    calculateEmptyFieldPoints(board, new Point(x, y), visited);
+    /**
+     * Wersja {@link #legalMoves(GameState, Stone)} zapisująca wynik do przekazanej tablicy,
+     * przeznaczona dla kodu wywołującego ją wielokrotnie (np. symulacje bota).
+     *
+     * @param state stan partii.
+     * @param color kolor gracza.
+     * @param dst   tablica wynikowa o długości {@link BoardGeometry#getWords()}.
+     */
+    public void legalMoves(GameState state, Stone color, long[] dst) {
+        ChainTracker chains = state.getBoard().getChains();
+        PositionHistory history = state.getPositionHistory();
+        Stone next = color.opponent();
+        chains.nonSuicidalMoves(color, dst);
+
+        for (int word = 0; word < dst.length; word++) {
+            long bits = dst[word];
+            while (bits != 0) {
+                long bit = Long.lowestOneBit(bits);
+                bits ^= bit;
+                int index = (word << 6) + Long.numberOfTrailingZeros(bit);
+                if (history.contains(rules.historyKey(chains.keyAfter(index, color), next))) {
+                    dst[word] &= ~bit;
                 }
             }
         }
-
-        System.out.println(whiteCaptures + " punkty bialego za zbicia");
-        System.out.println(blackCaptures + " punkty czarnego za zbicia");
-        System.out.println(whiteTerritory + " punkty bialego za terytorium");
-        System.out.println(blackTerritory + " punkty czarnego za terytorium");
     }
 
     /**
-     * Algorytm BFS analizujący spójny obszar pustych pól (terytorium).
-     * Określa, czy terytorium należy do białego, czarnego, czy jest niczyje (dame),
-     * sprawdzając z jakimi kamieniami graniczy dany obszar.
+     * Wyznacza wszystkie kamienie należące do jednej grupy oraz jej "oddechy" (sąsiednie puste pola).
+     * Wersja zwracająca zbiory {@link Point} - do użytku poza gorącymi ścieżkami (alokuje punkty wyniku;
+     * skaner jest wielokrotnie używany w ramach wątku); kod wrażliwy na alokacje powinien korzystać
+     * bezpośrednio z {@link GroupScanner}.
      *
      * @param board plansza gry.
-     * @param point punkt startowy (puste pole).
-     * @param explored tablica odwiedzonych pól.
+     * @param startPoint punkt startowy analizy (kamień).
+     * @param color kolor kamieni w grupie.
+     * @param groupMembers zbiór wyjściowy, do którego zostaną dodane wszystkie punkty należące do grupy.
+     * @param emptyGroupFields zbiór wyjściowy, do którego zostaną dodane wszystkie unikalne oddechy grupy.
      */
-    private void calculateEmptyFieldPoints(Board board, Point point, boolean[][] explored) {
-        whiteTerritory = 0;
-        blackTerritory = 0;
-        Queue<Point> queue = new LinkedList<>();
-        queue.add(point);
-        int currentTerritorySize = 0;
-
-        boolean touchesWhite = false;
-        boolean touchesBlack  = false;
-        explored[point.x][point.y] = true;
-
-        while (!queue.isEmpty()) {
-            Point p = queue.poll();
-            currentTerritorySize++;
-
-            for (Direction d : Direction.values()) {
-                int newX = p.x + d.getDx();
-                int newY = p.y + d.getDy();
-
-                Point neighbourPoint = new Point(newX, newY);
-
-                if (board.isFieldOnBoard(newX, newY) && !explored[newX][newY]) {
-                    Stone neighbourStone = board.getField(newX, newY);
-                    if (neighbourStone == Stone.EMPTY) {
-                        queue.add(neighbourPoint);
-                        explored[newX][newY] = true;
-                    }
-                    else if (neighbourStone == Stone.BLACK) {
-                        touchesBlack = true;
-                    }
-                    else if (neighbourStone == Stone.WHITE) {
-                        touchesWhite = true;
-                    }
-                }
-            }
+    public void exploreGroup(Board board, Point startPoint, Stone color, Set<Point> groupMembers, Set<Point> emptyGroupFields) {
+        groupMembers.add(startPoint);
+        if (board.getField(startPoint.x, startPoint.y) != color) return;
+
+        GroupScanner[] scanners = SCANNERS.get();
+        GroupScanner scanner = scanners[board.getSize()];
+        if (scanner == null) {
+            scanner = new GroupScanner(board.getSize());
+            scanners[board.getSize()] = scanner;
         }
+        scanner.beginPass();
+        scanner.scanGroup(board, startPoint.x, startPoint.y);
 
-        // Terytorium liczy się tylko, jeśli dotyka kamieni wyłącznie jednego koloru
-        if (touchesBlack && !touchesWhite) {
-            blackTerritory += currentTerritorySize;
+        for (int i = 0; i < scanner.getMemberCount(); i++) {
+            int index = scanner.getMember(i);
+            groupMembers.add(new Point(scanner.xOf(index), scanner.yOf(index)));
         }
-        else if (touchesWhite && !touchesBlack) {
-            whiteTerritory += currentTerritorySize;
+        for (int i = 0; i < scanner.getLibertyCount(); i++) {
+            int index = scanner.getLiberty(i);
+            emptyGroupFields.add(new Point(scanner.xOf(index), scanner.yOf(index)));
         }
     }
 
     /**
-     * Usuwa z planszy grupy kamieni oznaczone jako martwe w fazie negocjacji
-     * i dolicza je do puli jeńców odpowiedniego gracza.
+     * Liczy punkty bieżącej pozycji partii (zob. {@link #calculateGameScore(Board, int, int, GroupScanner)}).
+     * Stan partii nie jest zmieniany.
      *
-     * @param board plansza gry.
-     * @param deadGroups lista punktów (kamieni) do usunięcia.
+     * @param state stan partii.
+     * @return wynik pozycji.
      */
-    public void takeOffDeadGroups(Board board, ArrayList<Point> deadGroups) {
-        for (Point point : deadGroups) {
-            if (board.getField(point.x, point.y) == Stone.BLACK) {
-                blackCaptures ++;
-            }
-            else if (board.getField(point.x, point.y) == Stone.WHITE) {
-                whiteCaptures ++;
-            }
-
-            board.setField(point.x, point.y, Stone.EMPTY);
-        }
+    public ScoreResult calculateGameScore(GameState state) {
+        return calculateGameScore(state.getBoard(), state.getBlackCaptures(), state.getWhiteCaptures(),
+                state.getScanner());
     }
 
     /**
-     * Zwraca obliczone terytorium czarnego gracza.
-     * @return liczba punktów za terytorium.
+     * Liczy punkty pozycji jednym przebiegiem etykietowania planszy.
+     * Każdy spójny obszar pustych pól jest odwiedzany dokładnie raz: jeśli graniczy z kamieniami
+     * tylko jednego koloru, jest terytorium tego gracza, w przeciwnym razie pola są niczyje (dame).
+     * Czas działania jest liniowy względem liczby pól, a jedynymi alokacjami są zwracany wynik
+     * i jego mapa przynależności - skaner grup jest przekazywany z zewnątrz i używany wielokrotnie
+     * (np. przy przeliczaniu wielu zarchiwizowanych partii w jednym wątku).
+     *
+     * @param board         plansza (martwe kamienie powinny być już zdjęte).
+     * @param blackCaptures liczba kamieni zbitych przez czarnego.
+     * @param whiteCaptures liczba kamieni zbitych przez białego.
+     * @param scanner       skaner grup dla plansz tego rozmiaru.
+     * @return wynik pozycji.
      */
-    public int getBlackTerritory() {
-        return blackTerritory;
+    public ScoreResult calculateGameScore(Board board, int blackCaptures, int whiteCaptures, GroupScanner scanner) {
+        BoardGeometry geometry = board.getGeometry();
+        long[] blackArea = board.stones(Stone.BLACK).clone();
+        long[] whiteArea = board.stones(Stone.WHITE).clone();
+        int blackTerritory = 0;
+        int whiteTerritory = 0;
+        int dame = 0;
+
+        scanner.beginPass();
+        for (int index = 0; index < geometry.getPoints(); index++) {
+            if (board.stoneAt(index) != Stone.EMPTY || scanner.isVisited(index)) continue;
+
+            int regionSize = scanner.scanRegion(board, index);
+            boolean touchesBlack = scanner.touches(Stone.BLACK);
+            boolean touchesWhite = scanner.touches(Stone.WHITE);
+
+            // Terytorium liczy się tylko, jeśli obszar dotyka kamieni wyłącznie jednego koloru
+            long[] owner;
+            if (touchesBlack && !touchesWhite) {
+                blackTerritory += regionSize;
+                owner = blackArea;
+            }
+            else if (touchesWhite && !touchesBlack) {
+                whiteTerritory += regionSize;
+                owner = whiteArea;
+            }
+            else {
+                dame += regionSize;
+                continue;
+            }
+            for (int i = 0; i < regionSize; i++) {
+                int member = scanner.getMember(i);
+                owner[member >>> 6] |= 1L << member;
+            }
+        }
+
+        return new ScoreResult(board.getSize(), blackTerritory, whiteTerritory,
+                BoardGeometry.count(board.stones(Stone.BLACK)), BoardGeometry.count(board.stones(Stone.WHITE)),
+                blackCaptures, whiteCaptures, dame, blackArea, whiteArea);
     }
 
     /**
-     * Zwraca obliczone terytorium białego gracza.
-     * @return liczba punktów za terytorium.
+     * Usuwa z planszy grupy kamieni oznaczone jako martwe w fazie negocjacji
+     * i dolicza je do puli jeńców przeciwnika (martwy czarny kamień jest jeńcem białego).
+     *
+     * @param state stan partii.
+     * @param deadGroups lista punktów (kamieni) do usunięcia.
      */
-    public int getWhiteTerritory() {
-        return whiteTerritory;
-    }
-
-    public void subtractFromWhiteCaptures(int score) {
-        whiteCaptures -= score;
-    }
+    public void takeOffDeadGroups(GameState state, ArrayList<Point> deadGroups) {
+        Board board = state.getBoard();
+        for (Point point : deadGroups) {
+            Stone stone = board.getField(point.x, point.y);
+            if (stone != Stone.EMPTY) {
+                state.addCaptures(stone.opponent(), 1);
+            }
 
-    public void subtractFromBlackCaptures(int score) {
-        blackCaptures -= score;
+            board.setField(point.x, point.y, Stone.EMPTY);
+        }
     }
-}
\ No newline at end of file
+}
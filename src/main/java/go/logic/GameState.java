@@ -0,0 +1,155 @@
+package go.logic;
+
+import java.util.Arrays;
+
+/**
+ * Stan jednej partii Go: plansza, liczniki jeńców, historia pozycji (superko)
+ * oraz stos cofania ruchów.
+ * <p>
+ * Zasady gry znajdują się w {@link GameMechanics}, który nie przechowuje żadnego stanu -
+ * dzięki temu jeden silnik może obsługiwać wiele sesji i wiele wątków jednocześnie.
+ * Obiekt stanu należy do jednej partii i nie jest bezpieczny wątkowo: równoległe symulacje
+ * (np. wątki bota) powinny pracować na własnych kopiach tworzonych metodą {@link #copyTo}.
+ */
+public class GameState {
+
+    /** Plansza partii. */
+    private final Board board;
+
+    /** Liczba kamieni zbitych przez gracza czarnego (czyli białych kamieni zdjętych z planszy). */
+    private int blackCaptures = 0;
+
+    /** Liczba kamieni zbitych przez gracza białego (czyli czarnych kamieni zdjętych z planszy). */
+    private int whiteCaptures = 0;
+
+    /**
+     * Historia pozycji (klucze Zobrista) rozegranej partii. Służy do weryfikacji zasady superko
+     * (zakaz doprowadzania do pozycji, która wystąpiła już wcześniej w partii). Zawiera wszystkie
+     * pozycje poprzedzające bieżącą - pozycji bieżącej nie da się odtworzyć jednym ruchem.
+     */
+    private final PositionHistory positionHistory = new PositionHistory();
+
+    /** Zwarty stos cofania ruchów - format wpisu opisuje {@link GameMechanics#makeMove}. */
+    private int[] undoStack = new int[256];
+    private int undoSize = 0;
+
+    /** Skaner grup wielokrotnego użytku (bez alokacji na każde przeszukanie). */
+    private GroupScanner scanner;
+
+    /**
+     * Tworzy stan nowej partii z pustą planszą.
+     *
+     * @param size rozmiar boku planszy.
+     */
+    public GameState(int size) {
+        this(new Board(size));
+    }
+
+    /**
+     * Tworzy stan partii dla istniejącej planszy (liczniki jeńców i historia są puste).
+     *
+     * @param board plansza partii.
+     */
+    public GameState(Board board) {
+        this.board = board;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public int getBlackCaptures() {
+        return blackCaptures;
+    }
+
+    public int getWhiteCaptures() {
+        return whiteCaptures;
+    }
+
+    /**
+     * Zwraca liczbę jeńców gracza danego koloru.
+     *
+     * @param color kolor gracza.
+     * @return liczba zbitych przez niego kamieni (0 dla EMPTY).
+     */
+    public int getCaptures(Stone color) {
+        if (color == Stone.BLACK) return blackCaptures;
+        if (color == Stone.WHITE) return whiteCaptures;
+        return 0;
+    }
+
+    /**
+     * Informuje, czy na stosie cofania jest jakiś ruch.
+     *
+     * @return true, jeśli można wywołać {@link GameMechanics#undoMove}.
+     */
+    public boolean canUndo() {
+        return undoSize > 0;
+    }
+
+    /**
+     * Kopiuje pozycję do innego obiektu stanu o tym samym rozmiarze planszy:
+     * układ kamieni, ostatni ruch, liczniki jeńców i historię pozycji.
+     * Stos cofania kopii jest czyszczony - kopia zaczyna własną sekwencję ruchów.
+     *
+     * @param target stan docelowy.
+     * @throws IllegalArgumentException jeśli plansze mają różne rozmiary.
+     */
+    public void copyTo(GameState target) {
+        if (target.board.getSize() != board.getSize()) {
+            throw new IllegalArgumentException("Rozne rozmiary plansz: " + board.getSize()
+                    + " i " + target.board.getSize());
+        }
+        board.copyBoard(target.board);
+        target.blackCaptures = blackCaptures;
+        target.whiteCaptures = whiteCaptures;
+        target.positionHistory.copyFrom(positionHistory);
+        target.undoSize = 0;
+    }
+
+    PositionHistory getPositionHistory() {
+        return positionHistory;
+    }
+
+    void addCaptures(Stone color, int count) {
+        if (color == Stone.BLACK) blackCaptures += count;
+        else if (color == Stone.WHITE) whiteCaptures += count;
+    }
+
+    /**
+     * Zwraca skaner grup dla planszy tej partii (tworzony przy pierwszym użyciu).
+     */
+    GroupScanner getScanner() {
+        if (scanner == null) {
+            scanner = new GroupScanner(board.getSize());
+        }
+        return scanner;
+    }
+
+    void pushUndo(int value) {
+        if (undoSize == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoStack.length * 2);
+        }
+        undoStack[undoSize++] = value;
+    }
+
+    int popUndo() {
+        return undoStack[--undoSize];
+    }
+
+    /**
+     * Zwraca tablicę stosu cofania (bez kopiowania) - pozwala przekazać fragment wpisu
+     * do {@link ChainTracker#refresh} bez tworzenia nowych tablic.
+     */
+    int[] undoStack() {
+        return undoStack;
+    }
+
+    int undoSize() {
+        return undoSize;
+    }
+
+    void truncateUndo(int size) {
+        undoSize = size;
+    }
+}
@@ -0,0 +1,238 @@
+package go.logic;
+
+import java.util.Arrays;
+
+/**
+ * Wsadowe sprawdzanie zapisanych partii (np. kolumny {@code movesHistory} w bazie).
+ * <p>
+ * Partia jest przekazywana jako tablica {@code int[]} zakodowanych ruchów (zob. {@link #encode}),
+ * a nie lista obiektów. Walidator rozgrywa ją na jednym, wielokrotnie używanym stanie partii
+ * metodą {@link GameMechanics#makeMove}, a po policzeniu wyniku cofa wszystkie ruchy
+ * ({@link GameMechanics#undoMove}) - kolejna partia zaczyna od pustej planszy bez tworzenia
+ * nowego stanu i bez kopiowania planszy po każdym ruchu.
+ * <p>
+ * Instancja nie jest bezpieczna wątkowo - przy sprawdzaniu równoległym każdy wątek
+ * powinien używać własnej.
+ */
+public final class GameValidator {
+
+    /** Zakodowany ruch, którego nie udało się odczytać z zapisu partii. */
+    public static final int MALFORMED = -1;
+
+    private final int size;
+    private final GameMechanics mechanics;
+    private final GameState state;
+    private final Board board;
+    private final DeadStoneEstimator estimator;
+    private final GroupScanner scanner;
+
+    /** Plansza robocza do liczenia punktów po zdjęciu martwych kamieni. */
+    private final Board scoreBoard;
+
+    /**
+     * Tworzy walidator partii na planszy danego rozmiaru.
+     *
+     * @param size  rozmiar boku planszy.
+     * @param rules zestaw zasad, według których rozegrano partie.
+     */
+    public GameValidator(int size, RuleSet rules) {
+        this.size = size;
+        this.mechanics = new GameMechanics(rules);
+        this.state = new GameState(size);
+        this.board = state.getBoard();
+        this.estimator = new DeadStoneEstimator(size);
+        this.scanner = new GroupScanner(size);
+        this.scoreBoard = new Board(size);
+    }
+
+    /**
+     * Koduje ruch jako liczbę: najmłodszy bit to kolor (0 - czarny, 1 - biały),
+     * pozostałe bity to indeks pola ({@link BoardGeometry#index}) powiększony o 1.
+     *
+     * @param color kolor gracza (BLACK lub WHITE).
+     * @param index indeks pola.
+     * @return zakodowany ruch.
+     */
+    public static int encode(Stone color, int index) {
+        return ((index + 1) << 1) | (color == Stone.WHITE ? 1 : 0);
+    }
+
+    /**
+     * Koduje pas gracza.
+     *
+     * @param color kolor gracza (BLACK lub WHITE).
+     * @return zakodowany pas.
+     */
+    public static int encodePass(Stone color) {
+        return color == Stone.WHITE ? 1 : 0;
+    }
+
+    /**
+     * Zamienia zapis partii z bazy (np. {@code "B[D4];W[PASS];"}) na tablicę zakodowanych ruchów.
+     * Wpis z niepoprawnym kolorem lub polem jest kodowany jako {@link #MALFORMED}, a poddanie się
+     * i wyjście z gry ({@code SURRENDER}, {@code QUIT}) kończą sekwencję.
+     *
+     * @param history zapis partii.
+     * @param size    rozmiar planszy, na której rozegrano partię.
+     * @return tablica zakodowanych ruchów (dokładnie tyle elementów, ile ruchów).
+     */
+    public static int[] parseHistory(String history, int size) {
+        if (history == null || history.isEmpty()) return new int[0];
+        String[] parts = history.split(";");
+        int[] moves = new int[parts.length];
+        int count = 0;
+        for (String part : parts) {
+            String entry = part.trim();
+            if (entry.isEmpty()) continue;
+            if (entry.endsWith("[SURRENDER]") || entry.endsWith("[QUIT]")) break;
+            moves[count++] = parseEntry(entry, size);
+        }
+        return Arrays.copyOf(moves, count);
+    }
+
+    /**
+     * Sprawdza, czy partia zakończyła się walkowerem - wpisem {@code SURRENDER} lub {@code QUIT}
+     * (zob. {@link #parseHistory}).
+     *
+     * @param history zapis partii.
+     * @return kolor gracza, który się poddał lub wyszedł z gry, albo {@link Stone#EMPTY}, jeśli partia
+     * nie zakończyła się walkowerem.
+     */
+    public static Stone forfeitingColor(String history) {
+        if (history == null) return Stone.EMPTY;
+        for (String part : history.split(";")) {
+            String entry = part.trim();
+            if (!entry.endsWith("[SURRENDER]") && !entry.endsWith("[QUIT]")) continue;
+            if (entry.startsWith("B[")) return Stone.BLACK;
+            if (entry.startsWith("W[")) return Stone.WHITE;
+        }
+        return Stone.EMPTY;
+    }
+
+    /**
+     * Rozgrywa sekwencję ruchów i liczy wynik końcowej pozycji.
+     * Gracze muszą wykonywać ruchy na zmianę, zaczynając od czarnego; sprawdzanie kończy się
+     * na pierwszym ruchu nielegalnym (zajęte pole, samobójstwo, superko), nieczytelnym
+     * lub wykonanym poza kolejnością. Wynik liczony jest dla pozycji sprzed tego ruchu.
+     *
+     * @param moves  zakodowane ruchy (zob. {@link #encode}).
+     * @param length liczba ruchów do sprawdzenia.
+     * @return wynik sprawdzenia.
+     */
+    public ValidationResult validate(int[] moves, int length) {
+        BoardGeometry geometry = board.getGeometry();
+        int firstIllegalMove = -1;
+        int played = 0;
+        int expectedColor = 0;
+
+        for (int i = 0; i < length; i++) {
+            int move = moves[i];
+            if (move < 0 || (move & 1) != expectedColor) {
+                firstIllegalMove = i;
+                break;
+            }
+            int index = (move >>> 1) - 1;
+            if (index >= 0) {
+                Stone color = expectedColor == 0 ? Stone.BLACK : Stone.WHITE;
+                if (index >= geometry.getPoints()
+                        || !mechanics.makeMove(state, geometry.xOf(index), geometry.yOf(index), color)) {
+                    firstIllegalMove = i;
+                    break;
+                }
+                played++;
+            }
+            expectedColor ^= 1;
+        }
+
+        ValidationResult result = score(firstIllegalMove, played);
+
+        // Cofamy wszystkie ruchy - stan wraca do pustej planszy dla kolejnej partii
+        for (int i = 0; i < played; i++) {
+            mechanics.undoMove(state);
+        }
+        return result;
+    }
+
+    /**
+     * Wersja {@link #validate(int[], int)} dla całej tablicy ruchów.
+     *
+     * @param moves zakodowane ruchy.
+     * @return wynik sprawdzenia.
+     */
+    public ValidationResult validate(int[] moves) {
+        return validate(moves, moves.length);
+    }
+
+    /** @return rozmiar plansz sprawdzanych przez walidator. */
+    public int getSize() {
+        return size;
+    }
+
+    /** @return zestaw zasad walidatora. */
+    public RuleSet getRules() {
+        return mechanics.getRules();
+    }
+
+    /**
+     * Zdejmuje (na kopii) martwe kamienie wskazane przez estymator i liczy wynik,
+     * a także wynik końcowej pozycji bez zdejmowania kamieni.
+     */
+    private ValidationResult score(int firstIllegalMove, int played) {
+        long[] dead = estimator.estimateDeadStones(board);
+        int deadBlack = 0;
+        int deadWhite = 0;
+        long[] black = board.stones(Stone.BLACK);
+        long[] white = board.stones(Stone.WHITE);
+        for (int i = 0; i < dead.length; i++) {
+            deadBlack += Long.bitCount(dead[i] & black[i]);
+            deadWhite += Long.bitCount(dead[i] & white[i]);
+        }
+
+        board.copyBoard(scoreBoard);
+        scoreBoard.removeStones(dead);
+        // Martwe kamienie są jeńcami przeciwnika (jak w GameMechanics.takeOffDeadGroups)
+        ScoreResult score = mechanics.calculateGameScore(scoreBoard,
+                state.getBlackCaptures() + deadWhite, state.getWhiteCaptures() + deadBlack, scanner);
+
+        // Wynik pozycji bez zdejmowania kamieni - tak zapisywane są partie przerwane walkowerem
+        ScoreResult boardScore = mechanics.calculateGameScore(board,
+                state.getBlackCaptures(), state.getWhiteCaptures(), scanner);
+
+        Board finalBoard = new Board(size);
+        board.copyBoard(finalBoard);
+        RuleSet rules = mechanics.getRules();
+        return new ValidationResult(firstIllegalMove, played, finalBoard, dead, score,
+                rules.score(score, Stone.BLACK), rules.score(score, Stone.WHITE),
+                rules.score(boardScore, Stone.BLACK), rules.score(boardScore, Stone.WHITE));
+    }
+
+    /**
+     * Odczytuje pojedynczy wpis w formacie {@code K[POLE]}, gdzie K to B lub W,
+     * a POLE to {@code PASS} albo litera kolumny i numer wiersza (jak w {@code "D4"}).
+     */
+    private static int parseEntry(String entry, int size) {
+        int open = entry.indexOf('[');
+        int close = entry.indexOf(']');
+        if (open != 1 || close <= open) return MALFORMED;
+
+        Stone color;
+        char colorChar = entry.charAt(0);
+        if (colorChar == 'B') color = Stone.BLACK;
+        else if (colorChar == 'W') color = Stone.WHITE;
+        else return MALFORMED;
+
+        String content = entry.substring(open + 1, close);
+        if (content.equals("PASS")) return encodePass(color);
+        if (content.length() < 2) return MALFORMED;
+
+        int x = content.charAt(0) - 'A';
+        int y;
+        try {
+            y = Integer.parseInt(content.substring(1)) - 1;
+        } catch (NumberFormatException e) {
+            return MALFORMED;
+        }
+        if (x < 0 || x >= size || y < 0 || y >= size) return MALFORMED;
+        return encode(color, BoardGeometry.forSize(size).index(x, y));
+    }
+}
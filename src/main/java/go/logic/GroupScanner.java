@@ -0,0 +1,279 @@
+package go.logic;
+
+import java.util.Arrays;
+
+/**
+ * Bezalokacyjne przeszukiwanie grup kamieni i obszarów pustych pól.
+ * <p>
+ * Pola są reprezentowane spakowanymi indeksami {@code int} (zob. {@link BoardGeometry#index}),
+ * przeszukiwanie korzysta z jednego, wielokrotnie używanego stosu {@code int[]}, a odwiedzone
+ * pola oznaczane są numerem przebiegu (generacji) zamiast czyszczonej za każdym razem tablicy
+ * {@code boolean}. Dzięki temu pojedyncze przeszukanie nie tworzy żadnych obiektów
+ * (w przeciwieństwie do {@link GameMechanics#exploreGroup}, które buduje zbiory {@code Point}).
+ * <p>
+ * Odwiedzone pola pamiętane są w ramach jednego przebiegu rozpoczynanego metodą {@link #beginPass()}.
+ * Pozwala to np. policzyć różne grupy sąsiadujące z polem lub przejść po wszystkich obszarach
+ * planszy bez ponownego odwiedzania tych samych pól.
+ * <p>
+ * Instancja nie jest bezpieczna wątkowo - każdy wątek (sesja, bot) powinien używać własnej.
+ */
+public final class GroupScanner {
+
+    private final BoardGeometry geometry;
+    private final int size;
+
+    /** Numer przebiegu, w którym pole zostało odwiedzone (0 = nigdy). */
+    private final int[] visited;
+
+    /** Numer skanu, w którym pole zostało zapisane jako oddech (zapobiega duplikatom). */
+    private final int[] libertyStamp;
+
+    /** Stos roboczy przeszukiwania w głąb. */
+    private final int[] stack;
+
+    /** Wynik ostatniego skanu: pola należące do grupy/obszaru. */
+    private final int[] members;
+
+    /** Wynik ostatniego skanu: puste pola sąsiadujące z grupą (oddechy). */
+    private final int[] liberties;
+
+    private int pass = 0;
+    private int scan = 0;
+    private int top = 0;
+    private int memberCount = 0;
+    private int libertyCount = 0;
+    private boolean touchesBlack = false;
+    private boolean touchesWhite = false;
+
+    /**
+     * Tworzy skaner dla plansz o podanym rozmiarze.
+     *
+     * @param size rozmiar boku planszy.
+     */
+    public GroupScanner(int size) {
+        this.geometry = BoardGeometry.forSize(size);
+        this.size = size;
+        int points = geometry.getPoints();
+        this.visited = new int[points];
+        this.libertyStamp = new int[points];
+        this.stack = new int[points];
+        this.members = new int[points];
+        this.liberties = new int[points];
+        beginPass();
+    }
+
+    /**
+     * Rozpoczyna nowy przebieg - wszystkie pola przestają być oznaczone jako odwiedzone.
+     * Kosztuje O(1) (poza rzadkim przepełnieniem licznika generacji).
+     */
+    public void beginPass() {
+        pass++;
+        if (pass == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            pass = 1;
+        }
+    }
+
+    /**
+     * Wyznacza grupę kamieni zawierającą pole (x, y) oraz jej oddechy.
+     * Jeśli pole jest puste lub zostało już odwiedzone w bieżącym przebiegu, wynik jest pusty.
+     *
+     * @param board plansza gry (o rozmiarze zgodnym ze skanerem).
+     * @param x współrzędna X kamienia.
+     * @param y współrzędna Y kamienia.
+     * @return liczba kamieni w grupie.
+     */
+    public int scanGroup(Board board, int x, int y) {
+        return scanGroup(board, geometry.index(x, y));
+    }
+
+    /**
+     * Wyznacza grupę kamieni zawierającą pole o podanym indeksie oraz jej oddechy.
+     *
+     * @param board plansza gry (o rozmiarze zgodnym ze skanerem).
+     * @param index indeks pola startowego.
+     * @return liczba kamieni w grupie.
+     * @see #scanGroup(Board, int, int)
+     */
+    public int scanGroup(Board board, int index) {
+        checkBoard(board);
+        Stone color = board.stoneAt(index);
+        startScan();
+        if (color == Stone.EMPTY || visited[index] == pass) return 0;
+        flood(board, index, color);
+        return memberCount;
+    }
+
+    /**
+     * Wyznacza spójny obszar pustych pól zawierający pole (x, y) i zapamiętuje,
+     * z kamieniami jakich kolorów ten obszar graniczy (zob. {@link #touches(Stone)}).
+     * Jeśli pole nie jest puste lub zostało już odwiedzone w bieżącym przebiegu, wynik jest pusty.
+     *
+     * @param board plansza gry (o rozmiarze zgodnym ze skanerem).
+     * @param x współrzędna X pustego pola.
+     * @param y współrzędna Y pustego pola.
+     * @return liczba pól w obszarze.
+     */
+    public int scanRegion(Board board, int x, int y) {
+        return scanRegion(board, geometry.index(x, y));
+    }
+
+    /**
+     * Wersja {@link #scanRegion(Board, int, int)} dla spakowanego indeksu pola.
+     *
+     * @param board plansza gry (o rozmiarze zgodnym ze skanerem).
+     * @param index indeks pustego pola.
+     * @return liczba pól w obszarze.
+     */
+    public int scanRegion(Board board, int index) {
+        checkBoard(board);
+        startScan();
+        if (board.stoneAt(index) != Stone.EMPTY || visited[index] == pass) return 0;
+        flood(board, index, Stone.EMPTY);
+        return memberCount;
+    }
+
+    /**
+     * Sprawdza, czy pole zostało odwiedzone w bieżącym przebiegu.
+     *
+     * @param x współrzędna X.
+     * @param y współrzędna Y.
+     * @return true, jeśli pole należy do którejś z przeszukanych grup lub obszarów.
+     */
+    public boolean isVisited(int x, int y) {
+        return isVisited(geometry.index(x, y));
+    }
+
+    /**
+     * Sprawdza, czy pole o podanym indeksie zostało odwiedzone w bieżącym przebiegu.
+     *
+     * @param index indeks pola.
+     * @return true, jeśli pole należy do którejś z przeszukanych w tym przebiegu grup/obszarów.
+     */
+    public boolean isVisited(int index) {
+        return visited[index] == pass;
+    }
+
+    /**
+     * Sprawdza, czy skaner może przeszukiwać podaną planszę (zgodny rozmiar).
+     *
+     * @param board plansza gry.
+     * @return true, jeśli rozmiar planszy odpowiada rozmiarowi skanera.
+     */
+    public boolean supports(Board board) {
+        return board.getSize() == size;
+    }
+
+    /** @return liczba pól znalezionych w ostatnim skanie. */
+    public int getMemberCount() {
+        return memberCount;
+    }
+
+    /**
+     * Zwraca indeks i-tego pola znalezionego w ostatnim skanie.
+     * Współrzędne można odzyskać przez {@link #xOf(int)} i {@link #yOf(int)}.
+     *
+     * @param i numer pola (0 .. {@link #getMemberCount()} - 1).
+     * @return indeks pola.
+     */
+    public int getMember(int i) {
+        return members[i];
+    }
+
+    /** @return liczba różnych oddechów grupy z ostatniego skanu (dla obszaru pustych pól: 0). */
+    public int getLibertyCount() {
+        return libertyCount;
+    }
+
+    /**
+     * Zwraca indeks i-tego oddechu grupy z ostatniego skanu.
+     *
+     * @param i numer oddechu (0 .. {@link #getLibertyCount()} - 1).
+     * @return indeks pustego pola.
+     */
+    public int getLiberty(int i) {
+        return liberties[i];
+    }
+
+    /**
+     * Informuje, czy ostatnio przeszukany obszar (lub grupa) graniczy z kamieniem danego koloru.
+     *
+     * @param color kolor kamieni.
+     * @return true, jeśli któreś pole sąsiaduje z kamieniem tego koloru.
+     */
+    public boolean touches(Stone color) {
+        if (color == Stone.BLACK) return touchesBlack;
+        if (color == Stone.WHITE) return touchesWhite;
+        return libertyCount > 0;
+    }
+
+    /** @return współrzędna X pola o podanym indeksie. */
+    public int xOf(int index) {
+        return geometry.xOf(index);
+    }
+
+    /** @return współrzędna Y pola o podanym indeksie. */
+    public int yOf(int index) {
+        return geometry.yOf(index);
+    }
+
+    private void startScan() {
+        memberCount = 0;
+        libertyCount = 0;
+        touchesBlack = false;
+        touchesWhite = false;
+        scan++;
+        if (scan == Integer.MAX_VALUE) {
+            Arrays.fill(libertyStamp, 0);
+            scan = 1;
+        }
+    }
+
+    /**
+     * Przeszukiwanie w głąb po polach koloru {@code color}, zaczynając od {@code start}.
+     * Pola innych kolorów są zapisywane jako oddechy (puste) lub flagi sąsiedztwa (kamienie).
+     */
+    private void flood(Board board, int start, Stone color) {
+        top = 0;
+        stack[top++] = start;
+        visited[start] = pass;
+
+        while (top > 0) {
+            int current = stack[--top];
+            members[memberCount++] = current;
+
+            for (int d = 0; d < BoardGeometry.DIRECTIONS; d++) {
+                visit(board, geometry.neighbour(current, d), color);
+            }
+        }
+    }
+
+    /**
+     * Odwiedza sąsiada pola. Pole-strażnik (sąsiad spoza planszy) nie pasuje do żadnego
+     * z warunków, więc jest pomijane bez osobnego sprawdzania granic.
+     */
+    private void visit(Board board, int neighbour, Stone color) {
+        if (board.fieldIs(neighbour, color)) {
+            if (visited[neighbour] != pass) {
+                visited[neighbour] = pass;
+                stack[top++] = neighbour;
+            }
+        } else if (board.fieldIs(neighbour, Stone.EMPTY)) {
+            if (libertyStamp[neighbour] != scan) {
+                libertyStamp[neighbour] = scan;
+                liberties[libertyCount++] = neighbour;
+            }
+        } else if (board.fieldIs(neighbour, Stone.BLACK)) {
+            touchesBlack = true;
+        } else if (board.fieldIs(neighbour, Stone.WHITE)) {
+            touchesWhite = true;
+        }
+    }
+
+    private void checkBoard(Board board) {
+        if (!supports(board)) {
+            throw new IllegalArgumentException("Skaner dla planszy " + size + "x" + size
+                    + " nie obsluguje planszy " + board.getSize() + "x" + board.getSize());
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package go.logic;
+
+import java.util.Arrays;
+
+/**
+ * Mapa wpływów - szacunek, do kogo należą pola planszy w trakcie partii.
+ * <p>
+ * Każdy kamień wpływa na pola w odległości (manhattańskiej) co najwyżej {@link #RADIUS},
+ * z wagą malejącą dwukrotnie z każdym krokiem: czarne kamienie dodają wpływ, białe odejmują.
+ * Puste pole o wpływie co najmniej {@link #THRESHOLD} (lub co najwyżej {@code -THRESHOLD})
+ * jest uznawane za obszar odpowiednio czarnego (białego).
+ * <p>
+ * Mapa jest aktualizowana przyrostowo: {@link #update} porównuje zbiory bitowe kamieni
+ * z ostatnio widzianymi i dodaje lub odejmuje wpływ tylko tych kamieni, które się zmieniły
+ * (ostatni ruch, zbite kamienie, cofnięte ruchy) - koszt zależy od liczby zmian, a nie od rozmiaru planszy.
+ * Tablice sąsiedztwa w promieniu wpływu są wyliczane raz dla każdego rozmiaru planszy i współdzielone.
+ * Instancja nie jest bezpieczna wątkowo.
+ */
+public final class InfluenceMap {
+
+    /** Największa odległość, na jaką sięga wpływ kamienia. */
+    public static final int RADIUS = 4;
+
+    /** Wpływ, od którego puste pole uznajemy za obszar gracza (samotny kamień obejmuje odległość 2). */
+    public static final int THRESHOLD = 16;
+
+    /** Wagi wpływu według odległości od kamienia (0 - pole kamienia). */
+    private static final int[] WEIGHTS = {64, 32, 16, 8, 4};
+
+    /** Liczba pól w promieniu wpływu (romb o przekątnej 2 * RADIUS + 1). */
+    private static final int KERNEL = 2 * RADIUS * RADIUS + 2 * RADIUS + 1;
+
+    /** Pamięć podręczna tablic wpływu dla dopuszczalnych rozmiarów planszy. */
+    private static final Kernel[] CACHE = new Kernel[Board.MAX_SIZE + 1];
+
+    private final int size;
+    private final Kernel kernel;
+
+    /** Wpływ na każdym polu oraz dodatkowe pole-strażnik na końcu (pomijane przy odczycie). */
+    private final int[] influence;
+
+    /** Zbiory bitowe kamieni, dla których wpływ jest już naniesiony na mapę. */
+    private final long[] black;
+    private final long[] white;
+
+    /**
+     * Tworzy pustą mapę wpływów dla plansz o podanym rozmiarze.
+     *
+     * @param size rozmiar boku planszy.
+     */
+    public InfluenceMap(int size) {
+        this.size = size;
+        this.kernel = kernelFor(size);
+        BoardGeometry geometry = BoardGeometry.forSize(size);
+        this.influence = new int[geometry.getPoints() + 1];
+        this.black = geometry.newMask();
+        this.white = geometry.newMask();
+    }
+
+    /**
+     * Sprawdza, czy mapa może śledzić podaną planszę (zgodny rozmiar).
+     *
+     * @param board plansza gry.
+     * @return true, jeśli rozmiar planszy odpowiada rozmiarowi mapy.
+     */
+    public boolean supports(Board board) {
+        return board.getSize() == size;
+    }
+
+    /**
+     * Dostosowuje mapę do bieżącego układu kamieni, przeliczając wpływ tylko kamieni
+     * postawionych lub zdjętych od poprzedniego wywołania.
+     *
+     * @param board plansza gry tego samego rozmiaru.
+     * @throws IllegalArgumentException jeśli rozmiar planszy jest inny niż rozmiar mapy.
+     */
+    public void update(Board board) {
+        if (!supports(board)) {
+            throw new IllegalArgumentException("Mapa wpływów dla planszy " + size + "x" + size
+                    + " nie obsluguje planszy " + board.getSize() + "x" + board.getSize());
+        }
+        sync(board.stones(Stone.BLACK), black, 1);
+        sync(board.stones(Stone.WHITE), white, -1);
+    }
+
+    /**
+     * Czyści mapę (jak dla pustej planszy).
+     */
+    public void reset() {
+        Arrays.fill(influence, 0);
+        Arrays.fill(black, 0L);
+        Arrays.fill(white, 0L);
+    }
+
+    /**
+     * Zwraca wpływ na polu: dodatni - przewaga czarnego, ujemny - białego.
+     *
+     * @param index indeks pola.
+     * @return wartość wpływu.
+     */
+    public int getInfluence(int index) {
+        return influence[index];
+    }
+
+    /**
+     * Zwraca szacowanego właściciela pola: kolor kamienia, jeśli pole jest zajęte,
+     * a dla pustego pola - gracza o dostatecznej przewadze wpływu.
+     *
+     * @param index indeks pola.
+     * @return BLACK, WHITE lub EMPTY (pole sporne).
+     */
+    public Stone owner(int index) {
+        if (BoardGeometry.contains(black, index)) return Stone.BLACK;
+        if (BoardGeometry.contains(white, index)) return Stone.WHITE;
+        int value = influence[index];
+        if (value >= THRESHOLD) return Stone.BLACK;
+        if (value <= -THRESHOLD) return Stone.WHITE;
+        return Stone.EMPTY;
+    }
+
+    /**
+     * Szacuje obszar gracza: jego kamienie oraz puste pola pod jego przeważającym wpływem.
+     *
+     * @param color kolor gracza (BLACK lub WHITE).
+     * @return liczba pól.
+     */
+    public int estimatedArea(Stone color) {
+        long[] own = color == Stone.BLACK ? black : white;
+        long[] other = color == Stone.BLACK ? white : black;
+        int sign = color == Stone.BLACK ? 1 : -1;
+        int area = BoardGeometry.count(own);
+        int points = influence.length - 1;
+        for (int index = 0; index < points; index++) {
+            if (sign * influence[index] >= THRESHOLD
+                    && ((own[index >>> 6] | other[index >>> 6]) & (1L << index)) == 0) {
+                area++;
+            }
+        }
+        return area;
+    }
+
+    /**
+     * Nanosi na mapę wpływ kamieni z {@code current}, których nie było w {@code known},
+     * i usuwa wpływ kamieni, które zniknęły.
+     */
+    private void sync(long[] current, long[] known, int sign) {
+        for (int w = 0; w < current.length; w++) {
+            long changed = current[w] ^ known[w];
+            while (changed != 0) {
+                long bit = changed & -changed;
+                int index = (w << 6) + Long.numberOfTrailingZeros(changed);
+                apply(index, (current[w] & bit) != 0 ? sign : -sign);
+                changed ^= bit;
+            }
+            known[w] = current[w];
+        }
+    }
+
+    /** Dodaje (delta = 1) lub odejmuje (delta = -1) wpływ czarnego kamienia; dla białego delta ma znak przeciwny. */
+    private void apply(int index, int delta) {
+        int[] targets = kernel.targets;
+        int[] weights = kernel.weights;
+        int base = index * KERNEL;
+        for (int k = 0; k < KERNEL; k++) {
+            influence[targets[base + k]] += delta * weights[base + k];
+        }
+    }
+
+    private static Kernel kernelFor(int size) {
+        if (size < 1 || size > Board.MAX_SIZE) {
+            throw new IllegalArgumentException("Nieobslugiwany rozmiar planszy: " + size);
+        }
+        synchronized (CACHE) {
+            if (CACHE[size] == null) {
+                CACHE[size] = new Kernel(BoardGeometry.forSize(size));
+            }
+            return CACHE[size];
+        }
+    }
+
+    /**
+     * Pola w promieniu wpływu każdego pola i ich wagi, w układzie {@code [KERNEL * indeks + k]}.
+     * Pozycje poza planszą wskazują pole-strażnika z wagą 0, więc pętla aktualizacji nie ma rozgałęzień.
+     */
+    private static final class Kernel {
+
+        private final int[] targets;
+        private final int[] weights;
+
+        private Kernel(BoardGeometry geometry) {
+            int size = geometry.getSize();
+            int points = geometry.getPoints();
+            this.targets = new int[KERNEL * points];
+            this.weights = new int[KERNEL * points];
+            for (int index = 0; index < points; index++) {
+                int x = geometry.xOf(index);
+                int y = geometry.yOf(index);
+                int k = KERNEL * index;
+                for (int dy = -RADIUS; dy <= RADIUS; dy++) {
+                    int reach = RADIUS - Math.abs(dy);
+                    for (int dx = -reach; dx <= reach; dx++) {
+                        int tx = x + dx;
+                        int ty = y + dy;
+                        if (tx >= 0 && tx < size && ty >= 0 && ty < size) {
+                            targets[k] = geometry.index(tx, ty);
+                            weights[k] = WEIGHTS[Math.abs(dx) + Math.abs(dy)];
+                        } else {
+                            targets[k] = points;
+                            weights[k] = 0;
+                        }
+                        k++;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package go.logic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Szybkie symulacje losowych partii (playouty) do ocen typu Monte Carlo.
+ * <p>
+ * Symulacja zaczyna od kopii podanego stanu i gra losowe legalne ruchy na zmianę aż do dwóch
+ * pasów z rzędu. Gracz nie zapełnia własnych oczu (zob. {@link #isOwnEye}), więc żywe grupy
+ * przeżywają symulację, a gdy nie ma innych ruchów - pasuje. Ruchy są wykonywane przez
+ * {@link GameMechanics#makeMove}, więc samobójstwo i superko są egzekwowane dokładnie tak
+ * jak w prawdziwej partii, a oddechy łańcuchów są aktualizowane przyrostowo przez {@link ChainTracker}.
+ * <p>
+ * Puste pola są trzymane w tablicy {@code int[]} aktualizowanej przy każdym ruchu i biciu,
+ * a losowanie korzysta z własnego {@link SplittableRandom} - pojedynczy ruch niczego nie alokuje.
+ * Instancja nie jest bezpieczna wątkowo: każdy wątek powinien mieć własny silnik z generatorem
+ * uzyskanym przez {@link SplittableRandom#split()}.
+ */
+public final class PlayoutEngine {
+
+    /** Limit ruchów symulacji jako wielokrotność liczby pól (zabezpieczenie przed bardzo długimi cyklami). */
+    private static final int MAX_MOVES_PER_POINT = 3;
+
+    private final GameMechanics mechanics;
+    private final SplittableRandom random;
+    private final BoardGeometry geometry;
+    private final int maxMoves;
+
+    /** Stan roboczy symulacji (nadpisywany przez każdą kolejną symulację). */
+    private final GameState work;
+    private final Board board;
+
+    /** Lista pustych pól i pozycja każdego pola na tej liście (-1, jeśli pole jest zajęte). */
+    private final int[] empties;
+    private final int[] position;
+    private int emptyCount;
+
+    private long playouts = 0;
+    private long totalNanos = 0;
+
+    /**
+     * Tworzy silnik symulacji dla plansz o podanym rozmiarze.
+     *
+     * @param mechanics silnik zasad (wyznacza wariant superko).
+     * @param size      rozmiar boku planszy.
+     * @param random    generator liczb losowych używany wyłącznie przez ten silnik.
+     */
+    public PlayoutEngine(GameMechanics mechanics, int size, SplittableRandom random) {
+        this.mechanics = mechanics;
+        this.random = random;
+        this.geometry = BoardGeometry.forSize(size);
+        this.maxMoves = MAX_MOVES_PER_POINT * geometry.getPoints();
+        this.work = new GameState(size);
+        this.board = work.getBoard();
+        this.empties = new int[geometry.getPoints()];
+        this.position = new int[geometry.getPoints()];
+    }
+
+    /**
+     * Rozgrywa jedną losową partię od podanej pozycji. Stan {@code start} nie jest zmieniany.
+     *
+     * @param start  pozycja początkowa.
+     * @param toMove gracz, który ma ruch.
+     * @return różnica wyniku czarny - biały liczona obszarowo (kamienie + pola otoczone jednym kolorem), bez komi.
+     */
+    public int playout(GameState start, Stone toMove) {
+        long begin = System.nanoTime();
+        start.copyTo(work);
+        collectEmpties();
+
+        Stone color = toMove;
+        int passes = 0;
+        for (int moves = 0; passes < 2 && moves < maxMoves; moves++) {
+            if (playRandomMove(color)) {
+                passes = 0;
+            } else {
+                passes++;
+            }
+            color = color.opponent();
+        }
+
+        int result = areaDifference();
+        totalNanos += System.nanoTime() - begin;
+        playouts++;
+        return result;
+    }
+
+    /**
+     * Rozgrywa jedną losową partię od podanej pozycji i liczy wynik według zestawu zasad.
+     * Przy liczeniu obszarowym wynik jest taki jak {@link #playout(GameState, Stone)}. Przy terytorialnym
+     * symulacja służy tylko do ustalenia przynależności pól, a punkty liczone są dla pozycji {@code start}
+     * (tak jakby partia skończyła się w niej): jej puste pola są terytorium właściciela, kamienie na cudzym
+     * obszarze są martwe (pole i jeniec dla przeciwnika), do tego dochodzą jeńcy z {@code start}.
+     * Zapełnianie własnego terytorium w losowej symulacji nie obniża więc wyniku, a ruch w nie
+     * przed symulacją - tak. Stan {@code start} nie jest zmieniany.
+     *
+     * @param start  pozycja początkowa.
+     * @param toMove gracz, który ma ruch.
+     * @param rules  zasady liczenia punktów.
+     * @return różnica wyniku czarny - biały według zasad, bez komi.
+     */
+    public int playout(GameState start, Stone toMove, RuleSet rules) {
+        int area = playout(start, toMove);
+        if (rules.isAreaScoring()) return area;
+
+        Board startBoard = start.getBoard();
+        int difference = start.getBlackCaptures() - start.getWhiteCaptures();
+        for (int index = 0; index < geometry.getPoints(); index++) {
+            Stone owner = owner(index);
+            if (owner == Stone.EMPTY) continue;
+            int sign = owner == Stone.BLACK ? 1 : -1;
+            if (startBoard.fieldIs(index, Stone.EMPTY)) {
+                difference += sign;
+            } else if (!startBoard.fieldIs(index, owner)) {
+                difference += 2 * sign;
+            }
+        }
+        return difference;
+    }
+
+    /**
+     * Zwraca stan roboczy po ostatniej symulacji (np. do budowy mapy przynależności pól).
+     * Stan jest nadpisywany przez kolejną symulację i nie powinien być modyfikowany.
+     * Stos cofania zawiera wszystkie ruchy symulacji.
+     *
+     * @return stan końcowy ostatniej symulacji.
+     */
+    public GameState getState() {
+        return work;
+    }
+
+    /** @return liczba symulacji wykonanych przez ten silnik. */
+    public long getPlayoutCount() {
+        return playouts;
+    }
+
+    /**
+     * Zwraca średnią szybkość symulacji tego silnika.
+     *
+     * @return liczba symulacji na sekundę (0, jeśli nie wykonano żadnej).
+     */
+    public double getPlayoutsPerSecond() {
+        return totalNanos == 0 ? 0.0 : playouts * 1_000_000_000.0 / totalNanos;
+    }
+
+    /**
+     * Sprawdza, czy puste pole planszy roboczej jest okiem gracza (zob. {@link #isEye}).
+     *
+     * @param index indeks pustego pola.
+     * @param color kolor gracza.
+     * @return true, jeśli pole jest okiem gracza.
+     */
+    boolean isOwnEye(int index, Stone color) {
+        return isEye(board, index, color);
+    }
+
+    /**
+     * Sprawdza, czy puste pole jest okiem gracza: wszyscy sąsiedzi to jego kamienie,
+     * a przeciwnik zajmuje mniej niż dwa pola po przekątnej (przy krawędzi - żadnego).
+     * Takiego pola gracz nie zapełnia, bo odebrałby sobie oko.
+     *
+     * @param board plansza gry.
+     * @param index indeks pustego pola.
+     * @param color kolor gracza.
+     * @return true, jeśli pole jest okiem gracza.
+     */
+    public static boolean isEye(Board board, int index, Stone color) {
+        BoardGeometry geometry = board.getGeometry();
+        int offBoard = geometry.getOffBoard();
+        for (int d = 0; d < BoardGeometry.DIRECTIONS; d++) {
+            int n = geometry.neighbour(index, d);
+            if (n != offBoard && !board.fieldIs(n, color)) return false;
+        }
+        Stone opponent = color.opponent();
+        int opponentDiagonals = 0;
+        int offBoardDiagonals = 0;
+        for (int d = 0; d < BoardGeometry.DIRECTIONS; d++) {
+            int n = geometry.diagonal(index, d);
+            if (n == offBoard) offBoardDiagonals++;
+            else if (board.fieldIs(n, opponent)) opponentDiagonals++;
+        }
+        return offBoardDiagonals > 0 ? opponentDiagonals == 0 : opponentDiagonals < 2;
+    }
+
+    /**
+     * Próbuje pustych pól od losowo wybranego miejsca listy, aż któryś ruch okaże się legalny
+     * i nie zapełnia własnego oka.
+     *
+     * @return true, jeśli wykonano ruch; false oznacza pas.
+     */
+    private boolean playRandomMove(Stone color) {
+        if (emptyCount == 0) return false;
+        int offset = random.nextInt(emptyCount);
+        int candidates = emptyCount;
+        for (int k = 0; k < candidates; k++) {
+            int slot = offset + k;
+            if (slot >= candidates) slot -= candidates;
+            int index = empties[slot];
+            if (isOwnEye(index, color)) continue;
+
+            int capturedBefore = work.getCaptures(color);
+            if (!mechanics.makeMove(work, geometry.xOf(index), geometry.yOf(index), color)) continue;
+
+            removeEmpty(index);
+            int captured = work.getCaptures(color) - capturedBefore;
+            if (captured > 0) {
+                ChainTracker chains = board.getChains();
+                for (int i = 0; i < captured; i++) {
+                    addEmpty(chains.getCaptured(i));
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Liczy wynik obszarowo: kamienie na planszy oraz puste pola, których wszyscy sąsiedzi
+     * mają jeden kolor (po symulacji puste pola to niemal wyłącznie oczy).
+     */
+    private int areaDifference() {
+        int black = BoardGeometry.count(board.stones(Stone.BLACK));
+        int white = BoardGeometry.count(board.stones(Stone.WHITE));
+        for (int i = 0; i < emptyCount; i++) {
+            Stone owner = owner(empties[i]);
+            if (owner == Stone.BLACK) black++;
+            else if (owner == Stone.WHITE) white++;
+        }
+        return black - white;
+    }
+
+    /**
+     * Właściciel pola planszy roboczej po symulacji: kolor kamienia albo kolor wszystkich kamieni
+     * sąsiadujących z pustym polem ({@link Stone#EMPTY} - pole niczyje).
+     */
+    private Stone owner(int index) {
+        if (!board.fieldIs(index, Stone.EMPTY)) {
+            return board.fieldIs(index, Stone.BLACK) ? Stone.BLACK : Stone.WHITE;
+        }
+        boolean touchesBlack = false;
+        boolean touchesWhite = false;
+        for (int d = 0; d < BoardGeometry.DIRECTIONS; d++) {
+            int n = geometry.neighbour(index, d);
+            if (board.fieldIs(n, Stone.BLACK)) touchesBlack = true;
+            else if (board.fieldIs(n, Stone.WHITE)) touchesWhite = true;
+        }
+        if (touchesBlack == touchesWhite) return Stone.EMPTY;
+        return touchesBlack ? Stone.BLACK : Stone.WHITE;
+    }
+
+    private void collectEmpties() {
+        emptyCount = 0;
+        for (int index = 0; index < empties.length; index++) {
+            if (board.fieldIs(index, Stone.EMPTY)) {
+                position[index] = emptyCount;
+                empties[emptyCount++] = index;
+            } else {
+                position[index] = -1;
+            }
+        }
+    }
+
+    private void addEmpty(int index) {
+        position[index] = emptyCount;
+        empties[emptyCount++] = index;
+    }
+
+    /** Usuwa pole z listy pustych pól, przenosząc na jego miejsce ostatni element. */
+    private void removeEmpty(int index) {
+        int slot = position[index];
+        int last = empties[--emptyCount];
+        empties[slot] = last;
+        position[last] = slot;
+        position[index] = -1;
+    }
+}
@@ -0,0 +1,181 @@
+package go.logic;
+
+/**
+ * Zbiór kluczy Zobrista pozycji, które wystąpiły już w danej partii.
+ * <p>
+ * Służy do egzekwowania pozycyjnego superko: ruch jest zabroniony, jeśli odtwarza
+ * dowolną wcześniejszą pozycję na planszy (a nie tylko tę sprzed jednego ruchu).
+ * Implementacja to tablica z adresowaniem otwartym (linear probing) na typie prostym
+ * {@code long}, więc sprawdzenie i dodanie klucza kosztuje O(1) bez tworzenia obiektów.
+ */
+public class PositionHistory {
+
+    /** Początkowa pojemność tablicy (potęga dwójki). */
+    private static final int INITIAL_CAPACITY = 512;
+
+    /** Tablica kluczy; wartość 0 oznacza wolne miejsce. */
+    private long[] keys = new long[INITIAL_CAPACITY];
+
+    /** Liczba zapisanych kluczy różnych od zera. */
+    private int size = 0;
+
+    /**
+     * Klucz 0 (pusta plansza) nie może być przechowywany w tablicy, bo oznacza wolne miejsce,
+     * dlatego jego obecność zapisujemy osobno.
+     */
+    private boolean containsZero = false;
+
+    /**
+     * Dodaje klucz pozycji do historii.
+     *
+     * @param key klucz Zobrista pozycji.
+     * @return true, jeśli klucz nie występował wcześniej w historii.
+     */
+    public boolean add(long key) {
+        if (key == 0L) {
+            boolean added = !containsZero;
+            containsZero = true;
+            return added;
+        }
+        if (2 * (size + 1) > keys.length) {
+            resize();
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0L) {
+            if (keys[slot] == key) return false;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        size++;
+        return true;
+    }
+
+    /**
+     * Sprawdza, czy pozycja o danym kluczu wystąpiła już w partii.
+     *
+     * @param key klucz Zobrista pozycji.
+     * @return true, jeśli klucz jest w historii.
+     */
+    public boolean contains(long key) {
+        if (key == 0L) return containsZero;
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0L) {
+            if (keys[slot] == key) return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Usuwa klucz z historii (np. przy cofnięciu ruchu).
+     * Kolejne klucze z tego samego łańcucha sond są przesuwane wstecz, więc nie są potrzebne
+     * znaczniki usuniętych miejsc (tombstones).
+     *
+     * @param key klucz Zobrista pozycji.
+     * @return true, jeśli klucz był w historii.
+     */
+    public boolean remove(long key) {
+        if (key == 0L) {
+            boolean removed = containsZero;
+            containsZero = false;
+            return removed;
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != key) {
+            if (keys[slot] == 0L) return false;
+            slot = (slot + 1) & mask;
+        }
+
+        // Przesuwanie wstecz: wypełniamy lukę kluczem, którego pozycja docelowa jej nie "przeskakuje"
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != 0L) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = 0L;
+        size--;
+        return true;
+    }
+
+    /**
+     * Usuwa wszystkie klucze z historii (np. przy rozpoczęciu nowej partii).
+     */
+    public void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        size = 0;
+        containsZero = false;
+    }
+
+    /**
+     * Zastępuje zawartość historii kopią innej historii.
+     * Jeśli ta historia ma już większą tablicę (np. urosła w poprzedniej symulacji),
+     * klucze są do niej wstawiane ponownie zamiast tworzenia nowej tablicy.
+     *
+     * @param other historia, której klucze mają zostać skopiowane.
+     */
+    public void copyFrom(PositionHistory other) {
+        if (keys.length > other.keys.length) {
+            java.util.Arrays.fill(keys, 0L);
+            int mask = keys.length - 1;
+            for (long key : other.keys) {
+                if (key != 0L) {
+                    int slot = mix(key) & mask;
+                    while (keys[slot] != 0L) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = key;
+                }
+            }
+        }
+        else {
+            if (keys.length != other.keys.length) {
+                keys = new long[other.keys.length];
+            }
+            System.arraycopy(other.keys, 0, keys, 0, keys.length);
+        }
+        size = other.size;
+        containsZero = other.containsZero;
+    }
+
+    /**
+     * Zwraca liczbę zapamiętanych pozycji.
+     *
+     * @return liczba kluczy w historii.
+     */
+    public int size() {
+        return size + (containsZero ? 1 : 0);
+    }
+
+    /**
+     * Podwaja pojemność tablicy i ponownie rozmieszcza klucze.
+     */
+    private void resize() {
+        long[] oldKeys = keys;
+        keys = new long[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (long key : oldKeys) {
+            if (key != 0L) {
+                int slot = mix(key) & mask;
+                while (keys[slot] != 0L) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    /**
+     * Miesza bity klucza, aby rozkład w tablicy był równomierny.
+     */
+    private static int mix(long key) {
+        return (int) (key ^ (key >>> 32));
+    }
+}
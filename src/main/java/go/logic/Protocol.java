@@ -1,8 +1,10 @@
 package go.logic;
 
+import java.awt.Point;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Klasa narzędziowa definiująca protokół komunikacji sieciowej gry.
@@ -61,6 +63,12 @@ public class Protocol {
     /** Sygnał akceptacji propozycji martwych kamieni (koniec gry). */
     public static final int ACCEPT_PROPOSAL = 22;
 
+    /** Nagłówek przesyłania zbioru legalnych ruchów gracza, który ma wykonać ruch. */
+    public static final int LEGAL_MOVES = 23;
+
+    /** Nagłówek przesyłania szacowanego obszaru obu graczy (z {@link InfluenceMap}), wysyłanego po stanie planszy. */
+    public static final int TERRITORY_ESTIMATE = 24;
+
     /**
      * Wysyła pełny stan planszy przez strumień danych.
      * Najpierw wysyła rozmiar planszy, a następnie iteruje po wszystkich polach,
@@ -96,9 +104,75 @@ public class Protocol {
         for (int x = 0; x < size; x++) {
             for (int y = 0; y < size; y++) {
                 int ordinal = in.readInt();
-                Stone color = Stone.values()[ordinal];
+                Stone color = Stone.ofOrdinal(ordinal);
                 board.setField(x, y, color);
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Wysyła zbiór legalnych ruchów (np. z {@link GameMechanics#legalMoves}) przez strumień danych.
+     * Najpierw wysyła rozmiar planszy, a następnie słowa 64-bitowe zbioru, w których pole (x, y)
+     * odpowiada bitowi o indeksie {@code y * size + x}.
+     *
+     * @param board      plansza, do której odnosi się zbiór.
+     * @param legalMoves zbiór bitowy legalnych pól.
+     * @param out        strumień wyjściowy (do klienta).
+     * @throws IOException w przypadku błędu zapisu do strumienia.
+     */
+    public static void sendLegalMoves(Board board, long[] legalMoves, DataOutputStream out) throws IOException {
+        out.writeInt(Protocol.LEGAL_MOVES);
+        out.writeInt(board.getSize());
+        for (long word : legalMoves) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Odbiera zbiór legalnych ruchów wysłany metodą {@link #sendLegalMoves}
+     * (bez nagłówka, który został już odczytany).
+     *
+     * @param in strumień wejściowy (od serwera).
+     * @return zbiór bitowy legalnych pól w układzie {@link BoardGeometry}.
+     * @throws IOException w przypadku błędu odczytu ze strumienia.
+     */
+    public static long[] receiveLegalMoves(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        long[] legalMoves = BoardGeometry.forSize(size).newMask();
+        for (int i = 0; i < legalMoves.length; i++) {
+            legalMoves[i] = in.readLong();
+        }
+        return legalMoves;
+    }
+
+    /**
+     * Wysyła propozycję martwych kamieni (nagłówek {@link #RECEIVE_PROPOSAL}, liczba punktów,
+     * a następnie pary współrzędnych) - w formacie odczytywanym przez klienta w fazie oznaczania.
+     *
+     * @param proposal lista punktów oznaczonych jako martwe.
+     * @param out      strumień wyjściowy (do klienta).
+     * @throws IOException w przypadku błędu zapisu do strumienia.
+     */
+    public static void sendProposal(List<Point> proposal, DataOutputStream out) throws IOException {
+        out.writeInt(Protocol.RECEIVE_PROPOSAL);
+        out.writeInt(proposal.size());
+        for (Point point : proposal) {
+            out.writeInt(point.x);
+            out.writeInt(point.y);
+        }
+    }
+
+    /**
+     * Wysyła szacunek obszaru obu graczy (nagłówek {@link #TERRITORY_ESTIMATE}, obszar czarnego,
+     * obszar białego). Mapa powinna być wcześniej zaktualizowana do bieżącej planszy.
+     *
+     * @param influence mapa wpływów partii.
+     * @param out       strumień wyjściowy (do klienta).
+     * @throws IOException w przypadku błędu zapisu do strumienia.
+     */
+    public static void sendTerritoryEstimate(InfluenceMap influence, DataOutputStream out) throws IOException {
+        out.writeInt(Protocol.TERRITORY_ESTIMATE);
+        out.writeInt(influence.estimatedArea(Stone.BLACK));
+        out.writeInt(influence.estimatedArea(Stone.WHITE));
+    }
+}
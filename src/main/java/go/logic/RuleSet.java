@@ -0,0 +1,149 @@
+package go.logic;
+
+/**
+ * Zestaw zasad partii: sposób liczenia punktów i wariant zasady superko.
+ * <p>
+ * Dostępne są trzy zestawy:
+ * <ul>
+ * <li>{@link #JAPANESE} - liczenie terytorialne (terytorium + jeńcy), pozycyjne superko
+ * (zamiast japońskiego "braku wyniku" przy potrójnym ko),</li>
+ * <li>{@link #CHINESE} - liczenie obszarowe (terytorium + kamienie), pozycyjne superko,</li>
+ * <li>{@link #AGA} - liczenie obszarowe, sytuacyjne superko (powtórzenie pozycji jest zabronione
+ * tylko przy tym samym graczu na ruchu).</li>
+ * </ul>
+ * Wszystkie zestawy zabraniają samobójstwa.
+ * <p>
+ * Każdy wariant superko jest osobną klasą końcową, więc sprawdzanie legalności ruchu
+ * w {@link GameMechanics} nie rozgałęzia się na konfiguracji przy każdym ruchu - wywołanie
+ * {@link #historyKey} trafia bezpośrednio do implementacji danego wariantu.
+ * Obiekty zasad są niezmienne i współdzielone; porównuje się je przez referencję.
+ */
+public abstract class RuleSet {
+
+    /** Zasady japońskie: liczenie terytorialne, pozycyjne superko. */
+    public static final RuleSet JAPANESE = new PositionalSuperko(1, "Japanese", false);
+
+    /** Zasady chińskie: liczenie obszarowe, pozycyjne superko. */
+    public static final RuleSet CHINESE = new PositionalSuperko(2, "Chinese", true);
+
+    /** Zasady AGA: liczenie obszarowe, sytuacyjne superko. */
+    public static final RuleSet AGA = new SituationalSuperko(3, "AGA", true);
+
+    /** Zasady używane, gdy klient nie wybrał innych (zachowanie sprzed wprowadzenia zestawów zasad). */
+    public static final RuleSet DEFAULT = JAPANESE;
+
+    private static final RuleSet[] ALL = {JAPANESE, CHINESE, AGA};
+
+    private final int id;
+    private final String name;
+    private final boolean areaScoring;
+
+    private RuleSet(int id, String name, boolean areaScoring) {
+        this.id = id;
+        this.name = name;
+        this.areaScoring = areaScoring;
+    }
+
+    /**
+     * Zwraca zestaw zasad o podanym identyfikatorze (np. odczytanym z protokołu).
+     *
+     * @param id identyfikator zestawu.
+     * @return zestaw zasad.
+     * @throws IllegalArgumentException jeśli identyfikator jest nieznany.
+     */
+    public static RuleSet forId(int id) {
+        for (RuleSet rules : ALL) {
+            if (rules.id == id) return rules;
+        }
+        throw new IllegalArgumentException("Nieznany zestaw zasad: " + id);
+    }
+
+    /**
+     * Zwraca zestaw zasad o podanej nazwie (np. zapisanej w wyniku gry).
+     *
+     * @param name nazwa zestawu ({@link #getName()}).
+     * @return zestaw zasad; {@link #DEFAULT}, gdy nazwy brak (partie zapisane przed wprowadzeniem
+     * zestawów zasad) lub jest nieznana.
+     */
+    public static RuleSet forName(String name) {
+        for (RuleSet rules : ALL) {
+            if (rules.name.equals(name)) return rules;
+        }
+        return DEFAULT;
+    }
+
+    /** @return wszystkie dostępne zestawy zasad. */
+    public static RuleSet[] values() {
+        return ALL.clone();
+    }
+
+    /** @return identyfikator zestawu przesyłany w protokole. */
+    public int getId() {
+        return id;
+    }
+
+    /** @return nazwa zestawu (zapisywana w wyniku gry). */
+    public String getName() {
+        return name;
+    }
+
+    /** @return true dla liczenia obszarowego, false dla terytorialnego. */
+    public boolean isAreaScoring() {
+        return areaScoring;
+    }
+
+    /**
+     * Zwraca wynik gracza liczony według tych zasad.
+     *
+     * @param score wynik pozycji z {@link GameMechanics#calculateGameScore}.
+     * @param color kolor gracza (BLACK lub WHITE).
+     * @return punkty gracza.
+     */
+    public int score(ScoreResult score, Stone color) {
+        if (areaScoring) {
+            return color == Stone.BLACK ? score.getBlackAreaScore() : score.getWhiteAreaScore();
+        }
+        return color == Stone.BLACK ? score.getBlackTerritoryScore() : score.getWhiteTerritoryScore();
+    }
+
+    /**
+     * Zwraca klucz, pod którym pozycja jest zapisywana w historii partii ({@link PositionHistory}).
+     * Ruch jest zabroniony, jeśli klucz pozycji po nim (z przeciwnikiem na ruchu) już w niej jest.
+     *
+     * @param boardKey klucz Zobrista układu kamieni.
+     * @param toMove   gracz, który ma ruch w tej pozycji.
+     * @return klucz do historii pozycji.
+     */
+    abstract long historyKey(long boardKey, Stone toMove);
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /** Pozycyjne superko: liczy się tylko układ kamieni. */
+    private static final class PositionalSuperko extends RuleSet {
+
+        private PositionalSuperko(int id, String name, boolean areaScoring) {
+            super(id, name, areaScoring);
+        }
+
+        @Override
+        long historyKey(long boardKey, Stone toMove) {
+            return boardKey;
+        }
+    }
+
+    /** Sytuacyjne superko: układ kamieni razem z graczem, który ma ruch. */
+    private static final class SituationalSuperko extends RuleSet {
+
+        private SituationalSuperko(int id, String name, boolean areaScoring) {
+            super(id, name, areaScoring);
+        }
+
+        @Override
+        long historyKey(long boardKey, Stone toMove) {
+            return boardKey ^ Zobrist.toMove(toMove);
+        }
+    }
+}
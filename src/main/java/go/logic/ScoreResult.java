@@ -0,0 +1,151 @@
+package go.logic;
+
+/**
+ * Niezmienny wynik liczenia punktów jednej pozycji, wyznaczany przez
+ * {@link GameMechanics#calculateGameScore}.
+ * <p>
+ * Zawiera terytorium, liczbę kamieni na planszy, jeńców, liczbę pól niczyich (dame)
+ * oraz mapę przynależności każdego pola. Udostępnia dwa sposoby liczenia:
+ * <ul>
+ * <li><b>terytorialny</b> (japoński) - terytorium + jeńcy,</li>
+ * <li><b>obszarowy</b> (chiński) - terytorium + własne kamienie na planszy.</li>
+ * </ul>
+ * Mapa przynależności jest przechowywana jako zbiory bitowe w układzie {@link BoardGeometry}
+ * i nie jest udostępniana na zewnątrz bez kopiowania.
+ */
+public final class ScoreResult {
+
+    private final int size;
+    private final int blackTerritory;
+    private final int whiteTerritory;
+    private final int blackStones;
+    private final int whiteStones;
+    private final int blackCaptures;
+    private final int whiteCaptures;
+    private final int dame;
+
+    /** Pola należące do czarnego: jego kamienie i jego terytorium. */
+    private final long[] blackArea;
+
+    /** Pola należące do białego: jego kamienie i jego terytorium. */
+    private final long[] whiteArea;
+
+    /**
+     * Tworzy wynik. Tablice obszarów są przejmowane bez kopiowania -
+     * wywołujący nie może ich później modyfikować.
+     */
+    ScoreResult(int size, int blackTerritory, int whiteTerritory, int blackStones, int whiteStones,
+                int blackCaptures, int whiteCaptures, int dame, long[] blackArea, long[] whiteArea) {
+        this.size = size;
+        this.blackTerritory = blackTerritory;
+        this.whiteTerritory = whiteTerritory;
+        this.blackStones = blackStones;
+        this.whiteStones = whiteStones;
+        this.blackCaptures = blackCaptures;
+        this.whiteCaptures = whiteCaptures;
+        this.dame = dame;
+        this.blackArea = blackArea;
+        this.whiteArea = whiteArea;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getBlackTerritory() {
+        return blackTerritory;
+    }
+
+    public int getWhiteTerritory() {
+        return whiteTerritory;
+    }
+
+    /** @return liczba czarnych kamieni na planszy. */
+    public int getBlackStones() {
+        return blackStones;
+    }
+
+    /** @return liczba białych kamieni na planszy. */
+    public int getWhiteStones() {
+        return whiteStones;
+    }
+
+    public int getBlackCaptures() {
+        return blackCaptures;
+    }
+
+    public int getWhiteCaptures() {
+        return whiteCaptures;
+    }
+
+    /**
+     * Zwraca liczbę pustych pól niczyich (dame) - obszarów graniczących z kamieniami obu kolorów
+     * lub z żadnym kamieniem.
+     *
+     * @return liczba pól dame.
+     */
+    public int getDame() {
+        return dame;
+    }
+
+    /**
+     * Wynik czarnego liczony terytorialnie (terytorium + jeńcy).
+     *
+     * @return punkty czarnego.
+     */
+    public int getBlackTerritoryScore() {
+        return blackTerritory + blackCaptures;
+    }
+
+    /**
+     * Wynik białego liczony terytorialnie (terytorium + jeńcy).
+     *
+     * @return punkty białego.
+     */
+    public int getWhiteTerritoryScore() {
+        return whiteTerritory + whiteCaptures;
+    }
+
+    /**
+     * Wynik czarnego liczony obszarowo (terytorium + kamienie na planszy).
+     *
+     * @return punkty czarnego.
+     */
+    public int getBlackAreaScore() {
+        return blackTerritory + blackStones;
+    }
+
+    /**
+     * Wynik białego liczony obszarowo (terytorium + kamienie na planszy).
+     *
+     * @return punkty białego.
+     */
+    public int getWhiteAreaScore() {
+        return whiteTerritory + whiteStones;
+    }
+
+    /**
+     * Zwraca właściciela pola: kolor kamienia na polu lub kolor gracza, do którego należy
+     * puste pole (terytorium). Dla pól niczyich zwraca {@link Stone#EMPTY}.
+     *
+     * @param x współrzędna X.
+     * @param y współrzędna Y.
+     * @return właściciel pola.
+     */
+    public Stone getOwner(int x, int y) {
+        int index = BoardGeometry.forSize(size).index(x, y);
+        if (BoardGeometry.contains(blackArea, index)) return Stone.BLACK;
+        if (BoardGeometry.contains(whiteArea, index)) return Stone.WHITE;
+        return Stone.EMPTY;
+    }
+
+    /**
+     * Zwraca kopię zbioru bitowego pól należących do gracza (kamienie i terytorium).
+     *
+     * @param color kolor gracza (BLACK lub WHITE).
+     * @return nowy zbiór bitowy w układzie {@link BoardGeometry}.
+     */
+    public long[] getArea(Stone color) {
+        return (color == Stone.BLACK ? blackArea : whiteArea).clone();
+    }
+}
@@ -9,6 +9,21 @@ public enum Stone {
     WHITE,
     EMPTY;
 
+    /** Kopia {@link #values()} tworzona raz - {@code values()} przy każdym wywołaniu alokuje nową tablicę. */
+    private static final Stone[] VALUES = values();
+
+    /**
+     * Zwraca kolor o podanym numerze porządkowym (np. odczytanym ze strumienia lub stosu cofania)
+     * bez alokowania tablicy.
+     *
+     * @param ordinal numer porządkowy ({@link #ordinal()}).
+     * @return kolor o tym numerze.
+     * @throws ArrayIndexOutOfBoundsException jeśli numer jest spoza zakresu.
+     */
+    public static Stone ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
     /**
      * Zwraca kolor kamienia przeciwnika dla bieżącego koloru.
      *
@@ -0,0 +1,112 @@
+package go.logic;
+
+/**
+ * Niezmienny wynik sprawdzenia jednej zapisanej partii przez {@link GameValidator}.
+ * <p>
+ * Zawiera numer pierwszego niepoprawnego ruchu (lub -1), końcowy układ kamieni
+ * (przed zdjęciem martwych grup), wynik pozycji w tym układzie oraz wynik policzony po zdjęciu
+ * martwych kamieni wskazanych przez {@link DeadStoneEstimator} (tylko szacunek - gracze mogli
+ * uzgodnić inne martwe kamienie).
+ */
+public final class ValidationResult {
+
+    private final int firstIllegalMove;
+    private final int movesPlayed;
+    private final Board finalBoard;
+    private final long[] deadStones;
+    private final ScoreResult score;
+    private final int blackScore;
+    private final int whiteScore;
+    private final int boardBlackScore;
+    private final int boardWhiteScore;
+
+    /**
+     * Tworzy wynik. Plansza i zbiór martwych kamieni są przejmowane bez kopiowania.
+     */
+    ValidationResult(int firstIllegalMove, int movesPlayed, Board finalBoard, long[] deadStones,
+                     ScoreResult score, int blackScore, int whiteScore, int boardBlackScore, int boardWhiteScore) {
+        this.firstIllegalMove = firstIllegalMove;
+        this.movesPlayed = movesPlayed;
+        this.finalBoard = finalBoard;
+        this.deadStones = deadStones;
+        this.score = score;
+        this.blackScore = blackScore;
+        this.whiteScore = whiteScore;
+        this.boardBlackScore = boardBlackScore;
+        this.boardWhiteScore = boardWhiteScore;
+    }
+
+    /** @return true, jeśli wszystkie ruchy sekwencji były legalne. */
+    public boolean isValid() {
+        return firstIllegalMove < 0;
+    }
+
+    /**
+     * Zwraca numer (w sekwencji) pierwszego ruchu, który był nielegalny, nieczytelny
+     * lub wykonany przez niewłaściwego gracza. Sprawdzanie kończy się na tym ruchu.
+     *
+     * @return numer ruchu lub -1, jeśli cała sekwencja jest poprawna.
+     */
+    public int getFirstIllegalMove() {
+        return firstIllegalMove;
+    }
+
+    /** @return liczba postawionych kamieni (bez pasów) przed końcem lub pierwszym błędem. */
+    public int getMovesPlayed() {
+        return movesPlayed;
+    }
+
+    /**
+     * Zwraca kopię końcowego układu kamieni (przed zdjęciem martwych grup).
+     *
+     * @return nowa plansza.
+     */
+    public Board getFinalBoard() {
+        Board copy = new Board(finalBoard.getSize());
+        finalBoard.copyBoard(copy);
+        return copy;
+    }
+
+    /**
+     * Zwraca kopię zbioru martwych kamieni zdjętych przed liczeniem punktów.
+     *
+     * @return zbiór bitowy w układzie {@link BoardGeometry}.
+     */
+    public long[] getDeadStones() {
+        return deadStones.clone();
+    }
+
+    /** @return wynik pozycji po zdjęciu martwych kamieni. */
+    public ScoreResult getScore() {
+        return score;
+    }
+
+    /** @return punkty czarnego według zestawu zasad walidatora. */
+    public int getBlackScore() {
+        return blackScore;
+    }
+
+    /** @return punkty białego według zestawu zasad walidatora. */
+    public int getWhiteScore() {
+        return whiteScore;
+    }
+
+    /**
+     * Zwraca punkty czarnego za końcową pozycję bez zdejmowania martwych kamieni - tak serwer
+     * liczy wynik partii przerwanej wyjściem lub poddaniem się.
+     *
+     * @return punkty czarnego według zestawu zasad walidatora.
+     */
+    public int getBoardBlackScore() {
+        return boardBlackScore;
+    }
+
+    /**
+     * Zwraca punkty białego za końcową pozycję bez zdejmowania martwych kamieni.
+     *
+     * @return punkty białego według zestawu zasad walidatora.
+     */
+    public int getBoardWhiteScore() {
+        return boardWhiteScore;
+    }
+}
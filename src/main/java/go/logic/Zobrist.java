@@ -0,0 +1,57 @@
+package go.logic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tablica losowych kluczy Zobrista używana do haszowania pozycji na planszy.
+ * <p>
+ * Każdej parze (kolor, pole) odpowiada losowa liczba 64-bitowa. Klucz pozycji to XOR kluczy
+ * wszystkich kamieni na planszy, dzięki czemu po postawieniu lub zdjęciu kamienia klucz
+ * aktualizuje się jedną operacją XOR, a pusta plansza ma klucz 0.
+ * Ziarno generatora jest stałe, więc klucze są identyczne w każdym uruchomieniu programu.
+ */
+final class Zobrist {
+
+    /** Stałe ziarno generatora - klucze muszą być powtarzalne między uruchomieniami. */
+    private static final long SEED = 0x5EED_60_60L;
+
+    /** Klucze ułożone parami: [2 * indeks pola] dla czarnych, [2 * indeks pola + 1] dla białych. */
+    private static final long[] KEYS = new long[2 * Board.MAX_SIZE * Board.MAX_SIZE];
+
+    /** Klucz strony, która ma ruch (dodawany dla białego) - rozróżnia sytuacje przy superko sytuacyjnym. */
+    private static final long WHITE_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < KEYS.length; i++) {
+            KEYS[i] = random.nextLong();
+        }
+        WHITE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Zwraca klucz Zobrista dla kamienia danego koloru na danym polu.
+     *
+     * @param color kolor kamienia (BLACK lub WHITE).
+     * @param index indeks pola w zbiorze bitowym planszy.
+     * @return klucz 64-bitowy (0 dla {@link Stone#EMPTY}).
+     */
+    static long key(Stone color, int index) {
+        if (color == Stone.EMPTY) return 0L;
+        return KEYS[2 * index + color.ordinal()];
+    }
+
+    /**
+     * Zwraca klucz strony, która ma ruch. Pozycja z czarnym przy ruchu ma klucz 0,
+     * więc dla czarnego klucz sytuacji jest równy kluczowi samej pozycji.
+     *
+     * @param toMove kolor gracza, który ma ruch.
+     * @return klucz 64-bitowy.
+     */
+    static long toMove(Stone toMove) {
+        return toMove == Stone.WHITE ? WHITE_TO_MOVE : 0L;
+    }
+}
@@ -0,0 +1,163 @@
+package go.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import go.database.GameResult;
+import go.logic.Board;
+import go.logic.GameValidator;
+import go.logic.RuleSet;
+import go.logic.Stone;
+import go.logic.ValidationResult;
+
+/**
+ * Równoległy audyt archiwum partii (tabela {@code game_results}).
+ * <p>
+ * Każda zapisana partia jest rozgrywana od nowa przez {@link GameValidator}: sprawdzana jest
+ * legalność wszystkich ruchów, a końcowa pozycja jest ponownie liczona według zasad partii.
+ * Partie zakończone walkowerem ({@code QUIT}, {@code SURRENDER}) są osobną kategorią: serwer zapisuje
+ * dla nich wynik pozycji bez zdejmowania martwych kamieni, więc musi on się zgadzać z policzonym
+ * ponownie, a wygrać musi przeciwnik gracza, który przerwał partię. Wynik partii dokończonej zależy
+ * od martwych kamieni uzgodnionych przez graczy, których archiwum nie przechowuje - sprawdzana jest
+ * tylko zgodność zapisanego zwycięzcy z zapisanymi punktami.
+ * Lista partii jest dzielona rekurencyjnie na fragmenty przetwarzane w puli
+ * {@link ForkJoinPool} - każdy fragment ma własne walidatory (nie są one bezpieczne wątkowo),
+ * a wyniki są łączone w kolejności partii.
+ */
+public class ArchiveAuditor {
+
+    /** Liczba partii, poniżej której fragment nie jest już dzielony. */
+    private static final int THRESHOLD = 16;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Tworzy audytora korzystającego ze wspólnej puli wątków (wszystkie rdzenie).
+     */
+    public ArchiveAuditor() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Tworzy audytora korzystającego z podanej puli wątków.
+     *
+     * @param pool pula wątków fork-join.
+     */
+    public ArchiveAuditor(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Sprawdza wszystkie partie i zwraca wynik dla każdej z nich (w tej samej kolejności).
+     *
+     * @param games zapisane partie.
+     * @return wyniki audytu.
+     */
+    public List<Entry> audit(List<GameResult> games) {
+        return pool.invoke(new AuditTask(games, 0, games.size()));
+    }
+
+    /**
+     * Wynik audytu jednej partii.
+     *
+     * @param gameId           identyfikator partii w bazie.
+     * @param firstIllegalMove numer pierwszego niepoprawnego ruchu lub -1.
+     * @param forfeitedBy      kolor gracza, który przerwał partię walkowerem, lub {@link Stone#EMPTY}.
+     * @param storedWinner     zapisany zwycięzca ("Black", "White" lub "Draw").
+     * @param storedBlack      zapisany wynik czarnego.
+     * @param storedWhite      zapisany wynik białego.
+     * @param blackScore       wynik czarnego za końcową pozycję (bez zdejmowania kamieni) policzony ponownie.
+     * @param whiteScore       wynik białego za końcową pozycję (bez zdejmowania kamieni) policzony ponownie.
+     */
+    public record Entry(Long gameId, int firstIllegalMove, Stone forfeitedBy, String storedWinner,
+                        int storedBlack, int storedWhite, int blackScore, int whiteScore) {
+
+        /** @return true, jeśli wszystkie ruchy partii były legalne. */
+        public boolean isValid() {
+            return firstIllegalMove < 0;
+        }
+
+        /** @return true, jeśli partia zakończyła się wyjściem lub poddaniem się gracza. */
+        public boolean isForfeit() {
+            return forfeitedBy != Stone.EMPTY;
+        }
+
+        /**
+         * Sprawdza zapisany wynik według zasad partii: przy walkowerze punkty muszą się zgadzać
+         * z ponownie policzoną pozycją, a wygrać musi przeciwnik przerywającego; w pozostałych
+         * partiach zapisany zwycięzca musi wynikać z zapisanych punktów.
+         *
+         * @return true, jeśli zapisany wynik jest zgodny z partią.
+         */
+        public boolean scoreMatches() {
+            if (isForfeit()) {
+                String expectedWinner = forfeitedBy == Stone.BLACK ? "White" : "Black";
+                return storedBlack == blackScore && storedWhite == whiteScore
+                        && expectedWinner.equals(storedWinner);
+            }
+            String expectedWinner = storedBlack > storedWhite ? "Black"
+                    : storedBlack < storedWhite ? "White" : "Draw";
+            return expectedWinner.equals(storedWinner);
+        }
+    }
+
+    /**
+     * Zadanie fork-join sprawdzające partie z przedziału [from, to).
+     */
+    private static final class AuditTask extends RecursiveTask<List<Entry>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<GameResult> games;
+        private final int from;
+        private final int to;
+
+        private AuditTask(List<GameResult> games, int from, int to) {
+            this.games = games;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Entry> compute() {
+            if (to - from <= THRESHOLD) {
+                return auditRange();
+            }
+            int middle = (from + to) >>> 1;
+            AuditTask left = new AuditTask(games, from, middle);
+            left.fork();
+            List<Entry> right = new AuditTask(games, middle, to).compute();
+            List<Entry> result = left.join();
+            result.addAll(right);
+            return result;
+        }
+
+        private List<Entry> auditRange() {
+            List<Entry> entries = new ArrayList<>(to - from);
+            // Walidatory tworzone raz na fragment, osobno dla każdego zestawu zasad i rozmiaru planszy
+            GameValidator[][] validators = new GameValidator[RuleSet.values().length + 1][Board.MAX_SIZE + 1];
+            for (int i = from; i < to; i++) {
+                GameResult game = games.get(i);
+                // Partie zapisane przed wprowadzeniem zestawów zasad liczymy według zasad domyślnych
+                RuleSet rules = RuleSet.forName(game.getRuleSet());
+                int size = game.getBoardSize();
+                if (size < 1 || size > Board.MAX_SIZE) size = Board.DEFAULT_SIZE;
+                GameValidator validator = validators[rules.getId()][size];
+                if (validator == null) {
+                    validator = new GameValidator(size, rules);
+                    validators[rules.getId()][size] = validator;
+                }
+
+                int[] moves = GameValidator.parseHistory(game.getMovesHistory(), validator.getSize());
+                ValidationResult result = validator.validate(moves);
+                entries.add(new Entry(game.getId(), result.getFirstIllegalMove(),
+                        GameValidator.forfeitingColor(game.getMovesHistory()), game.getWinner(),
+                        game.getBlackScore(), game.getWhiteScore(),
+                        result.getBoardBlackScore(), result.getBoardWhiteScore()));
+            }
+            return entries;
+        }
+    }
+}
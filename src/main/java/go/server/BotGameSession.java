@@ -10,10 +10,18 @@ import java.util.ArrayList;
 import go.database.GameRepository;
 import go.database.GameResult;
 import go.logic.Board;
+import go.logic.BoardGeometry;
+import go.logic.DeadStoneEstimator;
 import go.logic.GameMechanics;
+import go.logic.GameState;
+import go.logic.InfluenceMap;
 import go.logic.Protocol;
+import go.logic.RuleSet;
+import go.logic.ScoreResult;
 import go.logic.Stone;
-import go.si.SmartBot;
+import go.si.BotDifficulty;
+import go.si.BotStrategy;
+import go.si.Ponderer;
 
 /**
  * Klasa reprezentująca sesję gry z Botem (Player vs Environment/AI).
@@ -22,7 +30,8 @@ import go.si.SmartBot;
  * <ul>
  * <li>Komunikację sieciową z JEDNYM klientem (człowiek).</li>
  * <li>Zarządzanie stanem planszy i logiką gry (GameMechanics).</li>
- * <li>Wykonywanie obliczeń ruchu bota (SmartBot) w turze przeciwnika.</li>
+ * <li>Wykonywanie obliczeń ruchu bota ({@link BotStrategy}) w turze przeciwnika - w ramach czasu namysłu
+ * wybranego poziomu trudności ({@link BotDifficulty}).</li>
  * <li>Synchronizację tur (Gracz -> Bot -> Gracz).</li>
  * <li>Zapis przebiegu i wyniku gry do bazy danych (GameRepository).</li>
  * </ul>
@@ -30,17 +39,38 @@ import go.si.SmartBot;
  */
 public class BotGameSession implements Runnable {
 
+    /** Liczba odrzuconych poprawek gracza, po której liczone są tylko wspólnie oznaczone martwe kamienie. */
+    private static final int MAX_PROPOSAL_ROUNDS = 3;
+
     /** Gniazdo sieciowe połączonego gracza (człowieka). */
     private final Socket humanSocket;
 
-    /** Plansza do gry Go o rozmiarze 19x19. */
+    /** Plansza do gry Go o rozmiarze wybranym przez gracza. */
     private final Board board;
 
-    /** Silnik zasad gry (walidacja ruchów, bicie, liczenie punktów). */
+    /** Stan partii (plansza, jeńcy, historia pozycji). */
+    private final GameState state;
+
+    /** Bezstanowy silnik zasad gry (walidacja ruchów, bicie, liczenie punktów) - współdzielony przez sesje. */
     private final GameMechanics mechanics;
 
+    /** Zestaw zasad partii (liczenie punktów, superko) - wybrany przez gracza przy połączeniu. */
+    private final RuleSet rules;
+
+    /** Szacunek obszaru graczy w trakcie partii, aktualizowany przyrostowo po każdym ruchu. */
+    private final InfluenceMap influence;
+
     /** Instancja sztucznej inteligencji podejmująca decyzje za drugiego gracza. */
-    private final SmartBot smartBot;
+    private final BotStrategy bot;
+
+    /** Poziom trudności bota - określa algorytm i budżet obliczeń na ruch. */
+    private final BotDifficulty difficulty;
+
+    /** Namysł bota w czasie tury gracza - przygotowuje odpowiedzi na przewidywane ruchy. */
+    private final Ponderer ponderer;
+
+    /** Ostatni ruch gracza (do odszukania odpowiedzi przygotowanej w czasie namysłu). */
+    private Point lastHumanMove;
 
     /** Repozytorium do zapisu wyników gry w bazie danych. */
     private final GameRepository gameRepository;
@@ -60,13 +90,22 @@ public class BotGameSession implements Runnable {
      *
      * @param humanSocket    aktywne połączenie sieciowe z klientem gracza.
      * @param gameRepository repozytorium do zapisu wyniku końcowego gry.
+     * @param mechanics      silnik zasad gry dla wybranego zestawu zasad (bezstanowy, może być współdzielony między sesjami).
+     * @param size           rozmiar boku planszy wybrany przez gracza.
+     * @param difficulty     poziom trudności bota wybrany przez gracza.
      */
-    public BotGameSession(Socket humanSocket, GameRepository gameRepository) {
+    public BotGameSession(Socket humanSocket, GameRepository gameRepository, GameMechanics mechanics, int size,
+                          BotDifficulty difficulty) {
         this.humanSocket = humanSocket;
-        this.board = new Board(19);
-        this.mechanics = new GameMechanics();
-        // Inicjalizujemy bota
-        this.smartBot = new SmartBot(mechanics);
+        this.state = new GameState(size);
+        this.board = state.getBoard();
+        this.mechanics = mechanics;
+        this.rules = mechanics.getRules();
+        this.influence = new InfluenceMap(size);
+        // Inicjalizujemy bota wybranego poziomu
+        this.difficulty = difficulty;
+        this.bot = difficulty.createBot(mechanics);
+        this.ponderer = new Ponderer(bot, mechanics, difficulty.getThinkMillis());
         this.gameRepository = gameRepository;
     }
 
@@ -106,13 +145,18 @@ public class BotGameSession implements Runnable {
                 // TURA CZŁOWIEKA (CZYTAMY Z SIECI)
                 // ============================================================
                 if (currentPlayerIndex == 0) {
+                    // Gdy gracz myśli, bot przygotowuje odpowiedzi na jego najbardziej prawdopodobne ruchy
+                    ponderer.start(state, humanColor, botColor);
                     int messageType = input.readInt(); // Czekamy na ruch gracza
+                    ponderer.stop();
+                    lastHumanMove = null;
 
                     if (messageType == Protocol.MOVE) {
                         int x = input.readInt();
                         int y = input.readInt();
 
-                        if (mechanics.IsMovePossible(board, x, y, humanColor)) {
+                        if (mechanics.IsMovePossible(state, x, y, humanColor)) {
+                            lastHumanMove = new Point(x, y);
                             consecutivePasses = 0;      // Resetujemy licznik pasów
                             currentPlayerIndex = 1;     // Przekazujemy turę BOTOWI
                             String moveStr = (char)('A' + x) + "" + (y + 1);
@@ -142,31 +186,12 @@ public class BotGameSession implements Runnable {
                     }
                     else if (messageType == Protocol.QUIT) {
                         System.out.println("Gracz opuścił grę.");
-                        String winner = "White"; // Bot wygrywa walkowerem
-
-                        // Obliczamy stan na moment wyjścia
-                        mechanics.calculateGameScore(board);
-                        int bScore = mechanics.getBlackTerritory() + mechanics.blackCaptures;
-                        int wScore = mechanics.getWhiteTerritory() + mechanics.whiteCaptures;
-
-                        historyLog.append("B[QUIT];");
-                        GameResult result = new GameResult(winner, bScore, wScore, "Bot", historyLog.toString());
-                        gameRepository.save(result);
-                        System.out.println("Zapisano wynik (Quit) do bazy!");
+                        saveForfeit("QUIT");
                         break;
                     }
                     else if (messageType == Protocol.SURRENDER) {
                         System.out.println("Gracz się poddał.");
-                        String winner = "White"; // Bot wygrywa
-
-                        historyLog.append("B[SURRENDER];");
-                        mechanics.calculateGameScore(board);
-                        int bScore = mechanics.getBlackTerritory() + mechanics.blackCaptures;
-                        int wScore = mechanics.getWhiteTerritory() + mechanics.whiteCaptures;
-
-                        GameResult result = new GameResult(winner, bScore, wScore, "Bot", historyLog.toString());
-                        gameRepository.save(result);
-                        System.out.println("Zapisano wynik (Surrender) do bazy!");
+                        saveForfeit("SURRENDER");
                         break;
                     }
                 }
@@ -174,25 +199,41 @@ public class BotGameSession implements Runnable {
                 // TURA BOTA (OBLICZENIA LOKALNE)
                 // ============================================================
                 else {
-                    System.out.println("Bot myśli...");
-                    // 1. Pytamy bota o ruch (to może chwilę potrwać)
-                    Point botMove = smartBot.calculateBestMove(board, botColor);
+                    // 1. Odpowiedź przygotowana w czasie namysłu (jeśli gracz zagrał przewidziany ruch)
+                    //    albo nowe obliczenia - po upływie czasu namysłu dostajemy najlepszy ruch znaleziony do tej pory
+                    Point botMove;
+                    String searchSummary = "";
+                    Ponderer.Prepared prepared = lastHumanMove == null ? null
+                            : ponderer.replyTo(lastHumanMove.x, lastHumanMove.y);
+                    if (prepared != null && (prepared.move() == null
+                            || mechanics.isMoveLegal(state, prepared.move().x, prepared.move().y, botColor))) {
+                        System.out.println("Bot odpowiada ruchem przygotowanym w czasie namysłu.");
+                        botMove = prepared.move();
+                        bot.onPreparedMovePlayed();
+                    } else {
+                        System.out.println("Bot myśli...");
+                        long deadline = System.nanoTime() + difficulty.getThinkMillis() * 1_000_000L;
+                        long begin = System.nanoTime();
+                        botMove = bot.calculateBestMove(state, botColor, deadline);
+                        searchSummary = describeSearch(System.nanoTime() - begin);
+                    }
 
                     if (botMove != null) {
                         // --- BOT WYKONUJE RUCH ---
                         // Rejestrujemy ruch w silniku
-                        mechanics.IsMovePossible(board, botMove.x, botMove.y, botColor);
+                        mechanics.IsMovePossible(state, botMove.x, botMove.y, botColor);
 
                         String moveStr = (char)('A' + botMove.x) + "" + (botMove.y + 1);
                         historyLog.append("W[").append(moveStr).append("];");
 
                         consecutivePasses = 0;
-                        System.out.println("Bot zagrał: " + botMove.x + ", " + botMove.y);
+                        System.out.println("Bot zagrał: " + botMove.x + ", " + botMove.y + searchSummary);
 
                         // 2. Wysyłamy aktualizację planszy do Człowieka
                         sendUpdateToHuman(output, botMove.x, botMove.y, Protocol.MOVE);
 
-                        // 3. Wysyłamy informację o konkretnym ruchu (współrzędne)
+                        // 3. Wysyłamy legalne ruchy gracza i informację o konkretnym ruchu (współrzędne)
+                        Protocol.sendLegalMoves(board, mechanics.legalMoves(state, humanColor), output);
                         output.writeInt(Protocol.MOVE);
                         output.writeInt(botMove.x);
                         output.writeInt(botMove.y);
@@ -201,11 +242,12 @@ public class BotGameSession implements Runnable {
                         currentPlayerIndex = 0; // Wracamy do człowieka
                     } else {
                         // --- BOT PASUJE ---
-                        System.out.println("Bot pasuje.");
+                        System.out.println("Bot pasuje." + searchSummary);
                         historyLog.append("W[PASS];");
                         consecutivePasses++;
 
                         // Informujemy człowieka o pasie bota
+                        Protocol.sendLegalMoves(board, mechanics.legalMoves(state, humanColor), output);
                         output.writeInt(Protocol.PASS);
                         output.flush();
 
@@ -220,11 +262,61 @@ public class BotGameSession implements Runnable {
             }
         } catch (IOException e) {
             System.out.println("Błąd połączenia z graczem.");
+        } finally {
+            ponderer.stop();
         }
     }
 
     /**
-     * Pomocnicza metoda wysyłająca pełny stan planszy i liczbę jeńców do klienta.
+     * Opisuje przeszukiwanie ostatniej decyzji bota ({@link BotStrategy#describeLastSearch()}) razem z czasem
+     * obliczania ruchu do logu serwera. Dla strategii bez statystyk zwraca pusty napis.
+     *
+     * @param elapsedNanos czas obliczania ruchu w nanosekundach.
+     * @return dopisek do komunikatu o ruchu bota.
+     */
+    private String describeSearch(long elapsedNanos) {
+        String search = bot.describeLastSearch();
+        if (search.isEmpty()) return "";
+        return " (" + search + ", " + elapsedNanos / 1_000_000 + " ms)";
+    }
+
+    /**
+     * Zapisuje wygraną bota walkowerem (wyjście lub poddanie się gracza) z wynikiem pozycji na moment przerwania.
+     *
+     * @param action nazwa akcji gracza w historii ruchów ("QUIT" lub "SURRENDER").
+     */
+    private void saveForfeit(String action) {
+        ScoreResult score = mechanics.calculateGameScore(state);
+        int bScore = rules.score(score, Stone.BLACK);
+        int wScore = rules.score(score, Stone.WHITE);
+
+        historyLog.append("B[").append(action).append("];");
+        GameResult result = new GameResult("White", bScore, wScore, "Bot", rules.getName(), board.getSize(), historyLog.toString());
+        gameRepository.save(result);
+        System.out.println("Zapisano wynik (" + action + ") do bazy!");
+    }
+
+    /**
+     * Sprawdza, czy propozycja gracza uznaje za martwe tylko te kamienie bota, które bot sam oznaczył jako martwe.
+     * Wywoływana po {@link DeadStoneEstimator#isPlausible}, więc każde pole propozycji leży na planszy.
+     *
+     * @param proposal pola oznaczone przez gracza jako martwe.
+     * @param botDead zbiór bitowy martwych kamieni według szacunku bota.
+     * @return true, jeśli żaden kamień bota spoza jego szacunku nie jest oznaczony jako martwy.
+     */
+    private boolean killsOnlyAgreedBotStones(ArrayList<Point> proposal, long[] botDead) {
+        BoardGeometry geometry = board.getGeometry();
+        for (Point point : proposal) {
+            if (board.getField(point.x, point.y) == botColor
+                    && !BoardGeometry.contains(botDead, geometry.index(point.x, point.y))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Pomocnicza metoda wysyłająca pełny stan planszy, liczbę jeńców i szacunek obszaru do klienta.
      * Używana po ruchu bota, aby zaktualizować widok gracza.
      *
      * @param output strumień wyjściowy do klienta.
@@ -238,8 +330,11 @@ public class BotGameSession implements Runnable {
         Protocol.sendBoard(board, output);
 
         output.writeInt(Protocol.CAPTURES);
-        output.writeInt(mechanics.blackCaptures);
-        output.writeInt(mechanics.whiteCaptures);
+        output.writeInt(state.getBlackCaptures());
+        output.writeInt(state.getWhiteCaptures());
+
+        influence.update(board);
+        Protocol.sendTerritoryEstimate(influence, output);
         output.flush();
     }
 
@@ -248,28 +343,47 @@ public class BotGameSession implements Runnable {
      * <p>
      * W trybie Bot vs Human:
      * <ol>
-     * <li>Serwer prosi gracza o zaznaczenie martwych grup.</li>
-     * <li>Gracz wysyła propozycję (listę martwych kamieni).</li>
-     * <li>Bot <b>automatycznie i bezwarunkowo akceptuje</b> propozycję gracza (ufa człowiekowi).</li>
+     * <li>Bot szacuje martwe kamienie ({@link DeadStoneEstimator}) i wysyła graczowi gotową propozycję.</li>
+     * <li>Gracz akceptuje ją jednym kliknięciem albo odsyła poprawioną listę.</li>
+     * <li>Bot sprawdza poprawkę gracza: przyjmuje ją, jeśli nie uśmierca kamieni bezwarunkowo żywych
+     * ({@link DeadStoneEstimator#isPlausible}) i za martwe uznaje tylko te kamienie bota, które martwe są też
+     * według jego własnego szacunku (gracz może dowolnie oddawać swoje kamienie); inaczej ponownie wysyła swoją.</li>
+     * <li>Po {@link #MAX_PROPOSAL_ROUNDS} odrzuconych poprawkach liczone są tylko kamienie uznane za martwe
+     * przez obie strony.</li>
      * <li>Serwer oblicza ostateczny wynik, zapisuje go do bazy i kończy grę.</li>
      * </ol>
+     * Wyjście lub poddanie się gracza w trakcie negocjacji kończy grę tak jak w czasie rozgrywki.
+     * Spóźnione komunikaty z fazy gry (ruch, pas, wiadomość) są odczytywane w całości i pomijane,
+     * a nieznany komunikat kończy sesję - bez znajomości jego danych nie da się dalej czytać strumienia.
      *
      * @param input  strumień wejściowy od klienta.
      * @param output strumień wyjściowy do klienta.
-     * @throws IOException w przypadku błędu komunikacji sieciowej.
+     * @throws IOException w przypadku błędu komunikacji sieciowej lub nieznanego komunikatu.
      */
     private void handleEndGameNegotiation(DataInputStream input, DataOutputStream output) throws IOException {
         System.out.println("Koniec gry. Faza zaznaczania.");
 
-        // 1. Mówimy graczowi: "Zacznij zaznaczać"
+        // 1. Mówimy graczowi: "Czekaj na propozycję" i od razu wysyłamy propozycję bota
+        DeadStoneEstimator estimator = new DeadStoneEstimator(board.getSize());
+        long[] botDead = estimator.estimateDeadStones(board);
+        ArrayList<Point> botProposal = estimator.toPoints(botDead);
+        int rejectedRounds = 0;
+
         output.writeInt(Protocol.START_MARKING);
-        output.writeBoolean(true); // true = Ty (gracz) proponujesz jako pierwszy
+        output.writeBoolean(false); // false = gracz czeka na propozycję bota
+        Protocol.sendProposal(botProposal, output);
         output.flush();
 
         while (true) {
             int msg = input.readInt();
+            if (msg == Protocol.ACCEPT_PROPOSAL) {
+                // 2a. Gracz zgodził się z propozycją bota
+                currentProposalPoints.clear();
+                currentProposalPoints.addAll(botProposal);
+                break;
+            }
             if (msg == Protocol.SEND_PROPOSAL) {
-                // Gracz wysyła propozycję (lista martwych kamieni)
+                // 2b. Gracz wysyła własną propozycję (lista martwych kamieni)
                 int count = input.readInt();
                 currentProposalPoints.clear();
                 for (int i = 0; i < count; i++) {
@@ -278,29 +392,69 @@ public class BotGameSession implements Runnable {
                     currentProposalPoints.add(new Point(x, y));
                 }
 
-                // 2. BOT ZAWSZE AKCEPTUJE PROPOZYCJĘ GRACZA
-                // Zdejmujemy martwe grupy z planszy
-                mechanics.takeOffDeadGroups(board, currentProposalPoints);
+                // 3. Bot akceptuje propozycję, która nie uśmierca kamieni niemożliwych do zbicia
+                //    ani żadnego własnego kamienia, którego sam nie uznał za martwy
+                if (estimator.isPlausible(board, currentProposalPoints)
+                        && killsOnlyAgreedBotStones(currentProposalPoints, botDead)) {
+                    break;
+                }
+                rejectedRounds++;
+                if (rejectedRounds >= MAX_PROPOSAL_ROUNDS) {
+                    // Brak porozumienia - za martwe uznajemy tylko kamienie wskazane przez obie strony
+                    currentProposalPoints.retainAll(botProposal);
+                    System.out.println("Brak porozumienia po " + rejectedRounds + " rundach - liczę "
+                            + currentProposalPoints.size() + " wspólnie oznaczonych kamieni.");
+                    break;
+                }
+                System.out.println("Bot odrzuca propozycję gracza (" + count + " kamieni).");
+                Protocol.sendProposal(botProposal, output);
+                output.flush();
+            }
+            else if (msg == Protocol.QUIT) {
+                System.out.println("Gracz opuścił grę w fazie negocjacji.");
+                saveForfeit("QUIT");
+                return;
+            }
+            else if (msg == Protocol.SURRENDER) {
+                System.out.println("Gracz się poddał w fazie negocjacji.");
+                saveForfeit("SURRENDER");
+                return;
+            }
+            else if (msg == Protocol.MOVE) {
+                // Spóźniony ruch z fazy gry - odczytujemy współrzędne, żeby nie rozsynchronizować strumienia
+                int x = input.readInt();
+                int y = input.readInt();
+                System.out.println("Pominięto ruch gracza w fazie negocjacji: " + x + ", " + y);
+            }
+            else if (msg == Protocol.MESSAGE) {
+                System.out.println("Pominięto wiadomość gracza w fazie negocjacji: " + input.readUTF());
+            }
+            else if (msg == Protocol.PASS) {
+                System.out.println("Pominięto pas gracza w fazie negocjacji.");
+            }
+            else {
+                // Nie znamy długości danych komunikatu - dalszy odczyt strumienia nie miałby sensu
+                throw new IOException("Nieoczekiwany komunikat w fazie negocjacji: " + msg);
+            }
+        }
 
-                // Liczymy terytorium
-                mechanics.calculateGameScore(board);
+        // Zdejmujemy martwe grupy z planszy i liczymy terytorium
+        mechanics.takeOffDeadGroups(state, currentProposalPoints);
+        ScoreResult score = mechanics.calculateGameScore(state);
 
-                int blackScore = mechanics.getBlackTerritory() + mechanics.blackCaptures;
-                int whiteScore = mechanics.getWhiteTerritory() + mechanics.whiteCaptures;
-                String winner = (blackScore > whiteScore) ? "Black" : "White";
-                if (blackScore == whiteScore) winner = "Draw";
+        int blackScore = rules.score(score, Stone.BLACK);
+        int whiteScore = rules.score(score, Stone.WHITE);
+        String winner = (blackScore > whiteScore) ? "Black" : "White";
+        if (blackScore == whiteScore) winner = "Draw";
 
-                // Zapisujemy wynik do bazy
-                GameResult result = new GameResult(winner, blackScore, whiteScore, "Bot", historyLog.toString());
-                gameRepository.save(result);
+        // Zapisujemy wynik do bazy
+        GameResult result = new GameResult(winner, blackScore, whiteScore, "Bot", rules.getName(), board.getSize(), historyLog.toString());
+        gameRepository.save(result);
 
-                // Wysyłamy wynik do klienta
-                output.writeInt(Protocol.GAME_OVER);
-                output.writeInt(blackScore);
-                output.writeInt(whiteScore);
-                output.flush();
-                break;
-            }
-        }
+        // Wysyłamy wynik do klienta
+        output.writeInt(Protocol.GAME_OVER);
+        output.writeInt(blackScore);
+        output.writeInt(whiteScore);
+        output.flush();
     }
-}
\ No newline at end of file
+}
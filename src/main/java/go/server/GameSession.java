@@ -8,8 +8,13 @@ import java.util.ArrayList;
 import go.database.GameRepository;
 import go.database.GameResult;
 import go.logic.Board;
+import go.logic.DeadStoneEstimator;
 import go.logic.GameMechanics;
+import go.logic.GameState;
+import go.logic.InfluenceMap;
 import go.logic.Protocol;
+import go.logic.RuleSet;
+import go.logic.ScoreResult;
 import go.logic.Stone;
 
 /**
@@ -25,7 +30,14 @@ public class GameSession implements Runnable{
     private final Socket p1Socket;
     private final Socket p2Socket;
     private final Board board;
+    /** Stan partii (plansza, jeńcy, historia pozycji). */
+    private final GameState state;
+    /** Bezstanowy silnik zasad - współdzielony przez wszystkie sesje serwera. */
     private final GameMechanics mechanics;
+    /** Zestaw zasad partii (liczenie punktów, superko) - wybrany przez graczy przy połączeniu. */
+    private final RuleSet rules;
+    /** Szacunek obszaru graczy w trakcie partii, aktualizowany przyrostowo po każdym ruchu. */
+    private final InfluenceMap influence;
 
     private final GameRepository gameRepository;
     private final StringBuilder historyLog=new StringBuilder();
@@ -36,18 +48,30 @@ public class GameSession implements Runnable{
      */
     private final ArrayList<Point> currentProposalPoints = new ArrayList<>();
 
+    /**
+     * Czy bieżąca propozycja pochodzi z estymatora serwera (a nie od gracza).
+     * Akceptacja takiej propozycji oznacza tylko zgodę jednej strony - trafia ona dalej do przeciwnika.
+     */
+    private boolean serverProposal = false;
+
     /**
      * Tworzy nową sesję gry dla dwóch połączonych klientów.
-     * Inicjalizuje nową, pustą planszę o rozmiarze 19x19 oraz silnik zasad gry.
+     * Inicjalizuje nową, pustą planszę o rozmiarze wybranym przez graczy oraz silnik zasad gry.
      *
      * @param p1 gniazdo sieciowe pierwszego gracza (który zagra Czarnymi).
      * @param p2 gniazdo sieciowe drugiego gracza (który zagra Białymi).
+     * @param gameRepository repozytorium do zapisu wyniku gry.
+     * @param mechanics silnik zasad gry dla wybranego zestawu zasad (bezstanowy, może być współdzielony między sesjami).
+     * @param size rozmiar boku planszy wybrany przez obu graczy.
      */
-    public GameSession(Socket p1, Socket p2, GameRepository gameRepository){
+    public GameSession(Socket p1, Socket p2, GameRepository gameRepository, GameMechanics mechanics, int size){
         this.p1Socket = p1;
         this.p2Socket = p2;
-        this.board = new Board(19);
-        this.mechanics = new GameMechanics();
+        this.state = new GameState(size);
+        this.board = state.getBoard();
+        this.mechanics = mechanics;
+        this.rules = mechanics.getRules();
+        this.influence = new InfluenceMap(size);
         this.gameRepository = gameRepository;
     }
 
@@ -104,7 +128,7 @@ public class GameSession implements Runnable{
                     int y = inputs[currentPlayer].readInt();
 
                     //sprwadzenie czy ruch jest legalny
-                    if (mechanics.IsMovePossible(board, x, y, colors[currentPlayer])) {
+                    if (mechanics.IsMovePossible(state, x, y, colors[currentPlayer])) {
                         consecutivePasses = 0; //reset liczby kolejnych passów
 
                         //wykonanie ruchu na planszy
@@ -112,13 +136,16 @@ public class GameSession implements Runnable{
                         String moveStr = (char)('A' + x) + "" + (y + 1);
                         String colorStr = (currentPlayer == 0) ? "B" : "W"; // 0 to Black, 1 to White
                         historyLog.append(colorStr).append("[").append(moveStr).append("];");
-                        //Przekazanie stanu planszy i liczby jeńców obu graczom
+                        // Mapa wpływów przelicza tylko kamienie zmienione tym ruchem (postawiony i zbite)
+                        influence.update(board);
+                        //Przekazanie stanu planszy, liczby jeńców i szacunku obszaru obu graczom
                         outputs[currentPlayer].writeInt(Protocol.BOARD_STATE);
                         Protocol.sendBoard(board, outputs[currentPlayer]);
 
                         outputs[currentPlayer].writeInt(Protocol.CAPTURES);
-                        outputs[currentPlayer].writeInt(mechanics.blackCaptures);
-                        outputs[currentPlayer].writeInt(mechanics.whiteCaptures);
+                        outputs[currentPlayer].writeInt(state.getBlackCaptures());
+                        outputs[currentPlayer].writeInt(state.getWhiteCaptures());
+                        Protocol.sendTerritoryEstimate(influence, outputs[currentPlayer]);
                         outputs[currentPlayer].flush();
 
                         //wysłanie informacji o ruchu przeciwnikowi, tak aby UI mogło zaktualizować planszę
@@ -126,8 +153,12 @@ public class GameSession implements Runnable{
                         Protocol.sendBoard(board, outputs[opponent]);
 
                         outputs[opponent].writeInt(Protocol.CAPTURES);
-                        outputs[opponent].writeInt(mechanics.blackCaptures);
-                        outputs[opponent].writeInt(mechanics.whiteCaptures);
+                        outputs[opponent].writeInt(state.getBlackCaptures());
+                        outputs[opponent].writeInt(state.getWhiteCaptures());
+                        Protocol.sendTerritoryEstimate(influence, outputs[opponent]);
+
+                        // Legalne ruchy przeciwnika - UI może od razu wyszarzyć zabronione pola
+                        Protocol.sendLegalMoves(board, mechanics.legalMoves(state, colors[opponent]), outputs[opponent]);
 
                         // Informacja o ruchu (żeby UI przeciwnika wiedziało, że teraz jego kolej)
                         outputs[opponent].writeInt(Protocol.MOVE);
@@ -148,6 +179,7 @@ public class GameSession implements Runnable{
                 } else if (messageType == Protocol.PASS) {
                     //w przypadku passu przekazujemy informację przeciwnikowi
                     System.out.println("Gracz " + (currentPlayer + 1) + " pasuje.");
+                    Protocol.sendLegalMoves(board, mechanics.legalMoves(state, colors[opponent]), outputs[opponent]);
                     outputs[opponent].writeInt(Protocol.PASS);
                     outputs[opponent].flush();
                     consecutivePasses++;
@@ -155,18 +187,25 @@ public class GameSession implements Runnable{
                     historyLog.append(colorStr).append("[PASS];");
                     if(consecutivePasses >=2){
                         System.out.println("Faza negocjacji.");
-                        // 1. Informujemy obu graczy, że zaczynamy oznaczanie
-                        // WAŻNE: Musimy ustalić, kto zaczyna proponować. Niech zacznie ten, czyja była tura (currentPlayer).
-
-                        // Do gracza aktywnego (ten co ma proponować)
+                        // 1. Informujemy obu graczy, że zaczynamy oznaczanie.
+                        // Obaj zaczynają jako strona czekająca - pierwszą propozycję przygotowuje serwer.
                         outputs[currentPlayer].writeInt(Protocol.START_MARKING);
-                        outputs[currentPlayer].writeBoolean(true); // true = Ty proponujesz pierwszy
+                        outputs[currentPlayer].writeBoolean(false);
                         outputs[currentPlayer].flush();
 
-                        // Do gracza pasywnego (ten co czeka)
                         outputs[opponent].writeInt(Protocol.START_MARKING);
                         outputs[opponent].writeBoolean(false); // false = Ty czekasz
                         outputs[opponent].flush();
+
+                        // 2. Gracz, czyja była tura (currentPlayer), dostaje wstępnie wypełnioną propozycję
+                        // z estymatora - zwykle wystarczy ją zaakceptować.
+                        DeadStoneEstimator estimator = new DeadStoneEstimator(board.getSize());
+                        currentProposalPoints.clear();
+                        currentProposalPoints.addAll(estimator.toPoints(estimator.estimateDeadStones(board)));
+                        serverProposal = true;
+                        System.out.println("Propozycja serwera: " + currentProposalPoints.size() + " martwych kamieni.");
+                        Protocol.sendProposal(currentProposalPoints, outputs[currentPlayer]);
+                        outputs[currentPlayer].flush();
                     }
                     else{
                         currentPlayer = opponent;
@@ -176,6 +215,7 @@ public class GameSession implements Runnable{
                     int count = inputs[currentPlayer].readInt(); // wysylamy liczbe punktow, potem w nastepnej kolejnosci wysylamy wlasnie tyle par koordynatow
 
                     currentProposalPoints.clear();
+                    serverProposal = false;
 
                     System.out.println("Otrzymano propozycję (" + count + " kamieni) od Gracza " + currentPlayer);
 
@@ -194,20 +234,29 @@ public class GameSession implements Runnable{
                     currentPlayer = opponent;
                 }
 
+                else if (messageType == Protocol.ACCEPT_PROPOSAL && serverProposal) {
+                    // Zgoda na propozycję serwera - teraz musi ją zatwierdzić przeciwnik
+                    System.out.println("Gracz " + (currentPlayer + 1) + " zaakceptował propozycję serwera.");
+                    serverProposal = false;
+                    Protocol.sendProposal(currentProposalPoints, outputs[opponent]);
+                    outputs[opponent].flush();
+                    currentPlayer = opponent;
+                }
+
                 else if (messageType == Protocol.ACCEPT_PROPOSAL) {
                     System.out.println("Gracz " + (currentPlayer + 1) + " zaakceptował układ.");
 
                     // jezeli zaakceptowano propozycje, usuwamy z planszy wszystkie pionki
-                    mechanics.takeOffDeadGroups(board, currentProposalPoints);
+                    mechanics.takeOffDeadGroups(state, currentProposalPoints);
 
-                    // Obliczenie końcowego wyniku (terytorium + jeńcy)
-                    mechanics.calculateGameScore(board);
-                    int blackScore = mechanics.getBlackTerritory() + mechanics.blackCaptures;
-                    int whiteScore = mechanics.getWhiteTerritory() + mechanics.whiteCaptures;
+                    // Obliczenie końcowego wyniku według zestawu zasad (terytorialnie lub obszarowo)
+                    ScoreResult score = mechanics.calculateGameScore(state);
+                    int blackScore = rules.score(score, Stone.BLACK);
+                    int whiteScore = rules.score(score, Stone.WHITE);
                     String winner = (blackScore > whiteScore) ? "Black" : "White";
                     if (blackScore == whiteScore) winner = "Draw";
                     
-                    GameResult result = new GameResult(winner, blackScore, whiteScore, "PvP", historyLog.toString());
+                    GameResult result = new GameResult(winner, blackScore, whiteScore, "PvP", rules.getName(), board.getSize(), historyLog.toString());
                     gameRepository.save(result);
                     System.out.println("Wynik gry - Czarny: " + blackScore + ", Biały: " + whiteScore);
 
@@ -231,10 +280,10 @@ public class GameSession implements Runnable{
                     String winner = (currentPlayer == 0) ? "White" : "Black"; // Wygrał przeciwnik
                     String colorStr = (currentPlayer == 0) ? "B" : "W";
                     historyLog.append(colorStr).append("[SURRENDER];");
-                    mechanics.calculateGameScore(board); // Policz to co jest na planszy
-                    int bScore = mechanics.getBlackTerritory() + mechanics.blackCaptures;
-                    int wScore = mechanics.getWhiteTerritory() + mechanics.whiteCaptures;
-                    GameResult result = new GameResult(winner, bScore, wScore, "PvP", historyLog.toString());
+                    ScoreResult score = mechanics.calculateGameScore(state); // Policz to co jest na planszy
+                    int bScore = rules.score(score, Stone.BLACK);
+                    int wScore = rules.score(score, Stone.WHITE);
+                    GameResult result = new GameResult(winner, bScore, wScore, "PvP", rules.getName(), board.getSize(), historyLog.toString());
                     gameRepository.save(result);
                     outputs[opponent].writeInt(Protocol.SURRENDER);
                     outputs[opponent].flush();
@@ -245,10 +294,10 @@ public class GameSession implements Runnable{
                     String winner = (currentPlayer == 0) ? "White" : "Black"; // Wygrał przeciwnik
                     String colorStr = (currentPlayer == 0) ? "B" : "W";
                     historyLog.append(colorStr).append("[QUIT];");
-                    mechanics.calculateGameScore(board); // Policz to co jest na planszy
-                    int bScore = mechanics.getBlackTerritory() + mechanics.blackCaptures;
-                    int wScore = mechanics.getWhiteTerritory() + mechanics.whiteCaptures;
-                    GameResult result = new GameResult(winner, bScore, wScore, "PvP", historyLog.toString());
+                    ScoreResult score = mechanics.calculateGameScore(state); // Policz to co jest na planszy
+                    int bScore = rules.score(score, Stone.BLACK);
+                    int wScore = rules.score(score, Stone.WHITE);
+                    GameResult result = new GameResult(winner, bScore, wScore, "PvP", rules.getName(), board.getSize(), historyLog.toString());
                     gameRepository.save(result);
                     outputs[opponent].writeInt(Protocol.QUIT);
                     outputs[opponent].flush();
@@ -5,7 +5,9 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
@@ -17,7 +19,11 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 import go.database.GameRepository;
 import go.database.GameResult;
+import go.logic.Board;
+import go.logic.GameMechanics;
 import go.logic.Protocol;
+import go.logic.RuleSet;
+import go.si.BotDifficulty;
 @SpringBootApplication
 @ComponentScan(basePackages="go")
 @EntityScan(basePackages="go.database")
@@ -26,14 +32,31 @@ public class GoServer implements CommandLineRunner {
 
     @Autowired
     private GameRepository gameRepository;
-    // Poczekalnia dla gracza, który chce grać PvP
-    private Socket waitingPlayer = null;
+    /** Bezstanowe silniki zasad gry - jedna instancja na zestaw zasad obsługuje wszystkie sesje. */
+    private final Map<RuleSet, GameMechanics> mechanics = new HashMap<>();
+    // Poczekalnia dla graczy, którzy chcą grać PvP - osobno dla każdego zestawu zasad i rozmiaru planszy
+    private final Map<QueueKey, Socket> waitingPlayers = new HashMap<>();
+
+    /** Klucz poczekalni: gracze są łączeni w pary tylko przy zgodnych zasadach i rozmiarze planszy. */
+    private record QueueKey(RuleSet rules, int size) {
+    }
+
+    public GoServer() {
+        for (RuleSet rules : RuleSet.values()) {
+            mechanics.put(rules, new GameMechanics(rules));
+        }
+    }
 
     public static void main(String[] args) {
         SpringApplication.run(GoServer.class, args);
     }
     @Override
     public void run(String... args) throws Exception {
+        // przy podaniu argumentu "audit" sprawdzamy archiwum partii zamiast uruchamiać serwer
+        if (args.length > 0 && args[0].equalsIgnoreCase("audit")) {
+            auditArchive();
+            return;
+        }
         System.out.println("Serwer Go START na porcie " + Protocol.Port);
 
         try (ServerSocket serverSocket = new ServerSocket(Protocol.Port)) {
@@ -48,13 +71,19 @@ public class GoServer implements CommandLineRunner {
                     int gameType = input.readInt(); // Tu serwer dowiaduje się: 1=BOT, 2=PvP
 
                     if (gameType == 1) {
-                        System.out.println(" -> Klient wybrał grę z BOTEM.");
-                        BotGameSession botSession = new BotGameSession(clientSocket, gameRepository);
+                        RuleSet rules = readRuleSet(input);
+                        int size = readBoardSize(input);
+                        BotDifficulty difficulty = readDifficulty(input);
+                        System.out.println(" -> Klient wybrał grę z BOTEM (zasady: " + rules + ", plansza " + size + "x" + size
+                                + ", poziom: " + difficulty + ").");
+                        BotGameSession botSession = new BotGameSession(clientSocket, gameRepository, mechanics.get(rules), size, difficulty);
                         new Thread(botSession).start();
                     }
                     else if (gameType == 2) {
-                        System.out.println(" -> Klient wybrał grę MULTIPLAYER.");
-                        handleMultiplayerQueue(clientSocket);
+                        RuleSet rules = readRuleSet(input);
+                        int size = readBoardSize(input);
+                        System.out.println(" -> Klient wybrał grę MULTIPLAYER (zasady: " + rules + ", plansza " + size + "x" + size + ").");
+                        handleMultiplayerQueue(clientSocket, new QueueKey(rules, size));
                     }
                     else if(gameType==Protocol.HISTORY_MODE){
                         System.out.println(" -> Klient pobiera historię gier.");
@@ -73,17 +102,92 @@ public class GoServer implements CommandLineRunner {
         }
     }
 
-    private void handleMultiplayerQueue(Socket clientSocket) {
+    /**
+     * Odczytuje identyfikator zestawu zasad wysyłany przez klienta zaraz po trybie gry.
+     * Nieznany identyfikator zastępujemy zasadami domyślnymi.
+     */
+    private RuleSet readRuleSet(DataInputStream input) throws IOException {
+        int ruleSetId = input.readInt();
+        try {
+            return RuleSet.forId(ruleSetId);
+        } catch (IllegalArgumentException e) {
+            System.out.println("    " + e.getMessage() + " - używam zasad " + RuleSet.DEFAULT + ".");
+            return RuleSet.DEFAULT;
+        }
+    }
+
+    /**
+     * Odczytuje rozmiar planszy wysyłany przez klienta zaraz po zestawie zasad.
+     * Nieobsługiwany rozmiar zastępujemy rozmiarem domyślnym.
+     */
+    private int readBoardSize(DataInputStream input) throws IOException {
+        int size = input.readInt();
+        if (!Board.isSupportedSize(size)) {
+            System.out.println("    Nieobslugiwany rozmiar planszy: " + size + " - używam " + Board.DEFAULT_SIZE + "x" + Board.DEFAULT_SIZE + ".");
+            return Board.DEFAULT_SIZE;
+        }
+        return size;
+    }
+
+    /**
+     * Odczytuje poziom trudności bota wysyłany przez klienta zaraz po rozmiarze planszy (tylko w grze z botem).
+     * Nieznany identyfikator zastępujemy poziomem domyślnym.
+     */
+    private BotDifficulty readDifficulty(DataInputStream input) throws IOException {
+        int difficultyId = input.readInt();
+        try {
+            return BotDifficulty.forId(difficultyId);
+        } catch (IllegalArgumentException e) {
+            System.out.println("    " + e.getMessage() + " - używam poziomu " + BotDifficulty.DEFAULT + ".");
+            return BotDifficulty.DEFAULT;
+        }
+    }
+
+    private void handleMultiplayerQueue(Socket clientSocket, QueueKey key) {
+        // Łączymy w pary tylko graczy, którzy wybrali te same zasady i rozmiar planszy
+        Socket waitingPlayer = waitingPlayers.remove(key);
         if (waitingPlayer == null) {
-            waitingPlayer = clientSocket;
+            waitingPlayers.put(key, clientSocket);
             System.out.println("    Gracz w poczekalni.");
         } else {
             System.out.println("    Mamy parę! Start PvP.");
-            GameSession gameSession = new GameSession(waitingPlayer, clientSocket, gameRepository);
+            GameSession gameSession = new GameSession(waitingPlayer, clientSocket, gameRepository, mechanics.get(key.rules()), key.size());
             new Thread(gameSession).start();
-            waitingPlayer = null;
         }
     }
+    /**
+     * Rozgrywa ponownie wszystkie zapisane partie (równolegle, na wszystkich rdzeniach),
+     * sprawdza legalność ruchów i zgodność zapisanego wyniku z partią (walkowery osobno).
+     */
+    private void auditArchive() {
+        List<GameResult> allGames = gameRepository.findAll();
+        System.out.println("Audyt archiwum: " + allGames.size() + " partii.");
+        long start = System.nanoTime();
+        List<ArchiveAuditor.Entry> entries = new ArchiveAuditor().audit(allGames);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        int invalid = 0;
+        int forfeits = 0;
+        int mismatched = 0;
+        for (ArchiveAuditor.Entry entry : entries) {
+            if (entry.isForfeit()) forfeits++;
+            if (!entry.isValid()) {
+                invalid++;
+                System.out.println("    Partia " + entry.gameId() + ": nielegalny ruch nr " + entry.firstIllegalMove());
+            }
+            else if (!entry.scoreMatches()) {
+                mismatched++;
+                String details = entry.isForfeit()
+                        ? " (walkower), ponownie policzono " + entry.blackScore() + ":" + entry.whiteScore()
+                        : "";
+                System.out.println("    Partia " + entry.gameId() + ": zapisano " + entry.storedWinner() + " "
+                        + entry.storedBlack() + ":" + entry.storedWhite() + details);
+            }
+        }
+        System.out.println("Audyt zakończony w " + elapsedMs + " ms. Walkowery: " + forfeits
+                + ", nielegalne partie: " + invalid + ", niezgodny wynik: " + mismatched + ".");
+    }
+
     private void handleHistoryRequest(Socket clientSocket) {
         try (
             DataOutputStream out = new DataOutputStream(clientSocket.getOutputStream());
@@ -98,6 +202,8 @@ public class GoServer implements CommandLineRunner {
                 out.writeInt(game.getBlackScore());
                 out.writeInt(game.getWhiteScore());
                 out.writeUTF(game.getGameType() != null ? game.getGameType() : "Unknown");
+                out.writeInt(game.getBoardSize());
+                out.writeUTF(RuleSet.forName(game.getRuleSet()).getName());
                 String history = game.getMovesHistory();
                 out.writeUTF(history != null ? history : "");
             }
@@ -0,0 +1,316 @@
+package go.si;
+
+import go.logic.BoardGeometry;
+import go.logic.GameMechanics;
+import go.logic.GameState;
+import go.logic.InfluenceMap;
+import go.logic.Stone;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Bot przeszukujący drzewo gry algorytmem negamax z cięciami alfa-beta i pogłębianiem iteracyjnym.
+ * <p>
+ * W każdym węźle rozważani są tylko kandydaci z {@link SmartBotHeuristics#findBestCandidates}.
+ * Kolejność ruchów: najpierw najlepszy ruch z poprzedniej iteracji (w korzeniu), potem ruchy-zabójcy
+ * (killer moves - ruchy, które spowodowały cięcie na tej samej głębokości w innej gałęzi), a dalej
+ * według tablicy historii (ruchy często powodujące cięcia), przy remisie - według oceny heurystycznej.
+ * Ruchy są wykonywane i cofane ({@link GameMechanics#makeMove}/{@link GameMechanics#undoMove}) na jednej
+ * kopii roboczej stanu, bez kopiowania planszy.
+ * <p>
+ * Liście są oceniane mapą wpływów ({@link InfluenceMap}): szacowany obszar gracza na ruchu minus obszar
+ * przeciwnika, plus różnica jeńców. Przeszukiwanie kolejnych głębokości trwa do {@link #maxDepth}
+ * albo do upływu czasu na ruch - wtedy przerwana iteracja jest porzucana, a bot zwraca najlepszy ruch
+ * ostatniej ukończonej głębokości (dostępnej przez {@link #getLastDepth()} razem z liczbą węzłów).
+ * <p>
+ * O pasie decyduje pierwsza iteracja: bot pasuje, gdy żaden ruch nie podnosi oceny statycznej pozycji
+ * (ocena po pasie) - np. gdy pozostało już tylko zapełnianie własnego terytorium. Głębsze iteracje nie
+ * porównują ruchów z pasem, bo ocena liścia nie widzi, że kamień wstawiony w cudzy obszar jest martwy,
+ * i pas oddający przeciwnikowi ruch wyglądałby zawsze na stratę.
+ * Instancja nie jest bezpieczna wątkowo.
+ */
+public class AlphaBetaBot implements BotStrategy {
+
+    /** Wartość większa od każdej oceny pozycji. */
+    private static final int INFINITY = 1_000_000;
+
+    /** Liczba ruchów-zabójców pamiętanych na każdej głębokości. */
+    private static final int KILLERS = 2;
+
+    private final GameMechanics mechanics;
+    private final SmartBotHeuristics heuristics;
+    private final int maxDepth;
+    private final long timeBudgetNanos;
+
+    /** Kopia robocza stanu partii i jej mapa wpływów (tworzone przy pierwszym użyciu lub zmianie rozmiaru). */
+    private GameState sandboxState;
+    private InfluenceMap influence;
+
+    /** Ruchy-zabójcy: {@code [głębokość][numer]} -> indeks pola (-1 - brak). */
+    private final int[][] killers;
+
+    /** Tablica historii: {@code [kolor][indeks pola]} -> suma premii za cięcia. */
+    private int[][] history;
+
+    private long deadline;
+    private boolean aborted;
+
+    /** Przeszukiwanie przerwane z innego wątku ({@link #stop()}). */
+    private volatile boolean stopped;
+    private long nodes;
+    private int rootBestMove;
+
+    /** Pas okazał się w pierwszej iteracji nie gorszy od każdego ruchu. */
+    private boolean rootPass;
+
+    private int lastDepth = 0;
+    private long lastNodes = 0;
+    private long lastElapsedNanos = 0;
+
+    /**
+     * Tworzy bota o podanej maksymalnej głębokości i czasie namysłu.
+     *
+     * @param mechanics silnik zasad gry.
+     * @param maxDepth maksymalna głębokość przeszukiwania (w półruchach).
+     * @param timeBudgetMillis maksymalny czas namysłu na ruch w milisekundach.
+     */
+    public AlphaBetaBot(GameMechanics mechanics, int maxDepth, long timeBudgetMillis) {
+        if (maxDepth <= 0 || timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Glebokosc i czas namyslu musza byc dodatnie: "
+                    + maxDepth + ", " + timeBudgetMillis + " ms");
+        }
+        this.mechanics = mechanics;
+        this.heuristics = new SmartBotHeuristics(mechanics);
+        this.maxDepth = maxDepth;
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+        this.killers = new int[maxDepth][KILLERS];
+    }
+
+    /**
+     * Przeszukuje kolejne głębokości do wyczerpania czasu lub osiągnięcia {@link #maxDepth}.
+     *
+     * @param state aktualny stan partii (nie jest modyfikowany - bot pracuje na własnej kopii).
+     * @param color kolor kamieni bota.
+     * @return najlepszy ruch ostatniej ukończonej głębokości lub {@code null} (pas), jeśli nie ma kandydatów
+     * albo żaden ruch nie jest oceniany wyżej niż pas.
+     */
+    @Override
+    public Point calculateBestMove(GameState state, Stone color) {
+        return calculateBestMove(state, color, Long.MAX_VALUE);
+    }
+
+    /**
+     * Przeszukuje kolejne głębokości do wyczerpania czasu bota lub do terminu (zależnie od tego, co nastąpi wcześniej).
+     *
+     * @param state aktualny stan partii (nie jest modyfikowany - bot pracuje na własnej kopii).
+     * @param color kolor kamieni bota.
+     * @param deadlineNanos termin decyzji w jednostkach {@link System#nanoTime()}.
+     * @return najlepszy ruch ostatniej ukończonej głębokości lub {@code null} (pas).
+     */
+    @Override
+    public Point calculateBestMove(GameState state, Stone color, long deadlineNanos) {
+        long begin = System.nanoTime();
+        deadline = Math.min(deadlineNanos, begin + timeBudgetNanos);
+        lastDepth = 0;
+        lastNodes = 0;
+        lastElapsedNanos = 0;
+        int size = state.getBoard().getSize();
+        if (sandboxState == null || sandboxState.getBoard().getSize() != size) {
+            sandboxState = new GameState(size);
+            influence = new InfluenceMap(size);
+            history = new int[2][size * size];
+        }
+        state.copyTo(sandboxState);
+        prepareTables();
+
+        BoardGeometry geometry = state.getBoard().getGeometry();
+        ArrayList<CandidateRecord> candidates = heuristics.findBestCandidates(sandboxState, color);
+        if (candidates.isEmpty()) return null;
+
+        // Bez ukończonej głębokości grany jest najlepszy ruch według heurystyk
+        int bestMove = index(geometry, candidates.get(0));
+        int previousBest = -1;
+        aborted = false;
+        nodes = 0;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            rootBestMove = -1;
+            rootPass = false;
+            searchRoot(candidates, previousBest, depth, color);
+            if (aborted) break;
+            if (rootBestMove >= 0) {
+                bestMove = rootBestMove;
+                previousBest = rootBestMove;
+            }
+            lastDepth = depth;
+            if (rootPass) break;
+        }
+
+        lastNodes = nodes;
+        lastElapsedNanos = System.nanoTime() - begin;
+        if (rootPass) return null;
+        return new Point(geometry.xOf(bestMove), geometry.yOf(bestMove));
+    }
+
+    /**
+     * Opisuje ostatnie przeszukiwanie: osiągniętą głębokość, liczbę węzłów i ich liczbę na sekundę.
+     */
+    @Override
+    public String describeLastSearch() {
+        return "głębokość " + lastDepth + ", węzły " + lastNodes + ", "
+                + Math.round(lastNodes * 1e9 / Math.max(1, lastElapsedNanos)) + " węzłów/s";
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public void resume() {
+        stopped = false;
+    }
+
+    /** @return głębokość ostatniej ukończonej iteracji przy ostatniej decyzji (0 - żadna nie została ukończona). */
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    /** @return liczba węzłów odwiedzonych przy ostatniej decyzji. */
+    public long getLastNodeCount() {
+        return lastNodes;
+    }
+
+    /**
+     * Przeszukuje korzeń na zadaną głębokość, zaczynając od najlepszego ruchu poprzedniej iteracji.
+     * Wynik (jeśli iteracja nie została przerwana) trafia do {@link #rootBestMove}, a na końcu
+     * (tylko na głębokości 1) sprawdzany jest pas - {@link #rootPass} jest ustawiane, gdy ma ocenę nie niższą
+     * od najlepszego ruchu.
+     */
+    private void searchRoot(ArrayList<CandidateRecord> candidates, int previousBest, int depth, Stone color) {
+        BoardGeometry geometry = sandboxState.getBoard().getGeometry();
+        int[] moves = order(candidates, geometry, 0, color, previousBest);
+        int alpha = -INFINITY;
+        for (int move : moves) {
+            if (!mechanics.makeMove(sandboxState, geometry.xOf(move), geometry.yOf(move), color)) continue;
+            int score = -search(depth - 1, 1, -INFINITY, -alpha, color.opponent());
+            mechanics.undoMove(sandboxState);
+            if (aborted) return;
+            if (score > alpha) {
+                alpha = score;
+                rootBestMove = move;
+            }
+        }
+        // Pas nie zmienia planszy, więc jego ocena to ocena statyczna pozycji
+        if (depth == 1 && evaluate(color) >= alpha) {
+            rootPass = true;
+        }
+    }
+
+    /**
+     * Negamax z cięciami alfa-beta.
+     *
+     * @return ocena pozycji z punktu widzenia gracza {@code toMove} (0, jeśli przeszukiwanie przerwano).
+     */
+    private int search(int depth, int ply, int alpha, int beta, Stone toMove) {
+        nodes++;
+        // Zegar sprawdzany w każdym węźle - odczyt jest o rzędy wielkości tańszy niż wybór kandydatów
+        if (aborted || stopped || System.nanoTime() > deadline) {
+            aborted = true;
+            return 0;
+        }
+        if (depth == 0) return evaluate(toMove);
+
+        ArrayList<CandidateRecord> candidates = heuristics.findBestCandidates(sandboxState, toMove);
+        if (candidates.isEmpty()) return evaluate(toMove);
+
+        BoardGeometry geometry = sandboxState.getBoard().getGeometry();
+        int best = -INFINITY;
+        for (int move : order(candidates, geometry, ply, toMove, -1)) {
+            if (!mechanics.makeMove(sandboxState, geometry.xOf(move), geometry.yOf(move), toMove)) continue;
+            int score = -search(depth - 1, ply + 1, -beta, -alpha, toMove.opponent());
+            mechanics.undoMove(sandboxState);
+            if (aborted) return 0;
+
+            if (score > best) best = score;
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) {
+                storeKiller(ply, move);
+                history[toMove.ordinal()][move] += depth * depth;
+                break;
+            }
+        }
+        return best == -INFINITY ? evaluate(toMove) : best;
+    }
+
+    /**
+     * Ocena statyczna: szacowany obszar i jeńcy gracza na ruchu minus te same wartości przeciwnika.
+     */
+    private int evaluate(Stone toMove) {
+        influence.update(sandboxState.getBoard());
+        Stone opponent = toMove.opponent();
+        return influence.estimatedArea(toMove) - influence.estimatedArea(opponent)
+                + sandboxState.getCaptures(toMove) - sandboxState.getCaptures(opponent);
+    }
+
+    /**
+     * Porządkuje kandydatów: ruch priorytetowy, ruchy-zabójcy tej głębokości, a dalej malejąco
+     * według tablicy historii (stabilnie, więc przy równych wartościach zostaje kolejność heurystyk).
+     */
+    private int[] order(ArrayList<CandidateRecord> candidates, BoardGeometry geometry, int ply, Stone toMove, int first) {
+        int count = candidates.size();
+        int[] moves = new int[count];
+        long[] keys = new long[count];
+        int[] table = history[toMove.ordinal()];
+        int[] plyKillers = ply < killers.length ? killers[ply] : null;
+        for (int i = 0; i < count; i++) {
+            int move = index(geometry, candidates.get(i));
+            long priority;
+            if (move == first) priority = 3;
+            else if (plyKillers != null && move == plyKillers[0]) priority = 2;
+            else if (plyKillers != null && move == plyKillers[1]) priority = 1;
+            else priority = 0;
+            moves[i] = move;
+            keys[i] = (priority << 40) | ((long) table[move] << 8) | (count - i);
+        }
+        // Sortowanie przez wstawianie - najwyżej kilkanaście kandydatów
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            long key = keys[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] < key) {
+                moves[j + 1] = moves[j];
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            keys[j + 1] = key;
+        }
+        return moves;
+    }
+
+    private void storeKiller(int ply, int move) {
+        if (ply >= killers.length || killers[ply][0] == move) return;
+        killers[ply][1] = killers[ply][0];
+        killers[ply][0] = move;
+    }
+
+    /**
+     * Czyści ruchy-zabójców i postarza tablicę historii (dawne cięcia liczą się o połowę mniej).
+     */
+    private void prepareTables() {
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, -1);
+        }
+        for (int[] table : history) {
+            for (int i = 0; i < table.length; i++) {
+                table[i] >>= 1;
+            }
+        }
+    }
+
+    private static int index(BoardGeometry geometry, CandidateRecord candidate) {
+        return geometry.index(candidate.point().x, candidate.point().y);
+    }
+}
@@ -0,0 +1,97 @@
+package go.si;
+
+import go.logic.GameMechanics;
+
+/**
+ * Poziom trudności bota wyrażony budżetem obliczeń na jeden ruch: czasem namysłu, głębokością
+ * przeszukiwania i liczbą symulacji Monte-Carlo.
+ * <p>
+ * Poziom z limitem symulacji gra {@link MctsBot}, poziom z głębokością przeszukiwania - {@link AlphaBetaBot},
+ * a poziom bez żadnego z nich - {@link SmartBot} (heurystyki i jeden ruch w przód). Czas namysłu jest terminem przekazywanym do
+ * {@link BotStrategy#calculateBestMove(go.logic.GameState, go.logic.Stone, long)} - po jego upływie
+ * bot zwraca najlepszy ruch znaleziony do tej pory, więc gracz nigdy nie czeka dłużej.
+ */
+public enum BotDifficulty {
+
+    /** Heurystyki z symulacją jednej odpowiedzi przeciwnika (zachowanie sprzed wprowadzenia poziomów). */
+    EASY(1, "Latwy", 500, 0, 0),
+
+    /** Przeszukiwanie alfa-beta kilka półruchów w przód. */
+    MEDIUM(2, "Sredni", 1_500, 6, 0),
+
+    /** Przeszukiwanie Monte-Carlo z dużym budżetem. */
+    HARD(3, "Trudny", 5_000, 0, 20_000);
+
+    /** Poziom używany, gdy klient nie wybrał innego. */
+    public static final BotDifficulty DEFAULT = EASY;
+
+    private final int id;
+    private final String displayName;
+    private final long thinkMillis;
+    private final int searchDepth;
+    private final int playouts;
+
+    BotDifficulty(int id, String displayName, long thinkMillis, int searchDepth, int playouts) {
+        this.id = id;
+        this.displayName = displayName;
+        this.thinkMillis = thinkMillis;
+        this.searchDepth = searchDepth;
+        this.playouts = playouts;
+    }
+
+    /**
+     * Zwraca poziom o podanym identyfikatorze (np. odczytanym z protokołu).
+     *
+     * @param id identyfikator poziomu.
+     * @return poziom trudności.
+     * @throws IllegalArgumentException jeśli identyfikator jest nieznany.
+     */
+    public static BotDifficulty forId(int id) {
+        for (BotDifficulty difficulty : values()) {
+            if (difficulty.id == id) return difficulty;
+        }
+        throw new IllegalArgumentException("Nieznany poziom trudnosci: " + id);
+    }
+
+    /** @return identyfikator poziomu przesyłany w protokole. */
+    public int getId() {
+        return id;
+    }
+
+    /** @return maksymalny czas namysłu bota na jeden ruch w milisekundach. */
+    public long getThinkMillis() {
+        return thinkMillis;
+    }
+
+    /** @return maksymalna głębokość przeszukiwania w półruchach (0 - bot bez przeszukiwania alfa-beta). */
+    public int getSearchDepth() {
+        return searchDepth;
+    }
+
+    /** @return limit symulacji na ruch (0 - bot bez symulacji Monte-Carlo). */
+    public int getPlayouts() {
+        return playouts;
+    }
+
+    /**
+     * Tworzy bota grającego na tym poziomie.
+     *
+     * @param mechanics silnik zasad gry.
+     * @return nowa instancja strategii (nie jest bezpieczna wątkowo - jedna na sesję).
+     */
+    public BotStrategy createBot(GameMechanics mechanics) {
+        if (playouts > 0) {
+            return new MctsBot(mechanics, playouts, thinkMillis);
+        }
+        if (searchDepth > 0) {
+            return new AlphaBetaBot(mechanics, searchDepth, thinkMillis);
+        }
+        return new SmartBot(mechanics);
+    }
+
+    /** @return nazwa poziomu wyświetlana graczowi. */
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -1,6 +1,6 @@
 package go.si;
 
-import go.logic.Board;
+import go.logic.GameState;
 import go.logic.Stone;
 
 import java.awt.*;
@@ -17,10 +17,74 @@ public interface BotStrategy {
     /**
      * Analizuje aktualną sytuację na planszy i oblicza najlepszy ruch dla danego koloru gracza.
      *
-     * @param board aktualny stan planszy (układ kamieni).
+     * @param state aktualny stan partii (układ kamieni, jeńcy, historia pozycji).
+     *              Implementacja nie może go trwale zmieniać.
      * @param color kolor kamieni, którymi gra bot (Stone.WHITE lub Stone.BLACK).
      * @return obiekt {@link Point} zawierający współrzędne (x, y) wybranego ruchu,
      * lub {@code null}, jeśli bot decyduje się spasować (brak opłacalnych ruchów).
      */
-    public Point calculateBestMove(Board board, Stone color);
-}
\ No newline at end of file
+    public Point calculateBestMove(GameState state, Stone color);
+
+    /**
+     * Oblicza ruch w ograniczonym czasie: po upływie terminu strategia przerywa obliczenia
+     * i zwraca najlepszy ruch znaleziony do tej pory.
+     * <p>
+     * Domyślna implementacja ignoruje termin - wystarcza dla strategii, których decyzja trwa krótko.
+     *
+     * @param state aktualny stan partii (implementacja nie może go trwale zmieniać).
+     * @param color kolor kamieni, którymi gra bot.
+     * @param deadlineNanos termin decyzji w jednostkach {@link System#nanoTime()}.
+     * @return współrzędne wybranego ruchu lub {@code null} (pas).
+     */
+    default Point calculateBestMove(GameState state, Stone color, long deadlineNanos) {
+        return calculateBestMove(state, color);
+    }
+
+    /**
+     * Oblicza ruch spekulacyjnie - w czasie namysłu nad turą przeciwnika ({@link Ponderer}), dla pozycji,
+     * która może nigdy nie wystąpić. Wywołanie nie powinno zmieniać stanu strategii, od którego zależą
+     * kolejne decyzje w partii (licznika ruchów, sekwencji losowania), ani zajmować wspólnych pul wątków.
+     * <p>
+     * Domyślna implementacja liczy zwykły ruch z terminem.
+     *
+     * @param state stan partii po przewidywanym ruchu przeciwnika (implementacja nie może go trwale zmieniać).
+     * @param color kolor kamieni, którymi gra bot.
+     * @param deadlineNanos termin decyzji w jednostkach {@link System#nanoTime()}.
+     * @return współrzędne wybranego ruchu lub {@code null} (pas).
+     */
+    default Point ponderMove(GameState state, Stone color, long deadlineNanos) {
+        return calculateBestMove(state, color, deadlineNanos);
+    }
+
+    /**
+     * Informuje strategię, że sesja zagrała jej ruch policzony wcześniej przez {@link #ponderMove} - tak,
+     * jakby ruch został obliczony przez {@link #calculateBestMove}. Strategie liczące swoje ruchy
+     * (np. fazę gry) muszą tu zaktualizować licznik. Domyślnie nic nie robi.
+     */
+    default void onPreparedMovePlayed() {
+    }
+
+    /**
+     * Opisuje przeszukiwanie ostatniej decyzji (np. osiągniętą głębokość lub liczbę symulacji) do logu serwera,
+     * bez zależności sesji od konkretnej strategii. Domyślnie zwraca pusty napis - strategia nie raportuje statystyk.
+     *
+     * @return krótki opis ostatniego przeszukiwania lub pusty napis.
+     */
+    default String describeLastSearch() {
+        return "";
+    }
+
+    /**
+     * Przerywa obliczenia z innego wątku: trwające i kolejne wywołania
+     * {@link #calculateBestMove(GameState, Stone, long)} i {@link #ponderMove} kończą się tak, jakby termin już minął,
+     * aż do wywołania {@link #resume()}. Domyślnie strategia nie przerywa obliczeń przed terminem.
+     */
+    default void stop() {
+    }
+
+    /**
+     * Znosi działanie {@link #stop()} - kolejne obliczenia trwają do terminu.
+     */
+    default void resume() {
+    }
+}
@@ -0,0 +1,431 @@
+package go.si;
+
+import go.logic.Board;
+import go.logic.BoardGeometry;
+import go.logic.GameMechanics;
+import go.logic.GameState;
+import go.logic.PlayoutEngine;
+import go.logic.RuleSet;
+import go.logic.Stone;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Bot przeszukujący drzewo gry metodą Monte Carlo (MCTS) z regułą wyboru PUCT.
+ * <p>
+ * Każda iteracja przeszukiwania składa się z czterech kroków:
+ * <ol>
+ * <li><b>Selekcja:</b> od korzenia schodzi ruchem o największej wartości
+ * {@code Q + C * P * sqrt(N) / (1 + n)}, gdzie Q to średni wynik ruchu, P - prawdopodobieństwo a priori,
+ * N - liczba odwiedzin węzła, a n - liczba wyborów ruchu.</li>
+ * <li><b>Rozwinięcie:</b> węzeł odwiedzony {@link #EXPANSION_VISITS} razy dostaje ruchy z
+ * {@link SmartBotHeuristics#findBestCandidates}; oceny heurystyczne (softmax) stają się wartościami P.</li>
+ * <li><b>Symulacja:</b> losowa partia {@link PlayoutEngine} od pozycji liścia.</li>
+ * <li><b>Propagacja:</b> wynik symulacji liczony według zasad partii ({@link GameMechanics#getRules()},
+ * bez komi - tak jak sesje liczą wynik końcowy) - wygrana, remis lub przegrana oraz różnica punktów - jest
+ * dopisywany do wszystkich ruchów na ścieżce, z punktu widzenia gracza wykonującego ruch.</li>
+ * </ol>
+ * Korzeń ma dodatkowo krawędź pasa: co {@link #PASS_SAMPLE_RATE}-ta iteracja zaczyna od tej samej pozycji
+ * z przeciwnikiem na ruchu. Bot pasuje, gdy pas nie jest gorszy od najlepszego ruchu ani pod względem
+ * odsetka wygranych, ani średniej różnicy punktów - np. gdy zostały już tylko ruchy zapełniające własne
+ * terytorium lub (przy liczeniu terytorialnym) pola niczyje.
+ * <p>
+ * Ruch nielegalny przy bieżącej historii pozycji (superko) jest pomijany tylko w danej wizycie węzła -
+ * ten sam węzeł osiągnięty inną drogą lub w kolejnej decyzji może go dopuszczać.
+ * Węzły są przechowywane w tablicy transpozycji kluczowanej kluczem Zobrista pozycji i graczem na ruchu:
+ * ta sama pozycja osiągnięta inną kolejnością ruchów ma wspólne statystyki, a drzewo z poprzednich decyzji
+ * jest wykorzystywane ponownie. Ruchy próbne są wykonywane i cofane na kopii roboczej stanu.
+ * <p>
+ * Siłę gry wyznacza budżet - liczba symulacji i czas na ruch (przeszukiwanie kończy się po wyczerpaniu
+ * któregokolwiek), a nie ręcznie dobierane wagi. Instancja nie jest bezpieczna wątkowo.
+ */
+public class MctsBot implements BotStrategy {
+
+    /** Stała eksploracji C w regule PUCT. */
+    private static final double EXPLORATION = 1.5;
+
+    /** Temperatura rozkładu a priori - różnica ocen heurystycznych, przy której waga ruchu maleje e-krotnie. */
+    private static final double PRIOR_TEMPERATURE = 40.0;
+
+    /** Wartość Q przyjmowana dla ruchu jeszcze niewybranego. */
+    private static final double FIRST_PLAY_VALUE = 0.5;
+
+    /** Liczba odwiedzin, po której węzeł jest rozwijany (wcześniej jest tylko punktem startu symulacji). */
+    private static final int EXPANSION_VISITS = 2;
+
+    /** Limit węzłów w tablicy transpozycji - po jego przekroczeniu tablica jest czyszczona przed decyzją. */
+    private static final int MAX_NODES = 200_000;
+
+    /** Składnik klucza węzła dla pozycji z białym na ruchu. */
+    private static final long WHITE_TO_MOVE = 0x9E3779B97F4A7C15L;
+
+    /** Co która iteracja bada w korzeniu pas zamiast ruchu. */
+    private static final int PASS_SAMPLE_RATE = 8;
+
+    /** Minimalna liczba symulacji pasa, od której bot może spasować. */
+    private static final int MIN_PASS_VISITS = 32;
+
+    /** Dopuszczalna strata odsetka wygranych przy pasie względem najlepszego ruchu. */
+    private static final double PASS_WIN_RATE_TOLERANCE = 0.05;
+
+    /** Dopuszczalna strata średniej różnicy punktów przy pasie względem najlepszego ruchu. */
+    private static final double PASS_MARGIN_TOLERANCE = 0.1;
+
+    /** Minimalna liczba wyborów ruchu, od której jego średnia różnica punktów jest porównywana z pasem. */
+    private static final int MIN_MARGIN_VISITS = 16;
+
+    private final GameMechanics mechanics;
+    private final RuleSet rules;
+    private final SmartBotHeuristics heuristics;
+    private final SplittableRandom random;
+    private final int playoutBudget;
+    private final long timeBudgetNanos;
+
+    /** Tablica transpozycji: klucz pozycji z graczem na ruchu -> węzeł drzewa. */
+    private final Map<Long, Node> table = new HashMap<>();
+
+    /** Kopia robocza stanu partii (tworzona przy pierwszym użyciu lub zmianie rozmiaru planszy). */
+    private GameState sandboxState;
+    private PlayoutEngine engine;
+
+    /** Ścieżka bieżącej iteracji: węzły i wybrane w nich ruchy. */
+    private Node[] pathNodes;
+    private int[] pathEdges;
+
+    private int lastPlayouts = 0;
+
+    /** Przeszukiwanie przerwane z innego wątku ({@link #stop()}). */
+    private volatile boolean stopped;
+
+    /**
+     * Tworzy bota z podanym budżetem na ruch.
+     *
+     * @param mechanics silnik zasad gry.
+     * @param playoutBudget maksymalna liczba symulacji na ruch.
+     * @param timeBudgetMillis maksymalny czas namysłu na ruch w milisekundach.
+     */
+    public MctsBot(GameMechanics mechanics, int playoutBudget, long timeBudgetMillis) {
+        this(mechanics, playoutBudget, timeBudgetMillis, new SplittableRandom());
+    }
+
+    /**
+     * Tworzy bota ze stałym ziarnem losowania - przy budżecie ograniczonym liczbą symulacji
+     * ta sama sekwencja pozycji daje te same ruchy.
+     *
+     * @param mechanics silnik zasad gry.
+     * @param playoutBudget maksymalna liczba symulacji na ruch.
+     * @param timeBudgetMillis maksymalny czas namysłu na ruch w milisekundach.
+     * @param seed ziarno generatora losowego symulacji.
+     */
+    public MctsBot(GameMechanics mechanics, int playoutBudget, long timeBudgetMillis, long seed) {
+        this(mechanics, playoutBudget, timeBudgetMillis, new SplittableRandom(seed));
+    }
+
+    private MctsBot(GameMechanics mechanics, int playoutBudget, long timeBudgetMillis, SplittableRandom random) {
+        if (playoutBudget <= 0 || timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Budzet bota musi byc dodatni: " + playoutBudget
+                    + " symulacji, " + timeBudgetMillis + " ms");
+        }
+        this.mechanics = mechanics;
+        this.rules = mechanics.getRules();
+        this.heuristics = new SmartBotHeuristics(mechanics);
+        this.random = random;
+        this.playoutBudget = playoutBudget;
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+    }
+
+    /**
+     * Przeszukuje drzewo gry w ramach budżetu i zwraca najczęściej wybierany ruch korzenia.
+     *
+     * @param state aktualny stan partii (nie jest modyfikowany - bot pracuje na własnej kopii).
+     * @param color kolor kamieni bota.
+     * @return współrzędne ruchu lub {@code null} (pas), jeśli nie ma legalnych kandydatów albo pas nie jest gorszy.
+     */
+    @Override
+    public Point calculateBestMove(GameState state, Stone color) {
+        return calculateBestMove(state, color, Long.MAX_VALUE);
+    }
+
+    /**
+     * Przeszukuje drzewo do wyczerpania budżetu bota lub do terminu (zależnie od tego, co nastąpi wcześniej).
+     *
+     * @param state aktualny stan partii (nie jest modyfikowany - bot pracuje na własnej kopii).
+     * @param color kolor kamieni bota.
+     * @param deadlineNanos termin decyzji w jednostkach {@link System#nanoTime()}.
+     * @return najczęściej wybierany ruch korzenia lub {@code null} (pas).
+     */
+    @Override
+    public Point calculateBestMove(GameState state, Stone color, long deadlineNanos) {
+        long deadline = Math.min(deadlineNanos, System.nanoTime() + timeBudgetNanos);
+        int size = state.getBoard().getSize();
+        if (sandboxState == null || sandboxState.getBoard().getSize() != size) {
+            sandboxState = new GameState(size);
+            engine = new PlayoutEngine(mechanics, size, random.split());
+            int maxDepth = 2 * size * size;
+            pathNodes = new Node[maxDepth];
+            pathEdges = new int[maxDepth];
+            table.clear();
+        }
+        if (table.size() > MAX_NODES) {
+            table.clear();
+        }
+        state.copyTo(sandboxState);
+
+        Node root = nodeFor(color);
+        if (root.moves == null) {
+            expand(root);
+        }
+        lastPlayouts = 0;
+        while (lastPlayouts < playoutBudget && !stopped && System.nanoTime() < deadline) {
+            iterate(root, lastPlayouts % PASS_SAMPLE_RATE == PASS_SAMPLE_RATE - 1);
+            lastPlayouts++;
+        }
+        return bestMove(root, state.getBoard().getGeometry());
+    }
+
+    /**
+     * Opisuje ostatnie przeszukiwanie: liczbę wykonanych symulacji.
+     */
+    @Override
+    public String describeLastSearch() {
+        return "symulacje " + lastPlayouts;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public void resume() {
+        stopped = false;
+    }
+
+    /** @return liczba symulacji wykonanych przy ostatniej decyzji. */
+    public int getLastPlayoutCount() {
+        return lastPlayouts;
+    }
+
+    /**
+     * Jedna iteracja: selekcja (z rozwinięciem), symulacja i propagacja wyniku; na końcu ruchy ścieżki są cofane.
+     *
+     * @param viaPass true - iteracja zaczyna od pasa w korzeniu (ta sama pozycja, przeciwnik na ruchu).
+     */
+    private void iterate(Node root, boolean viaPass) {
+        Node node = viaPass ? nodeFor(root.toMove.opponent()) : root;
+        BoardGeometry geometry = sandboxState.getBoard().getGeometry();
+        int depth = 0;
+        while (depth < pathNodes.length) {
+            if (node.moves == null) {
+                if (node.visits < EXPANSION_VISITS) break;
+                expand(node);
+            }
+            int edge = playLegalEdge(node, geometry);
+            if (edge < 0) break;
+
+            pathNodes[depth] = node;
+            pathEdges[depth] = edge;
+            depth++;
+
+            int known = table.size();
+            node = nodeFor(node.toMove.opponent());
+            if (table.size() > known) break;
+        }
+
+        int difference = engine.playout(sandboxState, node.toMove, rules);
+        double blackResult = difference > 0 ? 1.0 : difference < 0 ? 0.0 : 0.5;
+        node.visits++;
+        for (int i = depth - 1; i >= 0; i--) {
+            Node parent = pathNodes[i];
+            int edge = pathEdges[i];
+            boolean black = parent.toMove == Stone.BLACK;
+            parent.visits++;
+            parent.edgeVisits[edge]++;
+            parent.edgeValues[edge] += black ? blackResult : 1.0 - blackResult;
+            parent.edgeMargins[edge] += black ? difference : -difference;
+            mechanics.undoMove(sandboxState);
+            pathNodes[i] = null;
+        }
+        if (viaPass) {
+            boolean black = root.toMove == Stone.BLACK;
+            root.passVisits++;
+            root.passValue += black ? blackResult : 1.0 - blackResult;
+            root.passMargin += black ? difference : -difference;
+        }
+    }
+
+    /**
+     * Wybiera ruch regułą PUCT i wykonuje go na kopii roboczej. Ruch nielegalny przy bieżącej historii
+     * pozycji jest pomijany tylko w tej wizycie (maska obejmuje do 64 ruchów - heurystyki zwracają mniej).
+     *
+     * @return indeks wykonanego ruchu lub -1, jeśli w węźle nie ma legalnych ruchów.
+     */
+    private int playLegalEdge(Node node, BoardGeometry geometry) {
+        long rejected = 0;
+        while (true) {
+            int edge = select(node, rejected);
+            if (edge < 0) return -1;
+            int move = node.moves[edge];
+            if (mechanics.makeMove(sandboxState, geometry.xOf(move), geometry.yOf(move), node.toMove)) return edge;
+            rejected |= 1L << edge;
+        }
+    }
+
+    /**
+     * Wybiera ruch według reguły PUCT.
+     *
+     * @param rejected maska ruchów pominiętych w tej wizycie.
+     * @return indeks ruchu lub -1, jeśli nie ma ruchów spoza maski.
+     */
+    private int select(Node node, long rejected) {
+        double exploration = EXPLORATION * Math.sqrt(Math.max(1, node.visits));
+        int best = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < node.moves.length; i++) {
+            if ((rejected & (1L << i)) != 0) continue;
+            int visits = node.edgeVisits[i];
+            double q = visits == 0 ? FIRST_PLAY_VALUE : node.edgeValues[i] / visits;
+            double value = q + exploration * node.priors[i] / (1 + visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Nadaje węzłowi ruchy: kandydatów z heurystyk (bez zapełniania własnych oczu)
+     * z prawdopodobieństwami a priori wyznaczonymi z ich ocen.
+     */
+    private void expand(Node node) {
+        Board board = sandboxState.getBoard();
+        BoardGeometry geometry = board.getGeometry();
+        ArrayList<CandidateRecord> candidates = heuristics.findBestCandidates(sandboxState, node.toMove);
+        candidates.removeIf(c -> PlayoutEngine.isEye(board, geometry.index(c.point().x, c.point().y), node.toMove));
+
+        int count = candidates.size();
+        node.moves = new int[count];
+        node.priors = new double[count];
+        node.edgeVisits = new int[count];
+        node.edgeValues = new double[count];
+        node.edgeMargins = new double[count];
+        if (count == 0) return;
+
+        // Kandydaci są posortowani malejąco - pierwszy ma najwyższą ocenę
+        double top = candidates.get(0).score();
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            CandidateRecord candidate = candidates.get(i);
+            node.moves[i] = geometry.index(candidate.point().x, candidate.point().y);
+            node.priors[i] = Math.exp((candidate.score() - top) / PRIOR_TEMPERATURE);
+            sum += node.priors[i];
+        }
+        for (int i = 0; i < count; i++) {
+            node.priors[i] /= sum;
+        }
+    }
+
+    /**
+     * Zwraca węzeł bieżącej pozycji kopii roboczej z tablicy transpozycji (tworząc go, jeśli go nie ma).
+     */
+    private Node nodeFor(Stone toMove) {
+        long key = sandboxState.getBoard().getZobristKey() ^ (toMove == Stone.WHITE ? WHITE_TO_MOVE : 0L);
+        Node node = table.get(key);
+        if (node == null) {
+            node = new Node(toMove);
+            table.put(key, node);
+        }
+        return node;
+    }
+
+    /**
+     * Wybiera legalny ruch korzenia wybierany najczęściej (przy równej liczbie - ten z wyższym P).
+     * Jeśli pas nie jest od niego gorszy (np. gdy wynik partii jest już przesądzony), decyduje średnia
+     * różnica punktów: gra ruch, który ją poprawia względem pasa, a gdy takiego nie ma - pasuje.
+     */
+    private Point bestMove(Node root, BoardGeometry geometry) {
+        int best = -1;
+        for (int i = 0; i < root.moves.length; i++) {
+            int move = root.moves[i];
+            if (!mechanics.isMoveLegal(sandboxState, geometry.xOf(move), geometry.yOf(move), root.toMove)) continue;
+            if (best < 0 || root.edgeVisits[i] > root.edgeVisits[best]
+                    || (root.edgeVisits[i] == root.edgeVisits[best] && root.priors[i] > root.priors[best])) {
+                best = i;
+            }
+        }
+        if (best < 0) return null;
+        if (passIsNoWorse(root, best)) {
+            best = bestMarginMove(root, geometry);
+            if (best < 0 || passIsNoWorse(root, best)) return null;
+        }
+        return new Point(geometry.xOf(root.moves[best]), geometry.yOf(root.moves[best]));
+    }
+
+    /**
+     * Zwraca legalny ruch korzenia o najwyższej średniej różnicy punktów (spośród wybranych
+     * co najmniej {@link #MIN_MARGIN_VISITS} razy) lub -1, jeśli takiego nie ma.
+     */
+    private int bestMarginMove(Node root, BoardGeometry geometry) {
+        int best = -1;
+        double bestMargin = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < root.moves.length; i++) {
+            int visits = root.edgeVisits[i];
+            if (visits < MIN_MARGIN_VISITS) continue;
+            int move = root.moves[i];
+            if (!mechanics.isMoveLegal(sandboxState, geometry.xOf(move), geometry.yOf(move), root.toMove)) continue;
+            double margin = root.edgeMargins[i] / visits;
+            if (margin > bestMargin) {
+                bestMargin = margin;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Porównuje statystyki pasa ze statystykami ruchu (obie z punktu widzenia gracza na ruchu w korzeniu).
+     */
+    private boolean passIsNoWorse(Node root, int edge) {
+        int visits = root.edgeVisits[edge];
+        if (root.passVisits < MIN_PASS_VISITS || visits == 0) return false;
+        double passWinRate = root.passValue / root.passVisits;
+        double moveWinRate = root.edgeValues[edge] / visits;
+        double passMargin = root.passMargin / root.passVisits;
+        double moveMargin = root.edgeMargins[edge] / visits;
+        return passWinRate >= moveWinRate - PASS_WIN_RATE_TOLERANCE
+                && passMargin >= moveMargin - PASS_MARGIN_TOLERANCE;
+    }
+
+    /**
+     * Węzeł drzewa: pozycja z graczem na ruchu oraz statystyki jej ruchów
+     * (wartości z punktu widzenia gracza {@link #toMove}).
+     */
+    private static final class Node {
+
+        private final Stone toMove;
+        private int visits;
+
+        /** Indeksy pól ruchów ({@code null}, dopóki węzeł nie zostanie rozwinięty). */
+        private int[] moves;
+        private double[] priors;
+        private int[] edgeVisits;
+        private double[] edgeValues;
+
+        /** Suma różnic punktów symulacji po każdym ruchu. */
+        private double[] edgeMargins;
+
+        /** Statystyki pasa (używane tylko w korzeniu). */
+        private int passVisits;
+        private double passValue;
+        private double passMargin;
+
+        private Node(Stone toMove) {
+            this.toMove = toMove;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package go.si;
+
+import go.logic.BoardGeometry;
+import go.logic.GameMechanics;
+import go.logic.GameState;
+import go.logic.Stone;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Namysł bota w czasie tury przeciwnika (pondering).
+ * <p>
+ * Gdy serwer czeka na ruch gracza, {@link #start} przewiduje jego najbardziej prawdopodobne ruchy
+ * ({@link SmartBotHeuristics#findBestCandidates} z perspektywy gracza) i dla każdego z nich, na kopii stanu,
+ * oblicza odpowiedź bota z pełnym czasem namysłu ({@link BotStrategy#ponderMove} - bez zmiany licznika ruchów
+ * i sekwencji losowania bota, bez wspólnych pul wątków). {@link #stop} przerywa namysł ({@link BotStrategy#stop()})
+ * i czeka na jego zakończenie - dopiero potem bot może być użyty przez sesję, więc strategia nigdy nie liczy
+ * w dwóch wątkach naraz. Jeśli gracz zagrał przewidziany ruch, {@link #replyTo} zwraca gotową odpowiedź;
+ * odpowiedzi przerwane w trakcie są porzucane.
+ * <p>
+ * Namysł jednej tury trwa najwyżej {@link #PREDICTIONS} czasów namysłu bota (i nie dłużej niż
+ * {@link #MAX_PONDER_MILLIS}), a wszystkie sesje korzystają ze wspólnej puli o połowie liczby rdzeni -
+ * bezczynne sesje nie zajmują procesora bez końca.
+ */
+public class Ponderer {
+
+    /** Liczba przewidywanych ruchów gracza. */
+    private static final int PREDICTIONS = 3;
+
+    /** Górny limit namysłu w jednej turze gracza w milisekundach. */
+    private static final long MAX_PONDER_MILLIS = 10_000;
+
+    /** Wspólna pula wątków namysłu wszystkich sesji (wątki demony - nie blokują zamknięcia serwera). */
+    private static final ExecutorService PONDER_THREADS = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2), task -> {
+                Thread thread = new Thread(task, "namysl-bota");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final BotStrategy bot;
+    private final GameMechanics mechanics;
+    private final SmartBotHeuristics heuristics;
+    private final long thinkNanos;
+
+    /** Kopia stanu z początku tury gracza, na której wykonywane są przewidywane ruchy. */
+    private GameState sandboxState;
+
+    /** Chroni {@link #current} i flagi zadań. */
+    private final Object lock = new Object();
+
+    /** Bieżące zadanie namysłu ({@code null} - namysł nie był uruchomiony). */
+    private PonderTask current;
+
+    /**
+     * Tworzy namysł dla bota sesji.
+     *
+     * @param bot strategia sesji - w czasie namysłu nie może być używana przez inny wątek.
+     * @param mechanics silnik zasad gry.
+     * @param thinkMillis czas namysłu bota na jeden ruch w milisekundach.
+     */
+    public Ponderer(BotStrategy bot, GameMechanics mechanics, long thinkMillis) {
+        this.bot = bot;
+        this.mechanics = mechanics;
+        this.heuristics = new SmartBotHeuristics(mechanics);
+        this.thinkNanos = thinkMillis * 1_000_000L;
+    }
+
+    /**
+     * Rozpoczyna namysł w tle nad pozycją, w której ruch ma gracz. Poprzedni namysł jest najpierw kończony.
+     *
+     * @param state stan partii przed ruchem gracza (kopiowany - sesja może go dalej zmieniać).
+     * @param humanColor kolor gracza.
+     * @param botColor kolor bota.
+     */
+    public void start(GameState state, Stone humanColor, Stone botColor) {
+        stop();
+        int size = state.getBoard().getSize();
+        if (sandboxState == null || sandboxState.getBoard().getSize() != size) {
+            sandboxState = new GameState(size);
+        }
+        state.copyTo(sandboxState);
+        PonderTask task = new PonderTask(humanColor, botColor);
+        synchronized (lock) {
+            current = task;
+            task.future = PONDER_THREADS.submit(task);
+        }
+    }
+
+    /**
+     * Przerywa namysł i czeka, aż wątek namysłu przestanie używać bota.
+     */
+    public void stop() {
+        synchronized (lock) {
+            if (current == null || current.cancelled) return;
+            current.cancelled = true;
+            // Zadanie czekające w kolejce puli nie zostanie w ogóle uruchomione
+            current.future.cancel(false);
+            bot.stop();
+            while (current.running) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        bot.resume();
+    }
+
+    /**
+     * Informuje, czy zadanie namysłu jeszcze działa lub czeka w kolejce puli (do testów zatrzymania).
+     *
+     * @return true, jeśli bot może być jeszcze używany przez wątek namysłu.
+     */
+    boolean isPondering() {
+        synchronized (lock) {
+            return current != null && (current.running || !current.future.isDone());
+        }
+    }
+
+    /**
+     * Zwraca odpowiedź bota przygotowaną w czasie namysłu (po {@link #stop()}).
+     *
+     * @param x współrzędna X ruchu gracza.
+     * @param y współrzędna Y ruchu gracza.
+     * @return gotowa odpowiedź (której wartością może być {@code null} - pas)
+     * lub {@code null}, jeśli ruchu nie przewidziano albo nie zdążono go przemyśleć.
+     */
+    public Prepared replyTo(int x, int y) {
+        synchronized (lock) {
+            if (current == null || current.running) return null;
+            int move = sandboxState.getBoard().getGeometry().index(x, y);
+            for (int i = 0; i < current.prepared; i++) {
+                if (current.predictions[i] == move) return new Prepared(current.replies[i]);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Odpowiedź bota obliczona w czasie namysłu.
+     *
+     * @param move ruch bota lub {@code null} (pas).
+     */
+    public record Prepared(Point move) {
+    }
+
+    /**
+     * Jedna tura namysłu: kolejne przewidywane ruchy gracza i odpowiedzi bota na nie.
+     * Pola są chronione przez {@link #lock}.
+     */
+    private final class PonderTask implements Runnable {
+
+        private final Stone humanColor;
+        private final Stone botColor;
+        private final int[] predictions = new int[PREDICTIONS];
+        private final Point[] replies = new Point[PREDICTIONS];
+
+        /** Liczba ruchów z gotową (nieprzerwaną) odpowiedzią. */
+        private int prepared;
+        private boolean cancelled;
+        private boolean running;
+        private Future<?> future;
+
+        private PonderTask(Stone humanColor, Stone botColor) {
+            this.humanColor = humanColor;
+            this.botColor = botColor;
+        }
+
+        @Override
+        public void run() {
+            synchronized (lock) {
+                if (cancelled) return;
+                running = true;
+            }
+            try {
+                ponder();
+            } finally {
+                synchronized (lock) {
+                    running = false;
+                    lock.notifyAll();
+                }
+            }
+        }
+
+        private void ponder() {
+            long ponderDeadline = System.nanoTime()
+                    + Math.min(PREDICTIONS * thinkNanos, MAX_PONDER_MILLIS * 1_000_000L);
+            BoardGeometry geometry = sandboxState.getBoard().getGeometry();
+            ArrayList<CandidateRecord> candidates = heuristics.findBestCandidates(sandboxState, humanColor);
+
+            for (int i = 0; i < candidates.size() && i < PREDICTIONS; i++) {
+                Point predicted = candidates.get(i).point();
+                // Odpowiedź liczona jest z pełnym czasem namysłu - inaczej byłaby słabsza od zwykłej
+                long deadline = System.nanoTime() + thinkNanos;
+                if (deadline > ponderDeadline) return;
+                if (!mechanics.makeMove(sandboxState, predicted.x, predicted.y, humanColor)) continue;
+                Point reply = bot.ponderMove(sandboxState, botColor, deadline);
+                mechanics.undoMove(sandboxState);
+
+                synchronized (lock) {
+                    // Odpowiedź przerwana przez stop() jest niepełna - nie zostaje zapamiętana
+                    if (cancelled) return;
+                    predictions[prepared] = geometry.index(predicted.x, predicted.y);
+                    replies[prepared] = reply;
+                    prepared++;
+                }
+            }
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package go.si;
 
-import go.logic.Board;
+import go.logic.GameState;
 import go.logic.GameMechanics;
 import go.logic.Stone;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Główna klasa implementująca logikę Sztucznej Inteligencji (AI) dla gry Go.
@@ -15,6 +19,11 @@ import java.util.ArrayList;
  * <li><b>Selecja kandydatów:</b> Używa {@link SmartBotHeuristics} do wyłonienia kilku najbardziej obiecujących ruchów na podstawie statycznej oceny planszy.</li>
  * <li><b>Symulacja (Look-ahead):</b> Dla każdego kandydata wykonuje symulację ruchu w przód, sprawdzając najlepszą możliwą odpowiedź przeciwnika.</li>
  * </ol>
+ * Kandydaci są oceniani równolegle w puli {@link ForkJoinPool}: każdy wątek roboczy korzysta z własnej
+ * kopii stanu i własnych heurystyk ({@link Worker}), a wyniki trafiają do tablicy według indeksu kandydata,
+ * więc wybór ruchu (przy tym samym ziarnie) jest taki sam jak przy ocenie sekwencyjnej.
+ * Namysł spekulacyjny ({@link #ponderMove}) ocenia kandydatów sekwencyjnie w wątku wołającym, losuje z osobnego
+ * generatora i nie liczy ruchów - partia toczy się tak samo, jak bez namysłu.
  * Implementuje interfejs {@link BotStrategy}, dzięki czemu może być łatwo podmieniany w serwerze gry.
  */
 public class SmartBot implements BotStrategy {
@@ -25,33 +34,155 @@ public class SmartBot implements BotStrategy {
     /** Silnik zasad gry, używany do sprawdzania legalności ruchów. */
     private final GameMechanics mechanics;
 
-    /** Kopia planszy używana do przeprowadzania symulacji bez ingerencji w rzeczywistą rozgrywkę. */
-    private final Board sandboxBoard = new Board(19);
+    /**
+     * Kopia robocza stanu partii, na której symulowane ruchy są wykonywane i cofane
+     * bez ingerencji w rzeczywistą rozgrywkę (tworzona przy pierwszym użyciu lub zmianie rozmiaru planszy).
+     */
+    private GameState sandboxState;
 
     /** Licznik ruchów bota, używany do określania fazy gry (np. unikanie pasowania na samym początku). */
     private int moveCounter = 0;
 
+    /** Generator losowy używany przy wyborze jednego z równie dobrych ruchów. */
+    private final SplittableRandom random;
+
+    /** Osobny generator namysłu spekulacyjnego - nie przesuwa sekwencji losowania partii. */
+    private final SplittableRandom ponderRandom;
+
+    /** Pula wątków oceniających kandydatów. */
+    private final ForkJoinPool pool;
+
+    /** Wolne zestawy robocze (kopia stanu + heurystyki) - pobierane na czas oceny jednego kandydata. */
+    private final ConcurrentLinkedQueue<Worker> workers = new ConcurrentLinkedQueue<>();
+
+    /** Numer bieżącej decyzji - zestaw roboczy z innym numerem musi najpierw skopiować stan. */
+    private int decision = 0;
+
+    /** Termin bieżącej decyzji ({@link System#nanoTime()}) - kandydaci po terminie nie są oceniani. */
+    private long deadline;
+
+    /** Obliczenia przerwane z innego wątku ({@link #stop()}) - kolejni kandydaci nie są oceniani. */
+    private volatile boolean stopped;
+
     /**
      * Tworzy nową instancję bota.
      *
      * @param mechanics instancja mechaniki gry, niezbędna do walidacji ruchów i analizy planszy.
      */
     public SmartBot(GameMechanics mechanics) {
+        this(mechanics, new SplittableRandom(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Tworzy bota ze stałym ziarnem losowania - ta sama sekwencja pozycji daje te same ruchy
+     * (powtarzalne testy i benchmarki).
+     *
+     * @param mechanics instancja mechaniki gry.
+     * @param seed ziarno generatora losowego.
+     */
+    public SmartBot(GameMechanics mechanics, long seed) {
+        this(mechanics, new SplittableRandom(seed), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Tworzy bota ze stałym ziarnem, oceniającego kandydatów w podanej puli wątków
+     * (np. {@code new ForkJoinPool(1)} dla oceny sekwencyjnej).
+     *
+     * @param mechanics instancja mechaniki gry.
+     * @param seed ziarno generatora losowego.
+     * @param pool pula wątków do oceny kandydatów.
+     */
+    public SmartBot(GameMechanics mechanics, long seed, ForkJoinPool pool) {
+        this(mechanics, new SplittableRandom(seed), pool);
+    }
+
+    private SmartBot(GameMechanics mechanics, SplittableRandom random, ForkJoinPool pool) {
         this.mechanics = mechanics;
+        this.random = random;
+        this.ponderRandom = random.split();
+        this.pool = pool;
         smartBotHeuristics = new SmartBotHeuristics(mechanics);
     }
 
     /**
      * Główna metoda interfejsu strategii. Oblicza najlepszy ruch dla danego koloru.
      *
-     * @param board aktualny stan planszy.
+     * @param state aktualny stan partii (nie jest modyfikowany - bot pracuje na własnej kopii).
      * @param color kolor kamieni bota.
      * @return współrzędne najlepszego ruchu lub {@code null} w przypadku pasowania.
      */
     @Override
-    public Point calculateBestMove(Board board, Stone color) {
+    public Point calculateBestMove(GameState state, Stone color) {
+        return calculateBestMove(state, color, Long.MAX_VALUE);
+    }
+
+    /**
+     * Oblicza ruch z terminem: kandydaci, których ocena nie zaczęła się przed terminem, są pomijani
+     * przy wyborze. Jeśli nie oceniono żadnego, zwracany jest najlepszy kandydat według heurystyk.
+     *
+     * @param state aktualny stan partii (nie jest modyfikowany - bot pracuje na własnej kopii).
+     * @param color kolor kamieni bota.
+     * @param deadlineNanos termin decyzji w jednostkach {@link System#nanoTime()}.
+     * @return współrzędne wybranego ruchu lub {@code null} w przypadku pasowania.
+     */
+    @Override
+    public Point calculateBestMove(GameState state, Stone color, long deadlineNanos) {
         moveCounter++;
-        return runSymulationAndChooseBestPoint(board, color);
+        prepareDecision(state, deadlineNanos);
+        return runSymulationAndChooseBestPoint(color, moveCounter, random, true);
+    }
+
+    /**
+     * Oblicza ruch spekulacyjnie: kandydaci są oceniani sekwencyjnie w wątku wołającym (bez puli),
+     * licznik ruchów nie jest zwiększany, a losowanie korzysta z osobnego generatora.
+     *
+     * @param state stan partii po przewidywanym ruchu przeciwnika (nie jest modyfikowany).
+     * @param color kolor kamieni bota.
+     * @param deadlineNanos termin decyzji w jednostkach {@link System#nanoTime()}.
+     * @return współrzędne wybranego ruchu lub {@code null} w przypadku pasowania.
+     */
+    @Override
+    public Point ponderMove(GameState state, Stone color, long deadlineNanos) {
+        prepareDecision(state, deadlineNanos);
+        // Ruch liczony jest tak, jakby był następnym ruchem bota w partii
+        return runSymulationAndChooseBestPoint(color, moveCounter + 1, ponderRandom, false);
+    }
+
+    /**
+     * Zalicza zagraną odpowiedź z namysłu jako ruch bota - {@link #ponderMove} nie zwiększa licznika.
+     */
+    @Override
+    public void onPreparedMovePlayed() {
+        moveCounter++;
+    }
+
+    /** @return liczba ruchów bota w partii (obliczonych lub przygotowanych w czasie namysłu i zagranych). */
+    int getMoveCount() {
+        return moveCounter;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public void resume() {
+        stopped = false;
+    }
+
+    /**
+     * Kopiuje stan partii do kopii roboczej i rozpoczyna nową decyzję z podanym terminem.
+     */
+    private void prepareDecision(GameState state, long deadlineNanos) {
+        deadline = deadlineNanos;
+        int size = state.getBoard().getSize();
+        if (sandboxState == null || sandboxState.getBoard().getSize() != size) {
+            sandboxState = new GameState(size);
+        }
+        // Stan jest kopiowany raz na decyzję - kolejne ruchy próbne są wykonywane i cofane na kopii
+        state.copyTo(sandboxState);
+        decision++;
     }
 
     /**
@@ -66,29 +197,36 @@ public class SmartBot implements BotStrategy {
      * które mieszczą się w granicy tolerancji (np. 2 pkt różnicy od najlepszego). Zapobiega to pętlom i przewidywalności.</li>
      * </ul>
      *
-     * @param board aktualna plansza.
      * @param color kolor bota.
+     * @param moveNumber numer ruchu bota w partii (określa fazę gry).
+     * @param random generator używany przy losowaniu jednego z dobrych ruchów.
+     * @param parallel czy oceniać kandydatów równolegle w puli bota.
      * @return wybrany punkt lub null (pas).
      */
-    private Point runSymulationAndChooseBestPoint(Board board, Stone color) {
+    private Point runSymulationAndChooseBestPoint(Stone color, int moveNumber, SplittableRandom random, boolean parallel) {
         // 1. Pobranie wstępnych kandydatów na podstawie statycznej heurystyki
-        ArrayList<CandidateRecord> candidates = smartBotHeuristics.findBestCandidates(board, color);
+        ArrayList<CandidateRecord> candidates = smartBotHeuristics.findBestCandidates(sandboxState, color);
 
         if (candidates.isEmpty()) return null;
 
-        // Tablica przechowująca wyniki symulacji dla każdego kandydata
+        // Tablica przechowująca wyniki symulacji dla każdego kandydata (NaN - nieoceniony przed terminem)
         double[] simulatedScores = new double[candidates.size()];
 
+        // 2. Symulacja: Sprawdzamy co zrobi przeciwnik w odpowiedzi na każdy nasz ruch (równolegle)
+        if (parallel) {
+            pool.invoke(new CandidateEvaluation(candidates, color, simulatedScores, 0, candidates.size()));
+        } else {
+            evaluateCandidates(candidates, color, simulatedScores, 0, candidates.size());
+        }
+
         int bestCandidateIndex = 0;
         double bestBalance = Double.NEGATIVE_INFINITY;
+        int evaluated = 0;
 
-        // 2. Symulacja: Sprawdzamy co zrobi przeciwnik w odpowiedzi na każdy nasz ruch
         for (int i = 0; i < candidates.size(); i++) {
-            CandidateRecord candidate = candidates.get(i);
-
-            double balance = getBestOpponentRespondScore(board, candidate, color);
-
-            simulatedScores[i] = balance; // Zapamiętujemy wynik symulacji
+            double balance = simulatedScores[i];
+            if (Double.isNaN(balance)) continue;
+            evaluated++;
 
             if (balance > bestBalance) {
                 bestBalance = balance;
@@ -96,9 +234,13 @@ public class SmartBot implements BotStrategy {
             }
         }
 
+        // Czas minął przed oceną pierwszego kandydata - zostaje sama ocena heurystyczna
+        if (evaluated == 0) {
+            return candidates.get(0).point();
+        }
 
-        if (moveCounter > 15 && bestBalance < -10000) {
-            System.out.println("Bot pasuje (Bilans: " + bestBalance + ", Ruch: " + moveCounter + ")");
+        if (moveNumber > 15 && bestBalance < -10000) {
+            System.out.println("Bot pasuje (Bilans: " + bestBalance + ", Ruch: " + moveNumber + ")");
             return null;
         }
 
@@ -116,42 +258,132 @@ public class SmartBot implements BotStrategy {
         }
         else {
             // Losujemy jeden z "dobrych" ruchów
-            int randomIndex = (int)(Math.random() * candidatesAlternativesIndices.size());
+            int randomIndex = random.nextInt(candidatesAlternativesIndices.size());
             int finalCandidateIndex = candidatesAlternativesIndices.get(randomIndex);
             return candidates.get(finalCandidateIndex).point();
         }
     }
 
     /**
-     * Symuluje jeden ruch w przód (głębokość 1) i oblicza bilans punktowy.
-     * <p>
-     * Algorytm:
-     * <ol>
-     * <li>Kopiuje planszę do sandboxa.</li>
-     * <li>Wykonuje ruch kandydata.</li>
-     * <li>Szuka najlepszego ruchu dla przeciwnika na nowej planszy.</li>
-     * <li>Zwraca różnicę: {@code (Wynik Kandydata - Wynik Najlepszej Odpowiedzi Przeciwnika)}.</li>
-     * </ol>
-     * Dzięki temu bot unika ruchów, które wyglądają dobrze (dużo punktów), ale wystawiają go na natychmiastowy atak (Atari).
-     *
-     * @param board           oryginalna plansza.
-     * @param candidateRecord kandydat do sprawdzenia.
-     * @param color           kolor bota.
-     * @return bilans punktowy ruchu.
+     * Pobiera wolny zestaw roboczy (lub tworzy nowy) i dopasowuje go do bieżącej decyzji.
+     * Kopia robocza bota nie jest w tym czasie zmieniana, więc wiele wątków może ją czytać naraz.
      */
-    private double getBestOpponentRespondScore(Board board, CandidateRecord candidateRecord, Stone color) {
-        board.copyBoard(sandboxBoard);
-        ArrayList<CandidateRecord> opponentCandidates;
+    private Worker acquireWorker() {
+        Worker worker = workers.poll();
+        if (worker == null) {
+            worker = new Worker();
+        }
+        worker.prepare(sandboxState, decision);
+        return worker;
+    }
 
-        sandboxBoard.setField(candidateRecord.point().x, candidateRecord.point().y, color);
-        sandboxBoard.setLastMove(candidateRecord.point().x, candidateRecord.point().y);
+    /**
+     * Ocenia kandydatów z zakresu {@code [from, to)} na jednym zestawie roboczym. Kandydaci, których ocena
+     * nie zaczęła się przed terminem (lub przed {@link #stop()}), dostają {@code NaN}.
+     */
+    private void evaluateCandidates(ArrayList<CandidateRecord> candidates, Stone color, double[] scores, int from, int to) {
+        Worker worker = acquireWorker();
+        try {
+            for (int i = from; i < to; i++) {
+                scores[i] = stopped || System.nanoTime() > deadline
+                        ? Double.NaN
+                        : worker.getBestOpponentRespondScore(candidates.get(i), color);
+            }
+        } finally {
+            workers.offer(worker);
+        }
+    }
 
-        opponentCandidates = smartBotHeuristics.findBestCandidates(sandboxBoard, color.opponent());
+    /**
+     * Ocena fragmentu listy kandydatów - dzielona na połowy aż do pojedynczych kandydatów,
+     * z których każdy jest oceniany na zestawie roboczym pobranym na czas oceny.
+     */
+    private final class CandidateEvaluation extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ArrayList<CandidateRecord> candidates;
+        private final Stone color;
+        private final double[] scores;
+        private final int from;
+        private final int to;
+
+        private CandidateEvaluation(ArrayList<CandidateRecord> candidates, Stone color, double[] scores, int from, int to) {
+            this.candidates = candidates;
+            this.color = color;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CandidateEvaluation(candidates, color, scores, from, middle),
+                        new CandidateEvaluation(candidates, color, scores, middle, to));
+                return;
+            }
+            evaluateCandidates(candidates, color, scores, from, to);
+        }
+    }
+
+    /**
+     * Zestaw roboczy jednego wątku oceniającego: własna kopia stanu partii i własne heurystyki
+     * (skaner grup, bufor legalnych ruchów i mapa wpływów nie mogą być współdzielone).
+     */
+    private final class Worker {
+
+        private final SmartBotHeuristics heuristics = new SmartBotHeuristics(mechanics);
+        private GameState sandbox;
+
+        /** Numer decyzji, dla której skopiowano stan. */
+        private int preparedFor = -1;
 
-        if (opponentCandidates.isEmpty()) {
-            return 0;
+        /**
+         * Kopiuje stan decyzji, jeśli zestaw był ostatnio używany przy innej decyzji.
+         */
+        private void prepare(GameState source, int current) {
+            if (preparedFor == current) return;
+            int size = source.getBoard().getSize();
+            if (sandbox == null || sandbox.getBoard().getSize() != size) {
+                sandbox = new GameState(size);
+            }
+            source.copyTo(sandbox);
+            preparedFor = current;
         }
 
-        return candidateRecord.score() - opponentCandidates.get(0).score();
+        /**
+         * Symuluje jeden ruch w przód (głębokość 1) i oblicza bilans punktowy.
+         * <p>
+         * Algorytm:
+         * <ol>
+         * <li>Wykonuje ruch kandydata na kopii roboczej planszy ({@link GameMechanics#makeMove}).</li>
+         * <li>Szuka najlepszego ruchu dla przeciwnika na nowej planszy.</li>
+         * <li>Cofa ruch kandydata ({@link GameMechanics#undoMove}) - bez ponownego kopiowania planszy.</li>
+         * <li>Zwraca różnicę: {@code (Wynik Kandydata - Wynik Najlepszej Odpowiedzi Przeciwnika)}.</li>
+         * </ol>
+         * Dzięki temu bot unika ruchów, które wyglądają dobrze (dużo punktów), ale wystawiają go na natychmiastowy atak (Atari).
+         *
+         * @param candidateRecord kandydat do sprawdzenia.
+         * @param color           kolor bota.
+         * @return bilans punktowy ruchu.
+         */
+        private double getBestOpponentRespondScore(CandidateRecord candidateRecord, Stone color) {
+            ArrayList<CandidateRecord> opponentCandidates;
+
+            if (!mechanics.makeMove(sandbox, candidateRecord.point().x, candidateRecord.point().y, color)) {
+                return Double.NEGATIVE_INFINITY;
+            }
+
+            opponentCandidates = heuristics.findBestCandidates(sandbox, color.opponent());
+            mechanics.undoMove(sandbox);
+
+            if (opponentCandidates.isEmpty()) {
+                return 0;
+            }
+
+            return candidateRecord.score() - opponentCandidates.get(0).score();
+        }
     }
-}
\ No newline at end of file
+}
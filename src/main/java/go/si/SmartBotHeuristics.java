@@ -1,31 +1,40 @@
 package go.si;
 
 import go.logic.Board;
-import go.logic.Direction;
+import go.logic.BoardGeometry;
 import go.logic.GameMechanics;
+import go.logic.GameState;
+import go.logic.GroupScanner;
+import go.logic.InfluenceMap;
 import go.logic.Stone;
 
 import java.awt.*;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  * Klasa odpowiedzialna za statyczną ocenę sytuacji na planszy (funkcja oceny).
  * <p>
- * Wykorzystuje szereg heurystyk (lokalizacja, kształt, bezpieczeństwo, bicie, łączenie),
+ * Wykorzystuje szereg heurystyk (lokalizacja, kształt, bezpieczeństwo, bicie, łączenie, wpływy),
  * aby przypisać każdemu możliwemu ruchowi wartość punktową (score).
  * Klasa ta nie przeprowadza głębokiej symulacji (look-ahead), a jedynie ocenia
  * bezpośrednie skutki postawienia kamienia w danym punkcie.
  * <p>
  * Wagi zdefiniowane w tej klasie (np. {@code locationScoreWeight}, {@code captureScoreWeight})
  * definiują "osobowość" bota – czy gra agresywnie, czy terytorialnie.
+ * <p>
+ * Cząstkowe heurystyki są widoczne w pakiecie, aby benchmarki mogły mierzyć każdą z nich osobno.
  */
 public class SmartBotHeuristics {
     private final GameMechanics mechanics;
 
-    /** Pomocnicza plansza do symulacji pojedynczych ruchów (unikamy psucia głównej planszy). */
-    private final Board sandboxBoard = new Board(19);
+    /** Skaner grup dla ocenianej planszy - tworzony przy pierwszym użyciu lub zmianie rozmiaru. */
+    private GroupScanner scanner;
+
+    /** Bufor na zbiór legalnych ruchów - tworzony przy pierwszym użyciu lub zmianie rozmiaru. */
+    private long[] legalMoves;
+
+    /** Mapa wpływów ocenianej planszy - aktualizowana przyrostowo przy każdym wyborze kandydatów. */
+    private InfluenceMap influence;
 
     // --- WAGI (WEIGHTS) ---
     // Definiują, jak ważne są poszczególne aspekty gry dla bota.
@@ -42,6 +51,8 @@ public class SmartBotHeuristics {
     private final static int cutOpponentScoreWeight = 20;
     /** Waga za łączenie własnych grup. */
     private final static int connectOwnGroupScoreWeight = 5;
+    /** Waga za grę na pograniczu wpływów (pola sporne zamiast pewnego obszaru). */
+    private final static int influenceScoreWeight = 10;
 
     /** Maksymalna liczba najlepszych ruchów przekazywana do dalszej symulacji w SmartBot. */
     private final static int bestCandidatesNumber = 10;
@@ -76,48 +87,52 @@ public class SmartBotHeuristics {
      * <p>
      * Algorytm:
      * <ol>
-     * <li>Dla każdego pola na planszy oblicza {@code score}.</li>
+     * <li>Wyznacza jednym przebiegiem zbiór legalnych ruchów ({@link GameMechanics#legalMoves}),
+     * uwzględniający samobójstwa i superko.</li>
+     * <li>Dla każdego legalnego pola oblicza {@code score}.</li>
      * <li>Odrzuca ruchy z tragicznym wynikiem (poniżej -100).</li>
      * <li>Sortuje kandydatów malejąco po wyniku.</li>
-     * <li>Weryfikuje legalność ruchu (np. czy nie łamie zasady KO) dla czołówki.</li>
-     * <li>Zwraca listę {@link #bestCandidatesNumber} najlepszych, zweryfikowanych kandydatów.</li>
+     * <li>Zwraca listę {@link #bestCandidatesNumber} najlepszych kandydatów.</li>
      * </ol>
      *
-     * @param board aktualny stan planszy.
+     * Ruchy próbne są wykonywane i cofane ({@link GameMechanics#makeMove}/{@link GameMechanics#undoMove})
+     * bezpośrednio na przekazanym stanie - po zakończeniu metody stan jest taki sam jak przed wywołaniem,
+     * ale w trakcie nie może być używany przez inny wątek.
+     *
+     * @param state aktualny stan partii (zwykle kopia robocza bota).
      * @param color kolor, dla którego szukamy ruchów.
      * @return lista obiektów {@link CandidateRecord} gotowa do symulacji.
      */
-    public ArrayList<CandidateRecord> findBestCandidates(Board board, Stone color) {
-        // Point[] candidates = new Point[10]; // (Nieużywane)
-        ArrayList<CandidateRecord> bestCandidates = new ArrayList<>(19*19);
-        ArrayList<CandidateRecord> verifiedCandidates = new ArrayList<>(bestCandidatesNumber);
+    public ArrayList<CandidateRecord> findBestCandidates(GameState state, Stone color) {
+        Board board = state.getBoard();
+        BoardGeometry geometry = board.getGeometry();
+        ArrayList<CandidateRecord> bestCandidates = new ArrayList<>(board.getSize() * board.getSize());
+
+        // 1. Legalność wszystkich pól naraz - pola zajęte, samobójcze i zabronione przez superko odpadają od razu
+        if (legalMoves == null || legalMoves.length != geometry.getWords()) {
+            legalMoves = geometry.newMask();
+        }
+        mechanics.legalMoves(state, color, legalMoves);
+        if (influence == null || !influence.supports(board)) {
+            influence = new InfluenceMap(board.getSize());
+        }
+        influence.update(board);
 
-        // 1. Ocena każdego pola
+        // 2. Ocena legalnych pól - ruchy próbne wykonywane są i cofane na stanie partii
         for (int x = 0; x < board.getSize(); x++) {
             for (int y = 0; y < board.getSize(); y++) {
-                double score = calculatePointScore(board, new Point(x, y), color);
-                // Filtr wstępny - odrzucamy ruchy beznadziejne (np. samobójstwa)
+                if (!BoardGeometry.contains(legalMoves, geometry.index(x, y))) continue;
+                double score = calculatePointScore(state, new Point(x, y), color);
+                // Filtr wstępny - odrzucamy ruchy beznadziejne
                 if (score > -100) {
                     bestCandidates.add(new CandidateRecord(new Point(x,y), score));
-                    // Sortowanie na bieżąco (można zoptymalizować sortując raz na koniec, ale przy 19x19 jest ok)
-                    bestCandidates.sort((c1, c2) -> Double.compare(c2.score(), c1.score()));
                 }
             }
         }
 
-        // 2. Weryfikacja legalności (tylko dla najlepszych, żeby oszczędzić CPU)
-        for (CandidateRecord bestCandidate : bestCandidates) {
-            board.copyBoard(sandboxBoard);
-            if (mechanics.IsMovePossible(sandboxBoard, bestCandidate.point().x,
-                    bestCandidate.point().y, color)) {
-                verifiedCandidates.add(bestCandidate);
-                if (verifiedCandidates.size() == bestCandidatesNumber) {
-                    break;
-                }
-            }
-        }
-
-        return verifiedCandidates;
+        // 3. Wybór najlepszych - sortowanie raz, po ocenie wszystkich pól
+        bestCandidates.sort((c1, c2) -> Double.compare(c2.score(), c1.score()));
+        return new ArrayList<>(bestCandidates.subList(0, Math.min(bestCandidatesNumber, bestCandidates.size())));
     }
 
     /**
@@ -125,18 +140,30 @@ public class SmartBotHeuristics {
      * <p>
      * Wzór: Suma (Wynik_Heurystyki * Waga_Heurystyki).
      *
-     * @param board plansza.
+     * @param state stan partii.
      * @param point badany punkt.
      * @param color kolor gracza.
      * @return sumaryczna ocena ruchu.
      */
-    private double calculatePointScore(Board board, Point point, Stone color) {
-        return (calculateCaptureScore(board, point, color) * captureScoreWeight +
+    private double calculatePointScore(GameState state, Point point, Stone color) {
+        Board board = state.getBoard();
+        return (calculateCaptureScore(state, point, color) * captureScoreWeight +
                 calculateLocationScore(board, point, color) * locationScoreWeight +
-                calculateGroupSafeScore(board, point, color) * groutSafeScoreWeight +
+                calculateGroupSafeScore(state, point, color) * groutSafeScoreWeight +
                 calculateShapeScore(board, point, color) * shapeScoreWeight +
                 calculateCutOpponentGroupScore(board, point, color) * cutOpponentScoreWeight +
-                calculateConnectOwnGroupScore(board, point, color) * connectOwnGroupScoreWeight);
+                calculateConnectOwnGroupScore(board, point, color) * connectOwnGroupScoreWeight +
+                calculateInfluenceScore(board, point) * influenceScoreWeight);
+    }
+
+    /**
+     * Ocenia pole według mapy wpływów (tania cecha globalna, aktualna dla całej planszy).
+     * Pola sporne (wpływ bliski zeru) dostają do 1 punktu, a pola głęboko w pewnym obszarze
+     * dowolnego gracza - do -1, bo ruch w nich niewiele zmienia w podziale planszy.
+     */
+    private double calculateInfluenceScore(Board board, Point point) {
+        int value = Math.abs(influence.getInfluence(board.getGeometry().index(point.x, point.y)));
+        return 1.0 - Math.min(value, 2 * InfluenceMap.THRESHOLD) / (double) InfluenceMap.THRESHOLD;
     }
 
     /**
@@ -145,8 +172,9 @@ public class SmartBotHeuristics {
      * Unika 1. linii (krawędzi), chyba że jest to konieczne.
      */
     private double calculateLocationScore(Board board, Point point, Stone color) {
-        int distance = Math.min(point.x, point.y);
-        if (distance > 10) distance = board.getSize() - distance;
+        // Odległość od najbliższej krawędzi (0 = 1. linia), niezależnie od rozmiaru planszy
+        int last = board.getSize() - 1;
+        int distance = Math.min(Math.min(point.x, point.y), Math.min(last - point.x, last - point.y));
 
         // Spłaszczamy środek planszy (wszystko >= 4 linia ma taką samą wartość jak 4 linia)
         // Dzięki temu bot woli 3 linię, a potem centrum.
@@ -157,46 +185,31 @@ public class SmartBotHeuristics {
 
     /**
      * Sprawdza, czy ruch prowadzi do zbicia kamieni przeciwnika.
-     * Symuluje ruch na {@code sandboxBoard} i sprawdza zmianę w liczniku jeńców.
+     * Wykonuje ruch, odczytuje zmianę w liczniku jeńców stanu i cofa ruch
+     * (cofnięcie przywraca również liczniki jeńców).
      */
-    private double calculateCaptureScore(Board board, Point point, Stone color) {
-        int score = 0;
-        board.copyBoard(sandboxBoard);
-
-        if (color == Stone.BLACK) {
-            score = mechanics.blackCaptures;
-            mechanics.CheckCaptures(sandboxBoard, point.x, point.y, color);
-            score = mechanics.blackCaptures - score;
-            // Cofamy zmiany w liczniku globalnym (bo to tylko symulacja)
-            mechanics.subtractFromBlackCaptures(score);
-        }
-        else if (color == Stone.WHITE) {
-            score = mechanics.whiteCaptures;
-            mechanics.CheckCaptures(sandboxBoard, point.x, point.y, color);
-            score = mechanics.whiteCaptures - score;
-            mechanics.subtractFromWhiteCaptures(score);
-        }
-        return score;
+    double calculateCaptureScore(GameState state, Point point, Stone color) {
+        int before = state.getCaptures(color);
+        if (!mechanics.makeMove(state, point.x, point.y, color)) return 0;
+
+        int after = state.getCaptures(color);
+        mechanics.undoMove(state);
+        return after - before;
     }
 
     /**
      * Ocenia bezpieczeństwo grupy, która powstanie po wykonaniu ruchu.
-     * Sprawdza liczbę oddechów (liberties).
+     * Sprawdza liczbę oddechów (liberties) po ruchu (z uwzględnieniem bicia).
+     * Ruch nielegalny (np. samobójstwo) traktowany jest jak grupa bez oddechów.
      * <p>
      * - Mało oddechów (1-2) -> Duża kara (ryzyko atari/śmierci).
      * - Dużo oddechów (>=4) -> Premia (stabilna grupa).
      */
-    private double calculateGroupSafeScore(Board board, Point point, Stone color) {
-        board.copyBoard(sandboxBoard);
+    double calculateGroupSafeScore(GameState state, Point point, Stone color) {
+        if (!mechanics.makeMove(state, point.x, point.y, color)) return groupLibertiesPoints[0];
 
-        sandboxBoard.setField(point.x, point.y, color);
-
-        Set<Point> groupLibertiesSandbox = new HashSet<>();
-        Set<Point> groupMembersSandbox = new HashSet<>();
-
-        mechanics.exploreGroup(sandboxBoard, point, color, groupMembersSandbox, groupLibertiesSandbox);
-
-        int liberties = groupLibertiesSandbox.size();
+        int liberties = state.getBoard().getChains().getLibertyCount(point.x, point.y);
+        mechanics.undoMove(state);
 
         if (liberties >= 4) liberties = 4;
 
@@ -214,50 +227,46 @@ public class SmartBotHeuristics {
      * <li>Potencjalne oko (Eye Shape) - Premia.</li>
      * </ul>
      */
-    private double calculateShapeScore(Board board, Point point, Stone color) {
+    double calculateShapeScore(Board board, Point point, Stone color) {
+        BoardGeometry geometry = board.getGeometry();
+        int index = geometry.index(point.x, point.y);
         int score = 0;
         int neighbourTeammates = 0;
         int emptyFieldNeighbors = 0;
 
         // Sprawdzanie sąsiadów do wykrywania "Pustego Trójkąta"
-        boolean up    = isMyStone(board, point.x, point.y - 1, color);
-        boolean down  = isMyStone(board, point.x, point.y + 1, color);
-        boolean left  = isMyStone(board, point.x - 1, point.y, color);
-        boolean right = isMyStone(board, point.x + 1, point.y, color);
+        // (sąsiad spoza planszy wskazuje na pole-strażnika, które nie jest kamieniem żadnego koloru)
+        boolean up    = board.fieldIs(geometry.neighbour(index, BoardGeometry.UP), color);
+        boolean down  = board.fieldIs(geometry.neighbour(index, BoardGeometry.DOWN), color);
+        boolean left  = board.fieldIs(geometry.neighbour(index, BoardGeometry.LEFT), color);
+        boolean right = board.fieldIs(geometry.neighbour(index, BoardGeometry.RIGHT), color);
 
         // Detekcja Pustego Trójkąta (Bad Shape)
         // Lewy-Górny róg
-        if (up && left && !isMyStone(board, point.x - 1, point.y - 1, color)) score += triangleShapePenalty;
+        if (up && left && !board.fieldIs(geometry.diagonal(index, BoardGeometry.UP_LEFT), color)) score += triangleShapePenalty;
         // Prawy-Górny róg
-        if (up && right && !isMyStone(board, point.x + 1, point.y - 1, color)) score += triangleShapePenalty;
+        if (up && right && !board.fieldIs(geometry.diagonal(index, BoardGeometry.UP_RIGHT), color)) score += triangleShapePenalty;
         // Lewy-Dolny róg
-        if (down && left && !isMyStone(board, point.x - 1, point.y + 1, color)) score += triangleShapePenalty;
+        if (down && left && !board.fieldIs(geometry.diagonal(index, BoardGeometry.DOWN_LEFT), color)) score += triangleShapePenalty;
         // Prawy-Dolny róg
-        if (down && right && !isMyStone(board, point.x + 1, point.y + 1, color)) score += triangleShapePenalty;
+        if (down && right && !board.fieldIs(geometry.diagonal(index, BoardGeometry.DOWN_RIGHT), color)) score += triangleShapePenalty;
 
         // Analiza sąsiadów (krzyż)
-        for (Direction d : Direction.values()) {
-            int newX = point.x + d.getDx();
-            int newY = point.y + d.getDy();
+        for (int d = 0; d < BoardGeometry.DIRECTIONS; d++) {
+            int neighbour = geometry.neighbour(index, d);
 
-            if (board.isFieldOnBoard(newX, newY)) {
-                if (board.getField(newX, newY) == color) {
-                    neighbourTeammates++;
-                }
-                else if (board.getField(newX, newY) == Stone.EMPTY) {
-                    emptyFieldNeighbors = 0;
-                    // Sprawdzamy "sąsiadów sąsiada" żeby wykryć oko/tygrysa
-                    for (Direction direction : Direction.values()) {
-                        int emptyFieldNeighbourX = newX + direction.getDx();
-                        int emptyFieldNeighbourY = newY + direction.getDy();
-
-                        if (board.isFieldOnBoard(emptyFieldNeighbourX, emptyFieldNeighbourY) &&
-                                board.getField(emptyFieldNeighbourX, emptyFieldNeighbourY) == color) emptyFieldNeighbors++;
-                    }
-
-                    if (emptyFieldNeighbors == 3) score += tigerBonus;
-                    if (emptyFieldNeighbors == 4) score += eyeShapeBonus;
+            if (board.fieldIs(neighbour, color)) {
+                neighbourTeammates++;
+            }
+            else if (board.fieldIs(neighbour, Stone.EMPTY)) {
+                emptyFieldNeighbors = 0;
+                // Sprawdzamy "sąsiadów sąsiada" żeby wykryć oko/tygrysa
+                for (int e = 0; e < BoardGeometry.DIRECTIONS; e++) {
+                    if (board.fieldIs(geometry.neighbour(neighbour, e), color)) emptyFieldNeighbors++;
                 }
+
+                if (emptyFieldNeighbors == 3) score += tigerBonus;
+                if (emptyFieldNeighbors == 4) score += eyeShapeBonus;
             }
         }
 
@@ -270,14 +279,14 @@ public class SmartBotHeuristics {
      * Premiuje ruchy, które "przyklejają się" do kamieni przeciwnika.
      * Jest to heurystyka agresywna, zachęcająca do walki w zwarciu i cięcia grup przeciwnika.
      */
-    private double calculateCutOpponentGroupScore(Board board, Point point, Stone color) {
+    double calculateCutOpponentGroupScore(Board board, Point point, Stone color) {
+        BoardGeometry geometry = board.getGeometry();
+        int index = geometry.index(point.x, point.y);
+        Stone opponent = color.opponent();
         int opponents = -1; // -1, żeby 0 sąsiadów dało wynik 0 (z Math.max)
 
-        for (Direction d : Direction.values()) {
-            int newX = point.x + d.getDx();
-            int newY = point.y + d.getDy();
-
-            if (board.isFieldOnBoard(newX, newY) && board.getField(newX, newY) == color.opponent()) opponents++;
+        for (int d = 0; d < BoardGeometry.DIRECTIONS; d++) {
+            if (board.fieldIs(geometry.neighbour(index, d), opponent)) opponents++;
         }
 
         return Math.max(0, opponents);
@@ -294,36 +303,25 @@ public class SmartBotHeuristics {
      * Jest to kluczowe zagranie strategiczne.</li>
      * </ol>
      */
-    private double calculateConnectOwnGroupScore(Board board, Point point, Stone color) {
+    double calculateConnectOwnGroupScore(Board board, Point point, Stone color) {
+        BoardGeometry geometry = board.getGeometry();
+        int index = geometry.index(point.x, point.y);
         int differentGroups = 0;
 
-        // Zbiór, żeby zapamiętać, które grupy już policzyliśmy (żeby nie liczyć tej samej 2 razy)
-        Set<Point> exploredFieldsSandbox = new HashSet<>();
-
-        // Dummy sety potrzebne tylko do wywołania exploreGroup
-        Set<Point> groupMembersSandbox = new HashSet<>();
-        Set<Point> groupLibertiesSandbox = new HashSet<>();
+        // Przebieg skanera pamięta, które grupy już policzyliśmy (żeby nie liczyć tej samej 2 razy)
+        GroupScanner scanner = scannerFor(board);
+        scanner.beginPass();
 
-        for (Direction d : Direction.values()) {
-            int newX = point.x + d.getDx();
-            int newY = point.y + d.getDy();
+        for (int d = 0; d < BoardGeometry.DIRECTIONS; d++) {
+            int neighbour = geometry.neighbour(index, d);
 
-            if (board.isFieldOnBoard(newX, newY)) {
-                Point newPoint = new Point(newX, newY);
+            // Jeśli to nasz kamień i jeszcze nie badaliśmy tej konkretnej grupy...
+            // (np. gdy dotykamy tej samej grupy z góry i z lewej)
+            if (board.fieldIs(neighbour, color) && !scanner.isVisited(neighbour)) {
+                differentGroups++;
 
-                // Jeśli to nasz kamień i jeszcze nie badaliśmy tej konkretnej grupy...
-                if (board.getField(newX, newY) == color && !exploredFieldsSandbox.contains(newPoint)) {
-                    differentGroups++;
-
-                    // Pobieramy całą grupę, żeby oznaczyć jej kamienie jako "zaliczone"
-                    groupMembersSandbox.clear();
-                    groupLibertiesSandbox.clear();
-                    mechanics.exploreGroup(board, newPoint, color, groupMembersSandbox, groupLibertiesSandbox);
-
-                    // Dodajemy całą grupę do "zbadanych", żeby pętla for nie policzyła jej znowu
-                    // (np. gdy dotykamy tej samej grupy z góry i z lewej)
-                    exploredFieldsSandbox.addAll(groupMembersSandbox);
-                }
+                // Przeszukanie oznacza całą grupę jako "zaliczoną"
+                scanner.scanGroup(board, neighbour);
             }
         }
 
@@ -339,19 +337,18 @@ public class SmartBotHeuristics {
 
         // 2+ grupy = Faktyczne łączenie (Connecting).
         // To jest bardzo ważny ruch strategiczny (np. łatanie dziury).
-        int index = Math.min(differentGroups, groupConnectionPoints.length - 1);
-        return groupConnectionPoints[index];
+        int connections = Math.min(differentGroups, groupConnectionPoints.length - 1);
+        return groupConnectionPoints[connections];
     }
 
     /**
-     * Metoda pomocnicza sprawdzająca, czy na danym polu stoi kamień własnego koloru.
-     * Obsługuje wyjścia poza tablicę (zwraca false).
+     * Zwraca skaner grup o rozmiarze zgodnym z planszą.
      */
-    private static boolean isMyStone(Board board, int x, int y, Stone color) {
-        if (!board.isFieldOnBoard(x, y)) {
-            return false;
+    private GroupScanner scannerFor(Board board) {
+        if (scanner == null || !scanner.supports(board)) {
+            scanner = new GroupScanner(board.getSize());
         }
-        return board.getField(x, y) == color;
+        return scanner;
     }
 
     // (Nieużywana metoda - Manhattan Distance)
@@ -5,7 +5,9 @@ import java.util.Scanner;
 import java.util.Set;
 
 import go.logic.Board;
+import go.logic.RuleSet;
 import go.logic.Stone;
+import go.si.BotDifficulty;
 
 /**
  * Implementacja interfejsu widoku gry (GameView) oparta na konsoli tekstowej (CLI).
@@ -36,6 +38,17 @@ public class ConsoleView implements GameView {
         // Brak implementacji w widoku tekstowym
     }
 
+    /**
+     * Metoda pusta w implementacji konsolowej.
+     * Nielegalny ruch wpisany w konsoli jest odrzucany przez klienta komunikatem tekstowym.
+     *
+     * @param points zbiór niedozwolonych pól (ignorowany).
+     */
+    @Override
+    public void markIllegalMoves(Set<Point> points) {
+        // Brak implementacji w widoku tekstowym
+    }
+
     /**
      * Metoda pusta w implementacji konsolowej.
      * W konsoli nie ma przycisków interfejsu, więc nie ma potrzeby ich ukrywania/pokazywania.
@@ -56,7 +69,7 @@ public class ConsoleView implements GameView {
      * <li>X - czarny kamień</li>
      * <li>O - biały kamień</li>
      * </ul>
-     * Wyświetla również współrzędne kolumn (A-S) i wierszy (1-19).
+     * Wyświetla również współrzędne kolumn (A, B, C...) i wierszy (1, 2, 3...) zgodnie z rozmiarem planszy.
      *
      * @param board aktualny stan planszy.
      */
@@ -64,7 +77,11 @@ public class ConsoleView implements GameView {
     public void showBoard(Board board) {
         int size = board.getSize();
 
-        System.out.println("  A B C D E F G H I J K L M N O P Q R S");
+        StringBuilder header = new StringBuilder("  ");
+        for (int x = 0; x < size; x++) {
+            header.append(' ').append((char) ('A' + x));
+        }
+        System.out.println(header);
 
         for (int y = 0; y < size; y++) {
             // Wyrównanie numerów wierszy (dodatkowa spacja dla jednocyfrowych)
@@ -139,4 +156,34 @@ public class ConsoleView implements GameView {
     public int askForGameMode() {
         return 0;
     }
+
+    /**
+     * W widoku tekstowym nie pytamy o zasady - używane są zasady domyślne.
+     *
+     * @return identyfikator {@link RuleSet#DEFAULT}.
+     */
+    @Override
+    public int askForRuleSet() {
+        return RuleSet.DEFAULT.getId();
+    }
+
+    /**
+     * W widoku tekstowym nie pytamy o rozmiar planszy - używany jest rozmiar domyślny.
+     *
+     * @return {@link Board#DEFAULT_SIZE}.
+     */
+    @Override
+    public int askForBoardSize() {
+        return Board.DEFAULT_SIZE;
+    }
+
+    /**
+     * W widoku tekstowym nie pytamy o poziom trudności - używany jest poziom domyślny.
+     *
+     * @return identyfikator {@link BotDifficulty#DEFAULT}.
+     */
+    @Override
+    public int askForDifficulty() {
+        return BotDifficulty.DEFAULT.getId();
+    }
 }
\ No newline at end of file
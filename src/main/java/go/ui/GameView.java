@@ -53,6 +53,15 @@ public interface GameView {
      */
     void highlightGroups(Set<Point> points);
 
+    /**
+     * Oznacza puste pola, na których gracz nie może postawić kamienia (samobójstwo, ko),
+     * zgodnie ze zbiorem legalnych ruchów otrzymanym od serwera.
+     * Pusty zbiór usuwa oznaczenia.
+     *
+     * @param points zbiór współrzędnych niedozwolonych pól.
+     */
+    void markIllegalMoves(Set<Point> points);
+
     /**
      * Przełącza tryb widoku między normalną rozgrywką a fazą negocjacji końcowej.
      * Powinno to skutkować zmianą widocznych przycisków (np. ukrycie "Pass", pokazanie "Done").
@@ -80,4 +89,25 @@ public interface GameView {
     void setAcceptButtonActive(boolean active);
 
     int askForGameMode();
+
+    /**
+     * Pyta użytkownika o zestaw zasad partii (liczenie punktów, superko).
+     *
+     * @return identyfikator wybranego zestawu ({@link go.logic.RuleSet#getId()}).
+     */
+    int askForRuleSet();
+
+    /**
+     * Pyta użytkownika o rozmiar planszy.
+     *
+     * @return rozmiar boku planszy (jeden z {@link go.logic.Board#supportedSizes()}).
+     */
+    int askForBoardSize();
+
+    /**
+     * Pyta użytkownika o poziom trudności bota (tylko w grze z botem).
+     *
+     * @return identyfikator wybranego poziomu ({@link go.si.BotDifficulty#getId()}).
+     */
+    int askForDifficulty();
 }
\ No newline at end of file
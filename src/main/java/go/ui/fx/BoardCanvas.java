@@ -17,8 +17,14 @@ import javafx.scene.paint.Color;
  */
 public class BoardCanvas extends Canvas {
 
-    /** Odległość w pikselach między liniami siatki. */
-    private final double cellSize = 35.0;
+    /** Największa odległość w pikselach między liniami siatki (plansza 19x19 i mniejsze). */
+    private static final double MAX_CELL_SIZE = 35.0;
+
+    /** Najmniejszy margines za ostatnią linią siatki (miejsce na połowę kamienia i cień). */
+    private static final double END_MARGIN = 20.0;
+
+    /** Odległość w pikselach między liniami siatki - dopasowywana do rozmiaru planszy przy rysowaniu. */
+    private double cellSize = MAX_CELL_SIZE;
 
     /** Margines (przesunięcie) od krawędzi płótna do pierwszej linii siatki. */
     private final double offset = 40.0;
@@ -26,6 +32,9 @@ public class BoardCanvas extends Canvas {
     /** Zbiór punktów, które mają zostać wyróżnione na planszy (np. jako martwe grupy). */
     private Set<Point> highlightedPoints = new HashSet<>();
 
+    /** Zbiór pustych pól, na których ruch jest niedozwolony (wyszarzane na planszy). */
+    private Set<Point> illegalPoints = new HashSet<>();
+
     /**
      * Aktualizuje zbiór punktów, które mają być wyróżnione na planszy (np. czerwonym krzyżykiem).
      * Uwaga: Ta metoda nie odświeża widoku automatycznie, należy wywołać {@link #draw(Board)}.
@@ -36,18 +45,32 @@ public class BoardCanvas extends Canvas {
         this.highlightedPoints = new HashSet<>(points);
     }
 
+    /**
+     * Aktualizuje zbiór pól, na których ruch jest niedozwolony (samobójstwo, ko).
+     * Uwaga: Ta metoda nie odświeża widoku automatycznie, należy wywołać {@link #draw(Board)}.
+     *
+     * @param points zbiór niedozwolonych pól.
+     */
+    public void setIllegalPoints(Set<Point> points) {
+        this.illegalPoints = new HashSet<>(points);
+    }
+
     /**
      * Główna metoda rysująca. Czyści płótno i rysuje kolejno:
      * 1. Tło planszy (kolor drewna).
-     * 2. Siatkę linii (19x19).
+     * 2. Siatkę linii (size x size).
      * 3. Kamienie (czarne i białe) na podstawie stanu obiektu Board.
-     * 4. Oznaczenia (krzyżyki) dla punktów w {@code highlightedPoints}.
+     * 4. Wyszarzenie niedozwolonych pustych pól z {@code illegalPoints}.
+     * 5. Oznaczenia (krzyżyki) dla punktów w {@code highlightedPoints}.
      *
      * @param board obiekt modelu planszy zawierający aktualny układ kamieni.
      */
     public void draw(Board board) {
         GraphicsContext gc = getGraphicsContext2D();
         int size = board.getSize();
+        // Większe plansze (np. 25x25) muszą zmieścić się na płótnie - zmniejszamy odstęp linii
+        double available = Math.min(getWidth(), getHeight()) - offset - END_MARGIN;
+        cellSize = size > 1 ? Math.min(MAX_CELL_SIZE, available / (size - 1)) : MAX_CELL_SIZE;
 
         // 1. TŁO
         gc.setFill(Color.web("#DEB887")); // Kolor przypominający drewno (Burlywood)
@@ -73,7 +96,16 @@ public class BoardCanvas extends Canvas {
             }
         }
 
-        // 4. ZAZNACZENIA (KRZYŻYKI)
+        // 4. NIEDOZWOLONE POLA (SZARE KÓŁKA)
+        gc.setFill(Color.rgb(128, 128, 128, 0.5));
+        for (Point p : illegalPoints) {
+            if (board.getField(p.x, p.y) == Stone.EMPTY) {
+                double r = cellSize * 0.2;
+                gc.fillOval(offset + p.x * cellSize - r, offset + p.y * cellSize - r, r * 2, r * 2);
+            }
+        }
+
+        // 5. ZAZNACZENIA (KRZYŻYKI)
         if (!highlightedPoints.isEmpty()) {
             gc.setStroke(Color.RED);
             gc.setLineWidth(3.0);
@@ -120,10 +152,10 @@ public class BoardCanvas extends Canvas {
 
     /**
      * Konwertuje współrzędną ekranową (piksele, np. z kliknięcia myszką) na indeks pola na planszy.
-     * Znajduje najbliższy punkt przecięcia linii siatki.
+     * Znajduje najbliższy punkt przecięcia linii siatki (według odstępu linii z ostatniego rysowania).
      *
      * @param pixel wartość współrzędnej w pikselach.
-     * @return indeks pola na siatce (0-18) odpowiadający kliknięciu.
+     * @return indeks pola na siatce (od 0 do rozmiaru planszy - 1) odpowiadający kliknięciu.
      */
     public int toBoardCoord(double pixel) {
         return (int) Math.round((pixel - offset) / cellSize);
@@ -9,6 +9,8 @@ import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import go.logic.Board;
+import go.logic.RuleSet;
+import go.si.BotDifficulty;
 import go.ui.GameView;
 import javafx.application.Platform;
 import javafx.scene.control.Alert;
@@ -59,6 +61,17 @@ public class GUIView implements GameView{
         Platform.runLater( ()-> canvas.setHighlightedPoints(points));
     }
 
+    /**
+     * Przekazuje do płótna (canvas) zbiór pól, na których ruch jest niedozwolony.
+     * Wywołanie jest opakowane w {@link Platform#runLater} dla bezpieczeństwa wątków.
+     *
+     * @param points zbiór niedozwolonych pól.
+     */
+    @Override
+    public void markIllegalMoves(Set<Point> points){
+        Platform.runLater( ()-> canvas.setIllegalPoints(points));
+    }
+
     /**
      * Przełącza widoczność przycisków w panelu bocznym w zależności od fazy gry.
      * W trybie negocjacji ukrywa przyciski "Pass/Surrender" a pokazuje "Done/Accept".
@@ -273,4 +286,80 @@ public class GUIView implements GameView{
             return 1;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Wyświetla okno wyboru zestawu zasad. Zamknięcie okna oznacza zasady domyślne.
+     *
+     * @return identyfikator wybranego zestawu zasad.
+     */
+    @Override
+    public int askForRuleSet() {
+        FutureTask<Integer> query = new FutureTask<>(() -> {
+            ChoiceDialog<RuleSet> dialog = new ChoiceDialog<>(RuleSet.DEFAULT, RuleSet.values());
+            dialog.setTitle("Wybór zasad");
+            dialog.setHeaderText("Zasady liczenia punktów i superko");
+            dialog.setContentText("Wybierz zasady:");
+
+            Optional<RuleSet> result = dialog.showAndWait();
+            return result.orElse(RuleSet.DEFAULT).getId();
+        });
+        Platform.runLater(query);
+        try {
+            return query.get();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return RuleSet.DEFAULT.getId();
+        }
+    }
+
+    /**
+     * Wyświetla okno wyboru rozmiaru planszy i czeka na decyzję użytkownika.
+     *
+     * @return wybrany rozmiar (domyślny, jeśli okno zamknięto).
+     */
+    @Override
+    public int askForBoardSize() {
+        FutureTask<Integer> query = new FutureTask<>(() -> {
+            List<Integer> sizes = Arrays.stream(Board.supportedSizes()).boxed().toList();
+            ChoiceDialog<Integer> dialog = new ChoiceDialog<>(Board.DEFAULT_SIZE, sizes);
+            dialog.setTitle("Wybór planszy");
+            dialog.setHeaderText("Rozmiar planszy");
+            dialog.setContentText("Wybierz rozmiar:");
+
+            Optional<Integer> result = dialog.showAndWait();
+            return result.orElse(Board.DEFAULT_SIZE);
+        });
+        Platform.runLater(query);
+        try {
+            return query.get();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Board.DEFAULT_SIZE;
+        }
+    }
+
+    /**
+     * Wyświetla okno wyboru poziomu trudności bota. Zamknięcie okna oznacza poziom domyślny.
+     *
+     * @return identyfikator wybranego poziomu.
+     */
+    @Override
+    public int askForDifficulty() {
+        FutureTask<Integer> query = new FutureTask<>(() -> {
+            ChoiceDialog<BotDifficulty> dialog = new ChoiceDialog<>(BotDifficulty.DEFAULT, BotDifficulty.values());
+            dialog.setTitle("Poziom trudności");
+            dialog.setHeaderText("Czas namysłu i siła bota");
+            dialog.setContentText("Wybierz poziom:");
+
+            Optional<BotDifficulty> result = dialog.showAndWait();
+            return result.orElse(BotDifficulty.DEFAULT).getId();
+        });
+        Platform.runLater(query);
+        try {
+            return query.get();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return BotDifficulty.DEFAULT.getId();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 
 import go.client.GameRecordDTO;
 import go.client.NetworkConnection;
+import go.logic.RuleSet;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -53,7 +54,8 @@ public class GameListWindow {
         playBtn.setOnAction(e -> {
             GameRecordDTO selected = table.getSelectionModel().getSelectedItem();
             if (selected != null) {
-                new ReplayController(selected.getMovesHistory(), "Gra #" + selected.getId());
+                new ReplayController(selected.getMovesHistory(), selected.getBoardSize(),
+                        RuleSet.forName(selected.getRuleSet()), "Gra #" + selected.getId());
             }
         });
         loadData(table);
@@ -1,6 +1,7 @@
 package go.ui.fx;
 
 import go.client.ReplayManager;
+import go.logic.RuleSet;
 import javafx.scene.Scene;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
@@ -12,8 +13,8 @@ public class ReplayController {
     private final BoardCanvas canvas;
     private final SidePanel sidePanel;
 
-    public ReplayController(String movesHistory, String gameTitle) {
-        this.replayManager = new ReplayManager(movesHistory);
+    public ReplayController(String movesHistory, int boardSize, RuleSet rules, String gameTitle) {
+        this.replayManager = new ReplayManager(movesHistory, boardSize, rules);
         
         this.stage = new Stage();
         this.canvas = new BoardCanvas();
@@ -46,6 +47,8 @@ public class ReplayController {
             if (replayManager.next()) {
                 updateView();
                 sidePanel.addLog("Ruch " + replayManager.getCurrentMoveIndex() + "/" + replayManager.getTotalMoves());
+            } else if (replayManager.isCorrupt()) {
+                sidePanel.addLog("Uszkodzony zapis partii: " + replayManager.getCorruption());
             } else {
                 sidePanel.addLog("Koniec nagrania.");
             }
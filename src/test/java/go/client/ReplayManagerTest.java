@@ -0,0 +1,46 @@
+package go.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import go.logic.RuleSet;
+import go.logic.Stone;
+import org.junit.jupiter.api.Test;
+
+class ReplayManagerTest {
+
+    /** Partia 2x2, której ostatni ruch odtwarza wcześniejszą pozycję - z białym na ruchu pierwotnie, z czarnym teraz. */
+    private static final String SITUATIONAL_REPEAT = "B[A1];W[B1];B[A2];W[B2];B[A1];W[PASS];B[A2];W[B1];";
+
+    // Test zasad partii - odbicie dozwolone przy superko sytuacyjnym (AGA) jest odtwarzane, a nie pomijane
+    @Test
+    void replaysWithStoredRuleSet() {
+        ReplayManager replay = new ReplayManager(SITUATIONAL_REPEAT, 2, RuleSet.forName("AGA"));
+
+        replay.jumpToEnd();
+
+        assertFalse(replay.isCorrupt());
+        assertEquals(8, replay.getCurrentMoveIndex());
+        assertEquals(Stone.WHITE, replay.getBoard().getField(1, 0));
+    }
+
+    // Test uszkodzonego zapisu - odtwarzanie zatrzymuje się przed nielegalnym ruchem i zgłasza go
+    @Test
+    void stopsAtIllegalMoveInsteadOfSkippingIt() {
+        ReplayManager replay = new ReplayManager(SITUATIONAL_REPEAT, 2, RuleSet.CHINESE);
+
+        replay.jumpToEnd();
+
+        assertTrue(replay.isCorrupt());
+        assertEquals(7, replay.getCurrentMoveIndex());
+        assertTrue(replay.getCorruption().contains("W[B1]"), replay.getCorruption());
+        assertFalse(replay.next());
+
+        // Cofnięcie i ponowne dojście do uszkodzonego ruchu daje tę samą pozycję
+        assertTrue(replay.previous());
+        assertTrue(replay.next());
+        assertFalse(replay.next());
+        assertEquals(7, replay.getCurrentMoveIndex());
+    }
+}
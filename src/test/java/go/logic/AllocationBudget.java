@@ -0,0 +1,77 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Pomiar pamięci alokowanej przez wątek na jedno wywołanie operacji
+ * ({@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes}).
+ * <p>
+ * Operacja jest najpierw rozgrzewana (kompilacja JIT, zapełnienie buforów tworzonych przy pierwszym
+ * użyciu) - {@link #WARMUP_FACTOR} razy więcej wywołań niż w pomiarze - a następnie wykonywana zadaną
+ * liczbę razy; wynik to średnia liczba bajtów na wywołanie.
+ * Licznik JVM jest dokładny co do bajta, ale obejmuje wszystko, co zaalokował wątek - dlatego
+ * pomiar dotyczy wielu wywołań, a limity w testach mają mały zapas.
+ * Na maszynach wirtualnych bez tego licznika testy są pomijane, a nie oblewane.
+ */
+final class AllocationBudget {
+
+    /** Ile razy więcej wywołań ma rozgrzewka niż pomiar. */
+    static final int WARMUP_FACTOR = 4;
+
+    /** Operacja mierzona - może zgłaszać wyjątki kontrolowane (np. strumienie). */
+    @FunctionalInterface
+    interface Operation {
+        void run() throws Exception;
+    }
+
+    private AllocationBudget() {
+    }
+
+    /**
+     * Mierzy średnią liczbę bajtów alokowanych przez bieżący wątek w jednym wywołaniu operacji.
+     *
+     * @param calls liczba mierzonych wywołań.
+     * @param operation mierzona operacja (po każdym wywołaniu stan musi pozwalać na kolejne).
+     * @return bajty na wywołanie.
+     */
+    static double bytesPerCall(int calls, Operation operation) throws Exception {
+        com.sun.management.ThreadMXBean threads = threads();
+        for (int i = 0; i < WARMUP_FACTOR * calls; i++) {
+            operation.run();
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < calls; i++) {
+            operation.run();
+        }
+        long after = threads.getCurrentThreadAllocatedBytes();
+        return (double) (after - before) / calls;
+    }
+
+    /**
+     * Sprawdza, że operacja po rozgrzewce alokuje średnio co najwyżej {@code budget} bajtów na wywołanie.
+     *
+     * @param name nazwa operacji w komunikacie błędu.
+     * @param budget dopuszczalna liczba bajtów na wywołanie (0 - operacja bez alokacji).
+     * @param calls liczba mierzonych wywołań.
+     * @param operation mierzona operacja.
+     */
+    static void assertWithin(String name, long budget, int calls, Operation operation) throws Exception {
+        double bytes = bytesPerCall(calls, operation);
+        // Pomiar w pętli sam nie alokuje - 1 bajt na wywołanie to margines na pojedyncze alokacje JVM w tle
+        assertTrue(bytes <= budget + 1, name + ": " + bytes + " B/wywolanie, limit " + budget + " B");
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "Brak licznika alokacji watku w tej JVM");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Brak licznika alokacji watku w tej JVM");
+        if (!threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        return threads;
+    }
+}
@@ -0,0 +1,131 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class BoardGeometryTest {
+
+    private static boolean contains(BoardGeometry geometry, long[] mask, int x, int y) {
+        int index = geometry.index(x, y);
+        return (mask[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void add(BoardGeometry geometry, long[] mask, int x, int y) {
+        int index = geometry.index(x, y);
+        mask[index >>> 6] |= 1L << index;
+    }
+
+    // Test czy geometria jest współdzielona przez plansze tego samego rozmiaru
+    @Test
+    void geometryIsSharedForTheSameSize() {
+        assertSame(BoardGeometry.forSize(19), new Board(19).getGeometry());
+        assertEquals(6, BoardGeometry.forSize(19).getWords());
+        assertEquals(361, BoardGeometry.forSize(19).getPoints());
+    }
+
+    // Test czy dylatacja pola na krawędzi nie "zawija się" do sąsiedniego wiersza
+    @Test
+    void dilateDoesNotWrapAroundRows() {
+        BoardGeometry geometry = BoardGeometry.forSize(19);
+        long[] src = geometry.newMask();
+        long[] dst = geometry.newMask();
+        add(geometry, src, 18, 5);
+
+        geometry.dilate(src, dst);
+
+        assertEquals(4, BoardGeometry.count(dst));
+        assertTrue(contains(geometry, dst, 18, 5));
+        assertTrue(contains(geometry, dst, 17, 5));
+        assertTrue(contains(geometry, dst, 18, 4));
+        assertTrue(contains(geometry, dst, 18, 6));
+        assertFalse(contains(geometry, dst, 0, 6));
+    }
+
+    // Test czy dylatacja przechodzi poprawnie przez granicę słów 64-bitowych
+    @Test
+    void dilateCrossesWordBoundaries() {
+        BoardGeometry geometry = BoardGeometry.forSize(19);
+        long[] src = geometry.newMask();
+        long[] dst = geometry.newMask();
+        add(geometry, src, 7, 3); // indeks 64 - pierwszy bit drugiego słowa
+
+        geometry.dilate(src, dst);
+
+        assertEquals(5, BoardGeometry.count(dst));
+        assertTrue(contains(geometry, dst, 6, 3));
+        assertTrue(contains(geometry, dst, 8, 3));
+        assertTrue(contains(geometry, dst, 7, 2));
+        assertTrue(contains(geometry, dst, 7, 4));
+    }
+
+    // Test czy flood fill znajduje całą grupę i tylko ją
+    @Test
+    void floodFillFindsConnectedGroupOnly() {
+        Board board = new Board(5);
+        board.setField(0, 0, Stone.BLACK);
+        board.setField(1, 0, Stone.BLACK);
+        board.setField(1, 1, Stone.BLACK);
+        board.setField(3, 3, Stone.BLACK);
+
+        BoardGeometry geometry = board.getGeometry();
+        long[] seed = geometry.newMask();
+        long[] group = geometry.newMask();
+        long[] scratch = geometry.newMask();
+        add(geometry, seed, 0, 0);
+
+        geometry.floodFill(seed, board.stones(Stone.BLACK), group, scratch);
+
+        assertEquals(3, BoardGeometry.count(group));
+        assertFalse(contains(geometry, group, 3, 3));
+    }
+
+    // Test liczenia oddechów grupy za pomocą operacji bitowych
+    @Test
+    void emptyNeighboursAreGroupLiberties() {
+        Board board = new Board(5);
+        board.setField(0, 0, Stone.BLACK);
+        board.setField(1, 0, Stone.WHITE);
+
+        BoardGeometry geometry = board.getGeometry();
+        long[] group = geometry.newMask();
+        long[] liberties = geometry.newMask();
+        add(geometry, group, 0, 0);
+
+        geometry.emptyNeighbours(group, board.stones(Stone.BLACK), board.stones(Stone.WHITE), liberties);
+
+        assertEquals(1, BoardGeometry.count(liberties));
+        assertTrue(contains(geometry, liberties, 0, 1));
+    }
+
+    // Test tablic sąsiadów - zgodność z Direction i pole-strażnik na krawędziach
+    @Test
+    void neighbourTablesMatchDirectionsAndUseSentinelOffBoard() {
+        for (int size : new int[]{1, 9, 13, 19}) {
+            BoardGeometry geometry = BoardGeometry.forSize(size);
+            Board board = new Board(size);
+            int offBoard = geometry.getOffBoard();
+            for (int index = 0; index < geometry.getPoints(); index++) {
+                int x = geometry.xOf(index);
+                int y = geometry.yOf(index);
+                Direction[] directions = Direction.values();
+                for (int d = 0; d < BoardGeometry.DIRECTIONS; d++) {
+                    int nx = x + directions[d].getDx();
+                    int ny = y + directions[d].getDy();
+                    int expected = board.isFieldOnBoard(nx, ny) ? geometry.index(nx, ny) : offBoard;
+                    assertEquals(expected, geometry.neighbour(index, d));
+                }
+                int upLeft = geometry.diagonal(index, BoardGeometry.UP_LEFT);
+                assertEquals(board.isFieldOnBoard(x - 1, y - 1) ? geometry.index(x - 1, y - 1) : offBoard, upLeft);
+                int downRight = geometry.diagonal(index, BoardGeometry.DOWN_RIGHT);
+                assertEquals(board.isFieldOnBoard(x + 1, y + 1) ? geometry.index(x + 1, y + 1) : offBoard, downRight);
+            }
+            // Pole-strażnik nie jest ani kamieniem, ani pustym polem
+            for (Stone stone : Stone.values()) {
+                assertFalse(board.fieldIs(offBoard, stone));
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+class BoardSymmetryTest {
+
+    /** Niesymetryczna pozycja na planszy 9x9. */
+    private static Board samplePosition() {
+        Board board = new Board(9);
+        board.setField(2, 2, Stone.BLACK);
+        board.setField(3, 2, Stone.BLACK);
+        board.setField(6, 1, Stone.WHITE);
+        board.setField(5, 7, Stone.WHITE);
+        board.setField(0, 4, Stone.BLACK);
+        return board;
+    }
+
+    // Test odwzorowania pól - przekształcenie odwrotne wraca do pola wyjściowego
+    @Test
+    void restoreInvertsTransform() {
+        BoardSymmetry symmetry = BoardSymmetry.forSize(7);
+        for (int s = 0; s < BoardSymmetry.COUNT; s++) {
+            for (int index = 0; index < 49; index++) {
+                assertEquals(index, symmetry.restore(s, symmetry.transform(s, index)));
+            }
+        }
+        assertEquals(6, symmetry.transform(BoardSymmetry.ROTATE_90, 0, 0));
+        assertEquals(6 * 7, symmetry.transform(BoardSymmetry.TRANSPOSE, 6, 0));
+    }
+
+    // Test klucza kanonicznego - wszystkie 8 symetrycznych pozycji ma ten sam klucz i tę samą postać kanoniczną
+    @Test
+    void symmetricPositionsShareCanonicalKey() {
+        Board board = samplePosition();
+        BoardSymmetry symmetry = BoardSymmetry.forSize(9);
+        long canonical = symmetry.canonicalKey(board);
+        Board canonicalForm = symmetry.canonicalForm(board);
+        assertEquals(canonical, canonicalForm.getZobristKey());
+
+        for (int s = 0; s < BoardSymmetry.COUNT; s++) {
+            Board transformed = new Board(9);
+            symmetry.transform(board, s, transformed);
+            assertEquals(symmetry.key(board, s), transformed.getZobristKey());
+            assertEquals(canonical, symmetry.canonicalKey(transformed));
+            assertEquals(canonicalForm, symmetry.canonicalForm(transformed));
+        }
+
+        board.setField(8, 8, Stone.WHITE);
+        assertNotEquals(canonical, symmetry.canonicalKey(board));
+    }
+
+    // Test przekształcania zbioru pól - ruch w postaci kanonicznej wraca na właściwe pole oryginału
+    @Test
+    void transformedMaskMatchesTransformedBoard() {
+        Board board = samplePosition();
+        BoardSymmetry symmetry = BoardSymmetry.forSize(9);
+        int s = symmetry.canonicalSymmetry(board);
+        Board canonicalForm = new Board(9);
+        symmetry.transform(board, s, canonicalForm);
+
+        long[] mask = board.getGeometry().newMask();
+        symmetry.transform(board.stones(Stone.BLACK), s, mask);
+        assertArrayEquals(canonicalForm.stones(Stone.BLACK), mask);
+
+        int original = board.getGeometry().index(6, 1);
+        int canonicalIndex = symmetry.transform(s, original);
+        assertEquals(Stone.WHITE, canonicalForm.stoneAt(canonicalIndex));
+        assertEquals(original, symmetry.restore(s, canonicalIndex));
+    }
+}
@@ -98,4 +98,75 @@ class BoardTest {
         board.setField(2, 2, Stone.WHITE);
         assertEquals(Stone.WHITE, board.getField(2, 2));
     }
+
+// Test czy równe plansze mają równy kod skrótu, a kopia jest równa oryginałowi
+    @Test
+    void copiedBoardIsEqualAndHasSameHashCode() {
+        Board source = new Board(19);
+        Board destination = new Board(19);
+
+        source.setField(0, 0, Stone.BLACK);
+        source.setField(18, 18, Stone.WHITE);
+        source.setField(7, 3, Stone.BLACK);
+        destination.setField(5, 5, Stone.WHITE);
+
+        source.copyBoard(destination);
+
+        assertTrue(source.equals(destination));
+        assertEquals(source.hashCode(), destination.hashCode());
+        assertEquals(Stone.EMPTY, destination.getField(5, 5));
+    }
+// Test kopiowania między planszami o różnych rozmiarach (kopiowany jest wspólny fragment)
+    @Test
+    void copyBoardBetweenDifferentSizesCopiesCommonPart() {
+        Board source = new Board(5);
+        Board destination = new Board(3);
+
+        source.setField(2, 2, Stone.BLACK);
+        source.setField(4, 4, Stone.WHITE);
+
+        source.copyBoard(destination);
+
+        assertEquals(Stone.BLACK, destination.getField(2, 2));
+        assertEquals(Stone.EMPTY, destination.getField(0, 0));
+    }
+// Test przyrostowej aktualizacji klucza Zobrista
+    @Test
+    void zobristKeyIsUpdatedIncrementally() {
+        Board board = new Board(9);
+        assertEquals(0L, board.getZobristKey());
+
+        board.setField(3, 3, Stone.BLACK);
+        long afterBlack = board.getZobristKey();
+        assertTrue(afterBlack != 0L);
+
+        board.setField(3, 3, Stone.WHITE);
+        assertTrue(board.getZobristKey() != afterBlack);
+
+        board.setField(3, 3, Stone.EMPTY);
+        assertEquals(0L, board.getZobristKey());
+    }
+// Test czy klucz nie zależy od kolejności stawiania kamieni
+    @Test
+    void zobristKeyDependsOnlyOnPosition() {
+        Board first = new Board(9);
+        Board second = new Board(9);
+
+        first.setField(1, 1, Stone.BLACK);
+        first.setField(2, 2, Stone.WHITE);
+        second.setField(2, 2, Stone.WHITE);
+        second.setField(1, 1, Stone.BLACK);
+
+        assertEquals(first.getZobristKey(), second.getZobristKey());
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+// Test czy nie da się utworzyć planszy o nieobsługiwanym rozmiarze
+    @Test
+    void unsupportedBoardSizeThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new Board(0));
+        assertThrows(IllegalArgumentException.class, () -> new Board(Board.MAX_SIZE + 1));
+        assertFalse(Board.isSupportedSize(Board.MAX_SIZE + 1));
+        assertTrue(Board.isSupportedSize(25));
+        assertEquals(25, new Board(25).getSize());
+    }
 }
@@ -0,0 +1,103 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class ChainTrackerTest {
+
+    // Test liczenia oddechów i rozmiaru łańcucha
+    @Test
+    void libertiesAndSizeOfSimpleChain() {
+        Board board = new Board(5);
+        board.setField(0, 0, Stone.BLACK);
+        board.setField(1, 0, Stone.BLACK);
+        board.setField(0, 1, Stone.WHITE);
+
+        ChainTracker chains = board.getChains();
+
+        assertEquals(2, chains.getChainSize(0, 0));
+        assertEquals(2, chains.getLibertyCount(1, 0));
+        assertTrue(chains.isSameChain(0, 0, 1, 0));
+        assertFalse(chains.isSameChain(0, 0, 0, 1));
+        assertFalse(chains.isInAtari(0, 1));
+        assertEquals(0, chains.getLibertyCount(4, 4));
+    }
+
+    // Test łączenia łańcuchów przy postawieniu kamienia przez mechanikę gry
+    @Test
+    void movesMergeChainsIncrementally() {
+        Board board = new Board(5);
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
+
+        assertTrue(mechanics.IsMovePossible(state, 1, 1, Stone.BLACK));
+        assertTrue(mechanics.IsMovePossible(state, 4, 4, Stone.WHITE));
+        assertTrue(mechanics.IsMovePossible(state, 3, 1, Stone.BLACK));
+        assertFalse(board.getChains().isSameChain(1, 1, 3, 1));
+
+        assertTrue(mechanics.IsMovePossible(state, 2, 1, Stone.BLACK));
+
+        assertTrue(board.getChains().isSameChain(1, 1, 3, 1));
+        assertEquals(3, board.getChains().getChainSize(1, 1));
+        assertEquals(8, board.getChains().getLibertyCount(2, 1));
+    }
+
+    // Test wykrywania atari
+    @Test
+    void detectsAtari() {
+        Board board = new Board(5);
+        board.setField(0, 0, Stone.WHITE);
+        board.setField(1, 0, Stone.BLACK);
+
+        assertTrue(board.getChains().isInAtari(0, 0));
+    }
+
+    // Test zgodności struktury przyrostowej z pełnym przeliczeniem na losowych partiach
+    @Test
+    void incrementalChainsMatchFullRecomputation() {
+        SplittableRandom random = new SplittableRandom(2024);
+        GameMechanics mechanics = new GameMechanics();
+
+        for (int game = 0; game < 20; game++) {
+            Board board = new Board(9);
+            GameState state = new GameState(board);
+            Stone color = Stone.BLACK;
+            for (int move = 0; move < 150; move++) {
+                Stone next = TestPositions.play(mechanics, state, random, 1, color);
+                if (next != color) {
+                    color = next;
+                    assertChainsMatchBreadthFirstSearch(board, mechanics);
+                }
+            }
+        }
+    }
+
+    /**
+     * Porównuje liczbę oddechów i rozmiary łańcuchów z wynikiem przeszukiwania BFS.
+     */
+    private static void assertChainsMatchBreadthFirstSearch(Board board, GameMechanics mechanics) {
+        ChainTracker chains = board.getChains();
+        for (int x = 0; x < board.getSize(); x++) {
+            for (int y = 0; y < board.getSize(); y++) {
+                Stone stone = board.getField(x, y);
+                if (stone == Stone.EMPTY) continue;
+
+                Set<Point> group = new HashSet<>();
+                Set<Point> liberties = new HashSet<>();
+                mechanics.exploreGroup(board, new Point(x, y), stone, group, liberties);
+
+                assertTrue(liberties.size() > 0, "Na planszy nie może zostać łańcuch bez oddechów");
+                assertEquals(liberties.size(), chains.getLibertyCount(x, y));
+                assertEquals(group.size(), chains.getChainSize(x, y));
+            }
+        }
+    }
+}
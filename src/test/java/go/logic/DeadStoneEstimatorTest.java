@@ -0,0 +1,77 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DeadStoneEstimatorTest {
+
+    /** Czarna ściana w kolumnie 1 i kamień (0, 2) dzielący lewą kolumnę na dwa oczy. */
+    private static Board twoEyedWall() {
+        Board board = new Board(5);
+        for (int y = 0; y < 5; y++) {
+            board.setField(1, y, Stone.BLACK);
+        }
+        board.setField(0, 2, Stone.BLACK);
+        return board;
+    }
+
+    /** Czarna ściana w kolumnie 2, biała w kolumnie 4 i po jednym kamieniu w terytorium przeciwnika. */
+    private static Board wallsWithInvaders() {
+        Board board = new Board(7);
+        for (int y = 0; y < 7; y++) {
+            board.setField(2, y, Stone.BLACK);
+            board.setField(4, y, Stone.WHITE);
+        }
+        board.setField(6, 3, Stone.BLACK);
+        board.setField(0, 3, Stone.WHITE);
+        return board;
+    }
+
+    // Test algorytmu Bensona - grupa z dwoma oczami jest bezwarunkowo żywa, z jednym nie
+    @Test
+    void bensonRequiresTwoVitalRegions() {
+        DeadStoneEstimator estimator = new DeadStoneEstimator(5);
+        Board board = twoEyedWall();
+
+        long[] alive = estimator.unconditionallyAlive(board, Stone.BLACK);
+        assertEquals(6, BoardGeometry.count(alive));
+
+        board.setField(0, 2, Stone.EMPTY);
+        assertTrue(BoardGeometry.isEmpty(estimator.unconditionallyAlive(board, Stone.BLACK)));
+    }
+
+    // Test szacowania martwych kamieni - zdejmowane są tylko kamienie w terytorium przeciwnika
+    @Test
+    void estimateFindsInvadersInsideTerritory() {
+        DeadStoneEstimator estimator = new DeadStoneEstimator(7);
+        Board board = wallsWithInvaders();
+        Board before = new Board(7);
+        board.copyBoard(before);
+
+        ArrayList<Point> dead = estimator.toPoints(estimator.estimateDeadStones(board));
+
+        assertEquals(2, dead.size());
+        assertTrue(dead.contains(new Point(6, 3)));
+        assertTrue(dead.contains(new Point(0, 3)));
+        assertEquals(before, board);
+    }
+
+    // Test sprawdzania propozycji - nie wolno uśmiercić kamieni bezwarunkowo żywych ani pustych pól
+    @Test
+    void plausibleProposalMustNotKillUnconditionalLife() {
+        DeadStoneEstimator estimator = new DeadStoneEstimator(5);
+        Board board = twoEyedWall();
+        board.setField(3, 3, Stone.WHITE);
+
+        assertTrue(estimator.isPlausible(board, List.of(new Point(3, 3))));
+        assertFalse(estimator.isPlausible(board, List.of(new Point(1, 1))));
+        assertFalse(estimator.isPlausible(board, List.of(new Point(4, 4))));
+    }
+}
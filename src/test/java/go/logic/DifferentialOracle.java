@@ -0,0 +1,274 @@
+package go.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Wyrocznia różnicowa dla silników zasad: rozgrywa losowe partie jednocześnie na silniku
+ * wzorcowym (np. naiwnym {@link NaiveGameMechanics}) i na silniku kandydującym (np. zoptymalizowanej podklasie)
+ * i po każdym kroku porównuje wynik ruchu, planszę, klucz Zobrista, liczniki jeńców
+ * oraz zbiór legalnych ruchów gracza na ruchu.
+ * <p>
+ * Partia to ciąg prób: indeks pola (ruch bieżącego gracza, legalny lub nie) albo {@link #UNDO}.
+ * Gracz zmienia się tylko po wykonanym ruchu, więc losowe próby obejmują samobójstwa,
+ * ko i bicia wielu grup naraz. Znaleziona rozbieżność jest zmniejszana ({@link #shrink})
+ * do krótkiego ciągu prób, który wciąż ją odtwarza.
+ * <p>
+ * Uruchamiana ręcznie metodą {@link #main} (miliony partii, z pomiarem partii na sekundę
+ * dla obu silników); testy używają jej na mniejszej liczbie partii.
+ */
+final class DifferentialOracle {
+
+    /** Próba oznaczająca cofnięcie ostatniego ruchu. */
+    static final int UNDO = -1;
+
+    /** Co ile prób (średnio) losowane jest cofnięcie. */
+    private static final int UNDO_RATE = 16;
+
+    /** Liczba partii w jednej porcji pomiaru przepustowości. */
+    private static final int BATCH = 10_000;
+
+    private final GameMechanics reference;
+    private final GameMechanics candidate;
+    private final int size;
+
+    /**
+     * @param reference silnik wzorcowy.
+     * @param candidate silnik porównywany z wzorcowym.
+     * @param size rozmiar planszy rozgrywanych partii.
+     */
+    DifferentialOracle(GameMechanics reference, GameMechanics candidate, int size) {
+        this.reference = reference;
+        this.candidate = candidate;
+        this.size = size;
+    }
+
+    /**
+     * Rozbieżność silników.
+     *
+     * @param step numer próby (od 0), po której stany się różnią.
+     * @param description opis różnicy.
+     */
+    record Mismatch(int step, String description) {
+    }
+
+    /**
+     * Losuje ciąg prób jednej partii: {@code 3 * size * size} prób, z czego co {@link #UNDO_RATE}-ta
+     * (średnio) to cofnięcie.
+     *
+     * @param seed ziarno partii - ta sama wartość daje ten sam ciąg.
+     * @return ciąg prób.
+     */
+    int[] randomGame(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int points = size * size;
+        int[] moves = new int[3 * points];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = random.nextInt(UNDO_RATE) == 0 ? UNDO : random.nextInt(points);
+        }
+        return moves;
+    }
+
+    /**
+     * Rozgrywa ciąg prób na obu silnikach naraz i porównuje stany po każdej próbie.
+     *
+     * @param moves ciąg prób.
+     * @return pierwsza rozbieżność lub {@code null}, jeśli silniki są zgodne.
+     */
+    Mismatch compare(int[] moves) {
+        GameState expected = new GameState(size);
+        GameState actual = new GameState(size);
+        BoardGeometry geometry = expected.getBoard().getGeometry();
+        long[] expectedLegal = geometry.newMask();
+        long[] actualLegal = geometry.newMask();
+        Stone color = Stone.BLACK;
+
+        for (int step = 0; step < moves.length; step++) {
+            int move = moves[step];
+            if (move == UNDO) {
+                if (!expected.canUndo()) continue;
+                if (!actual.canUndo()) return new Mismatch(step, "kandydat nie ma ruchu do cofniecia");
+                reference.undoMove(expected);
+                candidate.undoMove(actual);
+                color = color.opponent();
+            } else {
+                int x = geometry.xOf(move);
+                int y = geometry.yOf(move);
+                boolean expectedMoved = reference.makeMove(expected, x, y, color);
+                boolean actualMoved = candidate.makeMove(actual, x, y, color);
+                if (expectedMoved != actualMoved) {
+                    return new Mismatch(step, color + " (" + x + "," + y + "): wzorzec "
+                            + (expectedMoved ? "wykonal" : "odrzucil") + " ruch, kandydat "
+                            + (actualMoved ? "wykonal" : "odrzucil"));
+                }
+                if (expectedMoved) color = color.opponent();
+            }
+
+            Mismatch mismatch = compareStates(step, expected, actual);
+            if (mismatch != null) return mismatch;
+
+            reference.legalMoves(expected, color, expectedLegal);
+            candidate.legalMoves(actual, color, actualLegal);
+            if (!Arrays.equals(expectedLegal, actualLegal)) {
+                return new Mismatch(step, "rozne zbiory legalnych ruchow gracza " + color);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Zmniejsza ciąg prób z rozbieżnością: obcina go za pierwszą rozbieżnością, a następnie
+     * usuwa pojedyncze próby (i ich coraz mniejsze bloki), dopóki rozbieżność wciąż występuje.
+     *
+     * @param moves ciąg prób, dla którego {@link #compare} zwraca rozbieżność.
+     * @return możliwie krótki ciąg prób odtwarzający rozbieżność.
+     * @throws IllegalArgumentException jeśli ciąg nie odtwarza rozbieżności.
+     */
+    int[] shrink(int[] moves) {
+        Mismatch mismatch = compare(moves);
+        if (mismatch == null) {
+            throw new IllegalArgumentException("Ciag prob nie odtwarza rozbieznosci");
+        }
+        int[] current = Arrays.copyOf(moves, mismatch.step() + 1);
+
+        for (int chunk = current.length / 2; chunk >= 1; chunk /= 2) {
+            int start = 0;
+            while (start < current.length) {
+                int[] reduced = without(current, start, chunk);
+                Mismatch reducedMismatch = reduced.length > 0 ? compare(reduced) : null;
+                if (reducedMismatch != null) {
+                    current = Arrays.copyOf(reduced, reducedMismatch.step() + 1);
+                } else {
+                    start += chunk;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Rozgrywa ciągi prób tylko na jednym silniku (do pomiaru przepustowości).
+     *
+     * @return liczba wykonanych ruchów (zapobiega usunięciu pętli przez kompilator JIT).
+     */
+    static long replay(GameMechanics mechanics, int size, int[][] games) {
+        long played = 0;
+        for (int[] moves : games) {
+            GameState state = new GameState(size);
+            BoardGeometry geometry = state.getBoard().getGeometry();
+            Stone color = Stone.BLACK;
+            for (int move : moves) {
+                if (move == UNDO) {
+                    if (!state.canUndo()) continue;
+                    mechanics.undoMove(state);
+                    color = color.opponent();
+                } else if (mechanics.makeMove(state, geometry.xOf(move), geometry.yOf(move), color)) {
+                    color = color.opponent();
+                    played++;
+                }
+            }
+        }
+        return played;
+    }
+
+    private static Mismatch compareStates(int step, GameState expected, GameState actual) {
+        Board expectedBoard = expected.getBoard();
+        Board actualBoard = actual.getBoard();
+        if (!expectedBoard.equals(actualBoard)) {
+            return new Mismatch(step, "rozne plansze");
+        }
+        if (expectedBoard.getZobristKey() != actualBoard.getZobristKey()) {
+            return new Mismatch(step, "rozne klucze Zobrista");
+        }
+        if (!expectedBoard.getLastMove().equals(actualBoard.getLastMove())) {
+            return new Mismatch(step, "rozne ostatnie ruchy");
+        }
+        if (expected.getBlackCaptures() != actual.getBlackCaptures()
+                || expected.getWhiteCaptures() != actual.getWhiteCaptures()) {
+            return new Mismatch(step, "rozne liczniki jencow: wzorzec " + expected.getBlackCaptures() + "/"
+                    + expected.getWhiteCaptures() + ", kandydat " + actual.getBlackCaptures() + "/"
+                    + actual.getWhiteCaptures());
+        }
+        return null;
+    }
+
+    private static int[] without(int[] moves, int start, int length) {
+        int end = Math.min(moves.length, start + length);
+        int[] result = new int[moves.length - (end - start)];
+        System.arraycopy(moves, 0, result, 0, start);
+        System.arraycopy(moves, end, result, start, moves.length - end);
+        return result;
+    }
+
+    /**
+     * Argumenty (wszystkie opcjonalne): liczba partii (domyślnie 1 000 000), rozmiar planszy (9),
+     * ziarno (42) i pełna nazwa klasy silnika kandydującego z konstruktorem bezargumentowym
+     * (domyślnie {@link GameMechanics}). Wzorcem jest zawsze {@link NaiveGameMechanics}.
+     */
+    public static void main(String[] args) throws ReflectiveOperationException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 9;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        GameMechanics candidate = args.length > 3
+                ? (GameMechanics) Class.forName(args[3]).getDeclaredConstructor().newInstance()
+                : new GameMechanics();
+        GameMechanics reference = new NaiveGameMechanics();
+        DifferentialOracle oracle = new DifferentialOracle(reference, candidate, size);
+
+        long referenceNanos = 0;
+        long candidateNanos = 0;
+        long referenceMoves = 0;
+        long candidateMoves = 0;
+        List<int[]> batch = new ArrayList<>(BATCH);
+
+        // Rozgrzewka JIT na partiach spoza pomiaru
+        int[][] warmup = new int[BATCH][];
+        for (int i = 0; i < BATCH; i++) {
+            warmup[i] = oracle.randomGame(~(seed + i));
+        }
+        replay(reference, size, warmup);
+        replay(candidate, size, warmup);
+
+        for (long game = 0; game < games; game += BATCH) {
+            batch.clear();
+            for (long i = game; i < Math.min(games, game + BATCH); i++) {
+                batch.add(oracle.randomGame(seed + i));
+            }
+            int[][] moves = batch.toArray(new int[0][]);
+
+            // Kolejność silników zmienia się co porcję, żeby rozgrzewka JIT nie faworyzowała żadnego z nich
+            boolean referenceFirst = game / BATCH % 2 == 0;
+            if (!referenceFirst) {
+                long begin = System.nanoTime();
+                candidateMoves += replay(candidate, size, moves);
+                candidateNanos += System.nanoTime() - begin;
+            }
+            long begin = System.nanoTime();
+            referenceMoves += replay(reference, size, moves);
+            referenceNanos += System.nanoTime() - begin;
+            if (referenceFirst) {
+                begin = System.nanoTime();
+                candidateMoves += replay(candidate, size, moves);
+                candidateNanos += System.nanoTime() - begin;
+            }
+
+            for (int i = 0; i < moves.length; i++) {
+                Mismatch mismatch = oracle.compare(moves[i]);
+                if (mismatch != null) {
+                    int[] reproducer = oracle.shrink(moves[i]);
+                    System.out.println("Rozbieznosc w partii " + (game + i) + " (ziarno " + (seed + game + i)
+                            + "), krok " + mismatch.step() + ": " + mismatch.description());
+                    System.out.println("Minimalny ciag prob (" + reproducer.length + "): " + Arrays.toString(reproducer)
+                            + " -> " + oracle.compare(reproducer).description());
+                    return;
+                }
+            }
+        }
+
+        System.out.printf("Partie: %d (%dx%d), silniki zgodne%n", games, size, size);
+        System.out.printf("wzorzec:  %12.0f partii/s (%d ruchow)%n", games * 1e9 / referenceNanos, referenceMoves);
+        System.out.printf("kandydat: %12.0f partii/s (%d ruchow)%n", games * 1e9 / candidateNanos, candidateMoves);
+    }
+}
@@ -0,0 +1,38 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class DifferentialOracleTest {
+
+    // Test zgodności - silnik przyrostowy rozgrywa losowe partie tak samo jak naiwny silnik wzorcowy
+    @Test
+    void gameMechanicsMatchesNaiveReferenceOnRandomGames() {
+        DifferentialOracle oracle = new DifferentialOracle(new NaiveGameMechanics(), new GameMechanics(), 9);
+        for (long seed = 0; seed < 300; seed++) {
+            assertNull(oracle.compare(oracle.randomGame(seed)), "partia " + seed);
+        }
+    }
+
+    // Test wykrywania i zmniejszania rozbieżności - błędny silnik daje jednoelementowy ciąg odtwarzający
+    @Test
+    void mismatchIsShrunkToMinimalReproducer() {
+        GameMechanics broken = new GameMechanics() {
+            @Override
+            public boolean makeMove(GameState state, int x, int y, Stone color) {
+                return (x != 0 || y != 0) && super.makeMove(state, x, y, color);
+            }
+        };
+        DifferentialOracle oracle = new DifferentialOracle(new GameMechanics(), broken, 9);
+
+        int[] game = oracle.randomGame(1);
+        assertNotNull(oracle.compare(game));
+        int[] reproducer = oracle.shrink(game);
+
+        assertArrayEquals(new int[] {0}, reproducer);
+        assertNotNull(oracle.compare(reproducer));
+    }
+}
@@ -1,5 +1,8 @@
 package go.logic;
 
+import java.awt.Point;
+import java.util.ArrayList;
+
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -9,8 +12,9 @@ class GameMechanicsTest {
     void acceptsValidMoveOnEmptyField() {
         Board board = new Board(5);
         GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
 
-        boolean result = mechanics.IsMovePossible(board, 1, 1, Stone.BLACK);
+        boolean result = mechanics.IsMovePossible(state, 1, 1, Stone.BLACK);
 
         assertTrue(result);
         assertEquals(Stone.BLACK, board.getField(1, 1));
@@ -20,9 +24,10 @@ class GameMechanicsTest {
     void rejectsMoveOnOccupiedField() {
         Board board = new Board(5);
         GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
         board.setField(2, 2, Stone.WHITE);
 
-        boolean result = mechanics.IsMovePossible(board, 2, 2, Stone.BLACK);
+        boolean result = mechanics.IsMovePossible(state, 2, 2, Stone.BLACK);
 
         assertFalse(result);
         assertEquals(Stone.WHITE, board.getField(2, 2));
@@ -32,32 +37,34 @@ class GameMechanicsTest {
     void capturesAdjacentStoneWithoutLiberties() {
         Board board = new Board(3);
         GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
 
         board.setField(1, 1, Stone.WHITE);
         board.setField(0, 1, Stone.BLACK);
         board.setField(1, 0, Stone.BLACK);
         board.setField(2, 1, Stone.BLACK);
 
-        boolean result = mechanics.IsMovePossible(board, 1, 2, Stone.BLACK);
+        boolean result = mechanics.IsMovePossible(state, 1, 2, Stone.BLACK);
 
         assertTrue(result);
         assertEquals(Stone.BLACK, board.getField(1, 2));
         assertEquals(Stone.EMPTY, board.getField(1, 1));
-        assertEquals(1, mechanics.blackCaptures);
+        assertEquals(1, state.getBlackCaptures());
     }
 
     @Test
     void rejectsMoveOutOfBounds() {
         Board board = new Board(5);
         GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
 
-        boolean result = mechanics.IsMovePossible(board, -1, 2, Stone.BLACK);
+        boolean result = mechanics.IsMovePossible(state, -1, 2, Stone.BLACK);
         assertFalse(result);
 
-        result = mechanics.IsMovePossible(board, 5, 2, Stone.BLACK);
+        result = mechanics.IsMovePossible(state, 5, 2, Stone.BLACK);
         assertFalse(result);
 
-        result = mechanics.IsMovePossible(board, 2, -1, Stone.WHITE);
+        result = mechanics.IsMovePossible(state, 2, -1, Stone.WHITE);
         assertFalse(result);
     }
 
@@ -65,23 +72,25 @@ class GameMechanicsTest {
     void whitePlayerCanCaptureBlackStones() {
         Board board = new Board(3);
         GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
 
         board.setField(1, 1, Stone.BLACK);
         board.setField(0, 1, Stone.WHITE);
         board.setField(1, 0, Stone.WHITE);
         board.setField(2, 1, Stone.WHITE);
 
-        boolean result = mechanics.IsMovePossible(board, 1, 2, Stone.WHITE);
+        boolean result = mechanics.IsMovePossible(state, 1, 2, Stone.WHITE);
 
         assertTrue(result);
         assertEquals(Stone.EMPTY, board.getField(1, 1));
-        assertEquals(1, mechanics.whiteCaptures);
+        assertEquals(1, state.getWhiteCaptures());
     }
 
     @Test
     void multipleStonesCapturedTogether() {
         Board board = new Board(5);
         GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
 
 
         board.setField(2, 1, Stone.WHITE);
@@ -97,21 +106,22 @@ class GameMechanicsTest {
         board.setField(2, 0, Stone.BLACK);
 
 
-        boolean result = mechanics.IsMovePossible(board, 2, 4, Stone.BLACK);
+        boolean result = mechanics.IsMovePossible(state, 2, 4, Stone.BLACK);
 
         assertTrue(result);
-        assertEquals(3, mechanics.blackCaptures);
+        assertEquals(3, state.getBlackCaptures());
     }
 
     @Test
     void stoneWithLivertiesCanBePlaced() {
         Board board = new Board(5);
         GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
 
         board.setField(1, 1, Stone.BLACK);
         board.setField(2, 1, Stone.BLACK);
 
-        boolean result = mechanics.IsMovePossible(board, 3, 1, Stone.BLACK);
+        boolean result = mechanics.IsMovePossible(state, 3, 1, Stone.BLACK);
 
         assertTrue(result);
         assertEquals(Stone.BLACK, board.getField(3, 1));
@@ -121,24 +131,26 @@ class GameMechanicsTest {
     void capturesCounterIncrementsCorrectly() {
         Board board = new Board(5);
         GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
 
-        assertEquals(0, mechanics.blackCaptures);
-        assertEquals(0, mechanics.whiteCaptures);
+        assertEquals(0, state.getBlackCaptures());
+        assertEquals(0, state.getWhiteCaptures());
 
         board.setField(1, 1, Stone.BLACK);
         board.setField(0, 1, Stone.WHITE);
         board.setField(1, 0, Stone.WHITE);
         board.setField(2, 1, Stone.WHITE);
 
-        mechanics.IsMovePossible(board, 1, 2, Stone.WHITE);
+        mechanics.IsMovePossible(state, 1, 2, Stone.WHITE);
 
-        assertEquals(1, mechanics.whiteCaptures);
+        assertEquals(1, state.getWhiteCaptures());
     }
 
     @Test
     void exploreGroupFindsAllConnectedStones() {
         Board board = new Board(5);
         GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
 
         board.setField(2, 2, Stone.BLACK);
         board.setField(2, 3, Stone.BLACK);
@@ -152,4 +164,229 @@ class GameMechanicsTest {
 
         assertEquals(4, groupMembers.size());
     }
+
+    @Test
+    void undoMoveRestoresCapturedStonesAndCounters() {
+        Board board = new Board(3);
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
+        board.setField(1, 1, Stone.WHITE);
+        board.setField(0, 1, Stone.BLACK);
+        board.setField(1, 0, Stone.BLACK);
+        board.setField(2, 1, Stone.BLACK);
+        Board before = new Board(3);
+        board.copyBoard(before);
+        long keyBefore = board.getZobristKey();
+
+        assertTrue(mechanics.makeMove(state, 1, 2, Stone.BLACK));
+        assertEquals(Stone.EMPTY, board.getField(1, 1));
+        assertEquals(1, state.getBlackCaptures());
+
+        mechanics.undoMove(state);
+
+        assertEquals(before, board);
+        assertEquals(keyBefore, board.getZobristKey());
+        assertEquals(0, state.getBlackCaptures());
+        assertEquals(1, board.getChains().getLibertyCount(1, 1));
+        assertFalse(state.canUndo());
+    }
+
+    @Test
+    void undoMoveRemovesPositionFromHistory() {
+        Board board = new Board(5);
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
+
+        assertTrue(mechanics.makeMove(state, 2, 2, Stone.BLACK));
+        mechanics.undoMove(state);
+
+        // Po cofnięciu ten sam ruch jest znowu legalny, a pozycja startowa nie jest "zajęta" w historii
+        assertTrue(mechanics.makeMove(state, 2, 2, Stone.BLACK));
+        mechanics.undoMove(state);
+        assertTrue(mechanics.makeMove(state, 3, 3, Stone.BLACK));
+        assertEquals(new java.awt.Point(3, 3), board.getLastMove());
+    }
+
+    @Test
+    void undoWithoutMovesThrows() {
+        assertThrows(IllegalStateException.class, () -> new GameMechanics().undoMove(new GameState(5)));
+    }
+
+    @Test
+    void randomMakeUndoSequencesRestoreEveryPosition() {
+        java.util.SplittableRandom random = new java.util.SplittableRandom(99);
+        GameMechanics mechanics = new GameMechanics();
+        Board board = new Board(9);
+        GameState state = new GameState(board);
+        Board[] snapshots = new Board[400];
+        int[] blackCaptures = new int[400];
+        int depth = 0;
+        Stone color = Stone.BLACK;
+
+        for (int step = 0; step < 3000; step++) {
+            if (depth > 0 && (depth == snapshots.length || random.nextInt(4) == 0)) {
+                mechanics.undoMove(state);
+                depth--;
+                color = color.opponent();
+                assertEquals(snapshots[depth], board);
+                assertEquals(snapshots[depth].getZobristKey(), board.getZobristKey());
+                assertEquals(blackCaptures[depth], state.getBlackCaptures());
+                assertChainsConsistent(board);
+                continue;
+            }
+            Board snapshot = new Board(9);
+            board.copyBoard(snapshot);
+            int capturesBefore = state.getBlackCaptures();
+            Stone next = TestPositions.play(mechanics, state, random, 1, color);
+            if (next != color) {
+                snapshots[depth] = snapshot;
+                blackCaptures[depth] = capturesBefore;
+                depth++;
+                color = next;
+            }
+        }
+    }
+
+    // Test maski legalnych ruchów - samobójstwo i ko są wykluczone, bicie na ostatnim oddechu dozwolone
+    @Test
+    void legalMovesExcludeSuicideAndKo() {
+        GameMechanics mechanics = new GameMechanics();
+        Board board = new Board(4);
+        GameState state = new GameState(board);
+        board.setField(1, 0, Stone.BLACK);
+        board.setField(0, 1, Stone.BLACK);
+        board.setField(1, 2, Stone.BLACK);
+        board.setField(2, 0, Stone.WHITE);
+        board.setField(3, 1, Stone.WHITE);
+        board.setField(2, 2, Stone.WHITE);
+        board.setField(2, 1, Stone.BLACK);
+
+        BoardGeometry geometry = board.getGeometry();
+        long[] white = mechanics.legalMoves(state, Stone.WHITE);
+        assertFalse(BoardGeometry.contains(white, geometry.index(0, 0)));  // samobójstwo w rogu
+        assertTrue(BoardGeometry.contains(white, geometry.index(1, 1)));   // bicie kamienia w atari
+        assertFalse(BoardGeometry.contains(white, geometry.index(2, 1)));  // pole zajęte
+
+        assertTrue(mechanics.IsMovePossible(state, 1, 1, Stone.WHITE));
+        long[] black = mechanics.legalMoves(state, Stone.BLACK);
+        assertFalse(BoardGeometry.contains(black, geometry.index(2, 1)));  // natychmiastowe odbicie ko
+    }
+
+    // Test zgodności maski legalnych ruchów z isMoveLegal w losowych partiach
+    @Test
+    void legalMovesMatchIsMoveLegalOnRandomGames() {
+        java.util.SplittableRandom random = new java.util.SplittableRandom(7);
+        GameMechanics mechanics = new GameMechanics();
+        for (int game = 0; game < 20; game++) {
+            int size = 5 + random.nextInt(5);
+            GameState state = new GameState(size);
+            BoardGeometry geometry = state.getBoard().getGeometry();
+            Stone color = Stone.BLACK;
+            for (int step = 0; step < 300; step++) {
+                for (Stone player : new Stone[]{Stone.BLACK, Stone.WHITE}) {
+                    long[] mask = mechanics.legalMoves(state, player);
+                    for (int x = 0; x < size; x++) {
+                        for (int y = 0; y < size; y++) {
+                            assertEquals(mechanics.isMoveLegal(state, x, y, player),
+                                    BoardGeometry.contains(mask, geometry.index(x, y)),
+                                    "pole (" + x + "," + y + ") dla " + player);
+                        }
+                    }
+                }
+                color = TestPositions.play(mechanics, state, random, 1, color);
+            }
+        }
+    }
+
+    // Test liczenia punktów - terytorium z kilku obszarów jest sumowane, obszary wspólne są dame
+    @Test
+    void scoreCountsEveryTerritoryRegionAndDame() {
+        GameMechanics mechanics = new GameMechanics();
+        Board board = new Board(5);
+        GameState state = new GameState(board);
+        // Czarna ściana w kolumnie 1 i biała w kolumnie 3:
+        // kolumna 0 - terytorium czarnego, kolumna 4 - białego, kolumna 2 - dame
+        for (int y = 0; y < 5; y++) {
+            board.setField(1, y, Stone.BLACK);
+            board.setField(3, y, Stone.WHITE);
+        }
+        // Dodatkowy czarny kamień dzieli terytorium czarnego na dwa obszary
+        board.setField(0, 2, Stone.BLACK);
+
+        ScoreResult score = mechanics.calculateGameScore(state);
+
+        assertEquals(4, score.getBlackTerritory());
+        assertEquals(5, score.getWhiteTerritory());
+        assertEquals(5, score.getDame());
+        assertEquals(6, score.getBlackStones());
+        assertEquals(10, score.getBlackAreaScore());
+        assertEquals(10, score.getWhiteAreaScore());
+        assertEquals(Stone.BLACK, score.getOwner(0, 0));
+        assertEquals(Stone.WHITE, score.getOwner(4, 4));
+        assertEquals(Stone.WHITE, score.getOwner(3, 1));
+        assertEquals(Stone.EMPTY, score.getOwner(2, 2));
+    }
+
+    // Test liczenia punktów - jeńcy są częścią wyniku terytorialnego, a liczenie nie zmienia stanu
+    @Test
+    void scoreIncludesCapturesAndDoesNotChangeState() {
+        GameMechanics mechanics = new GameMechanics();
+        Board board = new Board(3);
+        GameState state = new GameState(board);
+        board.setField(1, 0, Stone.BLACK);
+        board.setField(0, 1, Stone.BLACK);
+        board.setField(2, 1, Stone.BLACK);
+        board.setField(1, 1, Stone.WHITE);
+        assertTrue(mechanics.IsMovePossible(state, 1, 2, Stone.BLACK));
+        long key = board.getZobristKey();
+
+        ScoreResult score = mechanics.calculateGameScore(state);
+
+        assertEquals(1, score.getBlackCaptures());
+        assertEquals(score.getBlackTerritory() + 1, score.getBlackTerritoryScore());
+        assertEquals(5, score.getBlackTerritory());
+        assertEquals(0, score.getWhiteTerritoryScore());
+        assertEquals(key, board.getZobristKey());
+        assertEquals(1, state.getBlackCaptures());
+    }
+
+    // Test zdejmowania martwych grup - martwy kamień jest jeńcem przeciwnika
+    @Test
+    void deadStonesAreCountedAsOpponentCaptures() {
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(5);
+        state.getBoard().setField(0, 0, Stone.BLACK);
+        state.getBoard().setField(4, 4, Stone.WHITE);
+        state.getBoard().setField(4, 3, Stone.WHITE);
+
+        ArrayList<Point> dead = new ArrayList<>();
+        dead.add(new Point(0, 0));
+        dead.add(new Point(4, 4));
+        dead.add(new Point(4, 3));
+        mechanics.takeOffDeadGroups(state, dead);
+
+        assertEquals(2, state.getBlackCaptures());
+        assertEquals(1, state.getWhiteCaptures());
+        assertEquals(Stone.EMPTY, state.getBoard().getField(0, 0));
+    }
+
+    /**
+     * Porównuje przyrostową strukturę łańcuchów z pełną odbudową na kopii planszy.
+     */
+    private static void assertChainsConsistent(Board board) {
+        Board copy = new Board(board.getSize());
+        for (int x = 0; x < board.getSize(); x++) {
+            for (int y = 0; y < board.getSize(); y++) {
+                copy.setField(x, y, board.getField(x, y));
+            }
+        }
+        // Tablica pól (getField) musi być zgodna ze zbiorami bitowymi planszy
+        assertEquals(copy, board);
+        for (int x = 0; x < board.getSize(); x++) {
+            for (int y = 0; y < board.getSize(); y++) {
+                assertEquals(copy.getChains().getLibertyCount(x, y), board.getChains().getLibertyCount(x, y));
+                assertEquals(copy.getChains().getChainSize(x, y), board.getChains().getChainSize(x, y));
+            }
+        }
+    }
 }
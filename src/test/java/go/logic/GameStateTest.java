@@ -0,0 +1,80 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class GameStateTest {
+
+    // Test kopii stanu - kopia jest niezależna od oryginału, ale zna jego historię pozycji
+    @Test
+    void copyIsIndependentAndKeepsHistory() {
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(4);
+        Board board = state.getBoard();
+        board.setField(1, 0, Stone.BLACK);
+        board.setField(0, 1, Stone.BLACK);
+        board.setField(1, 2, Stone.BLACK);
+        board.setField(2, 0, Stone.WHITE);
+        board.setField(3, 1, Stone.WHITE);
+        board.setField(2, 2, Stone.WHITE);
+        board.setField(2, 1, Stone.BLACK);
+        assertTrue(mechanics.IsMovePossible(state, 1, 1, Stone.WHITE));
+
+        GameState copy = new GameState(4);
+        state.copyTo(copy);
+
+        assertEquals(state.getBoard(), copy.getBoard());
+        assertEquals(1, copy.getWhiteCaptures());
+        assertFalse(copy.canUndo());
+        // Odbicie ko jest zabronione również na kopii (historia pozycji została skopiowana)
+        assertFalse(mechanics.isMoveLegal(copy, 2, 1, Stone.BLACK));
+
+        assertTrue(mechanics.IsMovePossible(copy, 3, 3, Stone.BLACK));
+        assertEquals(Stone.EMPTY, state.getBoard().getField(3, 3));
+    }
+
+    // Test kopiowania między planszami o różnych rozmiarach
+    @Test
+    void copyToDifferentSizeThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new GameState(9).copyTo(new GameState(5)));
+    }
+
+    // Test współdzielenia jednego silnika zasad przez wiele wątków
+    @Test
+    void sharedMechanicsGivesSameResultsInParallel() throws Exception {
+        GameMechanics mechanics = new GameMechanics();
+        String expected = playRandomGame(mechanics, 5);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> playRandomGame(mechanics, 5)));
+            }
+            for (Future<String> result : results) {
+                assertEquals(expected, result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Rozgrywa losową partię na własnym stanie i zwraca jej podsumowanie (klucz pozycji i jeńcy).
+     */
+    private static String playRandomGame(GameMechanics mechanics, long seed) {
+        GameState state = TestPositions.random(mechanics, 9, seed, 2000).state();
+        return state.getBoard().getZobristKey() + "/" + state.getBlackCaptures() + "/" + state.getWhiteCaptures();
+    }
+}
@@ -0,0 +1,102 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class GameValidatorTest {
+
+    /** Partia, w której biały bije w ko na (1,1), a czarny od razu próbuje odbić na (2,1). */
+    private static final String KO_GAME = "B[B1];W[C1];B[A2];W[D2];B[B3];W[C3];B[C2];W[B2];B[C2];";
+
+    // Test odczytu zapisu partii z bazy - pasy, błędne wpisy i koniec na poddaniu się
+    @Test
+    void parseHistoryEncodesMovesAndStopsOnSurrender() {
+        BoardGeometry geometry = BoardGeometry.forSize(5);
+        int[] moves = GameValidator.parseHistory("B[A1];W[PASS];X[B2];B[Z9];W[B2];B[SURRENDER];W[C3];", 5);
+
+        assertArrayEquals(new int[] {
+                GameValidator.encode(Stone.BLACK, geometry.index(0, 0)),
+                GameValidator.encodePass(Stone.WHITE),
+                GameValidator.MALFORMED,
+                GameValidator.MALFORMED,
+                GameValidator.encode(Stone.WHITE, geometry.index(1, 1))
+        }, moves);
+    }
+
+    // Test wykrywania nielegalnego odbicia ko - wynik liczony jest dla pozycji sprzed tego ruchu
+    @Test
+    void validateStopsAtIllegalKoRecapture() {
+        GameValidator validator = new GameValidator(4, RuleSet.DEFAULT);
+
+        ValidationResult result = validator.validate(GameValidator.parseHistory(KO_GAME, 4));
+
+        assertFalse(result.isValid());
+        assertEquals(8, result.getFirstIllegalMove());
+        assertEquals(8, result.getMovesPlayed());
+        assertEquals(Stone.WHITE, result.getFinalBoard().getField(1, 1));
+        assertEquals(Stone.EMPTY, result.getFinalBoard().getField(2, 1));
+        assertEquals(1, result.getScore().getWhiteCaptures());
+    }
+
+    // Test ruchów poza kolejnością i na zajęte pole
+    @Test
+    void validateRejectsWrongOrderAndOccupiedPoints() {
+        GameValidator validator = new GameValidator(5, RuleSet.CHINESE);
+
+        assertEquals(1, validator.validate(GameValidator.parseHistory("B[A1];B[B2];", 5)).getFirstIllegalMove());
+        assertEquals(1, validator.validate(GameValidator.parseHistory("B[A1];W[A1];", 5)).getFirstIllegalMove());
+        assertTrue(validator.validate(GameValidator.parseHistory("B[A1];W[PASS];B[B2];W[E5];", 5)).isValid());
+    }
+
+    // Test ponownego użycia walidatora - po sprawdzeniu partii stan wraca do pustej planszy
+    @Test
+    void validatorIsReusableAcrossGames() {
+        GameValidator validator = new GameValidator(4, RuleSet.DEFAULT);
+        int[] moves = GameValidator.parseHistory(KO_GAME, 4);
+
+        ValidationResult first = validator.validate(moves, 8);
+        validator.validate(GameValidator.parseHistory("B[D4];W[A4];", 4));
+        ValidationResult second = validator.validate(moves, 8);
+
+        assertTrue(first.isValid());
+        assertEquals(first.getFinalBoard(), second.getFinalBoard());
+        assertEquals(first.getBlackScore(), second.getBlackScore());
+        assertEquals(first.getWhiteScore(), second.getWhiteScore());
+        assertArrayEquals(first.getDeadStones(), second.getDeadStones());
+    }
+
+    // Test planszy 25x25 - bicie w rogu Y25 (ostatnie słowo zbioru bitowego) i liczenie całej planszy
+    @Test
+    void largeBoardGameIsReplayedAndScored() {
+        GameValidator validator = new GameValidator(Board.MAX_SIZE, RuleSet.CHINESE);
+        int[] moves = GameValidator.parseHistory("B[X25];W[Y25];B[Y24];W[PASS];", Board.MAX_SIZE);
+        assertEquals(4, moves.length);
+
+        ValidationResult result = validator.validate(moves);
+        assertTrue(result.isValid());
+        assertEquals(3, result.getMovesPlayed());
+        assertEquals(Stone.EMPTY, result.getFinalBoard().getField(24, 24));
+        assertEquals(Board.MAX_SIZE * Board.MAX_SIZE, result.getBlackScore());
+        assertEquals(0, result.getWhiteScore());
+    }
+
+    // Test walkowerów - kolor przerywającego i wynik pozycji bez zdejmowania martwych kamieni
+    @Test
+    void forfeitIsDetectedAndBoardScoredWithoutRemovingStones() {
+        assertEquals(Stone.BLACK, GameValidator.forfeitingColor("B[A1];W[E5];B[SURRENDER];"));
+        assertEquals(Stone.WHITE, GameValidator.forfeitingColor("B[A1];W[QUIT];"));
+        assertEquals(Stone.EMPTY, GameValidator.forfeitingColor("B[A1];W[PASS];B[PASS];"));
+        assertEquals(Stone.EMPTY, GameValidator.forfeitingColor(null));
+
+        GameValidator validator = new GameValidator(5, RuleSet.CHINESE);
+        ValidationResult result = validator.validate(GameValidator.parseHistory("B[A1];W[E5];B[SURRENDER];", 5));
+
+        assertTrue(result.isValid());
+        assertEquals(1, result.getBoardBlackScore());
+        assertEquals(1, result.getBoardWhiteScore());
+    }
+}
@@ -0,0 +1,78 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class GroupScannerTest {
+
+    // Test wyznaczania grupy i jej oddechów (bez duplikatów wspólnych oddechów)
+    @Test
+    void scanGroupFindsMembersAndDistinctLiberties() {
+        Board board = new Board(5);
+        board.setField(1, 1, Stone.BLACK);
+        board.setField(2, 1, Stone.BLACK);
+        board.setField(2, 2, Stone.BLACK);
+        board.setField(1, 2, Stone.WHITE);
+
+        GroupScanner scanner = new GroupScanner(5);
+        scanner.beginPass();
+
+        assertEquals(3, scanner.scanGroup(board, 1, 1));
+        assertEquals(3, scanner.getMemberCount());
+        assertEquals(6, scanner.getLibertyCount());
+        assertTrue(scanner.touches(Stone.WHITE));
+        assertFalse(scanner.touches(Stone.BLACK));
+    }
+
+    // Test pamiętania odwiedzonych pól w ramach jednego przebiegu
+    @Test
+    void visitedGroupsAreSkippedUntilNextPass() {
+        Board board = new Board(5);
+        board.setField(0, 0, Stone.BLACK);
+        board.setField(1, 0, Stone.BLACK);
+
+        GroupScanner scanner = new GroupScanner(5);
+        scanner.beginPass();
+        assertEquals(2, scanner.scanGroup(board, 0, 0));
+        assertTrue(scanner.isVisited(1, 0));
+        assertEquals(0, scanner.scanGroup(board, 1, 0));
+
+        scanner.beginPass();
+        assertFalse(scanner.isVisited(1, 0));
+        assertEquals(2, scanner.scanGroup(board, 1, 0));
+    }
+
+    // Test obszaru pustych pól i kolorów, z którymi graniczy
+    @Test
+    void scanRegionReportsBorderingColors() {
+        Board board = new Board(3);
+        board.setField(1, 0, Stone.BLACK);
+        board.setField(1, 1, Stone.BLACK);
+        board.setField(1, 2, Stone.BLACK);
+        board.setField(2, 2, Stone.WHITE);
+
+        GroupScanner scanner = new GroupScanner(3);
+        scanner.beginPass();
+
+        assertEquals(3, scanner.scanRegion(board, 0, 0));
+        assertTrue(scanner.touches(Stone.BLACK));
+        assertFalse(scanner.touches(Stone.WHITE));
+
+        assertEquals(2, scanner.scanRegion(board, 2, 0));
+        assertTrue(scanner.touches(Stone.BLACK));
+        assertTrue(scanner.touches(Stone.WHITE));
+
+        assertEquals(0, scanner.scanRegion(board, 1, 1));
+    }
+
+    // Test odrzucenia planszy o innym rozmiarze
+    @Test
+    void rejectsBoardOfDifferentSize() {
+        GroupScanner scanner = new GroupScanner(9);
+        assertThrows(IllegalArgumentException.class, () -> scanner.scanGroup(new Board(5), 0, 0));
+    }
+}
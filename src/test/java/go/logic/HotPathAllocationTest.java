@@ -0,0 +1,130 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Point;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import go.si.SmartBotHeuristics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HotPathAllocationTest {
+
+    private static final int SIZE = 19;
+
+    private GameMechanics mechanics;
+    private GameState state;
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        mechanics = new GameMechanics();
+        state = TestPositions.random(mechanics, SIZE, 42, 400).state();
+        board = state.getBoard();
+    }
+
+    // Test braku alokacji przy wykonaniu i cofnięciu ruchu
+    @Test
+    void makeAndUndoMoveDoNotAllocate() throws Exception {
+        long[] legal = mechanics.legalMoves(state, Stone.BLACK);
+        BoardGeometry geometry = board.getGeometry();
+        int move = 0;
+        while (!BoardGeometry.contains(legal, move)) move++;
+        int x = geometry.xOf(move);
+        int y = geometry.yOf(move);
+
+        AllocationBudget.assertWithin("makeMove + undoMove", 0, 5_000, () -> {
+            mechanics.makeMove(state, x, y, Stone.BLACK);
+            mechanics.undoMove(state);
+        });
+    }
+
+    // Test braku alokacji przy wyznaczaniu legalnych ruchów do istniejącego bufora
+    @Test
+    void legalMovesIntoBufferDoNotAllocate() throws Exception {
+        long[] legal = board.getGeometry().newMask();
+        AllocationBudget.assertWithin("legalMoves", 0, 2_000, () -> mechanics.legalMoves(state, Stone.BLACK, legal));
+    }
+
+    // Test alokacji przeszukania grupy - tylko punkty wyniku, bez struktur roboczych
+    @Test
+    void exploreGroupAllocatesOnlyResultPoints() throws Exception {
+        BoardGeometry geometry = board.getGeometry();
+        int stone = 0;
+        while (board.fieldIs(stone, Stone.EMPTY)) stone++;
+        Point start = new Point(geometry.xOf(stone), geometry.yOf(stone));
+        Stone color = board.getField(start.x, start.y);
+        Set<Point> members = new HashSet<>();
+        Set<Point> liberties = new HashSet<>();
+        mechanics.exploreGroup(board, start, color, members, liberties);
+        int points = members.size() + liberties.size();
+
+        // Punkt (24 B) i węzeł zbioru (32 B) na każde pole wyniku
+        AllocationBudget.assertWithin("exploreGroup", 64L * points, 5_000, () -> {
+            members.clear();
+            liberties.clear();
+            mechanics.exploreGroup(board, start, color, members, liberties);
+        });
+    }
+
+    // Test alokacji liczenia punktów - tylko obiekt wyniku z dwiema maskami obszarów
+    @Test
+    void gameScoreAllocatesOnlyResult() throws Exception {
+        GroupScanner scanner = new GroupScanner(SIZE);
+        AllocationBudget.assertWithin("calculateGameScore", 256, 2_000,
+                () -> mechanics.calculateGameScore(board, 0, 0, scanner));
+    }
+
+    // Test braku alokacji przy przyrostowej aktualizacji mapy wpływów
+    @Test
+    void influenceUpdateDoesNotAllocate() throws Exception {
+        InfluenceMap influence = new InfluenceMap(SIZE);
+        AllocationBudget.assertWithin("InfluenceMap.update", 0, 1_000, () -> {
+            influence.reset();
+            influence.update(board);
+        });
+    }
+
+    // Test alokacji symulacji - jedynie sporadyczne powiększenie historii pozycji przy wyjątkowo długiej partii
+    @Test
+    void playoutAllocatesAlmostNothing() throws Exception {
+        PlayoutEngine engine = new PlayoutEngine(mechanics, SIZE, new SplittableRandom(1));
+        AllocationBudget.assertWithin("PlayoutEngine.playout", 64, 500, () -> engine.playout(state, Stone.BLACK));
+    }
+
+    // Test braku alokacji przy wysyłaniu i odbieraniu planszy (w tym odczycie kolorów pól)
+    @Test
+    void boardTransferDoesNotAllocate() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8 * SIZE * SIZE);
+        DataOutputStream out = new DataOutputStream(bytes);
+        Protocol.sendBoard(board, out);
+        ByteArrayInputStream input = new ByteArrayInputStream(bytes.toByteArray());
+        DataInputStream in = new DataInputStream(input);
+        Board received = new Board(SIZE);
+
+        AllocationBudget.assertWithin("Protocol.sendBoard", 0, 2_000, () -> {
+            bytes.reset();
+            Protocol.sendBoard(board, out);
+        });
+        AllocationBudget.assertWithin("Protocol.receiveBoard", 0, 2_000, () -> {
+            input.reset();
+            Protocol.receiveBoard(received, in);
+        });
+        assertEquals(board, received);
+    }
+
+    // Test alokacji wyboru kandydatów bota - lista wyniku i rekordy ocenionych pól, bez kopii planszy
+    @Test
+    void botCandidateSearchStaysWithinBudget() throws Exception {
+        SmartBotHeuristics heuristics = new SmartBotHeuristics(mechanics);
+        AllocationBudget.assertWithin("SmartBotHeuristics.findBestCandidates", 12_000, 200,
+                () -> heuristics.findBestCandidates(state, Stone.BLACK));
+    }
+}
@@ -0,0 +1,68 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class InfluenceMapTest {
+
+    // Test zasięgu wpływu - samotny kamień w centrum obejmuje pola w odległości do 2
+    @Test
+    void loneStoneClaimsPointsWithinTwoSteps() {
+        Board board = new Board(9);
+        board.setField(4, 4, Stone.BLACK);
+        InfluenceMap influence = new InfluenceMap(9);
+        influence.update(board);
+
+        BoardGeometry geometry = board.getGeometry();
+        assertEquals(64, influence.getInfluence(geometry.index(4, 4)));
+        assertEquals(Stone.BLACK, influence.owner(geometry.index(4, 6)));
+        assertEquals(Stone.BLACK, influence.owner(geometry.index(5, 5)));
+        assertEquals(Stone.EMPTY, influence.owner(geometry.index(4, 7)));
+        assertEquals(13, influence.estimatedArea(Stone.BLACK));
+        assertEquals(0, influence.estimatedArea(Stone.WHITE));
+
+        board.setField(4, 6, Stone.WHITE);
+        influence.update(board);
+        assertEquals(0, influence.getInfluence(geometry.index(4, 5)));
+        assertEquals(Stone.WHITE, influence.owner(geometry.index(4, 6)));
+    }
+
+    // Test aktualizacji przyrostowej - po ruchach, biciach i cofnięciach mapa jest taka jak policzona od zera
+    @Test
+    void incrementalUpdateMatchesFreshMap() {
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(9);
+        Board board = state.getBoard();
+        InfluenceMap incremental = new InfluenceMap(9);
+        SplittableRandom random = new SplittableRandom(7);
+
+        Stone color = Stone.BLACK;
+        for (int move = 0; move < 300; move++) {
+            if (move % 7 == 6 && state.canUndo()) {
+                mechanics.undoMove(state);
+            } else {
+                color = TestPositions.play(mechanics, state, random, 1, color);
+            }
+            incremental.update(board);
+
+            InfluenceMap fresh = new InfluenceMap(9);
+            fresh.update(board);
+            for (int index = 0; index < 81; index++) {
+                assertEquals(fresh.getInfluence(index), incremental.getInfluence(index));
+            }
+            assertEquals(fresh.estimatedArea(Stone.BLACK), incremental.estimatedArea(Stone.BLACK));
+            assertEquals(fresh.estimatedArea(Stone.WHITE), incremental.estimatedArea(Stone.WHITE));
+        }
+    }
+
+    // Test czy mapa odrzuca planszę innego rozmiaru
+    @Test
+    void updateRejectsBoardOfOtherSize() {
+        InfluenceMap influence = new InfluenceMap(9);
+        assertThrows(IllegalArgumentException.class, () -> influence.update(new Board(13)));
+    }
+}
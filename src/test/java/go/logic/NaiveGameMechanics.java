@@ -0,0 +1,163 @@
+package go.logic;
+
+import java.awt.Point;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Wzorcowy silnik zasad dla {@link DifferentialOracle}, działający tak jak silnik sprzed optymalizacji:
+ * każdy ruch jest symulowany na kopii planszy, grupy i ich oddechy są wyznaczane przeszukiwaniem wszerz,
+ * a superko sprawdzane przez porównanie całej planszy z każdą wcześniejszą pozycją partii.
+ * Nie korzysta z {@link ChainTracker}, {@link GroupScanner} ani z historii kluczy Zobrista,
+ * więc zgodność z {@link GameMechanics} sprawdza bicie wielu grup, ko i samobójstwo z biciem
+ * niezależnie od struktur przyrostowych.
+ * <p>
+ * Obsługuje tylko pozycyjne superko ({@link RuleSet#DEFAULT}) i stany rozgrywane od początku tym silnikiem
+ * (pozycje wcześniejsze niż pierwszy ruch, np. skopiowane przez {@link GameState#copyTo}, nie są znane).
+ */
+final class NaiveGameMechanics extends GameMechanics {
+
+    /** Wcześniejsze pozycje każdej partii - wpis na każdy wykonany ruch. */
+    private final Map<GameState, List<Snapshot>> histories = new WeakHashMap<>();
+
+    /**
+     * Pozycja sprzed ruchu.
+     *
+     * @param board układ kamieni i ostatni ruch.
+     * @param color kolor gracza, który wykonał ruch.
+     * @param captured liczba kamieni zbitych ruchem.
+     */
+    private record Snapshot(Board board, Stone color, int captured) {
+    }
+
+    NaiveGameMechanics() {
+        super(RuleSet.DEFAULT);
+    }
+
+    @Override
+    public boolean makeMove(GameState state, int x, int y, Stone color) {
+        Board board = state.getBoard();
+        Board after = new Board(board.getSize());
+        int captured = play(state, after, x, y, color);
+        if (captured < 0) return false;
+
+        Board before = new Board(board.getSize());
+        board.copyBoard(before);
+        history(state).add(new Snapshot(before, color, captured));
+        after.copyBoard(board);
+        board.setLastMove(x, y);
+        state.addCaptures(color, captured);
+        // Wpis tylko po to, żeby GameState.canUndo() widział ruch - pozycje przechowuje historia silnika
+        state.pushUndo(0);
+        return true;
+    }
+
+    @Override
+    public void undoMove(GameState state) {
+        if (!state.canUndo()) {
+            throw new IllegalStateException("Brak ruchu do cofniecia");
+        }
+        List<Snapshot> history = history(state);
+        Snapshot snapshot = history.remove(history.size() - 1);
+        snapshot.board().copyBoard(state.getBoard());
+        state.addCaptures(snapshot.color(), -snapshot.captured());
+        state.popUndo();
+    }
+
+    @Override
+    public boolean isMoveLegal(GameState state, int x, int y, Stone color) {
+        return play(state, new Board(state.getBoard().getSize()), x, y, color) >= 0;
+    }
+
+    @Override
+    public void legalMoves(GameState state, Stone color, long[] dst) {
+        Arrays.fill(dst, 0L);
+        Board board = state.getBoard();
+        BoardGeometry geometry = board.getGeometry();
+        for (int x = 0; x < board.getSize(); x++) {
+            for (int y = 0; y < board.getSize(); y++) {
+                if (isMoveLegal(state, x, y, color)) {
+                    int index = geometry.index(x, y);
+                    dst[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+    }
+
+    /**
+     * Symuluje ruch na kopii planszy: stawia kamień, zdejmuje grupy przeciwnika bez oddechów,
+     * odrzuca samobójstwo i powtórzenie wcześniejszej pozycji.
+     *
+     * @param after plansza, do której trafia pozycja po ruchu.
+     * @return liczba zbitych kamieni lub -1, jeśli ruch jest nielegalny.
+     */
+    private int play(GameState state, Board after, int x, int y, Stone color) {
+        Board board = state.getBoard();
+        if (!board.isFieldOnBoard(x, y) || board.getField(x, y) != Stone.EMPTY) return -1;
+
+        board.copyBoard(after);
+        after.setField(x, y, color);
+        int captured = 0;
+        for (Direction d : Direction.values()) {
+            int newX = x + d.getDx();
+            int newY = y + d.getDy();
+            if (!after.isFieldOnBoard(newX, newY) || after.getField(newX, newY) != color.opponent()) continue;
+
+            List<Point> group = new ArrayList<>();
+            if (!exploreGroup(after, newX, newY, group)) {
+                for (Point point : group) {
+                    after.setField(point.x, point.y, Stone.EMPTY);
+                }
+                captured += group.size();
+            }
+        }
+        if (!exploreGroup(after, x, y, new ArrayList<>())) return -1;
+
+        for (Snapshot snapshot : history(state)) {
+            if (snapshot.board().equals(after)) return -1;
+        }
+        return captured;
+    }
+
+    /**
+     * Przeszukiwanie wszerz grupy kamieni zaczynającej się na podanym polu.
+     *
+     * @param group lista wyjściowa kamieni grupy.
+     * @return true, jeśli grupa ma choć jeden oddech.
+     */
+    private static boolean exploreGroup(Board board, int startX, int startY, List<Point> group) {
+        Stone color = board.getField(startX, startY);
+        boolean[][] visited = new boolean[board.getSize()][board.getSize()];
+        ArrayDeque<Point> queue = new ArrayDeque<>();
+        boolean hasLiberty = false;
+
+        queue.add(new Point(startX, startY));
+        visited[startX][startY] = true;
+        while (!queue.isEmpty()) {
+            Point current = queue.poll();
+            group.add(current);
+            for (Direction d : Direction.values()) {
+                int newX = current.x + d.getDx();
+                int newY = current.y + d.getDy();
+                if (!board.isFieldOnBoard(newX, newY)) continue;
+
+                Stone neighbour = board.getField(newX, newY);
+                if (neighbour == Stone.EMPTY) {
+                    hasLiberty = true;
+                } else if (neighbour == color && !visited[newX][newY]) {
+                    visited[newX][newY] = true;
+                    queue.add(new Point(newX, newY));
+                }
+            }
+        }
+        return hasLiberty;
+    }
+
+    private List<Snapshot> history(GameState state) {
+        return histories.computeIfAbsent(state, ignored -> new ArrayList<>());
+    }
+}
@@ -0,0 +1,72 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class PlayoutEngineTest {
+
+    // Test zgodności z zasadami - wszystkie ruchy symulacji da się cofnąć do pozycji startowej
+    @Test
+    void playoutMovesAreUndoableBackToStart() {
+        GameMechanics mechanics = new GameMechanics();
+        GameState start = new GameState(7);
+        assertTrue(mechanics.IsMovePossible(start, 3, 3, Stone.BLACK));
+        Board before = new Board(7);
+        start.getBoard().copyBoard(before);
+
+        PlayoutEngine engine = new PlayoutEngine(mechanics, 7, new SplittableRandom(42));
+        engine.playout(start, Stone.WHITE);
+
+        assertEquals(before, start.getBoard());
+        GameState end = engine.getState();
+        assertTrue(end.canUndo());
+        while (end.canUndo()) {
+            mechanics.undoMove(end);
+        }
+        assertEquals(before, end.getBoard());
+    }
+
+    // Test końca symulacji - wynik to różnica obszarów, a ten sam generator daje tę samą partię
+    @Test
+    void playoutIsDeterministicForSeedAndScoresArea() {
+        GameMechanics mechanics = new GameMechanics();
+        GameState start = new GameState(5);
+
+        PlayoutEngine first = new PlayoutEngine(mechanics, 5, new SplittableRandom(7));
+        PlayoutEngine second = new PlayoutEngine(mechanics, 5, new SplittableRandom(7));
+        int result = first.playout(start, Stone.BLACK);
+        assertEquals(result, second.playout(start, Stone.BLACK));
+        assertEquals(first.getState().getBoard(), second.getState().getBoard());
+
+        ScoreResult score = mechanics.calculateGameScore(first.getState());
+        assertEquals(score.getBlackAreaScore() - score.getWhiteAreaScore(), result);
+        assertEquals(1, first.getPlayoutCount());
+        assertTrue(first.getPlayoutsPerSecond() > 0);
+    }
+
+    // Test oczu - gracz nie zapełnia własnych oczu, więc grupa z trzema oczami przeżywa symulację
+    @Test
+    void playoutDoesNotFillOwnEyes() {
+        GameMechanics mechanics = new GameMechanics();
+        GameState start = new GameState(5);
+        for (int y = 0; y < 5; y++) {
+            start.getBoard().setField(1, y, Stone.BLACK);
+        }
+        start.getBoard().setField(0, 1, Stone.BLACK);
+        start.getBoard().setField(0, 3, Stone.BLACK);
+
+        PlayoutEngine engine = new PlayoutEngine(mechanics, 5, new SplittableRandom(3));
+        for (int i = 0; i < 20; i++) {
+            engine.playout(start, Stone.BLACK);
+            Board end = engine.getState().getBoard();
+            assertEquals(Stone.EMPTY, end.getField(0, 0));
+            assertEquals(Stone.EMPTY, end.getField(0, 2));
+            assertEquals(Stone.EMPTY, end.getField(0, 4));
+            assertEquals(Stone.BLACK, end.getField(1, 2));
+        }
+    }
+}
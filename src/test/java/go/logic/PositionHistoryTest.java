@@ -0,0 +1,85 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class PositionHistoryTest {
+
+    // Test dodawania i wyszukiwania kluczy
+    @Test
+    void addedKeysAreFound() {
+        PositionHistory history = new PositionHistory();
+
+        assertTrue(history.add(42L));
+        assertFalse(history.add(42L));
+        assertTrue(history.contains(42L));
+        assertFalse(history.contains(43L));
+        assertEquals(1, history.size());
+    }
+
+    // Test obsługi klucza 0 (pusta plansza)
+    @Test
+    void zeroKeyOfEmptyBoardIsSupported() {
+        PositionHistory history = new PositionHistory();
+
+        assertFalse(history.contains(0L));
+        assertTrue(history.add(new Board(9).getZobristKey()));
+        assertTrue(history.contains(0L));
+    }
+
+    // Test powiększania tablicy przy dużej liczbie pozycji
+    @Test
+    void historyGrowsBeyondInitialCapacity() {
+        PositionHistory history = new PositionHistory();
+        java.util.SplittableRandom random = new java.util.SplittableRandom(7);
+        long[] keys = new long[5000];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+            history.add(keys[i]);
+        }
+
+        assertEquals(keys.length, history.size());
+        for (long key : keys) {
+            assertTrue(history.contains(key));
+        }
+    }
+
+    // Test czyszczenia historii
+    @Test
+    void clearRemovesAllKeys() {
+        PositionHistory history = new PositionHistory();
+        history.add(0L);
+        history.add(5L);
+
+        history.clear();
+
+        assertEquals(0, history.size());
+        assertFalse(history.contains(0L));
+        assertFalse(history.contains(5L));
+    }
+
+    // Test usuwania kluczy - pozostałe klucze z tych samych łańcuchów sond muszą być nadal widoczne
+    @Test
+    void removedKeysAreNotFoundAndOthersRemain() {
+        PositionHistory history = new PositionHistory();
+        java.util.SplittableRandom random = new java.util.SplittableRandom(11);
+        long[] keys = new long[200];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+            history.add(keys[i]);
+        }
+
+        for (int i = 0; i < keys.length; i += 2) {
+            assertTrue(history.remove(keys[i]));
+        }
+        assertFalse(history.remove(keys[0]));
+
+        assertEquals(keys.length / 2, history.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i % 2 == 1, history.contains(keys[i]));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package go.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RuleSetTest {
+
+    /**
+     * Rozgrywa B(1,1), W(3,3), B(2,2) i zdejmuje oba czarne kamienie - zostaje sam W(3,3).
+     * Czarny na (1,1) odtwarza pozycję, która wystąpiła już wcześniej, ale z czarnym na ruchu.
+     */
+    private static GameState repeatWithOtherSideToMove(GameMechanics mechanics) {
+        GameState state = new GameState(5);
+        assertTrue(mechanics.IsMovePossible(state, 1, 1, Stone.BLACK));
+        assertTrue(mechanics.IsMovePossible(state, 3, 3, Stone.WHITE));
+        assertTrue(mechanics.IsMovePossible(state, 2, 2, Stone.BLACK));
+        state.getBoard().setField(2, 2, Stone.EMPTY);
+        state.getBoard().setField(1, 1, Stone.EMPTY);
+        return state;
+    }
+
+    // Test identyfikatorów zasad przesyłanych w protokole
+    @Test
+    void forIdReturnsMatchingRuleSet() {
+        for (RuleSet rules : RuleSet.values()) {
+            assertSame(rules, RuleSet.forId(rules.getId()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> RuleSet.forId(99));
+    }
+
+    // Test nazw zasad zapisanych w wynikach gry - brak lub nieznana nazwa oznacza zasady domyślne
+    @Test
+    void forNameReturnsMatchingRuleSetOrDefault() {
+        for (RuleSet rules : RuleSet.values()) {
+            assertSame(rules, RuleSet.forName(rules.getName()));
+        }
+        assertSame(RuleSet.DEFAULT, RuleSet.forName(null));
+        assertSame(RuleSet.DEFAULT, RuleSet.forName("Ing"));
+    }
+
+    // Test liczenia punktów - terytorialnie (jeńcy) dla zasad japońskich, obszarowo (kamienie) dla chińskich
+    @Test
+    void scoreUsesTerritoryOrAreaCounting() {
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(3);
+        state.getBoard().setField(1, 0, Stone.BLACK);
+        state.getBoard().setField(1, 1, Stone.BLACK);
+        state.getBoard().setField(1, 2, Stone.BLACK);
+        state.addCaptures(Stone.BLACK, 2);
+
+        ScoreResult score = mechanics.calculateGameScore(state);
+
+        assertEquals(6 + 2, RuleSet.JAPANESE.score(score, Stone.BLACK));
+        assertEquals(6 + 3, RuleSet.CHINESE.score(score, Stone.BLACK));
+        assertEquals(0, RuleSet.AGA.score(score, Stone.WHITE));
+    }
+
+    // Test superko - pozycyjne zabrania powtórzenia pozycji, sytuacyjne tylko przy tym samym graczu na ruchu
+    @Test
+    void situationalSuperkoAllowsRepetitionWithOtherSideToMove() {
+        GameMechanics positional = new GameMechanics(RuleSet.CHINESE);
+        GameState state = repeatWithOtherSideToMove(positional);
+        assertFalse(positional.isMoveLegal(state, 1, 1, Stone.BLACK));
+        assertFalse(BoardGeometry.contains(positional.legalMoves(state, Stone.BLACK), state.getBoard().getGeometry().index(1, 1)));
+
+        GameMechanics situational = new GameMechanics(RuleSet.AGA);
+        state = repeatWithOtherSideToMove(situational);
+        assertTrue(situational.isMoveLegal(state, 1, 1, Stone.BLACK));
+        assertTrue(BoardGeometry.contains(situational.legalMoves(state, Stone.BLACK), state.getBoard().getGeometry().index(1, 1)));
+
+        // Cofnięcie ruchu usuwa jego sytuację z historii
+        assertTrue(situational.makeMove(state, 1, 1, Stone.BLACK));
+        situational.undoMove(state);
+        assertTrue(situational.isMoveLegal(state, 1, 1, Stone.BLACK));
+    }
+}
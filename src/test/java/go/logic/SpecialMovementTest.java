@@ -9,6 +9,7 @@ public class SpecialMovementTest {
     public void testKOrule() {
         Board board = new Board(4);
         GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
 
         // Ustawienie sytuacji KO:
         // . B W .
@@ -26,28 +27,30 @@ public class SpecialMovementTest {
         board.setField(2, 1, Stone.BLACK); // Czarny do bicia
 
         // 1. Biały bije czarnego w (1,1)
-        assertTrue(mechanics.IsMovePossible(board, 1, 1, Stone.WHITE));
+        assertTrue(mechanics.IsMovePossible(state, 1, 1, Stone.WHITE));
 
         // 2. Czarny próbuje natychmiast odbić w (2,1) - powinno być zabronione przez KO
-        assertFalse(mechanics.IsMovePossible(board, 2, 1, Stone.BLACK), "Zasada KO powinna zadziałać");
+        assertFalse(mechanics.IsMovePossible(state, 2, 1, Stone.BLACK), "Zasada KO powinna zadziałać");
     }
 
     @Test
     public void checkIfSuicideIsNotAllowed() {
         Board board = new Board(4);
         GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
         board.setField(1, 0, Stone.BLACK);
         board.setField(0, 1, Stone.BLACK);
         board.setField(1, 2, Stone.BLACK);
         board.setField(2, 1, Stone.BLACK);
 
-        assertFalse(mechanics.IsMovePossible(board, 1, 1, Stone.WHITE), "Ruch samobojczy");
+        assertFalse(mechanics.IsMovePossible(state, 1, 1, Stone.WHITE), "Ruch samobojczy");
     }
 
     @Test
     public void checkNotSuicideMove() {
         Board board = new Board(5);
         GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
         board.setField(1, 0, Stone.BLACK);
         board.setField(0, 1, Stone.BLACK);
         board.setField(1, 2, Stone.BLACK);
@@ -56,17 +59,73 @@ public class SpecialMovementTest {
 
         board.setField(2, 0, Stone.WHITE);
         board.setField(0, 2, Stone.WHITE);
-        assertTrue(mechanics.IsMovePossible(board, 1, 1, Stone.WHITE));
+        assertTrue(mechanics.IsMovePossible(state, 1, 1, Stone.WHITE));
     }
 
     @Test
     public void checkProperCapturesInTheCorner() {
         Board board = new Board(5);
         GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
         board.setField(0, 0, Stone.BLACK);
         board.setField(1, 0, Stone.WHITE);
-        mechanics.IsMovePossible(board, 0, 1, Stone.WHITE);
+        mechanics.IsMovePossible(state, 0, 1, Stone.WHITE);
 
         assertEquals(Stone.EMPTY, board.getField(0, 0));
     }
+
+    @Test
+    public void positionalSuperkoRejectsOlderRepetition() {
+        Board board = new Board(5);
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
+
+        // Trzy ruchy: pozycje P0 -> P1 -> P2 -> P3
+        assertTrue(mechanics.IsMovePossible(state, 1, 1, Stone.BLACK));
+        assertTrue(mechanics.IsMovePossible(state, 3, 3, Stone.WHITE));
+        assertTrue(mechanics.IsMovePossible(state, 2, 2, Stone.BLACK));
+
+        // Powrót do pozycji P0 (np. po zdjęciu kamieni) - ruch odtwarzający P1 powtarza pozycję
+        // sprzed trzech ruchów, czego nie wykrywało porównanie z planszą sprzed jednego ruchu
+        board.setField(1, 1, Stone.EMPTY);
+        board.setField(3, 3, Stone.EMPTY);
+        board.setField(2, 2, Stone.EMPTY);
+
+        assertFalse(mechanics.IsMovePossible(state, 1, 1, Stone.BLACK), "Zasada superko powinna zadziałać");
+        assertTrue(mechanics.IsMovePossible(state, 0, 0, Stone.BLACK));
+    }
+
+    @Test
+    public void rejectedKoRecaptureDoesNotChangeCaptures() {
+        Board board = new Board(4);
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
+
+        board.setField(1, 0, Stone.BLACK);
+        board.setField(0, 1, Stone.BLACK);
+        board.setField(1, 2, Stone.BLACK);
+        board.setField(2, 0, Stone.WHITE);
+        board.setField(3, 1, Stone.WHITE);
+        board.setField(2, 2, Stone.WHITE);
+        board.setField(2, 1, Stone.BLACK);
+
+        assertTrue(mechanics.IsMovePossible(state, 1, 1, Stone.WHITE));
+        assertFalse(mechanics.IsMovePossible(state, 2, 1, Stone.BLACK));
+
+        assertEquals(1, state.getWhiteCaptures());
+        assertEquals(0, state.getBlackCaptures());
+    }
+
+    @Test
+    public void isMoveLegalDoesNotChangeGameState() {
+        Board board = new Board(5);
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(board);
+
+        assertTrue(mechanics.isMoveLegal(state, 2, 2, Stone.BLACK));
+        assertEquals(Stone.EMPTY, board.getField(2, 2));
+
+        // Symulacja nie trafia do historii, więc ruch nadal jest legalny
+        assertTrue(mechanics.IsMovePossible(state, 2, 2, Stone.BLACK));
+    }
 }
@@ -21,6 +21,13 @@ class StoneTest {
         assertEquals(Stone.EMPTY, Stone.EMPTY.opponent());
     }
 
+    @Test
+    void ofOrdinalReturnsStoneWithThatOrdinal() {
+        for (Stone stone : Stone.values()) {
+            assertEquals(stone, Stone.ofOrdinal(stone.ordinal()));
+        }
+    }
+
     @Test
     void stoneEnumHasThreeValues() {
         Stone[] stones = Stone.values();
@@ -0,0 +1,60 @@
+package go.logic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Losowe pozycje do testów: ciąg prób ruchu na losowych polach, w którym gracz zmienia się
+ * tylko po wykonanym ruchu (nielegalne próby są pomijane).
+ * <p>
+ * Publiczna, bo używają jej także testy botów z pakietu {@code go.si}.
+ */
+public final class TestPositions {
+
+    private TestPositions() {
+    }
+
+    /**
+     * Pozycja testowa.
+     *
+     * @param state stan partii po rozegranych próbach.
+     * @param toMove kolor gracza na ruchu.
+     */
+    public record Position(GameState state, Stone toMove) {
+    }
+
+    /**
+     * Rozgrywa losowe próby na nowej planszy, zaczynając od czarnych.
+     *
+     * @param mechanics silnik zasad wykonujący ruchy.
+     * @param size rozmiar planszy.
+     * @param seed ziarno - ta sama wartość daje tę samą pozycję.
+     * @param attempts liczba prób ruchu (legalnych lub nie).
+     * @return stan partii i kolor gracza na ruchu.
+     */
+    public static Position random(GameMechanics mechanics, int size, long seed, int attempts) {
+        GameState state = new GameState(size);
+        Stone toMove = play(mechanics, state, new SplittableRandom(seed), attempts, Stone.BLACK);
+        return new Position(state, toMove);
+    }
+
+    /**
+     * Rozgrywa losowe próby na istniejącym stanie - np. pojedynczo, ze sprawdzeniem stanu po każdej próbie.
+     *
+     * @param mechanics silnik zasad wykonujący ruchy.
+     * @param state stan partii (zmieniany).
+     * @param random źródło losowych pól.
+     * @param attempts liczba prób ruchu (legalnych lub nie).
+     * @param toMove kolor gracza na ruchu przed pierwszą próbą.
+     * @return kolor gracza na ruchu po próbach (inny niż {@code toMove} po nieparzystej liczbie wykonanych ruchów).
+     */
+    public static Stone play(GameMechanics mechanics, GameState state, SplittableRandom random,
+                             int attempts, Stone toMove) {
+        int size = state.getBoard().getSize();
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            if (mechanics.makeMove(state, random.nextInt(size), random.nextInt(size), toMove)) {
+                toMove = toMove.opponent();
+            }
+        }
+        return toMove;
+    }
+}
@@ -0,0 +1,102 @@
+package go.si;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+
+import go.logic.Board;
+import go.logic.GameMechanics;
+import go.logic.GameState;
+import go.logic.Stone;
+import go.logic.TestPositions;
+import org.junit.jupiter.api.Test;
+
+class AlphaBetaBotTest {
+
+    // Test czy bot zbija kamień w atari i kończy wszystkie głębokości przy dużym limicie czasu
+    @Test
+    void capturesStoneInAtari() {
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(9);
+        state.getBoard().setField(4, 4, Stone.WHITE);
+        state.getBoard().setField(3, 4, Stone.BLACK);
+        state.getBoard().setField(5, 4, Stone.BLACK);
+        state.getBoard().setField(4, 3, Stone.BLACK);
+        Board before = new Board(9);
+        state.getBoard().copyBoard(before);
+
+        AlphaBetaBot bot = new AlphaBetaBot(mechanics, 3, 60_000);
+        assertEquals(new Point(4, 5), bot.calculateBestMove(state, Stone.BLACK));
+        assertEquals(3, bot.getLastDepth());
+        assertEquals(before, state.getBoard());
+    }
+
+    // Test limitu czasu - głębokie przeszukiwanie dużej planszy kończy się w terminie legalnym ruchem
+    @Test
+    void deadlineStopsDeepSearchWithLegalMove() {
+        GameMechanics mechanics = new GameMechanics();
+        TestPositions.Position position = TestPositions.random(mechanics, 19, 11, 200);
+        GameState state = position.state();
+        Stone color = position.toMove();
+
+        AlphaBetaBot bot = new AlphaBetaBot(mechanics, 50, 200);
+        Point move = bot.calculateBestMove(state, color);
+
+        assertNotNull(move);
+        assertTrue(mechanics.isMoveLegal(state, move.x, move.y, color));
+        assertTrue(bot.getLastDepth() < 50);
+    }
+
+    // Test minionego terminu - bot nie kończy żadnej głębokości i gra najlepszy ruch według heurystyk
+    @Test
+    void passedDeadlinePlaysHeuristicMove() {
+        GameMechanics mechanics = new GameMechanics();
+        TestPositions.Position position = TestPositions.random(mechanics, 19, 11, 200);
+        GameState state = position.state();
+        Stone color = position.toMove();
+        CandidateRecord best = new SmartBotHeuristics(mechanics).findBestCandidates(state, color).get(0);
+
+        AlphaBetaBot bot = new AlphaBetaBot(mechanics, 50, 60_000);
+        Point move = bot.calculateBestMove(state, color, System.nanoTime() - 1);
+
+        assertEquals(best.point(), move);
+        assertEquals(0, bot.getLastDepth());
+    }
+
+    // Test pasu - gdy zostało tylko zapełnianie własnego terytorium, bot pasuje, a pola niczyje nadal zajmuje
+    @Test
+    void passesWhenNoMoveImprovesPosition() {
+        GameMechanics mechanics = new GameMechanics();
+        AlphaBetaBot bot = new AlphaBetaBot(mechanics, 4, 60_000);
+
+        assertNull(bot.calculateBestMove(settledPosition(false), Stone.BLACK));
+        Point move = bot.calculateBestMove(settledPosition(true), Stone.BLACK);
+        assertNotNull(move);
+        assertEquals(4, move.x);
+    }
+
+    /**
+     * Rozstrzygnięta pozycja 9x9: czarne zajmują lewą część planszy, białe - kolumny od 5. Obie grupy mają
+     * po dwa oczy, czarne dodatkowo 4 pola terytorium. Kolumna 4 należy do czarnych
+     * albo (przy {@code dame}) zostaje pusta jako pola niczyje.
+     */
+    private static GameState settledPosition(boolean dame) {
+        GameState state = new GameState(9);
+        Board board = state.getBoard();
+        int blackColumns = dame ? 4 : 5;
+        for (int x = 0; x < 9; x++) {
+            for (int y = 0; y < 9; y++) {
+                if (x < blackColumns) board.setField(x, y, Stone.BLACK);
+                else if (x >= 5) board.setField(x, y, Stone.WHITE);
+            }
+        }
+        int[][] empty = {{1, 1}, {1, 7}, {1, 3}, {1, 4}, {1, 5}, {2, 4}, {7, 1}, {7, 7}, {7, 4}};
+        for (int[] point : empty) {
+            board.setField(point[0], point[1], Stone.EMPTY);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,75 @@
+package go.si;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+
+import go.logic.GameMechanics;
+import go.logic.GameState;
+import go.logic.Stone;
+import go.logic.TestPositions;
+import org.junit.jupiter.api.Test;
+
+class BotDifficultyTest {
+
+    // Test odczytu poziomów po identyfikatorze z protokołu
+    @Test
+    void forIdReturnsEachLevelAndRejectsUnknown() {
+        for (BotDifficulty difficulty : BotDifficulty.values()) {
+            assertEquals(difficulty, BotDifficulty.forId(difficulty.getId()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> BotDifficulty.forId(0));
+    }
+
+    // Test terminu - po terminie już minionym bot każdego poziomu nie przeszukuje, ale oddaje legalny ruch
+    @Test
+    void everyLevelReturnsLegalMoveWithoutSearchAfterDeadline() {
+        GameMechanics mechanics = new GameMechanics();
+        TestPositions.Position position = TestPositions.random(mechanics, 19, 5, 200);
+        GameState state = position.state();
+        Stone color = position.toMove();
+
+        for (BotDifficulty difficulty : BotDifficulty.values()) {
+            BotStrategy bot = difficulty.createBot(mechanics);
+            Point move = bot.calculateBestMove(state, color, System.nanoTime() - 1);
+
+            assertNotNull(move, difficulty.toString());
+            assertTrue(mechanics.isMoveLegal(state, move.x, move.y, color), difficulty + ": " + move);
+            if (bot instanceof MctsBot mcts) {
+                assertEquals(0, mcts.getLastPlayoutCount(), difficulty.toString());
+            }
+            if (bot instanceof AlphaBetaBot alphaBeta) {
+                assertEquals(0, alphaBeta.getLastDepth(), difficulty.toString());
+            }
+        }
+    }
+
+    // Test końca partii - bot każdego poziomu grający sam ze sobą w końcu pasuje dwa razy z rzędu
+    @Test
+    void everyLevelFinishesGameAgainstItself() {
+        for (BotDifficulty difficulty : BotDifficulty.values()) {
+            GameMechanics mechanics = new GameMechanics();
+            BotStrategy bot = difficulty.createBot(mechanics);
+            GameState state = new GameState(9);
+            Stone color = Stone.BLACK;
+            int passes = 0;
+            int moves = 0;
+            while (passes < 2 && moves < 300) {
+                Point move = bot.calculateBestMove(state, color, System.nanoTime() + 20_000_000L);
+                if (move == null) {
+                    passes++;
+                } else {
+                    passes = 0;
+                    assertTrue(mechanics.makeMove(state, move.x, move.y, color), difficulty + ": " + move);
+                }
+                color = color.opponent();
+                moves++;
+            }
+
+            assertEquals(2, passes, difficulty + ", ruchy: " + moves);
+        }
+    }
+}
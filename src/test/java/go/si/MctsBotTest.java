@@ -0,0 +1,94 @@
+package go.si;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+
+import go.logic.Board;
+import go.logic.GameMechanics;
+import go.logic.GameState;
+import go.logic.RuleSet;
+import go.logic.Stone;
+import go.logic.TestPositions;
+import org.junit.jupiter.api.Test;
+
+class MctsBotTest {
+
+    // Test czy bot zbija kamień w atari zamiast grać gdzie indziej
+    @Test
+    void capturesStoneInAtari() {
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = new GameState(9);
+        state.getBoard().setField(4, 4, Stone.WHITE);
+        state.getBoard().setField(3, 4, Stone.BLACK);
+        state.getBoard().setField(5, 4, Stone.BLACK);
+        state.getBoard().setField(4, 3, Stone.BLACK);
+
+        MctsBot bot = new MctsBot(mechanics, 2_000, 60_000, 1);
+        assertEquals(new Point(4, 5), bot.calculateBestMove(state, Stone.BLACK));
+        assertEquals(2_000, bot.getLastPlayoutCount());
+    }
+
+    // Test powtarzalności - przy budżecie symulacji to samo ziarno daje ten sam ruch, a stan partii się nie zmienia
+    @Test
+    void sameSeedGivesSameLegalMoveAndLeavesStateUntouched() {
+        GameMechanics mechanics = new GameMechanics();
+        TestPositions.Position position = TestPositions.random(mechanics, 9, 3, 40);
+        GameState state = position.state();
+        Stone color = position.toMove();
+        Board before = new Board(9);
+        state.getBoard().copyBoard(before);
+
+        Point first = new MctsBot(mechanics, 500, 60_000, 7).calculateBestMove(state, color);
+        Point second = new MctsBot(mechanics, 500, 60_000, 7).calculateBestMove(state, color);
+
+        assertEquals(first, second);
+        assertEquals(before, state.getBoard());
+        assertTrue(mechanics.isMoveLegal(state, first.x, first.y, color));
+    }
+
+    // Test pasa - przy liczeniu terytorialnym każdy ruch we własne terytorium kosztuje punkt, więc bot pasuje
+    @Test
+    void passesWhenOnlyOwnTerritoryIsLeftUnderTerritoryScoring() {
+        GameMechanics mechanics = new GameMechanics(RuleSet.JAPANESE);
+        GameState state = settledPosition(false);
+
+        MctsBot bot = new MctsBot(mechanics, 2_000, 60_000, 5);
+        assertNull(bot.calculateBestMove(state, Stone.BLACK));
+    }
+
+    // Test braku pasa - przy liczeniu obszarowym pole niczyje jest warte punkt, więc bot je zajmuje
+    @Test
+    void fillsDameUnderAreaScoring() {
+        GameMechanics mechanics = new GameMechanics(RuleSet.CHINESE);
+        GameState state = settledPosition(true);
+
+        MctsBot bot = new MctsBot(mechanics, 2_000, 60_000, 5);
+        Point move = bot.calculateBestMove(state, Stone.BLACK);
+        assertEquals(4, move.x);
+    }
+
+    /**
+     * Rozstrzygnięta pozycja 9x9: czarne zajmują lewą część planszy, białe - kolumny od 5. Obie grupy mają
+     * po dwa oczy, czarne dodatkowo 4 pola terytorium, białe - jedno. Kolumna 4 należy do czarnych
+     * albo (przy {@code dame}) zostaje pusta jako pola niczyje.
+     */
+    private static GameState settledPosition(boolean dame) {
+        GameState state = new GameState(9);
+        Board board = state.getBoard();
+        int blackColumns = dame ? 4 : 5;
+        for (int x = 0; x < 9; x++) {
+            for (int y = 0; y < 9; y++) {
+                if (x < blackColumns) board.setField(x, y, Stone.BLACK);
+                else if (x >= 5) board.setField(x, y, Stone.WHITE);
+            }
+        }
+        int[][] empty = {{1, 1}, {1, 7}, {1, 3}, {1, 4}, {1, 5}, {2, 4}, {7, 1}, {7, 7}, {7, 4}};
+        for (int[] point : empty) {
+            board.setField(point[0], point[1], Stone.EMPTY);
+        }
+        return state;
+    }
+}
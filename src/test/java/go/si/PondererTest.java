@@ -0,0 +1,179 @@
+package go.si;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import go.logic.Board;
+import go.logic.GameMechanics;
+import go.logic.GameState;
+import go.logic.Stone;
+import go.logic.TestPositions;
+import org.junit.jupiter.api.Test;
+
+class PondererTest {
+
+    // Test przygotowania odpowiedzi - po namyśle gotowe są legalne odpowiedzi na przewidziane ruchy gracza
+    @Test
+    void preparesLegalRepliesToPredictedMoves() throws InterruptedException {
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = TestPositions.random(mechanics, 9, 3, 40).state();
+        Board before = new Board(9);
+        state.getBoard().copyBoard(before);
+
+        Ponderer ponderer = new Ponderer(new AlphaBetaBot(mechanics, 1, 1_000), mechanics, 1_000);
+        ponderer.start(state, Stone.BLACK, Stone.WHITE);
+        long giveUp = System.nanoTime() + 10_000_000_000L;
+        while (preparedCount(ponderer, 9) < 3 && System.nanoTime() < giveUp) {
+            Thread.sleep(20);
+        }
+        ponderer.stop();
+
+        assertEquals(3, preparedCount(ponderer, 9));
+        assertEquals(before, state.getBoard());
+        for (int x = 0; x < 9; x++) {
+            for (int y = 0; y < 9; y++) {
+                Ponderer.Prepared prepared = ponderer.replyTo(x, y);
+                if (prepared == null) continue;
+                GameState after = new GameState(9);
+                state.copyTo(after);
+                assertTrue(mechanics.makeMove(after, x, y, Stone.BLACK));
+                assertNotNull(prepared.move());
+                assertTrue(mechanics.isMoveLegal(after, prepared.move().x, prepared.move().y, Stone.WHITE));
+            }
+        }
+    }
+
+    // Test przerwania - stop() kończy trwający namysł, porzuca niepełne odpowiedzi i zwalnia bota
+    @Test
+    void stopCancelsSpeculativeSearchAndReleasesBot() throws InterruptedException {
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = TestPositions.random(mechanics, 9, 3, 40).state();
+        StopTrackingBot bot = new StopTrackingBot(mechanics);
+
+        Ponderer ponderer = new Ponderer(bot, mechanics, 3_000);
+        ponderer.start(state, Stone.BLACK, Stone.WHITE);
+        assertTrue(bot.pondering.await(10, TimeUnit.SECONDS));
+        ponderer.stop();
+
+        assertFalse(ponderer.isPondering());
+        assertEquals(0, preparedCount(ponderer, 9));
+        assertTrue(bot.resumed);
+        assertFalse(bot.stopped);
+        Point move = bot.calculateBestMove(state, Stone.WHITE, System.nanoTime() + 100_000_000L);
+        assertTrue(bot.getLastPlayoutCount() > 0);
+        assertTrue(mechanics.isMoveLegal(state, move.x, move.y, Stone.WHITE));
+    }
+
+    // Test izolacji - namysł nie zmienia licznika ruchów ani losowania SmartBota, więc partia toczy się jak bez niego
+    @Test
+    void ponderingDoesNotChangeSmartBotMoves() {
+        GameMechanics mechanics = new GameMechanics();
+        SmartBot pondering = new SmartBot(mechanics, 21);
+        SmartBot plain = new SmartBot(mechanics, 21);
+        Ponderer ponderer = new Ponderer(pondering, mechanics, 50);
+        GameState state = new GameState(9);
+        Stone botColor = Stone.WHITE;
+        SplittableRandom human = new SplittableRandom(4);
+
+        for (int turn = 0; turn < 20; turn++) {
+            GameState speculative = new GameState(9);
+            state.copyTo(speculative);
+            // Namysł dokończony do końca - każda przewidywana odpowiedź losuje i liczy kandydatów
+            pondering.ponderMove(speculative, botColor, Long.MAX_VALUE);
+            ponderer.start(state, Stone.BLACK, botColor);
+            ponderer.stop();
+            while (!mechanics.makeMove(state, human.nextInt(9), human.nextInt(9), Stone.BLACK)) {
+            }
+
+            Point expected = plain.calculateBestMove(state, botColor);
+            assertEquals(expected, pondering.calculateBestMove(state, botColor), "tura " + turn);
+            if (expected != null) {
+                assertTrue(mechanics.makeMove(state, expected.x, expected.y, botColor));
+            }
+        }
+    }
+
+    // Test licznika ruchów - zagrana odpowiedź z namysłu liczy się tak samo jak ruch obliczony wprost
+    @Test
+    void preparedReplyAdvancesMoveCounterLikeDirectCall() throws InterruptedException {
+        GameMechanics mechanics = new GameMechanics();
+        GameState state = TestPositions.random(mechanics, 9, 3, 40).state();
+        SmartBot pondering = new SmartBot(mechanics, 8);
+        SmartBot direct = new SmartBot(mechanics, 8);
+        pondering.calculateBestMove(state, Stone.WHITE);
+        direct.calculateBestMove(state, Stone.WHITE);
+
+        Ponderer ponderer = new Ponderer(pondering, mechanics, 1_000);
+        ponderer.start(state, Stone.BLACK, Stone.WHITE);
+        long giveUp = System.nanoTime() + 10_000_000_000L;
+        while (preparedCount(ponderer, 9) == 0 && System.nanoTime() < giveUp) {
+            Thread.sleep(20);
+        }
+        ponderer.stop();
+
+        // Gracz zagrywa pierwszy przewidziany ruch - sesja używa gotowej odpowiedzi i zgłasza to botowi
+        Point hit = null;
+        for (int x = 0; x < 9 && hit == null; x++) {
+            for (int y = 0; y < 9 && hit == null; y++) {
+                if (ponderer.replyTo(x, y) != null) hit = new Point(x, y);
+            }
+        }
+        assertNotNull(hit);
+        assertTrue(mechanics.makeMove(state, hit.x, hit.y, Stone.BLACK));
+        pondering.onPreparedMovePlayed();
+        direct.calculateBestMove(state, Stone.WHITE);
+
+        assertEquals(2, direct.getMoveCount());
+        assertEquals(direct.getMoveCount(), pondering.getMoveCount());
+    }
+
+    private static int preparedCount(Ponderer ponderer, int size) {
+        int count = 0;
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                if (ponderer.replyTo(x, y) != null) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Bot MCTS bez limitu symulacji, który zgłasza rozpoczęcie namysłu i zapamiętuje stan flagi przerwania.
+     */
+    private static final class StopTrackingBot extends MctsBot {
+
+        private final CountDownLatch pondering = new CountDownLatch(1);
+        private volatile boolean stopped;
+        private volatile boolean resumed;
+
+        private StopTrackingBot(GameMechanics mechanics) {
+            super(mechanics, Integer.MAX_VALUE, 60_000, 7);
+        }
+
+        @Override
+        public Point ponderMove(GameState state, Stone color, long deadlineNanos) {
+            pondering.countDown();
+            return super.ponderMove(state, color, deadlineNanos);
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+            super.stop();
+        }
+
+        @Override
+        public void resume() {
+            stopped = false;
+            resumed = true;
+            super.resume();
+        }
+    }
+}
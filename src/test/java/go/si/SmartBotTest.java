@@ -0,0 +1,39 @@
+package go.si;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Point;
+import java.util.concurrent.ForkJoinPool;
+
+import go.logic.GameMechanics;
+import go.logic.GameState;
+import go.logic.Stone;
+import org.junit.jupiter.api.Test;
+
+class SmartBotTest {
+
+    // Test równoległej oceny kandydatów - przy tym samym ziarnie ruchy są takie same jak przy ocenie sekwencyjnej
+    @Test
+    void parallelEvaluationMatchesSequential() {
+        GameMechanics mechanics = new GameMechanics();
+        ForkJoinPool sequentialPool = new ForkJoinPool(1);
+        ForkJoinPool parallelPool = new ForkJoinPool(4);
+        try {
+            SmartBot sequential = new SmartBot(mechanics, 5, sequentialPool);
+            SmartBot parallel = new SmartBot(mechanics, 5, parallelPool);
+            GameState state = new GameState(9);
+            Stone color = Stone.BLACK;
+            for (int move = 0; move < 30; move++) {
+                Point expected = sequential.calculateBestMove(state, color);
+                Point actual = parallel.calculateBestMove(state, color);
+                assertEquals(expected, actual, "ruch " + move);
+                if (expected == null) break;
+                mechanics.makeMove(state, expected.x, expected.y, color);
+                color = color.opponent();
+            }
+        } finally {
+            sequentialPool.shutdown();
+            parallelPool.shutdown();
+        }
+    }
+}